@@ -20,21 +20,32 @@ import facebook4j.internal.http.HttpResponse;
 import facebook4j.internal.json.z_F4JInternalFactory;
 import facebook4j.internal.json.z_F4JInternalJSONImplFactory;
 import facebook4j.internal.logging.Logger;
+import facebook4j.internal.logging.MessageSupplier;
 import facebook4j.internal.org.json.JSONArray;
 import facebook4j.internal.org.json.JSONException;
 import facebook4j.internal.org.json.JSONObject;
+import facebook4j.internal.org.json.JSONTokener;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
 
 /**
+ * A response in a batch.<br>
+ * The body is kept as UTF-8 bytes and parsed on the first call of {@link #asJSONObject()},
+ * {@link #asJSONArray()} or {@link #asResponseList()}; headers are indexed on first access.
+ *
  * @since Facebook4J 2.1.0
  */
 public class BatchResponseImpl extends HttpResponse implements BatchResponse, java.io.Serializable {
@@ -42,89 +53,80 @@ public class BatchResponseImpl extends HttpResponse implements BatchResponse, ja
 
     private static final Logger logger = Logger.getLogger(BatchResponseImpl.class);
 
-    private JSONObject json;
+    private final JSONArray headerArray;
+    // UTF-8, null when the response has no body
+    private final byte[] body;
+    private final Lock lock = new ReentrantLock();
+    private volatile Map<String, List<String>> headers;
 
-    /*package*/BatchResponseImpl(JSONObject json) {
-        this.json = json;
-        if (null != json) {
-            this.statusCode = getInt("code", json);
-        }
+    /*package*/BatchResponseImpl(int statusCode, JSONArray headers, byte[] body) {
+        this.statusCode = statusCode;
+        this.headerArray = headers;
+        this.body = body;
     }
 
-    private ConcurrentHashMap<String, List<String>> headers = new ConcurrentHashMap<String, List<String>>();
-
     @Override
     public String getResponseHeader(String name) {
-        if (json == null) return null;
-
-        if (headers.isEmpty()) {
-            cacheHeaders();
-        }
-        if (!headers.containsKey(name)) {
-            return null;
-        }
-        List<String> values = headers.get(name);
-        return values.get(values.size()-1);
+        List<String> values = getResponseHeaderFields().get(name);
+        return values == null ? null : values.get(values.size() - 1);
     }
 
     @Override
     public Map<String, List<String>> getResponseHeaderFields() {
-        if (headers.isEmpty()) {
-            cacheHeaders();
+        Map<String, List<String>> fields = headers;
+        if (fields == null) {
+            fields = new LinkedHashMap<String, List<String>>();
+            if (headerArray != null) {
+                try {
+                    for (int i = 0; i < headerArray.length(); i++) {
+                        JSONObject header = headerArray.getJSONObject(i);
+                        String n = getRawString("name", header);
+                        List<String> values = fields.get(n);
+                        if (values == null) {
+                            values = new ArrayList<String>(1);
+                            fields.put(n, values);
+                        }
+                        values.add(getRawString("value", header));
+                    }
+                } catch (JSONException ignore) {}
+            }
+            headers = fields;
         }
-        return headers;
+        return fields;
     }
 
-    private void cacheHeaders() {
-        try {
-            JSONArray array = json.getJSONArray("headers");
-            for (int i = 0; i < array.length(); i++) {
-                JSONObject headersJsonObject = array.getJSONObject(i);
-                String n = getRawString("name", headersJsonObject);
-                String v = getRawString("value", headersJsonObject);
-                synchronized (headers) {
-                    List<String> values = headers.get(n);
-                    if (values == null) {
-                        values = new ArrayList<String>();
-                    }
-                    values.add(v);
-                    headers.put(n, values);
-                }
-            }
-        } catch (JSONException ignore) {}
+    /*package*/ int getBodyLength() {
+        return body == null ? 0 : body.length;
     }
 
     @Override
     public String asString() throws FacebookException {
-        if (null == responseAsString) {
-            if (null != json) {
-                responseAsString = getRawString("body", json);
+        lock.lock();
+        try {
+            if (null == responseAsString && null != body) {
+                responseAsString = new String(body, "UTF-8");
             }
+            return responseAsString;
+        } catch (UnsupportedEncodingException neverHappen) {
+            throw new AssertionError(neverHappen);
+        } finally {
+            lock.unlock();
         }
-        return responseAsString;
     }
 
     private JSONObject bodyJson = null;
 
     @Override
     public JSONObject asJSONObject() throws FacebookException {
-        if (bodyJson == null) {
-            try {
-                bodyJson = new JSONObject(asString());
-                if (CONF.isPrettyDebugEnabled()) {
-                    logger.debug(bodyJson.toString(1));
-                } else {
-                    logger.debug(responseAsString != null ? responseAsString : bodyJson.toString());
-                }
-            } catch (JSONException jsone) {
-                if (responseAsString == null) {
-                    throw new FacebookException(jsone.getMessage(), jsone);
-                } else {
-                    throw new FacebookException(jsone.getMessage() + ":" + this.responseAsString, jsone);
-                }
+        lock.lock();
+        try {
+            if (bodyJson == null) {
+                bodyJson = (JSONObject) parse(true);
             }
+            return bodyJson;
+        } finally {
+            lock.unlock();
         }
-        return bodyJson;
     }
 
     private final z_F4JInternalFactory factory = new z_F4JInternalJSONImplFactory(null);
@@ -137,23 +139,63 @@ public class BatchResponseImpl extends HttpResponse implements BatchResponse, ja
 
     @Override
     public JSONArray asJSONArray() throws FacebookException {
-        if (bodyJsonArray == null) {
-            try {
-                bodyJsonArray = new JSONArray(asString());
-                if (CONF.isPrettyDebugEnabled()) {
-                    logger.debug(bodyJsonArray.toString(1));
-                } else {
-                    logger.debug(responseAsString != null ? responseAsString : bodyJsonArray.toString());
-                }
-            } catch (JSONException jsone) {
-                if (responseAsString == null) {
-                    throw new FacebookException(jsone.getMessage(), jsone);
-                } else {
-                    throw new FacebookException(jsone.getMessage() + ":" + this.responseAsString, jsone);
+        lock.lock();
+        try {
+            if (bodyJsonArray == null) {
+                bodyJsonArray = (JSONArray) parse(false);
+            }
+            return bodyJsonArray;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Parses the body ahead of use, as a JSONObject or a JSONArray depending on its first character.
+     * A malformed body is left for the accessor to report.
+     */
+    /*package*/ void parseBody() {
+        for (int i = 0; body != null && i < body.length; i++) {
+            if (!Character.isWhitespace(body[i])) {
+                try {
+                    if (body[i] == '{') {
+                        asJSONObject();
+                    } else if (body[i] == '[') {
+                        asJSONArray();
+                    }
+                } catch (FacebookException ignore) {
                 }
+                return;
             }
         }
-        return bodyJsonArray;
+    }
+
+    private Object parse(boolean object) throws FacebookException {
+        if (body == null) {
+            throw new FacebookException("The response has no body.");
+        }
+        try {
+            JSONTokener x = responseAsString != null ? new JSONTokener(responseAsString)
+                    : new JSONTokener(new InputStreamReader(new ByteArrayInputStream(body), "UTF-8"));
+            final Object json = object ? new JSONObject(x) : new JSONArray(x);
+            logger.debug(new MessageSupplier() {
+                public String get() {
+                    try {
+                        if (CONF.isPrettyDebugEnabled()) {
+                            return json instanceof JSONObject ? ((JSONObject) json).toString(1)
+                                    : ((JSONArray) json).toString(1);
+                        }
+                    } catch (JSONException ignore) {
+                    }
+                    return json.toString();
+                }
+            });
+            return json;
+        } catch (UnsupportedEncodingException neverHappen) {
+            throw new AssertionError(neverHappen);
+        } catch (JSONException jsone) {
+            throw new FacebookException(jsone.getMessage() + ":" + asString(), jsone);
+        }
     }
 
     @Override
@@ -173,10 +215,15 @@ public class BatchResponseImpl extends HttpResponse implements BatchResponse, ja
 
     @Override
     public String toString() {
+        String bodyString = null;
+        try {
+            bodyString = asString();
+        } catch (FacebookException ignore) {
+        }
         return "BatchResponse{" +
                 "statusCode=" + statusCode +
-                ", responseAsString=" + responseAsString +
-                ", json=" + json +
+                ", headers=" + headerArray +
+                ", body=" + bodyString +
                 '}';
     }
 }
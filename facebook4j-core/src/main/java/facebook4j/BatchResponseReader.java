@@ -0,0 +1,282 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j;
+
+import facebook4j.internal.org.json.JSONArray;
+import facebook4j.internal.org.json.JSONException;
+import facebook4j.internal.org.json.JSONObject;
+import facebook4j.internal.org.json.JSONTokener;
+import facebook4j.internal.util.z_F4JDaemonThreadFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads a batch response <code>[{"code":..., "headers":[...], "body":"..."}, ...]</code> item by item.<br>
+ * Each body is a JSON text escaped into a string. It is unescaped straight into UTF-8 bytes and left unparsed, so
+ * a batch costs one pass over the response plus one parse of each body actually used.
+ */
+/*package*/ final class BatchResponseReader {
+    /** below this many body bytes in total, parsing all bodies on one thread is faster than handing them out */
+    /*package*/ static final int PARALLEL_THRESHOLD = 64 * 1024;
+
+    private static final ThreadFactory THREAD_FACTORY = new z_F4JDaemonThreadFactory("facebook4j-batch");
+
+    private byte[] buf = new byte[1024];
+    private int count;
+
+    /**
+     * @param reader response body, closed when done
+     * @return the responses, null for the items the Graph API omitted
+     * @throws FacebookException when the response is malformed
+     */
+    /*package*/ static List<BatchResponse> read(Reader reader) throws FacebookException {
+        try {
+            return new BatchResponseReader().readArray(new JSONTokener(reader));
+        } catch (JSONException jsone) {
+            throw new FacebookException(jsone.getMessage(), jsone);
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    private List<BatchResponse> readArray(JSONTokener x) throws JSONException {
+        if (x.nextClean() != '[') {
+            throw x.syntaxError("A JSONArray text must start with '['");
+        }
+        List<BatchResponse> responses = new ArrayList<BatchResponse>();
+        while (true) {
+            char c = x.nextClean();
+            if (c == ']') {
+                return responses;
+            }
+            if (c == 0) {
+                throw x.syntaxError("A JSONArray text must end with ']'");
+            }
+            if (c == ',') {
+                continue;
+            }
+            if (c == '{') {
+                responses.add(readItem(x));
+            } else {
+                x.back();
+                if (x.nextValue() != JSONObject.NULL) {
+                    throw x.syntaxError("A batch response item must be a JSONObject");
+                }
+                responses.add(null);
+            }
+        }
+    }
+
+    private BatchResponseImpl readItem(JSONTokener x) throws JSONException {
+        int code = -1;
+        JSONArray headers = null;
+        byte[] body = null;
+        String key;
+        while ((key = StreamingJSON.nextKey(x)) != null) {
+            if ("body".equals(key)) {
+                if (x.nextClean() == '"') {
+                    body = readString(x);
+                } else {
+                    x.back();
+                    Object value = x.nextValue();
+                    body = value == JSONObject.NULL ? null : utf8(value.toString());
+                }
+            } else {
+                Object value = x.nextValue();
+                if ("code".equals(key) && value instanceof Number) {
+                    code = ((Number) value).intValue();
+                } else if ("headers".equals(key) && value instanceof JSONArray) {
+                    headers = (JSONArray) value;
+                }
+            }
+        }
+        return new BatchResponseImpl(code, headers, body);
+    }
+
+    /**
+     * Unescapes a JSON string, the opening quote already read, into UTF-8 bytes.
+     */
+    private byte[] readString(JSONTokener x) throws JSONException {
+        count = 0;
+        char high = 0;
+        while (true) {
+            char c = x.next();
+            switch (c) {
+                case 0:
+                case '\n':
+                case '\r':
+                    throw x.syntaxError("Unterminated string");
+                case '"':
+                    if (high != 0) {
+                        write('?');
+                    }
+                    byte[] bytes = new byte[count];
+                    System.arraycopy(buf, 0, bytes, 0, count);
+                    return bytes;
+                case '\\':
+                    c = unescape(x);
+                    break;
+                default:
+                    break;
+            }
+            if (Character.isHighSurrogate(c)) {
+                if (high != 0) {
+                    write('?');
+                }
+                high = c;
+                continue;
+            }
+            if (Character.isLowSurrogate(c)) {
+                if (high == 0) {
+                    write('?');
+                } else {
+                    writeCodePoint(Character.toCodePoint(high, c));
+                }
+                high = 0;
+                continue;
+            }
+            if (high != 0) {
+                write('?');
+                high = 0;
+            }
+            writeCodePoint(c);
+        }
+    }
+
+    private static char unescape(JSONTokener x) throws JSONException {
+        char c = x.next();
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'f':
+                return '\f';
+            case 'r':
+                return '\r';
+            case 'u':
+                try {
+                    return (char) Integer.parseInt(x.next(4), 16);
+                } catch (NumberFormatException nfe) {
+                    throw x.syntaxError("Illegal escape.");
+                }
+            case '"':
+            case '\'':
+            case '\\':
+            case '/':
+                return c;
+            default:
+                throw x.syntaxError("Illegal escape.");
+        }
+    }
+
+    private void writeCodePoint(int cp) {
+        if (cp < 0x80) {
+            write(cp);
+        } else if (cp < 0x800) {
+            write(0xc0 | (cp >> 6));
+            write(0x80 | (cp & 0x3f));
+        } else if (cp < 0x10000) {
+            write(0xe0 | (cp >> 12));
+            write(0x80 | ((cp >> 6) & 0x3f));
+            write(0x80 | (cp & 0x3f));
+        } else {
+            write(0xf0 | (cp >> 18));
+            write(0x80 | ((cp >> 12) & 0x3f));
+            write(0x80 | ((cp >> 6) & 0x3f));
+            write(0x80 | (cp & 0x3f));
+        }
+    }
+
+    private void write(int b) {
+        if (count == buf.length) {
+            byte[] grown = new byte[buf.length * 2];
+            System.arraycopy(buf, 0, grown, 0, count);
+            buf = grown;
+        }
+        buf[count++] = (byte) b;
+    }
+
+    private static byte[] utf8(String str) {
+        try {
+            return str.getBytes("UTF-8");
+        } catch (java.io.UnsupportedEncodingException neverHappen) {
+            throw new AssertionError(neverHappen);
+        }
+    }
+
+    /**
+     * Parses the body of every response, on several threads when the bodies are large enough to be worth it.
+     *
+     * @param responses   responses as read
+     * @param parallelism maximum number of threads
+     * @throws FacebookException when interrupted
+     */
+    /*package*/ static void parseAll(List<BatchResponse> responses, int parallelism) throws FacebookException {
+        final List<BatchResponseImpl> items = new ArrayList<BatchResponseImpl>(responses.size());
+        long bytes = 0;
+        for (BatchResponse response : responses) {
+            if (response != null) {
+                BatchResponseImpl item = (BatchResponseImpl) response;
+                items.add(item);
+                bytes += item.getBodyLength();
+            }
+        }
+        final AtomicInteger next = new AtomicInteger();
+        Runnable worker = new Runnable() {
+            public void run() {
+                int i;
+                while ((i = next.getAndIncrement()) < items.size()) {
+                    items.get(i).parseBody();
+                }
+            }
+        };
+        int threads = Math.min(parallelism, items.size()) - 1;
+        if (threads <= 0 || bytes < PARALLEL_THRESHOLD) {
+            worker.run();
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads, THREAD_FACTORY);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(worker);
+            }
+            // the calling thread takes its share too
+            worker.run();
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new FacebookException(ie);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Objects fetched by a multi-id lookup, keyed by the requested id, along with the ids which could not be fetched.
+ */
+public class BulkResult<T> implements java.io.Serializable {
+    private static final long serialVersionUID = -3712849126610938472L;
+
+    private final Map<String, T> results;
+    private final Map<String, FacebookException> errors;
+
+    /*package*/ BulkResult(Map<String, T> results, Map<String, FacebookException> errors) {
+        this.results = Collections.unmodifiableMap(results);
+        this.errors = Collections.unmodifiableMap(errors);
+    }
+
+    /**
+     * @return fetched objects in the order of the requested ids
+     */
+    public Map<String, T> getResults() {
+        return results;
+    }
+
+    public T get(String id) {
+        return results.get(id);
+    }
+
+    /**
+     * @return the cause of failure for each id which could not be fetched
+     */
+    public Map<String, FacebookException> getErrors() {
+        return errors;
+    }
+
+    public boolean hasErrors() {
+        return errors.size() > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkResult{" +
+                "results=" + results +
+                ", errors=" + errors +
+                '}';
+    }
+}
@@ -40,6 +40,11 @@ public interface Comment extends FacebookResponse {
 
     Comment getParent();
 
+    /**
+     * @return replies to this comment, decoded when requested through field expansion such as <code>comments{comments}</code>
+     */
+    PagableList<Comment> getComments();
+
     interface Attachment {
         String getDescription();
         AttachmentMedia getMedia();
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caches objects fetched by id, such as users, pages and posts, together with the fields they were fetched with.<br>
+ * An object fetched with a set of fields also answers later requests for any subset of them; an object fetched
+ * with the default fields only answers requests for the default fields. Entries expire after a time to live and
+ * the least recently used ids are evicted beyond the maximum size.<br>
+ * Only requests whose sole parameter is <code>fields</code> are cached. What an object shows depends on who asks,
+ * so entries are also keyed by a scope derived from the access token (see {@link #scopeOf(String)}), and
+ * <code>me</code> is never cached.
+ */
+/*package*/ final class EntityCache {
+    /** field sets kept per id */
+    private static final int MAX_VARIANTS = 4;
+
+    private final long ttlNanos;
+    private final Map<String, List<Entry>> entries;
+    private final Lock lock = new ReentrantLock();
+
+    /*package*/ EntityCache(final int maxSize, int ttlSeconds) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<String, List<Entry>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<Entry>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /*package*/ static boolean isCacheable(Reading reading) {
+        return reading == null || reading.isFieldsOnly();
+    }
+
+    /*package*/ static boolean isCacheableId(String id) {
+        return id != null && !"me".equals(id);
+    }
+
+    /**
+     * @return a digest of the access token, so that the cache does not hold tokens in the clear
+     */
+    /*package*/ static String scopeOf(String accessToken) {
+        if (accessToken == null) {
+            return "";
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(accessToken.getBytes("UTF-8"));
+            StringBuilder buf = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                buf.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return buf.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /*package*/ <T> T get(Class<T> type, String scope, String id, Reading reading) {
+        Set<String> fields = fieldsOf(reading);
+        String key = keyOf(type, scope, id);
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            List<Entry> variants = entries.get(key);
+            if (variants == null) {
+                return null;
+            }
+            for (Iterator<Entry> it = variants.iterator(); it.hasNext(); ) {
+                Entry entry = it.next();
+                if (now - entry.expiresAt >= 0) {
+                    it.remove();
+                } else if (entry.covers(fields)) {
+                    return type.cast(entry.entity);
+                }
+            }
+            if (variants.isEmpty()) {
+                entries.remove(key);
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*package*/ <T> void put(Class<T> type, String scope, String id, Reading reading, T entity) {
+        if (entity == null) {
+            return;
+        }
+        Entry added = new Entry(fieldsOf(reading), entity, System.nanoTime() + ttlNanos);
+        String key = keyOf(type, scope, id);
+        lock.lock();
+        try {
+            List<Entry> variants = entries.get(key);
+            if (variants == null) {
+                variants = new ArrayList<Entry>(2);
+                entries.put(key, variants);
+            }
+            // drop the entries the new one makes redundant
+            for (Iterator<Entry> it = variants.iterator(); it.hasNext(); ) {
+                if (added.covers(it.next().fields)) {
+                    it.remove();
+                }
+            }
+            variants.add(0, added);
+            if (variants.size() > MAX_VARIANTS) {
+                variants.remove(variants.size() - 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets every cached object of the id in every scope, e.g. after it was deleted or updated.
+     */
+    /*package*/ void invalidate(String id) {
+        String suffix = ":" + id;
+        lock.lock();
+        try {
+            for (Iterator<String> it = entries.keySet().iterator(); it.hasNext(); ) {
+                if (it.next().endsWith(suffix)) {
+                    it.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String keyOf(Class<?> type, String scope, String id) {
+        return type.getName() + ":" + scope + ":" + id;
+    }
+
+    /**
+     * @return the requested fields, or null for the default fields
+     */
+    /*package*/ static Set<String> fieldsOf(Reading reading) {
+        String value = reading == null ? null : reading.getFields();
+        if (value == null) {
+            return null;
+        }
+        Set<String> fields = new HashSet<String>();
+        // the id comes back whether requested or not
+        fields.add("id");
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i <= value.length(); i++) {
+            char c = i < value.length() ? value.charAt(i) : ',';
+            if (c == '{' || c == '(') {
+                depth++;
+            } else if (c == '}' || c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                String field = value.substring(start, i).trim();
+                if (field.length() > 0) {
+                    fields.add(field);
+                }
+                start = i + 1;
+            }
+        }
+        return Collections.unmodifiableSet(fields);
+    }
+
+    private static final class Entry {
+        private final Set<String> fields;
+        private final Object entity;
+        private final long expiresAt;
+
+        Entry(Set<String> fields, Object entity, long expiresAt) {
+            this.fields = fields;
+            this.entity = entity;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean covers(Set<String> requested) {
+            if (fields == null || requested == null) {
+                return fields == requested;
+            }
+            return fields.containsAll(requested);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j;
+
+import facebook4j.internal.org.json.JSONException;
+import facebook4j.internal.org.json.JSONObject;
+import facebook4j.internal.org.json.JSONTokener;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads an FQL response row by row without materializing the <code>data</code> array.<br>
+ * A single query answers <code>{"data":[row, ...]}</code>, a multi-query answers
+ * <code>{"data":[{"name":..., "fql_result_set":[row, ...]}, ...]}</code>. The name may follow the result set,
+ * in which case the rows of that query are held until the name is read.
+ */
+/*package*/ final class FQLResultReader {
+    private FQLResultReader() {
+        throw new AssertionError();
+    }
+
+    /**
+     * @param reader  response body, closed when done
+     * @param multi   whether the response is a multi-query result
+     * @param handler receives the rows
+     * @return number of rows read
+     * @throws FacebookException when the response is malformed or the handler aborted
+     */
+    /*package*/ static int read(Reader reader, boolean multi, FQLRowHandler handler) throws FacebookException {
+        try {
+            JSONTokener x = new JSONTokener(reader);
+            if (x.nextClean() != '{') {
+                throw x.syntaxError("A JSONObject text must begin with '{'");
+            }
+            int rows = 0;
+            String key;
+            while ((key = StreamingJSON.nextKey(x)) != null) {
+                if (!"data".equals(key)) {
+                    x.nextValue();
+                } else if (multi) {
+                    rows += readResultSets(x, handler);
+                } else {
+                    rows += readRows(x, null, handler, null);
+                }
+            }
+            return rows;
+        } catch (JSONException jsone) {
+            throw new FacebookException(jsone.getMessage(), jsone);
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    private static int readResultSets(JSONTokener x, FQLRowHandler handler) throws JSONException, FacebookException {
+        if (x.nextClean() != '[') {
+            throw x.syntaxError("A JSONArray text must start with '['");
+        }
+        int rows = 0;
+        while (true) {
+            char c = x.nextClean();
+            if (c == ']') {
+                return rows;
+            }
+            if (c == 0) {
+                throw x.syntaxError("A JSONArray text must end with ']'");
+            }
+            if (c == ',') {
+                continue;
+            }
+            if (c != '{') {
+                throw x.syntaxError("A JSONObject text must begin with '{'");
+            }
+            String name = null;
+            List<JSONObject> pending = null;
+            String key;
+            while ((key = StreamingJSON.nextKey(x)) != null) {
+                if ("name".equals(key)) {
+                    name = x.nextValue().toString();
+                } else if ("fql_result_set".equals(key)) {
+                    if (name == null) {
+                        pending = new ArrayList<JSONObject>();
+                    }
+                    rows += readRows(x, name, handler, pending);
+                } else {
+                    x.nextValue();
+                }
+            }
+            if (pending != null) {
+                for (JSONObject row : pending) {
+                    handler.onRow(name, row);
+                }
+            }
+        }
+    }
+
+    private static int readRows(JSONTokener x, String name, FQLRowHandler handler, List<JSONObject> pending)
+            throws JSONException, FacebookException {
+        if (x.nextClean() != '[') {
+            throw x.syntaxError("A JSONArray text must start with '['");
+        }
+        int rows = 0;
+        while (true) {
+            char c = x.nextClean();
+            if (c == ']') {
+                return rows;
+            }
+            if (c == 0) {
+                throw x.syntaxError("A JSONArray text must end with ']'");
+            }
+            if (c == ',') {
+                continue;
+            }
+            x.back();
+            Object row = x.nextValue();
+            if (!(row instanceof JSONObject)) {
+                throw x.syntaxError("An FQL row must be a JSONObject");
+            }
+            if (pending != null) {
+                pending.add((JSONObject) row);
+            } else {
+                handler.onRow(name, (JSONObject) row);
+            }
+            rows++;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j;
+
+import facebook4j.internal.org.json.JSONObject;
+
+/**
+ * Receives the rows of an FQL result one by one, as they are read from the response.
+ *
+ * @see facebook4j.api.FQLMethods#executeFQL(String, java.util.Locale, FQLRowHandler)
+ * @see facebook4j.api.FQLMethods#executeMultiFQL(java.util.Map, java.util.Locale, FQLRowHandler)
+ */
+public interface FQLRowHandler {
+    /**
+     * @param queryName name of the query the row belongs to, or null for a single query
+     * @param row       the row
+     * @throws FacebookException to abort reading the result
+     */
+    void onRow(String queryName, JSONObject row) throws FacebookException;
+}
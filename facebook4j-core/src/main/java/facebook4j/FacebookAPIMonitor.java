@@ -15,10 +15,12 @@
  */
 package facebook4j;
 
+import facebook4j.internal.http.HttpClientWrapper;
 import facebook4j.internal.logging.Logger;
 import facebook4j.management.APIStatistics;
 import facebook4j.management.APIStatisticsMBean;
 import facebook4j.management.APIStatisticsOpenMBean;
+import facebook4j.management.SingleFlightStatisticsMBean;
 
 import javax.management.InstanceAlreadyExistsException;
 import javax.management.MBeanRegistrationException;
@@ -57,6 +59,8 @@ public class FacebookAPIMonitor {
             ObjectName oName = new ObjectName("facebook4j.mbean:type=APIStatisticsOpenMBean");
             APIStatisticsOpenMBean openMBean = new APIStatisticsOpenMBean(STATISTICS);
             mbs.registerMBean(openMBean, oName);
+            mbs.registerMBean(HttpClientWrapper.getSingleFlightStatistics(),
+                    new ObjectName("facebook4j.mbean:type=SingleFlightStatistics"));
         } catch (InstanceAlreadyExistsException e) {
             e.printStackTrace();
             logger.error(e.getMessage());
@@ -86,6 +90,10 @@ public class FacebookAPIMonitor {
         return STATISTICS;
     }
 
+    public SingleFlightStatisticsMBean getSingleFlightStatistics() {
+        return HttpClientWrapper.getSingleFlightStatistics();
+    }
+
     void methodCalled(String facebookUrl, long elapsedTime, boolean success) {
         try {
             URL url = new URL(facebookUrl);
@@ -16,9 +16,13 @@
 
 package facebook4j;
 
+import facebook4j.auth.AccessToken;
+import facebook4j.auth.AccessTokenPool;
 import facebook4j.auth.Authorization;
 import facebook4j.conf.Configuration;
 
+import java.net.URL;
+
 
 /**
  * @author Ryuji Yamashita - roundrop at gmail.com
@@ -79,6 +83,43 @@ public interface FacebookBase {
      */
     <T> ResponseList<T> fetchPrevious(Paging<T> paging) throws FacebookException;
 
+    /**
+     * Fetches a page as-is, without decoding it into entities.<br>
+     * The access token is added unless the URL already carries one, as <code>paging.next</code> links do.
+     *
+     * @param url URL of the page, e.g. {@link Paging#getNext()}
+     * @return the page
+     * @throws FacebookException when Facebook service or network is unavailable
+     */
+    RawAPIResponse fetchPage(URL url) throws FacebookException;
+
+    /**
+     * Returns a view of this instance calling the Graph API with another access token of the same app.<br>
+     * The view shares this instance's HTTP client, configuration and caches, so it is cheap to create per call
+     * or per tenant. Shutting the view down has no effect; shut this instance down instead.
+     *
+     * @param accessToken the access token
+     * @return the view
+     * @throws IllegalStateException when this instance has no OAuth app id/secret
+     */
+    Facebook withAccessToken(AccessToken accessToken);
+
+    /**
+     * Makes every call draw its access token from the pool rather than use this instance's own token.
+     * Calls with an explicit <code>access_token</code> parameter and calls of views returned by
+     * {@link #withAccessToken(AccessToken)} are not affected. Calls on <code>me</code> resolve to whichever
+     * token is drawn.
+     *
+     * @param pool the pool, or null to use this instance's own token again
+     * @throws IllegalStateException when this instance has no OAuth app id/secret
+     */
+    void setAccessTokenPool(AccessTokenPool pool);
+
+    /**
+     * @return the pool tokens are drawn from, or null
+     */
+    AccessTokenPool getAccessTokenPool();
+
     /**
      * Shuts down this instance and releases allocated resources.
      */
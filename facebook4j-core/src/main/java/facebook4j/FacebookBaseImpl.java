@@ -17,6 +17,7 @@
 package facebook4j;
 
 import facebook4j.auth.AccessToken;
+import facebook4j.auth.AccessTokenPool;
 import facebook4j.auth.AuthOption;
 import facebook4j.auth.Authorization;
 import facebook4j.auth.DeviceCode;
@@ -34,6 +35,8 @@ import facebook4j.internal.org.json.JSONObject;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Base class of Facebook supports OAuth.
@@ -52,13 +55,33 @@ abstract class FacebookBaseImpl implements Serializable, OAuthSupport {
     protected transient String id;
     protected transient String name;
 
+    // guards the OAuth token exchanges; a j.u.c lock so that virtual threads are not pinned during the HTTP call
+    private transient Lock oauthLock;
+
+    protected transient volatile AccessTokenPool tokenPool;
+    // views created by withAccessToken() share the HTTP client of the instance they were created from
+    private transient boolean sharedHttp;
+
     /*package*/ FacebookBaseImpl(Configuration conf, Authorization auth) {
         this.conf = conf;
         this.auth = auth;
         init();
     }
 
+    /**
+     * Creates a view of the instance with another authorization, sharing its HTTP client and factory.
+     */
+    /*package*/ FacebookBaseImpl(FacebookBaseImpl base, Authorization auth) {
+        this.conf = base.conf;
+        this.auth = auth;
+        this.http = base.http;
+        this.factory = base.factory;
+        this.oauthLock = new ReentrantLock();
+        this.sharedHttp = true;
+    }
+
     private void init() {
+        oauthLock = new ReentrantLock();
         if (null == auth) {
             // try to populate OAuthAuthorization if available in the configuration
             String appId = conf.getOAuthAppId();
@@ -145,15 +168,26 @@ abstract class FacebookBaseImpl implements Serializable, OAuthSupport {
         return this.conf;
     }
 
+    public void setAccessTokenPool(AccessTokenPool pool) {
+        if (pool != null && !(auth instanceof OAuthAuthorization)) {
+            throw new IllegalStateException("OAuth app id/secret combination not supplied");
+        }
+        this.tokenPool = pool;
+    }
+
+    public AccessTokenPool getAccessTokenPool() {
+        return tokenPool;
+    }
+
     /**
      * {@inheritDoc}
      */
     public void shutdown() {
-        if (http != null) http.shutdown();
+        if (http != null && !sharedHttp) http.shutdown();
     }
 
     protected final void ensureAuthorizationEnabled() {
-        if (!auth.isEnabled()) {
+        if (!auth.isEnabled() && tokenPool == null) {
             throw new IllegalStateException("Authentication credentials are missing.");
         }
     }
@@ -175,6 +209,7 @@ abstract class FacebookBaseImpl implements Serializable, OAuthSupport {
         conf = (Configuration) stream.readObject();
         auth = (Authorization) stream.readObject();
         http = new HttpClientWrapper(conf);
+        oauthLock = new ReentrantLock();
         setFactory();
     }
 
@@ -240,15 +275,25 @@ abstract class FacebookBaseImpl implements Serializable, OAuthSupport {
     /**
      * {@inheritDoc}
      */
-    synchronized public AccessToken getOAuthAccessToken(String oauthCode) throws FacebookException {
-        return getOAuth().getOAuthAccessToken(oauthCode);
+    public AccessToken getOAuthAccessToken(String oauthCode) throws FacebookException {
+        oauthLock.lock();
+        try {
+            return getOAuth().getOAuthAccessToken(oauthCode);
+        } finally {
+            oauthLock.unlock();
+        }
     }
 
     /**
      * {@inheritDoc}
      */
-    synchronized public AccessToken getOAuthAccessToken(String oauthCode, String callbackURL) throws FacebookException {
-        return getOAuth().getOAuthAccessToken(oauthCode, callbackURL);
+    public AccessToken getOAuthAccessToken(String oauthCode, String callbackURL) throws FacebookException {
+        oauthLock.lock();
+        try {
+            return getOAuth().getOAuthAccessToken(oauthCode, callbackURL);
+        } finally {
+            oauthLock.unlock();
+        }
     }
 
     /**
@@ -258,12 +303,22 @@ abstract class FacebookBaseImpl implements Serializable, OAuthSupport {
         return getOAuth().getOAuthAppAccessToken();
     }
 
-    synchronized public DeviceCode getOAuthDeviceCode() throws FacebookException {
-        return getOAuth().getOAuthDeviceCode();
+    public DeviceCode getOAuthDeviceCode() throws FacebookException {
+        oauthLock.lock();
+        try {
+            return getOAuth().getOAuthDeviceCode();
+        } finally {
+            oauthLock.unlock();
+        }
     }
 
-    synchronized public AccessToken getOAuthDeviceToken(DeviceCode deviceCode) throws FacebookException {
-        return getOAuth().getOAuthDeviceToken(deviceCode);
+    public AccessToken getOAuthDeviceToken(DeviceCode deviceCode) throws FacebookException {
+        oauthLock.lock();
+        try {
+            return getOAuth().getOAuthDeviceToken(deviceCode);
+        } finally {
+            oauthLock.unlock();
+        }
     }
     
     /**
@@ -119,7 +119,7 @@ public class FacebookException extends Exception {
         String value = null;
         if (response != null) {
             List<String> header = response.getResponseHeaderFields().get(name);
-            if (header.size() > 0) {
+            if (header != null && header.size() > 0) {
                 value = header.get(0);
             }
         }
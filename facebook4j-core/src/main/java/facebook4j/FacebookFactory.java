@@ -39,6 +39,7 @@ import facebook4j.conf.ConfigurationContext;
  * </ul>
  */
 public final class FacebookFactory implements java.io.Serializable {
+    // null for the default FacebookImpl, which is created without reflection so that native images need no metadata
     private static final Constructor<Facebook> FACEBOOK_CONSTRUCTOR;
     /*AsyncFacebookFactory and TWitterStream will access this field*/
     static final Authorization DEFAULT_AUTHORIZATION = AuthorizationFactory.getInstance(ConfigurationContext.getInstance());
@@ -47,32 +48,28 @@ public final class FacebookFactory implements java.io.Serializable {
     private final Configuration conf;
 
     static {
-        String className = null;
+        Constructor<Facebook> constructor = null;
         if (ConfigurationContext.getInstance().isGAE()) {
             final String APP_ENGINE_TWITTER_IMPL = "facebook4j.AppEngineFacebookImpl";
             try {
-                Class.forName(APP_ENGINE_TWITTER_IMPL);
-                className = APP_ENGINE_TWITTER_IMPL;
+                Class clazz = Class.forName(APP_ENGINE_TWITTER_IMPL);
+                constructor = clazz.getDeclaredConstructor(Configuration.class, Authorization.class);
             } catch (ClassNotFoundException ignore) {
+            } catch (NoSuchMethodException e) {
+                throw new AssertionError(e);
             }
         }
-        if (className == null) {
-            className = "facebook4j.FacebookImpl";
-        }
-        Constructor<Facebook> constructor;
-        Class clazz;
-        try {
-            clazz = Class.forName(className);
-            constructor = clazz.getDeclaredConstructor(Configuration.class, Authorization.class);
-        } catch (NoSuchMethodException e) {
-            throw new AssertionError(e);
-        } catch (ClassNotFoundException e) {
-            throw new AssertionError(e);
-        }
         FACEBOOK_CONSTRUCTOR = constructor;
 
+        SINGLETON = newInstance(ConfigurationContext.getInstance(), DEFAULT_AUTHORIZATION);
+    }
+
+    private static Facebook newInstance(Configuration conf, Authorization auth) {
+        if (FACEBOOK_CONSTRUCTOR == null) {
+            return new FacebookImpl(conf, auth);
+        }
         try {
-            SINGLETON = FACEBOOK_CONSTRUCTOR.newInstance(ConfigurationContext.getInstance(), DEFAULT_AUTHORIZATION);
+            return FACEBOOK_CONSTRUCTOR.newInstance(conf, auth);
         } catch (InstantiationException e) {
             throw new AssertionError(e);
         } catch (IllegalAccessException e) {
@@ -141,15 +138,7 @@ public final class FacebookFactory implements java.io.Serializable {
     }
 
     public Facebook getInstance(Authorization auth) {
-        try {
-            return FACEBOOK_CONSTRUCTOR.newInstance(conf, auth);
-        } catch (InstantiationException e) {
-            throw new AssertionError(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new AssertionError(e);
-        }
+        return newInstance(conf, auth);
     }
 
     /**
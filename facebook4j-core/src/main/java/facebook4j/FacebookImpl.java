@@ -24,6 +24,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -64,10 +65,14 @@ import facebook4j.api.SubscribeMethods;
 import facebook4j.api.TestUserMethods;
 import facebook4j.api.UserMethods;
 import facebook4j.api.VideoMethods;
+import facebook4j.auth.AccessToken;
+import facebook4j.auth.AccessTokenPool;
 import facebook4j.auth.Authorization;
+import facebook4j.auth.OAuthAuthorization;
 import facebook4j.conf.Configuration;
 import facebook4j.internal.http.HttpParameter;
 import facebook4j.internal.http.HttpResponse;
+import facebook4j.internal.http.RequestMethod;
 import facebook4j.internal.org.json.JSONArray;
 import facebook4j.internal.org.json.JSONException;
 import facebook4j.internal.org.json.JSONObject;
@@ -83,11 +88,76 @@ import facebook4j.internal.util.z_F4JInternalStringUtil;
 class FacebookImpl extends FacebookBaseImpl implements Facebook {
     private static final long serialVersionUID = 6277119018105563020L;
 
+    // longer FQL request URLs are rejected by some proxies and servers
+    private static final int MAX_FQL_URL_LENGTH = 2000;
+
     /*package*/
     FacebookImpl(Configuration conf, Authorization auth) {
         super(conf, auth);
     }
 
+    private FacebookImpl(FacebookImpl base, Authorization auth) {
+        super(base, auth);
+    }
+
+    public Facebook withAccessToken(AccessToken accessToken) {
+        if (!(auth instanceof OAuthAuthorization)) {
+            throw new IllegalStateException("OAuth app id/secret combination not supplied");
+        }
+        return new FacebookImpl(this, ((OAuthAuthorization) auth).withAccessToken(accessToken));
+    }
+
+    private transient volatile EntityCache entityCache;
+    // the last access token seen by entityCacheScope() and its digest
+    private transient volatile String[] entityCacheScope;
+
+    /**
+     * @return the entity cache if enabled and the reading can be answered from it, otherwise null
+     */
+    private EntityCache entityCache(String id, Reading reading) {
+        if (conf.getEntityCacheSize() <= 0 || !EntityCache.isCacheable(reading) || !EntityCache.isCacheableId(id)) {
+            return null;
+        }
+        if (tokenPool != null) {
+            // the token is chosen per request, so the scope of the response is not known here
+            return null;
+        }
+        EntityCache cache = entityCache;
+        if (cache == null) {
+            // a racing thread may replace it once, losing nothing but a few entries
+            cache = new EntityCache(conf.getEntityCacheSize(), conf.getEntityCacheTTL());
+            entityCache = cache;
+        }
+        return cache;
+    }
+
+    /**
+     * @return the scope of the current access token within the entity cache
+     */
+    private String entityCacheScope() {
+        String token = null;
+        if (auth instanceof OAuthAuthorization && auth.isEnabled()) {
+            token = ((OAuthAuthorization) auth).getOAuthAccessToken().getToken();
+        }
+        String[] scope = entityCacheScope;
+        if (scope == null || !(token == null ? scope[0] == null : token.equals(scope[0]))) {
+            scope = new String[] {token, EntityCache.scopeOf(token)};
+            entityCacheScope = scope;
+        }
+        return scope[1];
+    }
+
+    private void invalidateEntity(String id) {
+        EntityCache cache = entityCache;
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    private boolean isAdaptive(Reading reading) {
+        return conf.isAdaptiveFieldsEnabled() && (reading == null || !reading.hasFields());
+    }
+
     private String buildEndpoint(String id) {
         return buildEndpoint(id, null, null);
     }
@@ -160,6 +230,13 @@ class FacebookImpl extends FacebookBaseImpl implements Facebook {
     }
     public User getMe(Reading reading) throws FacebookException {
         ensureAuthorizationEnabled();
+        if (isAdaptive(reading)) {
+            return FieldUsageProfiler.getInstance().fetch(User.class, "getMe", reading, new FieldUsageProfiler.Fetcher<User>() {
+                public User fetch(Reading r) throws FacebookException {
+                    return factory.createUser(get(buildEndpoint("me", r)));
+                }
+            });
+        }
         User user = factory.createUser(get(buildEndpoint("me", reading)));
         return user;
     }
@@ -167,9 +244,27 @@ class FacebookImpl extends FacebookBaseImpl implements Facebook {
     public User getUser(String userId) throws FacebookException {
         return getUser(userId, null);
     }
-    public User getUser(String userId, Reading reading) throws FacebookException {
+    public User getUser(final String userId, Reading reading) throws FacebookException {
         ensureAuthorizationEnabled();
+        if (isAdaptive(reading)) {
+            return FieldUsageProfiler.getInstance().fetch(User.class, "getUser", reading, new FieldUsageProfiler.Fetcher<User>() {
+                public User fetch(Reading r) throws FacebookException {
+                    return factory.createUser(get(buildEndpoint(userId, r)));
+                }
+            });
+        }
+        EntityCache cache = entityCache(userId, reading);
+        String scope = cache == null ? null : entityCacheScope();
+        if (cache != null) {
+            User cached = cache.get(User.class, scope, userId, reading);
+            if (cached != null) {
+                return cached;
+            }
+        }
         User user = factory.createUser(get(buildEndpoint(userId, reading)));
+        if (cache != null) {
+            cache.put(User.class, scope, userId, reading, user);
+        }
         return user;
     }
     
@@ -215,6 +310,16 @@ class FacebookImpl extends FacebookBaseImpl implements Facebook {
         return factory.createUserArray(get(conf.getRestBaseURL(), new HttpParameter[] {
                                         new HttpParameter("ids", z_F4JInternalStringUtil.join(ids))}));
     }
+
+    public BulkResult<User> getUsers(Collection<String> ids, final Reading reading) throws FacebookException {
+        ensureAuthorizationEnabled();
+        return new MultiIdLookup<User>(new MultiIdLookup.Fetcher<User>() {
+            public Map<String, User> fetch(String chunk) throws FacebookException {
+                return factory.createUserMap(get(buildEndpoint("", reading), new HttpParameter[] {
+                                        new HttpParameter("ids", chunk)}));
+            }
+        }, conf.getMultiIdLookupConcurrency()).lookup(ids);
+    }
     
     /* Account Methods */
 
@@ -779,12 +884,25 @@ class FacebookImpl extends FacebookBaseImpl implements Facebook {
     }
     public Post getPost(String postId, Reading reading) throws FacebookException {
         ensureAuthorizationEnabled();
-        return factory.createPost(get(buildEndpoint(postId, reading)));
+        EntityCache cache = entityCache(postId, reading);
+        String scope = cache == null ? null : entityCacheScope();
+        if (cache != null) {
+            Post cached = cache.get(Post.class, scope, postId, reading);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Post post = factory.createPost(get(buildEndpoint(postId, reading)));
+        if (cache != null) {
+            cache.put(Post.class, scope, postId, reading, post);
+        }
+        return post;
     }
 
     public boolean deletePost(String postId) throws FacebookException {
         ensureAuthorizationEnabled();
         HttpResponse res = delete(buildEndpoint(postId));
+        invalidateEntity(postId);
         return parseBoolean(res);
     }
 
@@ -1489,9 +1607,36 @@ class FacebookImpl extends FacebookBaseImpl implements Facebook {
     public Page getPage(String pageId) throws FacebookException {
         return getPage(pageId, null);
     }
-    public Page getPage(String pageId, Reading reading) throws FacebookException {
-        HttpResponse res = get(buildEndpoint(pageId, reading));
-        return factory.createPage(res);
+    public BulkResult<Page> getPages(Collection<String> pageIds, final Reading reading) throws FacebookException {
+        return new MultiIdLookup<Page>(new MultiIdLookup.Fetcher<Page>() {
+            public Map<String, Page> fetch(String chunk) throws FacebookException {
+                return factory.createPageMap(get(buildEndpoint("", reading), new HttpParameter[] {
+                                        new HttpParameter("ids", chunk)}));
+            }
+        }, conf.getMultiIdLookupConcurrency()).lookup(pageIds);
+    }
+
+    public Page getPage(final String pageId, Reading reading) throws FacebookException {
+        if (isAdaptive(reading)) {
+            return FieldUsageProfiler.getInstance().fetch(Page.class, "getPage", reading, new FieldUsageProfiler.Fetcher<Page>() {
+                public Page fetch(Reading r) throws FacebookException {
+                    return factory.createPage(get(buildEndpoint(pageId, r)));
+                }
+            });
+        }
+        EntityCache cache = entityCache(pageId, reading);
+        String scope = cache == null ? null : entityCacheScope();
+        if (cache != null) {
+            Page cached = cache.get(Page.class, scope, pageId, reading);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Page page = factory.createPage(get(buildEndpoint(pageId, reading)));
+        if (cache != null) {
+            cache.put(Page.class, scope, pageId, reading, page);
+        }
+        return page;
     }
 
     public URL getPagePictureURL() throws FacebookException {
@@ -1527,6 +1672,7 @@ class FacebookImpl extends FacebookBaseImpl implements Facebook {
     public boolean updatePageBasicAttributes(String pageId, PageUpdate pageUpdate) throws FacebookException {
         ensureAuthorizationEnabled();
         HttpResponse res = post(buildEndpoint(pageId), pageUpdate.asHttpParameterArray());
+        invalidateEntity(pageId);
         return parseBoolean(res);
     }
 
@@ -1536,6 +1682,7 @@ class FacebookImpl extends FacebookBaseImpl implements Facebook {
     public boolean updatePageProfilePhoto(String pageId, URL picture) throws FacebookException {
         ensureAuthorizationEnabled();
         HttpResponse res = post(buildEndpoint(pageId, "picture"), new HttpParameter[]{new HttpParameter("picture", picture.toString())});
+        invalidateEntity(pageId);
         return parseBoolean(res);
     }
 
@@ -1547,6 +1694,7 @@ class FacebookImpl extends FacebookBaseImpl implements Facebook {
         List<HttpParameter> httpParams = new ArrayList<HttpParameter>();
         httpParams.add(source.asHttpParameter("source"));
         HttpResponse res = post(buildEndpoint(pageId, "picture"), httpParams.toArray(new HttpParameter[httpParams.size()]));
+        invalidateEntity(pageId);
         return parseBoolean(res);
     }
 
@@ -1556,6 +1704,7 @@ class FacebookImpl extends FacebookBaseImpl implements Facebook {
     public boolean updatePageCoverPhoto(String pageId, PageCoverUpdate pageCoverUpdate) throws FacebookException {
         ensureAuthorizationEnabled();
         HttpResponse res = post(buildEndpoint(pageId), pageCoverUpdate.asHttpParameterArray());
+        invalidateEntity(pageId);
         return parseBoolean(res);
     }
 
@@ -2354,16 +2503,7 @@ class FacebookImpl extends FacebookBaseImpl implements Facebook {
     }
     public JSONArray executeFQL(String query, Locale locale) throws FacebookException {
         ensureAuthorizationEnabled();
-        String url = "";
-        try {
-            url = conf.getRestBaseURL() + "fql?q=" + URLEncoder.encode(query, "UTF-8");
-        } catch (UnsupportedEncodingException ignore) {
-        }
-        if (locale != null) {
-            url += "&locale=" + HttpParameter.encode(locale.toString());
-        }
-
-        JSONObject json = get(url).asJSONObject();
+        JSONObject json = fql(query, locale).asJSONObject();
         try {
             return json.getJSONArray("data");
         } catch (JSONException jsone) {
@@ -2371,43 +2511,57 @@ class FacebookImpl extends FacebookBaseImpl implements Facebook {
         }
     }
 
+    public int executeFQL(String query, Locale locale, FQLRowHandler handler) throws FacebookException {
+        ensureAuthorizationEnabled();
+        return FQLResultReader.read(fql(query, locale).asReader(), false, handler);
+    }
+
     public Map<String, JSONArray> executeMultiFQL(Map<String, String> queries) throws FacebookException {
         return executeMultiFQL(queries, null);
     }
     public Map<String, JSONArray> executeMultiFQL(Map<String, String> queries, Locale locale) throws FacebookException {
-        ensureAuthorizationEnabled();
-        String url = conf.getRestBaseURL() + "fql?q=" + convertQueriesToJson(queries);
-        if (locale != null) {
-            url += "&locale=" + HttpParameter.encode(locale.toString());
+        final Map<String, JSONArray> result = new HashMap<String, JSONArray>();
+        for (String name : queries.keySet()) {
+            result.put(name, new JSONArray());
         }
-        JSONObject json = get(url)
-                .asJSONObject();
-        Map<String, JSONArray> result = new HashMap<String, JSONArray>();
-        try {
-            JSONArray jsonArray = json.getJSONArray("data");
-            for (int i = 0; i < jsonArray.length(); i++) {
-                JSONObject jsonObject = jsonArray.getJSONObject(i);
-                String name = jsonObject.getString("name");
-                JSONArray resultSets = jsonObject.getJSONArray("fql_result_set");
-                result.put(name, resultSets);
+        executeMultiFQL(queries, locale, new FQLRowHandler() {
+            public void onRow(String queryName, JSONObject row) {
+                JSONArray rows = result.get(queryName);
+                if (rows == null) {
+                    rows = new JSONArray();
+                    result.put(queryName, rows);
+                }
+                rows.put(row);
             }
-        } catch (JSONException jsone) {
-            throw new FacebookException(jsone.getMessage(), jsone);
-        }
+        });
         return result;
     }
 
-    private String convertQueriesToJson(Map<String, String> queries) {
-        List<String> jsons = new ArrayList<String>();
-        for (String name : queries.keySet()) {
-            String json = "";
-            try {
-                json = "%22" + URLEncoder.encode(name, "UTF-8") + "%22" + ":" + "%22" + URLEncoder.encode(queries.get(name), "UTF-8") + "%22";
-            } catch (UnsupportedEncodingException ignore) {
+    public int executeMultiFQL(Map<String, String> queries, final Locale locale, FQLRowHandler handler) throws FacebookException {
+        ensureAuthorizationEnabled();
+        return new MultiFQL(new MultiFQL.Executor() {
+            public int execute(Map<String, String> part, FQLRowHandler partHandler) throws FacebookException {
+                return FQLResultReader.read(fql(new JSONObject(part).toString(), locale).asReader(), true, partHandler);
             }
-            jsons.add(json);
+        }, conf.getFQLConcurrency()).execute(queries, handler);
+    }
+
+    private HttpResponse fql(String query, Locale locale) throws FacebookException {
+        String url = conf.getRestBaseURL() + "fql?q=" + HttpParameter.encode(query);
+        if (locale != null) {
+            url += "&locale=" + HttpParameter.encode(locale.toString());
+        }
+        if (url.length() <= MAX_FQL_URL_LENGTH) {
+            return get(url);
+        }
+        // too long for a URL: send the query as the body, still answered as a GET
+        List<HttpParameter> params = new ArrayList<HttpParameter>();
+        params.add(new HttpParameter("q", query));
+        params.add(new HttpParameter("method", "GET"));
+        if (locale != null) {
+            params.add(new HttpParameter("locale", locale.toString()));
         }
-        return "{" + z_F4JInternalStringUtil.join((String[]) jsons.toArray(new String[jsons.size()])) + "}";
+        return post(conf.getRestBaseURL() + "fql", params.toArray(new HttpParameter[params.size()]));
     }
     
     /* Test User Methods */
@@ -2487,6 +2641,15 @@ class FacebookImpl extends FacebookBaseImpl implements Facebook {
         return (ResponseList<T>) fetchPaging(url, paging.getJSONObjectType());
     }
 
+    public RawAPIResponse fetchPage(URL url) throws FacebookException {
+        ensureAuthorizationEnabled();
+        String query = url.getQuery();
+        if (query != null && (query.startsWith("access_token=") || query.contains("&access_token="))) {
+            return new RawAPIResponseImpl(getRaw(url.toString()));
+        }
+        return new RawAPIResponseImpl(get(url.toString()));
+    }
+
     private <T> ResponseList<T> fetchPaging(URL url, Class<T> jsonObjectType) throws FacebookException {
         ensureAuthorizationEnabled();
         HttpResponse res = getRaw(url.toString());
@@ -2497,22 +2660,17 @@ class FacebookImpl extends FacebookBaseImpl implements Facebook {
     /* Batch Requests Methods */
 
     public List<BatchResponse> executeBatch(BatchRequests<BatchRequest> requests) throws FacebookException {
+        return executeBatch(requests, false);
+    }
+
+    public List<BatchResponse> executeBatch(BatchRequests<BatchRequest> requests, boolean parseBodies)
+            throws FacebookException {
         ensureAuthorizationEnabled();
 
-        JSONArray jsonArray = post(buildEndpoint(""), requests.asHttpParameterArray()).asJSONArray();
-        int size = jsonArray.length();
-        List<BatchResponse> result = new ArrayList<BatchResponse>(size);
-        for (int i = 0; i < size; i++) {
-            try {
-                if (jsonArray.isNull(i)) {
-                    result.add(null);
-                } else {
-                    JSONObject json = jsonArray.getJSONObject(i);
-                    result.add(new BatchResponseImpl(json));
-                }
-            } catch (JSONException e) {
-                throw new FacebookException(e);
-            }
+        List<BatchResponse> result = BatchResponseReader.read(
+                post(buildEndpoint(""), requests.asHttpParameterArray()).asReader());
+        if (parseBodies) {
+            BatchResponseReader.parseAll(result, Runtime.getRuntime().availableProcessors());
         }
         return result;
     }
@@ -2739,37 +2897,11 @@ class FacebookImpl extends FacebookBaseImpl implements Facebook {
     /* http methods */
     
     private HttpResponse get(String url) throws FacebookException {
-        if (!conf.isMBeanEnabled()) {
-            return http.get(url, auth);
-        } else {
-            // intercept HTTP call for monitoring purposes
-            HttpResponse response = null;
-            long start = System.currentTimeMillis();
-            try {
-                response = http.get(url, auth);
-            } finally {
-                long elapsedTime = System.currentTimeMillis() - start;
-                FacebookAPIMonitor.getInstance().methodCalled(url, elapsedTime, isOk(response));
-            }
-            return response;
-        }
+        return request(RequestMethod.GET, url, null);
     }
 
     private HttpResponse get(String url, HttpParameter[] parameters) throws FacebookException {
-        if (!conf.isMBeanEnabled()) {
-            return http.get(url, parameters, (containsAccessToken(parameters) ? null : auth));
-        } else {
-            // intercept HTTP call for monitoring purposes
-            HttpResponse response = null;
-            long start = System.currentTimeMillis();
-            try {
-                response = http.get(url, parameters, (containsAccessToken(parameters) ? null : auth));
-            } finally {
-                long elapsedTime = System.currentTimeMillis() - start;
-                FacebookAPIMonitor.getInstance().methodCalled(url, elapsedTime, isOk(response));
-            }
-            return response;
-        }
+        return request(RequestMethod.GET, url, parameters);
     }
 
     private HttpResponse getRaw(String url) throws FacebookException {
@@ -2790,73 +2922,76 @@ class FacebookImpl extends FacebookBaseImpl implements Facebook {
     }
 
     private HttpResponse post(String url) throws FacebookException {
-        if (!conf.isMBeanEnabled()) {
-            return http.post(url, auth);
-        } else {
-            // intercept HTTP call for monitoring purposes
-            HttpResponse response = null;
-            long start = System.currentTimeMillis();
-            try {
-                response = http.post(url, auth);
-            } finally {
-                long elapsedTime = System.currentTimeMillis() - start;
-                FacebookAPIMonitor.getInstance().methodCalled(url, elapsedTime, isOk(response));
-            }
-            return response;
-        }
+        return request(RequestMethod.POST, url, null);
     }
 
     private HttpResponse post(String url, HttpParameter[] parameters) throws FacebookException {
-        if (!conf.isMBeanEnabled()) {
-            return http.post(url, parameters, (containsAccessToken(parameters) ? null : auth));
-        } else {
-            // intercept HTTP call for monitoring purposes
-            HttpResponse response = null;
-            long start = System.currentTimeMillis();
-            try {
-                response = http.post(url, parameters, (containsAccessToken(parameters) ? null : auth));
-            } finally {
-                long elapsedTime = System.currentTimeMillis() - start;
-                FacebookAPIMonitor.getInstance().methodCalled(url, elapsedTime, isOk(response));
-            }
-            return response;
-        }
+        return request(RequestMethod.POST, url, parameters);
     }
 
     private HttpResponse delete(String url) throws FacebookException {
-        if (!conf.isMBeanEnabled()) {
-            return http.delete(url, auth);
-        } else {
-            // intercept HTTP call for monitoring purposes
-            HttpResponse response = null;
-            long start = System.currentTimeMillis();
-            try {
-                response = http.delete(url, auth);
-            } finally {
-                long elapsedTime = System.currentTimeMillis() - start;
-                FacebookAPIMonitor.getInstance().methodCalled(url, elapsedTime, isOk(response));
-            }
-            return response;
-        }
+        return request(RequestMethod.DELETE, url, null);
     }
 
     private HttpResponse delete(String url, HttpParameter[] parameters) throws FacebookException {
-        if (!conf.isMBeanEnabled()) {
-            return http.delete(url, parameters, (containsAccessToken(parameters) ? null : auth));
-        } else {
-            // intercept HTTP call for monitoring purposes
-            HttpResponse response = null;
-            long start = System.currentTimeMillis();
-            try {
-                response = http.delete(url, parameters, (containsAccessToken(parameters) ? null : auth));
-            } finally {
+        return request(RequestMethod.DELETE, url, parameters);
+    }
+
+    private HttpResponse request(RequestMethod method, String url, HttpParameter[] parameters) throws FacebookException {
+        Authorization authorization = parameters != null && containsAccessToken(parameters) ? null : auth;
+        AccessTokenPool pool = tokenPool;
+        AccessToken pooledToken = null;
+        if (authorization != null && pool != null) {
+            pooledToken = pool.acquire(objectIdOf(url));
+            authorization = ((OAuthAuthorization) auth).withAccessToken(pooledToken);
+        }
+        HttpResponse response = null;
+        long start = System.currentTimeMillis();
+        try {
+            if (method == RequestMethod.POST) {
+                response = http.post(url, parameters, authorization);
+            } else if (method == RequestMethod.DELETE) {
+                response = http.delete(url, parameters, authorization);
+            } else {
+                response = http.get(url, parameters, authorization);
+            }
+        } catch (FacebookException fe) {
+            if (pooledToken != null) {
+                pool.reportFailure(pooledToken, fe);
+            }
+            throw fe;
+        } finally {
+            if (pooledToken != null) {
+                pool.release(pooledToken);
+                if (response != null) {
+                    pool.reportUsage(pooledToken, response.getResponseHeader("X-App-Usage"),
+                            response.getResponseHeader("X-Page-Usage"),
+                            response.getResponseHeader("X-Business-Use-Case-Usage"));
+                }
+            }
+            if (conf.isMBeanEnabled()) {
+                // intercept HTTP call for monitoring purposes
                 long elapsedTime = System.currentTimeMillis() - start;
                 FacebookAPIMonitor.getInstance().methodCalled(url, elapsedTime, isOk(response));
             }
-            return response;
         }
+        return response;
+    }
+
+    /**
+     * @return the first path segment of a Graph API URL, or null
+     */
+    private String objectIdOf(String url) {
+        String base = conf.getRestBaseURL();
+        if (!url.startsWith(base)) {
+            return null;
+        }
+        int end = base.length();
+        while (end < url.length() && url.charAt(end) != '/' && url.charAt(end) != '?') {
+            end++;
+        }
+        return end > base.length() ? url.substring(base.length(), end) : null;
     }
-    
 
     private boolean isOk(HttpResponse response) {
         return response != null && response.getStatusCode() < 300;
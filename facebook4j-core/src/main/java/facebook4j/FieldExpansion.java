@@ -0,0 +1,144 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A builder that can construct a field of the Graph API's field expansion,
+ * e.g. <code>comments.limit(25){from,message}</code>.<br>
+ * Connections expanded this way are returned embedded in their parent object,
+ * so a single request replaces one request per object and connection.
+ * <pre>
+ * Reading reading = new Reading()
+ *         .fields("message")
+ *         .expand(new FieldExpansion("comments").limit(25).fields("from", "message"),
+ *                 new FieldExpansion("likes").limit(0).summary(true));
+ * </pre>
+ *
+ * @see <a href="https://developers.facebook.com/docs/graph-api/using-graph-api/#fieldexpansion">Graph API#field expansion - Facebook Developers</a>
+ */
+public class FieldExpansion implements java.io.Serializable {
+    private static final long serialVersionUID = 2847302617519583520L;
+
+    private final String name;
+    private final Map<String, String> modifiers = new LinkedHashMap<String, String>();
+    private final List<String> fields = new ArrayList<String>();
+
+    public FieldExpansion(String name) {
+        if (name == null) {
+            throw new NullPointerException("name is null");
+        }
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public FieldExpansion fields(String... fields) {
+        if (fields == null) {
+            throw new NullPointerException("fields is null");
+        }
+        for (String field : fields) {
+            this.fields.add(field);
+        }
+        return this;
+    }
+
+    public FieldExpansion expand(FieldExpansion... expansions) {
+        if (expansions == null) {
+            throw new NullPointerException("expansions is null");
+        }
+        for (FieldExpansion expansion : expansions) {
+            this.fields.add(expansion.toString());
+        }
+        return this;
+    }
+
+    public FieldExpansion limit(int limit) {
+        return modifier("limit", String.valueOf(limit));
+    }
+
+    public FieldExpansion summary(boolean summary) {
+        return modifier("summary", String.valueOf(summary));
+    }
+
+    public FieldExpansion filter(String filterName) {
+        if (filterName == null) {
+            throw new NullPointerException("filterName is null");
+        }
+        return modifier("filter", filterName);
+    }
+
+    public FieldExpansion order(Reading.Order order) {
+        return modifier("order", order.getValue());
+    }
+
+    public FieldExpansion addModifier(String name, Object value) {
+        return modifier(name, value.toString());
+    }
+
+    private FieldExpansion modifier(String name, String value) {
+        if (modifiers.containsKey(name)) {
+            throw new IllegalStateException("'" + name + "' already sets");
+        }
+        modifiers.put(name, value);
+        return this;
+    }
+
+    /**
+     * @return this field in the field expansion syntax
+     */
+    @Override
+    public String toString() {
+        StringBuilder value = new StringBuilder(name);
+        for (Map.Entry<String, String> modifier : modifiers.entrySet()) {
+            value.append('.').append(modifier.getKey()).append('(').append(modifier.getValue()).append(')');
+        }
+        if (fields.size() > 0) {
+            value.append('{');
+            for (int i = 0; i < fields.size(); i++) {
+                if (i > 0) {
+                    value.append(',');
+                }
+                value.append(fields.get(i));
+            }
+            value.append('}');
+        }
+        return value.toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        return toString().equals(obj.toString());
+    }
+}
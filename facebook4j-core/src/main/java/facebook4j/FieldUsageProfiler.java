@@ -0,0 +1,331 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j;
+
+import facebook4j.internal.json.DataObjectFactoryUtil;
+import facebook4j.internal.logging.Logger;
+
+import java.io.Serializable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Learns which getters each call site invokes on the returned entities and narrows later requests
+ * from that call site to the matching Graph API fields.<br>
+ * The first {@link #PROFILING_CALLS} calls of a call site fetch every default field. After that, only the
+ * fields seen so far are requested; touching any other getter transparently re-fetches the full entity
+ * and adds the field to the profile; if that fetch fails, the getter throws an {@link IllegalStateException}
+ * caused by the {@link FacebookException}.<br>
+ * The call site is the caller's stack frame, unless named with {@link Reading#callSite(String)}; naming it
+ * saves walking the stack on every call.<br>
+ * Entities are handed out as serializable dynamic proxies of their interface, so callers must not rely on the
+ * concrete class. The raw JSON form of the entity is registered for the proxy, and
+ * {@link facebook4j.json.EntityEncoder} encodes the entity behind it. A deserialized proxy no longer profiles
+ * or re-fetches. Profiled lookups bypass the entity cache (<code>entityCacheSize</code>). Adaptive fields are
+ * off by default (<code>adaptiveFieldsEnabled</code>).
+ */
+/*package*/ final class FieldUsageProfiler {
+    private static final Logger logger = Logger.getLogger(FieldUsageProfiler.class);
+
+    /*package*/ static final int PROFILING_CALLS = 10;
+
+    private static final FieldUsageProfiler SINGLETON = new FieldUsageProfiler();
+
+    private static final Map<Class<?>, Map<String, String>> FIELDS = new HashMap<Class<?>, Map<String, String>>();
+
+    static {
+        FIELDS.put(User.class, fields(
+                "getId", "id",
+                "getName", "name",
+                "getFirstName", "first_name",
+                "getMiddleName", "middle_name",
+                "getLastName", "last_name",
+                "getGender", "gender",
+                "getLocale", "locale",
+                "getLanguages", "languages",
+                "getLink", "link",
+                "getUsername", "username",
+                "getThirdPartyId", "third_party_id",
+                "isInstalled", "installed",
+                "getTimezone", "timezone",
+                "getUpdatedTime", "updated_time",
+                "isVerified", "verified",
+                "getBio", "bio",
+                "getBirthday", "birthday",
+                "getCover", "cover",
+                "getEducation", "education",
+                "getEmail", "email",
+                "getHometown", "hometown",
+                "getInterestedIn", "interested_in",
+                "getLocation", "location",
+                "getPolitical", "political",
+                "getFavoriteAthletes", "favorite_athletes",
+                "getFavoriteTeams", "favorite_teams",
+                "getPicture", "picture",
+                "getQuotes", "quotes",
+                "getRelationshipStatus", "relationship_status",
+                "getReligion", "religion",
+                "getSignificantOther", "significant_other",
+                "getVideoUploadLimits", "video_upload_limits",
+                "getWebsite", "website",
+                "getWork", "work",
+                "getAgeRange", "age_range"));
+        FIELDS.put(Page.class, fields(
+                "getId", "id",
+                "getName", "name",
+                "getLink", "link",
+                "getCategory", "category",
+                "isPublished", "is_published",
+                "canPost", "can_post",
+                "getLikes", "likes",
+                "getLocation", "location",
+                "getPhone", "phone",
+                "getCheckins", "checkins",
+                "getPicture", "picture",
+                "getCover", "cover",
+                "getWebsite", "website",
+                "getTalkingAboutCount", "talking_about_count",
+                "getAccessToken", "access_token",
+                "isCommunityPage", "is_community_page",
+                "getWereHereCount", "were_here_count",
+                "getCreatedTime", "created_time",
+                "getAbout", "about",
+                "getUsername", "username"));
+    }
+
+    private final ConcurrentMap<String, Site> sites = new ConcurrentHashMap<String, Site>();
+
+    /*package*/ static FieldUsageProfiler getInstance() {
+        return SINGLETON;
+    }
+
+    /**
+     * @return the entity interfaces which can be profiled, and so proxied
+     */
+    /*package*/ static Set<Class<?>> getProfiledTypes() {
+        return Collections.unmodifiableSet(FIELDS.keySet());
+    }
+
+    /*package*/ interface Fetcher<T> {
+        T fetch(Reading reading) throws FacebookException;
+    }
+
+    /**
+     * @param type      entity interface
+     * @param apiMethod name of the API method, part of the call site key
+     * @param reading   reading options given by the caller, without fields
+     * @param fetcher   performs the request
+     * @return profiled entity
+     * @throws FacebookException when the request failed
+     */
+    /*package*/ <T> T fetch(Class<T> type, String apiMethod, final Reading reading, final Fetcher<T> fetcher) throws FacebookException {
+        if (!FIELDS.containsKey(type)) {
+            throw new IllegalArgumentException("no field table for " + type.getName());
+        }
+        String name = reading == null ? null : reading.getCallSite();
+        Site site = getSite(name == null ? callSite(apiMethod) : apiMethod + "@" + name);
+        Set<String> fields = site.getFields();
+        if (fields == null) {
+            T entity = fetcher.fetch(reading);
+            site.profiled();
+            return profile(type, entity, site, null, null);
+        }
+        Reading narrowed = reading == null ? new Reading() : reading.copy();
+        narrowed.fields(fields.toArray(new String[fields.size()]));
+        T entity = fetcher.fetch(narrowed);
+        return profile(type, entity, site, fields, new Fetcher<T>() {
+            public T fetch(Reading ignore) throws FacebookException {
+                return fetcher.fetch(reading);
+            }
+        });
+    }
+
+    /*package*/ Site getSite(String key) {
+        Site site = sites.get(key);
+        if (site == null) {
+            Site newSite = new Site();
+            site = sites.putIfAbsent(key, newSite);
+            if (site == null) {
+                site = newSite;
+            }
+        }
+        return site;
+    }
+
+    /*package*/ void clear() {
+        sites.clear();
+    }
+
+    private static String callSite(String apiMethod) {
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            String className = element.getClassName();
+            if (!className.equals(FieldUsageProfiler.class.getName())
+                    && !className.startsWith(FacebookImpl.class.getName())
+                    && !className.equals(FacebookBaseImpl.class.getName())) {
+                return apiMethod + "@" + className + "#" + element.getMethodName() + ":" + element.getLineNumber();
+            }
+        }
+        return apiMethod;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T profile(Class<T> type, T entity, Site site, Set<String> requested, Fetcher<T> fallback) {
+        T proxy = (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type, Serializable.class},
+                new ProfilingHandler<T>(type, entity, site, requested, fallback));
+        registerJSON(proxy, entity);
+        return proxy;
+    }
+
+    private static void registerJSON(Object proxy, Object entity) {
+        Object json = DataObjectFactoryUtil.getJSONObject(entity);
+        if (json != null) {
+            DataObjectFactoryUtil.registerJSONObject(proxy, json);
+        }
+    }
+
+    private static Map<String, String> fields(String... getterAndField) {
+        Map<String, String> fields = new HashMap<String, String>();
+        for (int i = 0; i < getterAndField.length; i += 2) {
+            fields.put(getterAndField[i], getterAndField[i + 1]);
+        }
+        return Collections.unmodifiableMap(fields);
+    }
+
+    /**
+     * Maps a getter of the entity interface to the Graph API field its JSON implementation reads,
+     * e.g. <code>Page.isPublished</code> to <code>is_published</code>.
+     *
+     * @param type   entity interface
+     * @param method method invoked
+     * @return field name, or null if the method does not read a field
+     */
+    /*package*/ static String fieldOf(Class<?> type, Method method) {
+        if (method.getParameterTypes().length != 0) {
+            return null;
+        }
+        Map<String, String> fields = FIELDS.get(type);
+        return fields == null ? null : fields.get(method.getName());
+    }
+
+    /*package*/ static final class Site {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final ConcurrentMap<String, Boolean> usedFields = new ConcurrentHashMap<String, Boolean>();
+
+        Site() {
+            usedFields.put("id", Boolean.TRUE);
+        }
+
+        void profiled() {
+            calls.incrementAndGet();
+        }
+
+        void used(String field) {
+            usedFields.putIfAbsent(field, Boolean.TRUE);
+        }
+
+        /**
+         * @return fields to request, or null while the call site is still being profiled
+         */
+        Set<String> getFields() {
+            if (calls.get() < PROFILING_CALLS) {
+                return null;
+            }
+            return new TreeSet<String>(usedFields.keySet());
+        }
+    }
+
+    /**
+     * Only the entity is serialized: a deserialized proxy forwards every call to it.
+     */
+    private static final class ProfilingHandler<T> implements InvocationHandler,
+            DataObjectFactoryUtil.EntityProxy, Serializable {
+        private static final long serialVersionUID = 2807410217431364593L;
+        private final Class<T> type;
+        private final transient Site site;
+        private final transient Set<String> requested;
+        private final transient Lock fallbackLock = new ReentrantLock();
+        private transient Fetcher<T> fallback;
+        private volatile T target;
+
+        ProfilingHandler(Class<T> type, T target, Site site, Set<String> requested, Fetcher<T> fallback) {
+            this.type = type;
+            this.target = target;
+            this.site = site;
+            this.requested = requested;
+            this.fallback = fallback;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class && method.getName().equals("equals")) {
+                Object other = args[0];
+                if (other != null && Proxy.isProxyClass(other.getClass())
+                        && Proxy.getInvocationHandler(other) instanceof ProfilingHandler) {
+                    other = ((ProfilingHandler<?>) Proxy.getInvocationHandler(other)).target;
+                }
+                return target.equals(other);
+            }
+            String field = site == null ? null : fieldOf(type, method);
+            if (field != null) {
+                site.used(field);
+                if (requested != null && !requested.contains(field)) {
+                    fetchFully(proxy, field);
+                }
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ite) {
+                throw ite.getCause();
+            }
+        }
+
+        public Object getEntity() {
+            return target;
+        }
+
+        private void fetchFully(Object proxy, String field) {
+            fallbackLock.lock();
+            try {
+                if (fallback == null) {
+                    return;
+                }
+                logger.debug("Unrequested field touched, fetching full entity: ", field);
+                try {
+                    target = fallback.fetch(null);
+                } catch (FacebookException fe) {
+                    // left in place, so the next unrequested getter tries again
+                    throw new IllegalStateException("Failed to fetch the full entity for field " + field, fe);
+                }
+                fallback = null;
+                registerJSON(proxy, target);
+            } finally {
+                fallbackLock.unlock();
+            }
+        }
+    }
+}
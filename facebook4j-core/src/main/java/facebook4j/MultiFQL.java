@@ -0,0 +1,184 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j;
+
+import facebook4j.internal.org.json.JSONObject;
+import facebook4j.internal.util.z_F4JDaemonThreadFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs a multi-query as several smaller multi-queries, concurrently.<br>
+ * Queries referring to each other's results (<code>#query_name</code>) have to be answered by the same request,
+ * so the queries are first grouped by those references, and the groups are then spread over at most
+ * <code>concurrency</code> requests of about {@link #MIN_QUERIES_PER_REQUEST} queries or more.
+ * Rows are handed to the handler from one thread at a time.
+ */
+/*package*/ final class MultiFQL {
+    // splitting small query sets costs more round trips than it saves
+    /*package*/ static final int MIN_QUERIES_PER_REQUEST = 5;
+
+    private static final Pattern REFERENCE = Pattern.compile("#(\\w+)");
+
+    private static final ThreadFactory THREAD_FACTORY = new z_F4JDaemonThreadFactory("facebook4j-fql");
+
+    /*package*/ interface Executor {
+        /**
+         * @param queries FQL queries keyed by name, answered by one request
+         * @param handler receives the rows
+         * @return number of rows
+         * @throws FacebookException when the request failed
+         */
+        int execute(Map<String, String> queries, FQLRowHandler handler) throws FacebookException;
+    }
+
+    private final Executor executor;
+    private final int concurrency;
+
+    /*package*/ MultiFQL(Executor executor, int concurrency) {
+        this.executor = executor;
+        this.concurrency = Math.max(concurrency, 1);
+    }
+
+    /*package*/ int execute(Map<String, String> queries, FQLRowHandler handler) throws FacebookException {
+        if (queries == null) {
+            throw new NullPointerException("queries is null");
+        }
+        int parts = Math.min(concurrency, (queries.size() + MIN_QUERIES_PER_REQUEST - 1) / MIN_QUERIES_PER_REQUEST);
+        List<Map<String, String>> requests = split(queries, parts);
+        if (requests.size() <= 1) {
+            return executor.execute(queries, handler);
+        }
+        return executeConcurrently(requests, handler);
+    }
+
+    private int executeConcurrently(List<Map<String, String>> requests, final FQLRowHandler handler)
+            throws FacebookException {
+        final Lock handlerLock = new ReentrantLock();
+        final FQLRowHandler serialized = new FQLRowHandler() {
+            public void onRow(String queryName, JSONObject row) throws FacebookException {
+                handlerLock.lock();
+                try {
+                    handler.onRow(queryName, row);
+                } finally {
+                    handlerLock.unlock();
+                }
+            }
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(requests.size(), THREAD_FACTORY);
+        try {
+            List<Future<Integer>> futures = new ArrayList<Future<Integer>>(requests.size());
+            for (final Map<String, String> request : requests) {
+                futures.add(pool.submit(new Callable<Integer>() {
+                    public Integer call() throws FacebookException {
+                        return executor.execute(request, serialized);
+                    }
+                }));
+            }
+            int rows = 0;
+            for (Future<Integer> future : futures) {
+                rows += future.get();
+            }
+            return rows;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new FacebookException(ie);
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof FacebookException) {
+                throw (FacebookException) ee.getCause();
+            }
+            throw new FacebookException(ee.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Splits the queries into at most <code>parts</code> multi-queries, keeping queries which refer to each
+     * other together.
+     */
+    /*package*/ static List<Map<String, String>> split(Map<String, String> queries, int parts) {
+        List<String> names = new ArrayList<String>(queries.keySet());
+        Map<String, Integer> index = new HashMap<String, Integer>();
+        int[] parent = new int[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            index.put(names.get(i), i);
+            parent[i] = i;
+        }
+        for (int i = 0; i < names.size(); i++) {
+            Matcher matcher = REFERENCE.matcher(queries.get(names.get(i)));
+            while (matcher.find()) {
+                Integer referred = index.get(matcher.group(1));
+                if (referred != null) {
+                    parent[root(parent, i)] = root(parent, referred);
+                }
+            }
+        }
+
+        Map<Integer, List<String>> groups = new LinkedHashMap<Integer, List<String>>();
+        for (int i = 0; i < names.size(); i++) {
+            int root = root(parent, i);
+            List<String> group = groups.get(root);
+            if (group == null) {
+                group = new ArrayList<String>();
+                groups.put(root, group);
+            }
+            group.add(names.get(i));
+        }
+
+        // each group goes to the request holding the fewest queries so far
+        List<Map<String, String>> requests = new ArrayList<Map<String, String>>();
+        int count = Math.min(Math.max(parts, 1), groups.size());
+        for (int i = 0; i < count; i++) {
+            requests.add(new LinkedHashMap<String, String>());
+        }
+        for (List<String> group : groups.values()) {
+            Map<String, String> smallest = requests.get(0);
+            for (Map<String, String> request : requests) {
+                if (request.size() < smallest.size()) {
+                    smallest = request;
+                }
+            }
+            for (String name : group) {
+                smallest.put(name, queries.get(name));
+            }
+        }
+        return requests;
+    }
+
+    private static int root(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+}
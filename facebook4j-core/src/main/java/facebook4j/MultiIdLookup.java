@@ -0,0 +1,148 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j;
+
+import facebook4j.internal.logging.Logger;
+import facebook4j.internal.util.z_F4JDaemonThreadFactory;
+import facebook4j.internal.util.z_F4JInternalStringUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Fetches many objects through the Graph API multi-id lookup (<code>?ids=a,b,c</code>).<br>
+ * Ids are split into chunks of at most {@link #MAX_IDS_PER_REQUEST}, and the chunks are requested concurrently.
+ * When the Graph API rejects a chunk because of some of its ids, the ids of that chunk are retried one by one
+ * so that only the offending ids end up as errors.
+ */
+/*package*/ final class MultiIdLookup<T> {
+    private static final Logger logger = Logger.getLogger(MultiIdLookup.class);
+
+    /*package*/ static final int MAX_IDS_PER_REQUEST = 50;
+
+    // (#100) invalid parameter, (#803) some of the aliases you requested do not exist
+    private static final int ERROR_INVALID_PARAMETER = 100;
+    private static final int ERROR_ALIAS_NOT_FOUND = 803;
+
+    private static final ThreadFactory THREAD_FACTORY = new z_F4JDaemonThreadFactory("facebook4j-multi-id-lookup");
+
+    /*package*/ interface Fetcher<T> {
+        /**
+         * @param ids comma separated ids
+         * @return objects keyed by id
+         * @throws FacebookException when the request failed
+         */
+        Map<String, T> fetch(String ids) throws FacebookException;
+    }
+
+    private final Fetcher<T> fetcher;
+    private final int concurrency;
+    private final Map<String, T> results = new ConcurrentHashMap<String, T>();
+    private final Map<String, FacebookException> errors = new ConcurrentHashMap<String, FacebookException>();
+
+    /*package*/ MultiIdLookup(Fetcher<T> fetcher, int concurrency) {
+        this.fetcher = fetcher;
+        this.concurrency = Math.max(concurrency, 1);
+    }
+
+    /*package*/ BulkResult<T> lookup(Collection<String> ids) throws FacebookException {
+        if (ids == null) {
+            throw new NullPointerException("ids is null");
+        }
+        List<String> uniqueIds = new ArrayList<String>(new LinkedHashSet<String>(ids));
+        List<List<String>> chunks = new ArrayList<List<String>>();
+        for (int i = 0; i < uniqueIds.size(); i += MAX_IDS_PER_REQUEST) {
+            chunks.add(uniqueIds.subList(i, Math.min(i + MAX_IDS_PER_REQUEST, uniqueIds.size())));
+        }
+        if (chunks.size() <= 1 || concurrency == 1) {
+            for (List<String> chunk : chunks) {
+                fetchChunk(chunk);
+            }
+        } else {
+            fetchConcurrently(chunks);
+        }
+
+        Map<String, T> orderedResults = new LinkedHashMap<String, T>();
+        Map<String, FacebookException> orderedErrors = new LinkedHashMap<String, FacebookException>();
+        for (String id : uniqueIds) {
+            T result = results.get(id);
+            if (result != null) {
+                orderedResults.put(id, result);
+            } else {
+                FacebookException error = errors.get(id);
+                orderedErrors.put(id, error != null ? error : new FacebookException("No object returned for id: " + id));
+            }
+        }
+        return new BulkResult<T>(orderedResults, orderedErrors);
+    }
+
+    private void fetchConcurrently(List<List<String>> chunks) throws FacebookException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, chunks.size()), THREAD_FACTORY);
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>(chunks.size());
+            for (final List<String> chunk : chunks) {
+                futures.add(executor.submit(new Runnable() {
+                    public void run() {
+                        fetchChunk(chunk);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new FacebookException(ie);
+        } catch (ExecutionException ee) {
+            throw new FacebookException(ee.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void fetchChunk(List<String> chunk) {
+        try {
+            results.putAll(fetcher.fetch(z_F4JInternalStringUtil.join(chunk.toArray(new String[chunk.size()]))));
+        } catch (FacebookException fe) {
+            if (chunk.size() > 1 && isIdError(fe)) {
+                logger.debug("Multi-id lookup rejected, retrying ids individually: ", fe.getErrorMessage());
+                for (String id : chunk) {
+                    fetchChunk(Collections.singletonList(id));
+                }
+            } else {
+                for (String id : chunk) {
+                    errors.put(id, fe);
+                }
+            }
+        }
+    }
+
+    private static boolean isIdError(FacebookException fe) {
+        return fe.getErrorCode() == ERROR_ALIAS_NOT_FOUND || fe.getErrorCode() == ERROR_INVALID_PARAMETER;
+    }
+}
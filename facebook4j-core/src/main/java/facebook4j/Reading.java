@@ -48,6 +48,7 @@ public class Reading implements java.io.Serializable {
     }
 
     private Map<String, String> parameterMap = new LinkedHashMap<String, String>();
+    private String callSite;
     
     public String getQuery() {
         String[] array = new String[parameterMap.size()];
@@ -73,6 +74,24 @@ public class Reading implements java.io.Serializable {
         return this;
     }
 
+    /**
+     * Appends fields in the Graph API's field expansion syntax.
+     *
+     * @param expansions expanded fields
+     * @return this reading
+     * @see FieldExpansion
+     */
+    public Reading expand(FieldExpansion... expansions) {
+        if (expansions == null) {
+            throw new NullPointerException("expansions is null");
+        }
+        String[] fields = new String[expansions.length];
+        for (int i = 0; i < expansions.length; i++) {
+            fields[i] = expansions[i].toString();
+        }
+        return fields(fields);
+    }
+
     public Reading limit(int limit) {
         if (parameterMap.containsKey("limit")) {
             throw new IllegalStateException("'limit' already sets");
@@ -246,12 +265,48 @@ public class Reading implements java.io.Serializable {
         return this;
     }
 
+    /**
+     * Names the call site for adaptive field selection (<code>adaptiveFieldsEnabled</code>), which otherwise
+     * derives it from the stack trace on every call. The name is not sent to the Graph API.
+     *
+     * @param name call site name, unique per use of the returned entities
+     * @return this instance
+     */
+    public Reading callSite(String name) {
+        callSite = name;
+        return this;
+    }
+
+    /*package*/ String getCallSite() {
+        return callSite;
+    }
+
+    /*package*/ boolean hasFields() {
+        return parameterMap.containsKey("fields");
+    }
+
+    /*package*/ String getFields() {
+        return parameterMap.get("fields");
+    }
+
+    /*package*/ boolean isFieldsOnly() {
+        return parameterMap.size() == (hasFields() ? 1 : 0);
+    }
+
+    /*package*/ Reading copy() {
+        Reading copy = new Reading();
+        copy.parameterMap.putAll(parameterMap);
+        copy.callSite = callSite;
+        return copy;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
         int result = 1;
         result = prime * result
                 + ((parameterMap == null) ? 0 : parameterMap.hashCode());
+        result = prime * result + ((callSite == null) ? 0 : callSite.hashCode());
         return result;
     }
 
@@ -269,6 +324,8 @@ public class Reading implements java.io.Serializable {
                 return false;
         } else if (!parameterMap.equals(other.parameterMap))
             return false;
+        if (callSite == null ? other.callSite != null : !callSite.equals(other.callSite))
+            return false;
         return true;
     }
 
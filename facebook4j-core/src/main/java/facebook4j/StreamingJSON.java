@@ -0,0 +1,53 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j;
+
+import facebook4j.internal.org.json.JSONException;
+import facebook4j.internal.org.json.JSONTokener;
+
+/**
+ * Helpers for reading a JSON text token by token with {@link JSONTokener}, shared by the streaming readers.
+ */
+/*package*/ final class StreamingJSON {
+    private StreamingJSON() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Reads the next key of the current object and the colon after it, leaving the tokener at its value.
+     *
+     * @return the next key of the current object, or null at its end
+     */
+    /*package*/ static String nextKey(JSONTokener x) throws JSONException {
+        char c = x.nextClean();
+        if (c == ',') {
+            c = x.nextClean();
+        }
+        if (c == '}') {
+            return null;
+        }
+        if (c == 0) {
+            throw x.syntaxError("A JSONObject text must end with '}'");
+        }
+        x.back();
+        String key = x.nextValue().toString();
+        if (x.nextClean() != ':') {
+            throw x.syntaxError("Expected a ':' after a key");
+        }
+        return key;
+    }
+}
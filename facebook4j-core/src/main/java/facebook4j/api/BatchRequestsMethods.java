@@ -36,4 +36,17 @@ public interface BatchRequestsMethods {
      * @see <a href="https://developers.facebook.com/docs/graph-api/making-multiple-requests/">Making Multiple API Requests - Facebook Developers</a>
      */
     List<BatchResponse> executeBatch(BatchRequests<BatchRequest> requests) throws FacebookException;
+
+    /**
+     * Calls Facebook batch API.<br>
+     * Response bodies are otherwise parsed on first use; with <code>parseBodies</code> they are all parsed before
+     * returning, on several cores when the batch is large.
+     *
+     * @param requests    batch parameters
+     * @param parseBodies whether to parse every response body up front
+     * @return batch response
+     * @throws FacebookException when Facebook service or network is unavailable
+     * @see <a href="https://developers.facebook.com/docs/graph-api/making-multiple-requests/">Making Multiple API Requests - Facebook Developers</a>
+     */
+    List<BatchResponse> executeBatch(BatchRequests<BatchRequest> requests, boolean parseBodies) throws FacebookException;
 }
@@ -16,6 +16,7 @@
 
 package facebook4j.api;
 
+import facebook4j.FQLRowHandler;
 import facebook4j.FacebookException;
 import facebook4j.internal.org.json.JSONArray;
 
@@ -45,6 +46,17 @@ public interface FQLMethods {
      */
     JSONArray executeFQL(String query, Locale locale) throws FacebookException;
 
+    /**
+     * Executes a single FQL query, handing the rows to the handler as they are read instead of materializing them.
+     * @param query FQL query
+     * @param locale Locale, or null
+     * @param handler receives the rows
+     * @return number of rows
+     * @throws FacebookException when Facebook service or network is unavailable, or the handler aborted
+     * @see <a href="https://developers.facebook.com/docs/reference/fql/">Facebook Query Language (FQL) - Facebook Developers</a>
+     */
+    int executeFQL(String query, Locale locale, FQLRowHandler handler) throws FacebookException;
+
     /**
      * Executes multiple FQL queries.
      * @param queries FQL queries
@@ -64,4 +76,18 @@ public interface FQLMethods {
      */
     Map<String, JSONArray> executeMultiFQL(Map<String, String> queries, Locale locale) throws FacebookException;
 
+    /**
+     * Executes multiple FQL queries, handing the rows to the handler as they are read instead of materializing them.<br>
+     * Large query sets are split into several requests run concurrently (see {@link facebook4j.conf.Configuration#getFQLConcurrency()});
+     * queries referring to each other (<code>#query_name</code>) stay in the same request.
+     * The handler is never called from two threads at once, but rows of different queries may interleave.
+     * @param queries FQL queries
+     * @param locale Locale, or null
+     * @param handler receives the rows, with the query's key as name
+     * @return number of rows
+     * @throws FacebookException when Facebook service or network is unavailable, or the handler aborted
+     * @see <a href="https://developers.facebook.com/docs/reference/fql/">Facebook Query Language (FQL) - Facebook Developers</a>
+     */
+    int executeMultiFQL(Map<String, String> queries, Locale locale, FQLRowHandler handler) throws FacebookException;
+
 }
@@ -18,6 +18,7 @@ package facebook4j.api;
 
 import facebook4j.Admin;
 import facebook4j.BackdatingPostUpdate;
+import facebook4j.BulkResult;
 import facebook4j.FacebookException;
 import facebook4j.Insight;
 import facebook4j.Media;
@@ -41,6 +42,7 @@ import facebook4j.Tagged;
 import facebook4j.User;
 
 import java.net.URL;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -85,6 +87,16 @@ public interface PageMethods {
      */
     Page getPage(String pageId, Reading reading) throws FacebookException;
 
+    /**
+     * Returns the pages specified by IDs, using as few multi-id requests as possible.
+     * @param pageIds the IDs of pages
+     * @param reading optional reading parameters. see <a href="https://developers.facebook.com/docs/reference/api/#reading">Graph API#reading - Facebook Developers</a>
+     * @return pages keyed by ID, and the errors of the IDs which could not be fetched
+     * @throws FacebookException when Facebook service or network is unavailable
+     * @see <a href="https://developers.facebook.com/docs/reference/api/#reading">Graph API#reading - Facebook Developers</a>
+     */
+    BulkResult<Page> getPages(Collection<String> pageIds, Reading reading) throws FacebookException;
+
     /**
      * Returns the url of a page's profile picture.
      * This method requires page access_token.
@@ -16,12 +16,14 @@
 
 package facebook4j.api;
 
+import facebook4j.BulkResult;
 import facebook4j.FacebookException;
 import facebook4j.PictureSize;
 import facebook4j.Reading;
 import facebook4j.User;
 
 import java.net.URL;
+import java.util.Collection;
 import java.util.List;
 
 
@@ -172,4 +174,14 @@ public interface UserMethods {
      */
     List<User> getUsers(String... ids) throws FacebookException;
 
+    /**
+     * Returns the users specified by IDs, using as few multi-id requests as possible.
+     * @param ids the IDs of users
+     * @param reading optional reading parameters. see <a href="https://developers.facebook.com/docs/reference/api/#reading">Graph API#reading - Facebook Developers</a>
+     * @return users keyed by ID, and the errors of the IDs which could not be fetched
+     * @throws FacebookException when Facebook service or network is unavailable
+     * @see <a href="https://developers.facebook.com/docs/reference/api/#reading">Graph API#reading - Facebook Developers</a>
+     */
+    BulkResult<User> getUsers(Collection<String> ids, Reading reading) throws FacebookException;
+
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.auth;
+
+import facebook4j.FacebookException;
+
+/**
+ * Receives the outcome of background refreshes made by an {@link AccessTokenManager}.<br>
+ * Methods are called on the manager's thread and should return quickly.
+ */
+public interface AccessTokenListener {
+    /**
+     * @param oldToken the token which was about to expire
+     * @param newToken the long-lived token replacing it
+     */
+    void onRefreshed(AccessToken oldToken, AccessToken newToken);
+
+    /**
+     * @param token the token which could not be inspected or refreshed; it is retried at the next check
+     * @param error the cause
+     */
+    void onRefreshFailed(AccessToken token, FacebookException error);
+}
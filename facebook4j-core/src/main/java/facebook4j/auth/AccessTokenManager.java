@@ -0,0 +1,366 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.auth;
+
+import facebook4j.Facebook;
+import facebook4j.FacebookException;
+import facebook4j.internal.logging.Logger;
+import facebook4j.internal.util.z_F4JDaemonThreadFactory;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the access tokens of a {@link Facebook} instance valid in the background.<br>
+ * Managed tokens are inspected on a schedule and exchanged for new long-lived tokens ahead of their expiry.
+ * A refreshed token replaces the old one as the instance's own token and in its {@link AccessTokenPool}, and
+ * its appsecret_proof is computed before any call needs it. The app access token is fetched once and cached.
+ * Request threads only read the results.
+ * <pre>
+ * AccessTokenManager manager = new AccessTokenManager(facebook);
+ * manager.manage(facebook.getOAuthAccessToken());
+ * manager.start();
+ * </pre>
+ */
+public class AccessTokenManager {
+    private static final Logger logger = Logger.getLogger(AccessTokenManager.class);
+
+    private static final ThreadFactory THREAD_FACTORY = new z_F4JDaemonThreadFactory("facebook4j-token-manager");
+
+    /**
+     * The OAuth calls the manager makes.
+     */
+    /*package*/ interface Endpoint {
+        AccessToken inspect(String accessToken) throws FacebookException;
+
+        AccessToken extend(String accessToken) throws FacebookException;
+
+        AccessToken appAccessToken() throws FacebookException;
+    }
+
+    private static final class Managed {
+        private final AccessToken original;
+        private volatile AccessToken current;
+        // Long.MAX_VALUE for a token which does not expire
+        private volatile long expiresAt;
+
+        private Managed(AccessToken token) {
+            this.original = token;
+            this.current = token;
+            this.expiresAt = expiresAt(token.getExpires(), System.currentTimeMillis());
+        }
+    }
+
+    private final Facebook facebook;
+    private final Endpoint endpoint;
+    private final List<Managed> managed = new CopyOnWriteArrayList<Managed>();
+    private final Lock lock = new ReentrantLock();
+    private long checkIntervalMillis = TimeUnit.HOURS.toMillis(1);
+    private long refreshAheadMillis = TimeUnit.DAYS.toMillis(7);
+    private boolean prefetchAppAccessToken;
+    private AccessTokenListener listener;
+    private volatile AccessToken appAccessToken;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param facebook instance with an OAuth app id/secret
+     * @throws IllegalStateException when the instance has no OAuth app id/secret
+     */
+    public AccessTokenManager(final Facebook facebook) {
+        this(facebook, new Endpoint() {
+            public AccessToken inspect(String accessToken) throws FacebookException {
+                return oauth(facebook).withAccessToken(null).getOAuthAccessTokenInfo(accessToken);
+            }
+
+            public AccessToken extend(String accessToken) throws FacebookException {
+                // a separate authorization, so that extending a pooled token does not replace the instance's own
+                return oauth(facebook).withAccessToken(null).extendTokenExpiration(accessToken);
+            }
+
+            public AccessToken appAccessToken() throws FacebookException {
+                return oauth(facebook).withAccessToken(null).getOAuthAppAccessToken();
+            }
+        });
+    }
+
+    /*package*/ AccessTokenManager(Facebook facebook, Endpoint endpoint) {
+        oauth(facebook);
+        this.facebook = facebook;
+        this.endpoint = endpoint;
+    }
+
+    private static OAuthAuthorization oauth(Facebook facebook) {
+        Authorization auth = facebook.getAuthorization();
+        if (!(auth instanceof OAuthAuthorization)) {
+            throw new IllegalStateException("OAuth app id/secret combination not supplied");
+        }
+        return (OAuthAuthorization) auth;
+    }
+
+    /**
+     * @param interval how often managed tokens are inspected, 1 hour by default
+     */
+    public void setCheckInterval(long interval, TimeUnit unit) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        this.checkIntervalMillis = unit.toMillis(interval);
+    }
+
+    /**
+     * @param time how long before its expiry a token is refreshed, 7 days by default
+     */
+    public void setRefreshAhead(long time, TimeUnit unit) {
+        this.refreshAheadMillis = unit.toMillis(time);
+    }
+
+    /**
+     * @param prefetch whether {@link #start()} fetches the app access token in the background
+     */
+    public void setPrefetchAppAccessToken(boolean prefetch) {
+        this.prefetchAppAccessToken = prefetch;
+    }
+
+    public void setListener(AccessTokenListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Keeps the token valid from now on.
+     *
+     * @param token a user or page access token
+     */
+    public void manage(AccessToken token) {
+        final Managed entry = new Managed(token);
+        managed.add(entry);
+        precomputeAppSecretProof(token);
+        lock.lock();
+        try {
+            if (scheduler != null) {
+                scheduler.execute(new Runnable() {
+                    public void run() {
+                        check(entry, System.currentTimeMillis());
+                    }
+                });
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops managing the token and forgets the appsecret_proof precomputed for it. Once no token is managed, the
+     * Mac instances pooled for the app secret are dropped as well.
+     *
+     * @return whether the token was managed
+     */
+    public boolean unmanage(AccessToken token) {
+        Managed entry = find(token);
+        if (entry == null || !managed.remove(entry)) {
+            return false;
+        }
+        OAuthAuthorization oauth = oauth(facebook);
+        oauth.evictAppSecretProof(entry.original);
+        oauth.evictAppSecretProof(entry.current);
+        if (managed.isEmpty()) {
+            oauth.evictAppSecretMacs();
+        }
+        return true;
+    }
+
+    /**
+     * @param token a managed token, or a token it was refreshed to
+     * @return the latest token refreshed from it, or the token itself when it is not managed
+     */
+    public AccessToken getAccessToken(AccessToken token) {
+        Managed entry = find(token);
+        return entry == null ? token : entry.current;
+    }
+
+    /**
+     * @param token a managed token, or a token it was refreshed to
+     * @return when the latest token expires, or null when it does not expire or is not managed
+     */
+    public Date getExpiresAt(AccessToken token) {
+        Managed entry = find(token);
+        return entry == null || entry.expiresAt == Long.MAX_VALUE ? null : new Date(entry.expiresAt);
+    }
+
+    /**
+     * Returns the app access token, fetching it on the first call only.
+     *
+     * @return the app access token
+     * @throws FacebookException when the token could not be fetched
+     */
+    public AccessToken getAppAccessToken() throws FacebookException {
+        AccessToken token = appAccessToken;
+        if (token == null) {
+            lock.lock();
+            try {
+                token = appAccessToken;
+                if (token == null) {
+                    token = endpoint.appAccessToken();
+                    appAccessToken = token;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return token;
+    }
+
+    /**
+     * Starts inspecting and refreshing managed tokens in the background.
+     */
+    public void start() {
+        lock.lock();
+        try {
+            if (scheduler != null) {
+                throw new IllegalStateException("Already started.");
+            }
+            scheduler = new ScheduledThreadPoolExecutor(1, THREAD_FACTORY);
+            if (prefetchAppAccessToken) {
+                scheduler.execute(new Runnable() {
+                    public void run() {
+                        try {
+                            getAppAccessToken();
+                        } catch (FacebookException fe) {
+                            logger.warn("Failed to fetch the app access token: ", fe.getMessage());
+                        }
+                    }
+                });
+            }
+            scheduler.scheduleWithFixedDelay(new Runnable() {
+                public void run() {
+                    checkNow();
+                }
+            }, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the background refreshes.
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+                scheduler = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inspects every managed token and refreshes the ones about to expire, on the calling thread.
+     */
+    public void checkNow() {
+        long now = System.currentTimeMillis();
+        for (Managed entry : managed) {
+            check(entry, now);
+        }
+    }
+
+    /**
+     * Never throws, so that one token cannot stop the checks of the others or the periodic check.
+     */
+    private void check(Managed entry, long now) {
+        AccessToken token = entry.current;
+        AccessToken refreshed;
+        try {
+            AccessToken info = endpoint.inspect(token.getToken());
+            entry.expiresAt = expiresAt(info.getExpires(), now);
+            if (entry.expiresAt - now > refreshAheadMillis) {
+                return;
+            }
+            refreshed = endpoint.extend(token.getToken());
+            entry.current = refreshed;
+            entry.expiresAt = expiresAt(refreshed.getExpires(), now);
+            replace(token, refreshed);
+            logger.debug("Refreshed an access token, expires in ", String.valueOf(refreshed.getExpires()));
+        } catch (FacebookException fe) {
+            logger.warn("Failed to refresh an access token: ", fe.getMessage());
+            notifyRefreshFailed(token, fe);
+            return;
+        } catch (RuntimeException re) {
+            logger.error("Failed to refresh an access token", re);
+            notifyRefreshFailed(token, new FacebookException(re));
+            return;
+        }
+        if (listener != null) {
+            try {
+                listener.onRefreshed(token, refreshed);
+            } catch (RuntimeException re) {
+                logger.error("AccessTokenListener failed", re);
+            }
+        }
+    }
+
+    private void notifyRefreshFailed(AccessToken token, FacebookException fe) {
+        if (listener != null) {
+            try {
+                listener.onRefreshFailed(token, fe);
+            } catch (RuntimeException re) {
+                logger.error("AccessTokenListener failed", re);
+            }
+        }
+    }
+
+    private void replace(AccessToken oldToken, AccessToken newToken) {
+        OAuthAuthorization oauth = oauth(facebook);
+        if (oauth.isEnabled() && oldToken.equals(oauth.getOAuthAccessToken())) {
+            facebook.setOAuthAccessToken(newToken);
+        }
+        AccessTokenPool pool = facebook.getAccessTokenPool();
+        if (pool != null && pool.remove(oldToken)) {
+            pool.add(newToken);
+        }
+        precomputeAppSecretProof(newToken);
+    }
+
+    private void precomputeAppSecretProof(AccessToken token) {
+        OAuthAuthorization oauth = oauth(facebook);
+        if (oauth.isAppSecretProofEnabled()) {
+            // fills the appsecret_proof cache shared with the instance
+            oauth.withAccessToken(token).generateAppSecretProof();
+        }
+    }
+
+    private Managed find(AccessToken token) {
+        for (Managed entry : managed) {
+            if (entry.original.equals(token) || entry.current.equals(token)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private static long expiresAt(Long expiresIn, long now) {
+        return expiresIn == null || expiresIn <= 0 ? Long.MAX_VALUE : now + expiresIn * 1000;
+    }
+}
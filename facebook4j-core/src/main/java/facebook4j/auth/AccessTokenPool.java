@@ -0,0 +1,329 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.auth;
+
+import facebook4j.FacebookException;
+import facebook4j.internal.org.json.JSONArray;
+import facebook4j.internal.org.json.JSONException;
+import facebook4j.internal.org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Access tokens a single {@link facebook4j.Facebook} instance draws from, one per call.<br>
+ * All tokens share the instance's HTTP client, configuration and appsecret_proof cache, so a token costs a few
+ * objects rather than a client of its own.
+ * <pre>
+ * AccessTokenPool pool = new AccessTokenPool(AccessTokenPool.Strategy.USAGE_AWARE);
+ * pool.add(new AccessToken(pageToken1));
+ * pool.add(new AccessToken(pageToken2));
+ * facebook.setAccessTokenPool(pool);
+ * </pre>
+ * Calls on <code>me</code> resolve to the user or page of whichever token is drawn for the call, so pooled
+ * calls should name the object by its id.
+ */
+public class AccessTokenPool implements java.io.Serializable {
+    private static final long serialVersionUID = 7461037261962583916L;
+
+    /** rate limit usage reports are ignored once they are older than this */
+    private static final long USAGE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    public enum Strategy {
+        /** each token in turn */
+        ROUND_ROBIN,
+        /** the token with the fewest calls in flight, then the fewest calls made */
+        LEAST_USED,
+        /** the token with the lowest rate limit usage reported by the Graph API, then as LEAST_USED */
+        USAGE_AWARE,
+        /** the same token for the same object as long as the pool does not change, so that per-object
+         *  caches and rate limits stay on one token; calls without an object id fall back to LEAST_USED */
+        STICKY
+    }
+
+    private static final class Entry implements java.io.Serializable {
+        private static final long serialVersionUID = -1180733718592290384L;
+
+        private final AccessToken token;
+        private final int hash;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong calls = new AtomicLong();
+        private volatile int usage;
+        private volatile long usageTime;
+
+        private Entry(AccessToken token) {
+            this.token = token;
+            this.hash = token.getToken().hashCode();
+        }
+
+        private int currentUsage(long now) {
+            return now - usageTime > USAGE_TTL_MILLIS ? 0 : usage;
+        }
+    }
+
+    private final Strategy strategy;
+    private final List<Entry> entries = new CopyOnWriteArrayList<Entry>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public AccessTokenPool(Strategy strategy) {
+        if (strategy == null) {
+            throw new NullPointerException("strategy is null");
+        }
+        this.strategy = strategy;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public void add(AccessToken token) {
+        if (token == null || token.getToken() == null) {
+            throw new NullPointerException("token is null");
+        }
+        entries.add(new Entry(token));
+    }
+
+    /**
+     * @return whether the token was in the pool
+     */
+    public boolean remove(AccessToken token) {
+        for (Entry entry : entries) {
+            if (entry.token.getToken().equals(token.getToken())) {
+                return entries.remove(entry);
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public List<AccessToken> getAccessTokens() {
+        List<AccessToken> tokens = new ArrayList<AccessToken>(entries.size());
+        for (Entry entry : entries) {
+            tokens.add(entry.token);
+        }
+        return tokens;
+    }
+
+    /**
+     * Picks the token for a call, which has to be given back with {@link #release(AccessToken)}.
+     *
+     * @param objectId id of the object the call is about, or null
+     * @return the token
+     * @throws IllegalStateException when the pool is empty
+     */
+    public AccessToken acquire(String objectId) {
+        Object[] snapshot = entries.toArray();
+        if (snapshot.length == 0) {
+            throw new IllegalStateException("No access token in the pool.");
+        }
+        Entry chosen;
+        switch (strategy) {
+            case ROUND_ROBIN:
+                chosen = (Entry) snapshot[(next.getAndIncrement() & Integer.MAX_VALUE) % snapshot.length];
+                break;
+            case STICKY:
+                chosen = objectId != null ? rendezvous(snapshot, objectId) : leastUsed(snapshot, false);
+                break;
+            case USAGE_AWARE:
+                chosen = leastUsed(snapshot, true);
+                break;
+            default:
+                chosen = leastUsed(snapshot, false);
+                break;
+        }
+        chosen.inFlight.incrementAndGet();
+        chosen.calls.incrementAndGet();
+        return chosen.token;
+    }
+
+    /**
+     * Marks the call made with the token as done.
+     */
+    public void release(AccessToken token) {
+        Entry entry = find(token);
+        if (entry != null) {
+            entry.inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Records the rate limit usage headers (<code>X-App-Usage</code>, <code>X-Page-Usage</code> or
+     * <code>X-Business-Use-Case-Usage</code>) returned to a call made with the token.
+     *
+     * @param token        the token
+     * @param usageHeaders JSON values of the headers, null for a missing header; the highest percentage found is kept
+     */
+    public void reportUsage(AccessToken token, String... usageHeaders) {
+        Entry entry = find(token);
+        if (entry == null) {
+            return;
+        }
+        int usage = -1;
+        for (String usageHeader : usageHeaders) {
+            if (usageHeader == null) {
+                continue;
+            }
+            try {
+                usage = Math.max(usage, maxPercentage(new JSONObject(usageHeader)));
+            } catch (JSONException ignore) {
+            }
+        }
+        if (usage >= 0) {
+            entry.usage = usage;
+            entry.usageTime = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Records what a failed call made with the token tells about its rate limits: the usage headers of the
+     * error response, and full usage when the Graph API answered with a rate limit error.
+     *
+     * @param token the token
+     * @param error the failure of the call
+     */
+    public void reportFailure(AccessToken token, FacebookException error) {
+        reportUsage(token, error.getResponseHeader("X-App-Usage"), error.getResponseHeader("X-Page-Usage"),
+                error.getResponseHeader("X-Business-Use-Case-Usage"));
+        if (isRateLimitError(error.getErrorCode())) {
+            Entry entry = find(token);
+            if (entry != null) {
+                entry.usage = 100;
+                entry.usageTime = System.currentTimeMillis();
+            }
+        }
+    }
+
+    /**
+     * @return whether the Graph API error code reports an exhausted rate limit: application (4), user (17),
+     *         page (32) or custom (613)
+     */
+    private static boolean isRateLimitError(int errorCode) {
+        return errorCode == 4 || errorCode == 17 || errorCode == 32 || errorCode == 613;
+    }
+
+    /**
+     * @return the latest rate limit usage reported for the token in percent, 0 when none is recent
+     */
+    public int getUsage(AccessToken token) {
+        Entry entry = find(token);
+        return entry == null ? 0 : entry.currentUsage(System.currentTimeMillis());
+    }
+
+    /**
+     * @return number of calls made with the token
+     */
+    public long getCallCount(AccessToken token) {
+        Entry entry = find(token);
+        return entry == null ? 0 : entry.calls.get();
+    }
+
+    private Entry find(AccessToken token) {
+        for (Entry entry : entries) {
+            if (entry.token == token || entry.token.getToken().equals(token.getToken())) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private Entry leastUsed(Object[] snapshot, boolean usageAware) {
+        long now = System.currentTimeMillis();
+        Entry best = null;
+        for (Object o : snapshot) {
+            Entry entry = (Entry) o;
+            if (best == null) {
+                best = entry;
+                continue;
+            }
+            if (usageAware) {
+                int usage = entry.currentUsage(now);
+                int bestUsage = best.currentUsage(now);
+                if (usage != bestUsage) {
+                    if (usage < bestUsage) {
+                        best = entry;
+                    }
+                    continue;
+                }
+            }
+            int inFlight = entry.inFlight.get();
+            int bestInFlight = best.inFlight.get();
+            if (inFlight < bestInFlight || (inFlight == bestInFlight && entry.calls.get() < best.calls.get())) {
+                best = entry;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Highest random weight hashing: adding or removing a token only moves the objects of that token.
+     */
+    private static Entry rendezvous(Object[] snapshot, String objectId) {
+        int objectHash = objectId.hashCode();
+        Entry best = null;
+        int bestWeight = 0;
+        for (Object o : snapshot) {
+            Entry entry = (Entry) o;
+            int weight = mix(objectHash * 31 + entry.hash);
+            if (best == null || weight > bestWeight) {
+                best = entry;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int maxPercentage(Object json) throws JSONException {
+        int max = 0;
+        if (json instanceof JSONObject) {
+            JSONObject object = (JSONObject) json;
+            Iterator<?> keys = object.keys();
+            while (keys.hasNext()) {
+                String key = (String) keys.next();
+                Object value = object.get(key);
+                if (value instanceof Number
+                        && ("call_count".equals(key) || "total_time".equals(key) || "total_cputime".equals(key))) {
+                    max = Math.max(max, ((Number) value).intValue());
+                } else {
+                    max = Math.max(max, maxPercentage(value));
+                }
+            }
+        } else if (json instanceof JSONArray) {
+            JSONArray array = (JSONArray) json;
+            for (int i = 0; i < array.length(); i++) {
+                max = Math.max(max, maxPercentage(array.get(i)));
+            }
+        }
+        return max;
+    }
+}
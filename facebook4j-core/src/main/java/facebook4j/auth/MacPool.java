@@ -0,0 +1,135 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.auth;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.UnsupportedEncodingException;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Initialized {@link Mac} instances kept per algorithm and key.<br>
+ * Looking up the provider and initializing the key costs far more than signing a token, and a Mac is not thread
+ * safe, so idle instances are handed out to one caller at a time. The pool is keyed by a SHA-256 digest of the
+ * key rather than the key itself.
+ */
+final class MacPool {
+    private static final int MAX_KEYS = 64;
+    private static final int MAX_IDLE_PER_KEY = 8;
+
+    private static final class Idle {
+        private final ConcurrentLinkedQueue<Mac> macs = new ConcurrentLinkedQueue<Mac>();
+        private final AtomicInteger size = new AtomicInteger();
+    }
+
+    private static final ConcurrentMap<String, Idle> idle = new ConcurrentHashMap<String, Idle>();
+
+    private MacPool() {
+        throw new AssertionError();
+    }
+
+    static byte[] doFinal(String algorithm, String secret, byte[] data)
+            throws NoSuchAlgorithmException, InvalidKeyException {
+        return doFinal(keyOf(algorithm, secret), algorithm, secret, data);
+    }
+
+    /**
+     * Signs the data with a pooled Mac.
+     *
+     * @param key the pool key returned by {@link #keyOf(String, String)} for the algorithm and secret, so callers
+     *            signing repeatedly with one secret digest it once
+     */
+    static byte[] doFinal(String key, String algorithm, String secret, byte[] data)
+            throws NoSuchAlgorithmException, InvalidKeyException {
+        Idle pool = idle.get(key);
+        if (pool == null && idle.size() < MAX_KEYS) {
+            pool = new Idle();
+            Idle existing = idle.putIfAbsent(key, pool);
+            if (existing != null) {
+                pool = existing;
+            }
+        }
+        Mac mac = null;
+        if (pool != null) {
+            mac = pool.macs.poll();
+            if (mac != null) {
+                pool.size.decrementAndGet();
+            }
+        }
+        if (mac == null) {
+            mac = newMac(algorithm, secret);
+        }
+        // doFinal() resets the Mac for the next caller
+        byte[] result = mac.doFinal(data);
+        if (pool != null && pool.size.incrementAndGet() <= MAX_IDLE_PER_KEY) {
+            pool.macs.offer(mac);
+        } else if (pool != null) {
+            pool.size.decrementAndGet();
+        }
+        return result;
+    }
+
+    /**
+     * Drops the idle instances initialized with the key.
+     */
+    static void evict(String algorithm, String secret) {
+        evict(keyOf(algorithm, secret));
+    }
+
+    /**
+     * Drops the idle instances pooled under a key returned by {@link #keyOf(String, String)}.
+     */
+    static void evict(String key) {
+        idle.remove(key);
+    }
+
+    /*package*/ static boolean isPooled(String algorithm, String secret) {
+        return idle.containsKey(keyOf(algorithm, secret));
+    }
+
+    static String keyOf(String algorithm, String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes("UTF-8"));
+            StringBuilder key = new StringBuilder(algorithm.length() + 1 + digest.length * 2);
+            key.append(algorithm).append('\n');
+            for (byte b : digest) {
+                key.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        } catch (UnsupportedEncodingException neverHappen) {
+            throw new AssertionError(neverHappen);
+        }
+    }
+
+    private static Mac newMac(String algorithm, String secret) throws NoSuchAlgorithmException, InvalidKeyException {
+        Mac mac = Mac.getInstance(algorithm);
+        try {
+            mac.init(new SecretKeySpec(secret.getBytes("UTF-8"), algorithm));
+        } catch (UnsupportedEncodingException neverHappen) {
+            throw new AssertionError(neverHappen);
+        }
+        return mac;
+    }
+}
@@ -23,8 +23,6 @@ import facebook4j.internal.http.HttpResponse;
 import facebook4j.internal.logging.Logger;
 import facebook4j.internal.util.z_F4JLRUCache;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.io.UnsupportedEncodingException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -40,6 +38,7 @@ public class OAuthAuthorization implements Authorization, OAuthSupport, Security
     private static final Logger logger = Logger.getLogger(OAuthAuthorization.class);
 
     public static final String HMAC_SHA_256 = "HmacSHA256";
+    public static final String HMAC_SHA_1 = "HmacSHA1";
 
     private final Configuration conf;
     private transient static HttpClientWrapper http;
@@ -51,6 +50,8 @@ public class OAuthAuthorization implements Authorization, OAuthSupport, Security
     private String callbackURL;
     private boolean appSecretProofEnabled;
     private transient z_F4JLRUCache<String, String> appSecretProofCache;
+    // MacPool key of appSecret, digested once rather than on every proof
+    private transient volatile String appSecretMacKey;
 
     // constructors
 
@@ -71,6 +72,29 @@ public class OAuthAuthorization implements Authorization, OAuthSupport, Security
         appSecretProofCache = new z_F4JLRUCache<String, String>(conf.getAppSecretProofCacheSize());
     }
 
+    private OAuthAuthorization(OAuthAuthorization base, AccessToken accessToken) {
+        this.conf = base.conf;
+        this.appId = base.appId;
+        this.appSecret = base.appSecret;
+        this.permissions = base.permissions;
+        this.callbackURL = base.callbackURL;
+        this.appSecretProofEnabled = base.appSecretProofEnabled;
+        this.appSecretProofCache = base.appSecretProofCache;
+        this.appSecretMacKey = base.appSecretMacKey;
+        this.oauthToken = accessToken;
+    }
+
+    /**
+     * Returns an authorization for another access token of the same app.<br>
+     * Unlike a new OAuthAuthorization, it shares this instance's HTTP client and appsecret_proof cache.
+     *
+     * @param accessToken the access token
+     * @return the authorization
+     */
+    public OAuthAuthorization withAccessToken(AccessToken accessToken) {
+        return new OAuthAuthorization(this, accessToken);
+    }
+
     // implementations for Authorization
     private void ensureTokenIsAvailable() {
         if (null == oauthToken) {
@@ -215,6 +239,7 @@ public class OAuthAuthorization implements Authorization, OAuthSupport, Security
     public void setOAuthAppId(String appId, String appSecret) {
         this.appId = appId != null ? appId : "";
         this.appSecret = appSecret != null ? appSecret : "";
+        this.appSecretMacKey = null;
     }
 
     public void setOAuthPermissions(String permissions) {
@@ -289,25 +314,69 @@ public class OAuthAuthorization implements Authorization, OAuthSupport, Security
         if (cache != null) {
             return cache;
         }
-        byte[] byteHMAC = null;
+        String appSecretProof;
         try {
-            Mac mac = Mac.getInstance(HMAC_SHA_256);
-            SecretKeySpec secretKeySpec = new SecretKeySpec(appSecret.getBytes("UTF-8"), HMAC_SHA_256);
-            mac.init(secretKeySpec);
-            byteHMAC = mac.doFinal(accessToken.getBytes("UTF-8"));
-        } catch (NoSuchAlgorithmException ignore) {
-        } catch (UnsupportedEncodingException ignore) {
+            appSecretProof = hmacHex(appSecretMacKey(), HMAC_SHA_256, appSecret, accessToken.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException neverHappen) {
+            throw new AssertionError(neverHappen);
+        }
+        appSecretProofCache.put(accessToken, appSecretProof);
+        return appSecretProof;
+    }
+
+    /**
+     * Forgets the appsecret_proof cached for the token.
+     */
+    /*package*/ void evictAppSecretProof(AccessToken token) {
+        appSecretProofCache.remove(token.getToken());
+    }
+
+    /**
+     * Drops the pooled Mac instances keyed with the app secret.
+     */
+    /*package*/ void evictAppSecretMacs() {
+        if (appSecret != null) {
+            MacPool.evict(appSecretMacKey());
+        }
+    }
+
+    private String appSecretMacKey() {
+        String key = appSecretMacKey;
+        if (key == null) {
+            key = MacPool.keyOf(HMAC_SHA_256, appSecret);
+            appSecretMacKey = key;
+        }
+        return key;
+    }
+
+    /**
+     * Computes a keyed hash of the data as a lower case hex string.<br>
+     * Initialized Mac instances are pooled per algorithm and key, so repeated calls skip the key setup.
+     *
+     * @param algorithm MAC algorithm, e.g. {@link #HMAC_SHA_256}
+     * @param secret    key
+     * @param data      data to sign
+     * @return hex encoded MAC
+     */
+    public static String hmacHex(String algorithm, String secret, byte[] data) {
+        return hmacHex(MacPool.keyOf(algorithm, secret), algorithm, secret, data);
+    }
+
+    private static String hmacHex(String poolKey, String algorithm, String secret, byte[] data) {
+        byte[] byteHMAC;
+        try {
+            byteHMAC = MacPool.doFinal(poolKey, algorithm, secret, data);
+        } catch (NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException(nsae);
         } catch (InvalidKeyException e) {
-            throw new IllegalStateException();
+            throw new IllegalStateException(e);
         }
 
         StringBuilder result = new StringBuilder();
         for (byte b : byteHMAC) {
             result.append(Integer.toString((b & 0xff) + 0x100, 16).substring(1));
         }
-        String appSecretProof = result.toString();
-        appSecretProofCache.put(accessToken, appSecretProof);
-        return appSecretProof;
+        return result.toString();
     }
 
 
@@ -58,6 +58,18 @@ public interface Configuration extends HttpClientConfiguration
 
     boolean isJSONStoreEnabled();
 
+    boolean isEntityCodecEnabled();
+
     boolean isMBeanEnabled();
 
+    boolean isAdaptiveFieldsEnabled();
+
+    int getMultiIdLookupConcurrency();
+
+    int getEntityCacheSize();
+
+    int getEntityCacheTTL();
+
+    int getFQLConcurrency();
+
 }
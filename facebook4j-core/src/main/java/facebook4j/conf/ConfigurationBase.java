@@ -76,6 +76,34 @@ public class ConfigurationBase implements Configuration, Serializable {
 
     private boolean mbeanEnabled;
 
+    private boolean singleFlightEnabled;
+
+    private String httpProxies;
+
+    private String httpProxySelection;
+
+    private boolean adaptiveFieldsEnabled;
+
+    private int multiIdLookupConcurrency;
+
+    private int entityCacheSize;
+
+    private int entityCacheTTL;
+
+    private int fqlConcurrency;
+
+    private int httpWireLogSampling;
+
+    private String httpWireLogFilter;
+
+    private int httpWireLogMaxBodyLength;
+
+    private boolean entityCodecEnabled;
+
+    private int httpProxyHealthCheckIntervalSeconds;
+
+    private boolean httpProxyAuthenticatorEnabled;
+
     // hidden portion
     private String clientVersion;
     private String clientURL;
@@ -146,6 +174,20 @@ public class ConfigurationBase implements Configuration, Serializable {
         setJSONStoreEnabled(false);
 
         setMBeanEnabled(false);
+        setSingleFlightEnabled(false);
+        setHttpProxies(null);
+        setHttpProxySelection("ROUND_ROBIN");
+        setAdaptiveFieldsEnabled(false);
+        setMultiIdLookupConcurrency(4);
+        setEntityCacheSize(0);
+        setEntityCacheTTL(300);
+        setFQLConcurrency(4);
+        setHttpWireLogSampling(0);
+        setHttpWireLogFilter(null);
+        setHttpWireLogMaxBodyLength(2000);
+        setEntityCodecEnabled(false);
+        setHttpProxyHealthCheckIntervalSeconds(0);
+        setHttpProxyAuthenticatorEnabled(false);
 
         setOAuthAuthorizationURL(DEFAULT_OAUTH_AUTHORIZATION_URL);
         setOAuthAccessTokenURL(DEFAULT_OAUTH_ACCESS_TOKEN_URL);
@@ -472,6 +514,118 @@ public class ConfigurationBase implements Configuration, Serializable {
         this.mbeanEnabled = enabled;
     }
 
+    public boolean isSingleFlightEnabled() {
+        return singleFlightEnabled;
+    }
+
+    protected final void setSingleFlightEnabled(boolean singleFlightEnabled) {
+        this.singleFlightEnabled = singleFlightEnabled;
+    }
+
+    public String getHttpProxies() {
+        return httpProxies;
+    }
+
+    protected final void setHttpProxies(String httpProxies) {
+        this.httpProxies = httpProxies;
+    }
+
+    public String getHttpProxySelection() {
+        return httpProxySelection;
+    }
+
+    protected final void setHttpProxySelection(String httpProxySelection) {
+        this.httpProxySelection = httpProxySelection;
+    }
+
+    public boolean isAdaptiveFieldsEnabled() {
+        return adaptiveFieldsEnabled;
+    }
+
+    protected final void setAdaptiveFieldsEnabled(boolean adaptiveFieldsEnabled) {
+        this.adaptiveFieldsEnabled = adaptiveFieldsEnabled;
+    }
+
+    public int getMultiIdLookupConcurrency() {
+        return multiIdLookupConcurrency;
+    }
+
+    protected final void setMultiIdLookupConcurrency(int multiIdLookupConcurrency) {
+        this.multiIdLookupConcurrency = multiIdLookupConcurrency;
+    }
+
+    public int getEntityCacheSize() {
+        return entityCacheSize;
+    }
+
+    protected final void setEntityCacheSize(int entityCacheSize) {
+        this.entityCacheSize = entityCacheSize;
+    }
+
+    public int getEntityCacheTTL() {
+        return entityCacheTTL;
+    }
+
+    protected final void setEntityCacheTTL(int entityCacheTTL) {
+        this.entityCacheTTL = entityCacheTTL;
+    }
+
+    public int getFQLConcurrency() {
+        return fqlConcurrency;
+    }
+
+    protected final void setFQLConcurrency(int fqlConcurrency) {
+        this.fqlConcurrency = fqlConcurrency;
+    }
+
+    public int getHttpWireLogSampling() {
+        return httpWireLogSampling;
+    }
+
+    protected final void setHttpWireLogSampling(int httpWireLogSampling) {
+        this.httpWireLogSampling = httpWireLogSampling;
+    }
+
+    public String getHttpWireLogFilter() {
+        return httpWireLogFilter;
+    }
+
+    protected final void setHttpWireLogFilter(String httpWireLogFilter) {
+        this.httpWireLogFilter = httpWireLogFilter;
+    }
+
+    public int getHttpWireLogMaxBodyLength() {
+        return httpWireLogMaxBodyLength;
+    }
+
+    protected final void setHttpWireLogMaxBodyLength(int httpWireLogMaxBodyLength) {
+        this.httpWireLogMaxBodyLength = httpWireLogMaxBodyLength;
+    }
+
+    public boolean isEntityCodecEnabled() {
+        return entityCodecEnabled;
+    }
+
+    protected final void setEntityCodecEnabled(boolean entityCodecEnabled) {
+        this.entityCodecEnabled = entityCodecEnabled;
+    }
+
+    public int getHttpProxyHealthCheckIntervalSeconds() {
+        return httpProxyHealthCheckIntervalSeconds;
+    }
+
+    protected final void setHttpProxyHealthCheckIntervalSeconds(int httpProxyHealthCheckIntervalSeconds) {
+        this.httpProxyHealthCheckIntervalSeconds = httpProxyHealthCheckIntervalSeconds;
+    }
+
+    public boolean isHttpProxyAuthenticatorEnabled() {
+        return httpProxyAuthenticatorEnabled;
+    }
+
+    protected final void setHttpProxyAuthenticatorEnabled(boolean httpProxyAuthenticatorEnabled) {
+        this.httpProxyAuthenticatorEnabled = httpProxyAuthenticatorEnabled;
+    }
+
     public String getOAuthPermissions() {
         return oAuthPermissions;
     }
@@ -553,6 +707,20 @@ public class ConfigurationBase implements Configuration, Serializable {
         result = 31 * result + (videoBaseURL != null ? videoBaseURL.hashCode() : 0);
         result = 31 * result + (jsonStoreEnabled ? 1 : 0);
         result = 31 * result + (mbeanEnabled ? 1 : 0);
+        result = 31 * result + (singleFlightEnabled ? 1 : 0);
+        result = 31 * result + (httpProxies != null ? httpProxies.hashCode() : 0);
+        result = 31 * result + (httpProxySelection != null ? httpProxySelection.hashCode() : 0);
+        result = 31 * result + (adaptiveFieldsEnabled ? 1 : 0);
+        result = 31 * result + multiIdLookupConcurrency;
+        result = 31 * result + entityCacheSize;
+        result = 31 * result + entityCacheTTL;
+        result = 31 * result + fqlConcurrency;
+        result = 31 * result + httpWireLogSampling;
+        result = 31 * result + (httpWireLogFilter != null ? httpWireLogFilter.hashCode() : 0);
+        result = 31 * result + httpWireLogMaxBodyLength;
+        result = 31 * result + (entityCodecEnabled ? 1 : 0);
+        result = 31 * result + httpProxyHealthCheckIntervalSeconds;
+        result = 31 * result + (httpProxyAuthenticatorEnabled ? 1 : 0);
         result = 31 * result + (clientVersion != null ? clientVersion.hashCode() : 0);
         result = 31 * result + (clientURL != null ? clientURL.hashCode() : 0);
         result = 31 * result + (IS_DALVIK ? 1 : 0);
@@ -582,6 +750,7 @@ public class ConfigurationBase implements Configuration, Serializable {
         if (jsonStoreEnabled != that.jsonStoreEnabled) return false;
         if (maxTotalConnections != that.maxTotalConnections) return false;
         if (mbeanEnabled != that.mbeanEnabled) return false;
+        if (singleFlightEnabled != that.singleFlightEnabled) return false;
         if (prettyDebug != that.prettyDebug) return false;
         if (useSSL != that.useSSL) return false;
         if (clientURL != null ? !clientURL.equals(that.clientURL) : that.clientURL != null) return false;
@@ -618,6 +787,19 @@ public class ConfigurationBase implements Configuration, Serializable {
         if (restBaseURL != null ? !restBaseURL.equals(that.restBaseURL) : that.restBaseURL != null) return false;
         if (userAgent != null ? !userAgent.equals(that.userAgent) : that.userAgent != null) return false;
         if (videoBaseURL != null ? !videoBaseURL.equals(that.videoBaseURL) : that.videoBaseURL != null) return false;
+        if (httpProxies != null ? !httpProxies.equals(that.httpProxies) : that.httpProxies != null) return false;
+        if (httpProxySelection != null ? !httpProxySelection.equals(that.httpProxySelection) : that.httpProxySelection != null) return false;
+        if (adaptiveFieldsEnabled != that.adaptiveFieldsEnabled) return false;
+        if (multiIdLookupConcurrency != that.multiIdLookupConcurrency) return false;
+        if (entityCacheSize != that.entityCacheSize) return false;
+        if (entityCacheTTL != that.entityCacheTTL) return false;
+        if (fqlConcurrency != that.fqlConcurrency) return false;
+        if (httpWireLogSampling != that.httpWireLogSampling) return false;
+        if (httpWireLogFilter != null ? !httpWireLogFilter.equals(that.httpWireLogFilter) : that.httpWireLogFilter != null) return false;
+        if (httpWireLogMaxBodyLength != that.httpWireLogMaxBodyLength) return false;
+        if (entityCodecEnabled != that.entityCodecEnabled) return false;
+        if (httpProxyHealthCheckIntervalSeconds != that.httpProxyHealthCheckIntervalSeconds) return false;
+        if (httpProxyAuthenticatorEnabled != that.httpProxyAuthenticatorEnabled) return false;
 
         return true;
     }
@@ -656,6 +838,20 @@ public class ConfigurationBase implements Configuration, Serializable {
                 ", videoBaseURL='" + videoBaseURL + '\'' +
                 ", jsonStoreEnabled=" + jsonStoreEnabled +
                 ", mbeanEnabled=" + mbeanEnabled +
+                ", singleFlightEnabled=" + singleFlightEnabled +
+                ", httpProxies='" + httpProxies + '\'' +
+                ", httpProxySelection='" + httpProxySelection + '\'' +
+                ", adaptiveFieldsEnabled=" + adaptiveFieldsEnabled +
+                ", multiIdLookupConcurrency=" + multiIdLookupConcurrency +
+                ", entityCacheSize=" + entityCacheSize +
+                ", entityCacheTTL=" + entityCacheTTL +
+                ", fqlConcurrency=" + fqlConcurrency +
+                ", httpWireLogSampling=" + httpWireLogSampling +
+                ", httpWireLogFilter='" + httpWireLogFilter + '\'' +
+                ", httpWireLogMaxBodyLength=" + httpWireLogMaxBodyLength +
+                ", entityCodecEnabled=" + entityCodecEnabled +
+                ", httpProxyHealthCheckIntervalSeconds=" + httpProxyHealthCheckIntervalSeconds +
+                ", httpProxyAuthenticatorEnabled=" + httpProxyAuthenticatorEnabled +
                 ", clientVersion='" + clientVersion + '\'' +
                 ", clientURL='" + clientURL + '\'' +
                 ", IS_DALVIK=" + IS_DALVIK +
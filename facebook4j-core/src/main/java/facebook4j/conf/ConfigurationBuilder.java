@@ -221,6 +221,90 @@ public final class ConfigurationBuilder {
         return this;
     }
 
+    public ConfigurationBuilder setSingleFlightEnabled(boolean singleFlightEnabled) {
+        checkNotBuilt();
+        configurationBean.setSingleFlightEnabled(singleFlightEnabled);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpProxies(String httpProxies) {
+        checkNotBuilt();
+        configurationBean.setHttpProxies(httpProxies);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpProxySelection(String httpProxySelection) {
+        checkNotBuilt();
+        configurationBean.setHttpProxySelection(httpProxySelection);
+        return this;
+    }
+
+    public ConfigurationBuilder setAdaptiveFieldsEnabled(boolean adaptiveFieldsEnabled) {
+        checkNotBuilt();
+        configurationBean.setAdaptiveFieldsEnabled(adaptiveFieldsEnabled);
+        return this;
+    }
+
+    public ConfigurationBuilder setMultiIdLookupConcurrency(int multiIdLookupConcurrency) {
+        checkNotBuilt();
+        configurationBean.setMultiIdLookupConcurrency(multiIdLookupConcurrency);
+        return this;
+    }
+
+    public ConfigurationBuilder setEntityCacheSize(int entityCacheSize) {
+        checkNotBuilt();
+        configurationBean.setEntityCacheSize(entityCacheSize);
+        return this;
+    }
+
+    public ConfigurationBuilder setEntityCacheTTL(int entityCacheTTL) {
+        checkNotBuilt();
+        configurationBean.setEntityCacheTTL(entityCacheTTL);
+        return this;
+    }
+
+    public ConfigurationBuilder setFQLConcurrency(int fqlConcurrency) {
+        checkNotBuilt();
+        configurationBean.setFQLConcurrency(fqlConcurrency);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpWireLogSampling(int httpWireLogSampling) {
+        checkNotBuilt();
+        configurationBean.setHttpWireLogSampling(httpWireLogSampling);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpWireLogFilter(String httpWireLogFilter) {
+        checkNotBuilt();
+        configurationBean.setHttpWireLogFilter(httpWireLogFilter);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpWireLogMaxBodyLength(int httpWireLogMaxBodyLength) {
+        checkNotBuilt();
+        configurationBean.setHttpWireLogMaxBodyLength(httpWireLogMaxBodyLength);
+        return this;
+    }
+
+    public ConfigurationBuilder setEntityCodecEnabled(boolean entityCodecEnabled) {
+        checkNotBuilt();
+        configurationBean.setEntityCodecEnabled(entityCodecEnabled);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpProxyHealthCheckIntervalSeconds(int httpProxyHealthCheckIntervalSeconds) {
+        checkNotBuilt();
+        configurationBean.setHttpProxyHealthCheckIntervalSeconds(httpProxyHealthCheckIntervalSeconds);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpProxyAuthenticatorEnabled(boolean httpProxyAuthenticatorEnabled) {
+        checkNotBuilt();
+        configurationBean.setHttpProxyAuthenticatorEnabled(httpProxyAuthenticatorEnabled);
+        return this;
+    }
+
     public Configuration build() {
         checkNotBuilt();
         configurationBean.cacheInstance();
@@ -37,14 +37,19 @@ public final class ConfigurationContext {
             CONFIG_IMPL = DEFAULT_CONFIGURATION_FACTORY;
         }
 
-        try {
-            factory = (ConfigurationFactory) Class.forName(CONFIG_IMPL).newInstance();
-        } catch (ClassNotFoundException cnfe) {
-            throw new AssertionError(cnfe);
-        } catch (InstantiationException ie) {
-            throw new AssertionError(ie);
-        } catch (IllegalAccessException iae) {
-            throw new AssertionError(iae);
+        if (DEFAULT_CONFIGURATION_FACTORY.equals(CONFIG_IMPL)) {
+            // no reflection for the default, so that native images need no metadata
+            factory = new PropertyConfigurationFactory();
+        } else {
+            try {
+                factory = (ConfigurationFactory) Class.forName(CONFIG_IMPL).newInstance();
+            } catch (ClassNotFoundException cnfe) {
+                throw new AssertionError(cnfe);
+            } catch (InstantiationException ie) {
+                throw new AssertionError(ie);
+            } catch (IllegalAccessException iae) {
+                throw new AssertionError(iae);
+            }
         }
     }
 
@@ -79,6 +79,20 @@ public final class PropertyConfiguration extends ConfigurationBase implements Se
 
     public static final String JSON_STORE_ENABLED = "jsonStoreEnabled";
     public static final String MBEAN_ENABLED = "mbeanEnabled";
+    public static final String HTTP_SINGLE_FLIGHT_ENABLED = "http.singleFlightEnabled";
+    public static final String HTTP_PROXIES = "http.proxies";
+    public static final String HTTP_PROXY_SELECTION = "http.proxySelection";
+    public static final String ADAPTIVE_FIELDS_ENABLED = "adaptiveFieldsEnabled";
+    public static final String MULTI_ID_LOOKUP_CONCURRENCY = "multiIdLookupConcurrency";
+    public static final String ENTITY_CACHE_SIZE = "entityCache.size";
+    public static final String ENTITY_CACHE_TTL = "entityCache.ttl";
+    public static final String FQL_CONCURRENCY = "fqlConcurrency";
+    public static final String HTTP_WIRE_LOG_SAMPLING = "http.wireLogSampling";
+    public static final String HTTP_WIRE_LOG_FILTER = "http.wireLogFilter";
+    public static final String HTTP_WIRE_LOG_MAX_BODY_LENGTH = "http.wireLogMaxBodyLength";
+    public static final String ENTITY_CODEC_ENABLED = "entityCodecEnabled";
+    public static final String HTTP_PROXY_HEALTH_CHECK_INTERVAL_SECONDS = "http.proxyHealthCheckIntervalSeconds";
+    public static final String HTTP_PROXY_AUTHENTICATOR_ENABLED = "http.proxyAuthenticatorEnabled";
 
     // hidden portion
     public static final String CLIENT_VERSION = "clientVersion";
@@ -329,6 +343,48 @@ public final class PropertyConfiguration extends ConfigurationBase implements Se
         if (notNull(props, prefix, MBEAN_ENABLED)) {
             setMBeanEnabled(getBoolean(props, prefix, MBEAN_ENABLED));
         }
+        if (notNull(props, prefix, HTTP_SINGLE_FLIGHT_ENABLED)) {
+            setSingleFlightEnabled(getBoolean(props, prefix, HTTP_SINGLE_FLIGHT_ENABLED));
+        }
+        if (notNull(props, prefix, HTTP_PROXIES)) {
+            setHttpProxies(getString(props, prefix, HTTP_PROXIES));
+        }
+        if (notNull(props, prefix, HTTP_PROXY_SELECTION)) {
+            setHttpProxySelection(getString(props, prefix, HTTP_PROXY_SELECTION));
+        }
+        if (notNull(props, prefix, ADAPTIVE_FIELDS_ENABLED)) {
+            setAdaptiveFieldsEnabled(getBoolean(props, prefix, ADAPTIVE_FIELDS_ENABLED));
+        }
+        if (notNull(props, prefix, MULTI_ID_LOOKUP_CONCURRENCY)) {
+            setMultiIdLookupConcurrency(getIntProperty(props, prefix, MULTI_ID_LOOKUP_CONCURRENCY));
+        }
+        if (notNull(props, prefix, ENTITY_CACHE_SIZE)) {
+            setEntityCacheSize(getIntProperty(props, prefix, ENTITY_CACHE_SIZE));
+        }
+        if (notNull(props, prefix, ENTITY_CACHE_TTL)) {
+            setEntityCacheTTL(getIntProperty(props, prefix, ENTITY_CACHE_TTL));
+        }
+        if (notNull(props, prefix, FQL_CONCURRENCY)) {
+            setFQLConcurrency(getIntProperty(props, prefix, FQL_CONCURRENCY));
+        }
+        if (notNull(props, prefix, HTTP_WIRE_LOG_SAMPLING)) {
+            setHttpWireLogSampling(getIntProperty(props, prefix, HTTP_WIRE_LOG_SAMPLING));
+        }
+        if (notNull(props, prefix, HTTP_WIRE_LOG_FILTER)) {
+            setHttpWireLogFilter(getString(props, prefix, HTTP_WIRE_LOG_FILTER));
+        }
+        if (notNull(props, prefix, HTTP_WIRE_LOG_MAX_BODY_LENGTH)) {
+            setHttpWireLogMaxBodyLength(getIntProperty(props, prefix, HTTP_WIRE_LOG_MAX_BODY_LENGTH));
+        }
+        if (notNull(props, prefix, ENTITY_CODEC_ENABLED)) {
+            setEntityCodecEnabled(getBoolean(props, prefix, ENTITY_CODEC_ENABLED));
+        }
+        if (notNull(props, prefix, HTTP_PROXY_HEALTH_CHECK_INTERVAL_SECONDS)) {
+            setHttpProxyHealthCheckIntervalSeconds(getIntProperty(props, prefix, HTTP_PROXY_HEALTH_CHECK_INTERVAL_SECONDS));
+        }
+        if (notNull(props, prefix, HTTP_PROXY_AUTHENTICATOR_ENABLED)) {
+            setHttpProxyAuthenticatorEnabled(getBoolean(props, prefix, HTTP_PROXY_AUTHENTICATOR_ENABLED));
+        }
         cacheInstance();
     }
 
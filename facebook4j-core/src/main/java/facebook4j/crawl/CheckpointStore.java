@@ -0,0 +1,56 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+import facebook4j.FacebookException;
+
+/**
+ * Keeps the latest {@link CrawlCheckpoint} of each object and edge, so an interrupted crawl can resume.
+ */
+public interface CheckpointStore {
+    /**
+     * @return the latest checkpoint of the edge, or null if none was stored
+     * @throws FacebookException when the store is unavailable
+     */
+    CrawlCheckpoint get(String objectId, String edge) throws FacebookException;
+
+    /**
+     * Replaces the checkpoint of the object and edge.
+     *
+     * @throws FacebookException when the store is unavailable
+     */
+    void put(CrawlCheckpoint checkpoint) throws FacebookException;
+
+    /**
+     * @throws FacebookException when the store is unavailable
+     */
+    void remove(String objectId, String edge) throws FacebookException;
+
+    /**
+     * Makes every checkpoint stored so far durable.
+     *
+     * @throws FacebookException when the store is unavailable
+     */
+    void flush() throws FacebookException;
+
+    /**
+     * Flushes and releases the store.
+     *
+     * @throws FacebookException when the store is unavailable
+     */
+    void close() throws FacebookException;
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+import facebook4j.FacebookException;
+
+/**
+ * Receives the comments found by {@link CommentThreadFetcher}, each comment once and always after its parent.
+ * Calls are never made from two threads at once.
+ */
+public interface CommentHandler {
+    /**
+     * @param comment a comment not handed over before
+     * @throws FacebookException to abort the fetch
+     */
+    void onComment(ThreadedComment comment) throws FacebookException;
+
+    /**
+     * Called when the call limit left some comments of a parent unfetched.
+     *
+     * @param parentId id of the comment, or of the commented object, whose comments are incomplete
+     * @throws FacebookException to abort the fetch
+     */
+    void onTruncated(String parentId) throws FacebookException;
+}
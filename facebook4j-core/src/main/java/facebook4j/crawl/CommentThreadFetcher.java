@@ -0,0 +1,261 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+import facebook4j.Comment;
+import facebook4j.Facebook;
+import facebook4j.FacebookException;
+import facebook4j.FieldExpansion;
+import facebook4j.PagableList;
+import facebook4j.Paging;
+import facebook4j.Reading;
+import facebook4j.ResponseList;
+import facebook4j.export.CallBudget;
+import facebook4j.internal.util.z_F4JDaemonThreadFactory;
+import facebook4j.internal.util.z_F4JTaskGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fetches the whole comment thread of a post or any other commentable object.<br>
+ * Top-level comments are paged with cursors, and the first page of replies of each comment comes along through
+ * field expansion (<code>comments.limit(n){...}</code>). Only comments with more replies than that cost further
+ * calls, and those reply threads are fetched concurrently while the top-level pages are still being read.
+ * Calls can be paced with a {@link CallBudget} and capped with {@link #setMaxCalls(int)}.
+ * <pre>
+ * CommentThreadFetcher fetcher = new CommentThreadFetcher(facebook);
+ * fetcher.setConcurrency(8);
+ * fetcher.setMaxCalls(500);
+ * List&lt;ThreadedComment&gt; thread = fetcher.fetch(postId);
+ * </pre>
+ */
+public class CommentThreadFetcher {
+    /** fields requested for each comment unless {@link #setFields(String...)} is called */
+    public static final String[] DEFAULT_FIELDS = {
+        "id", "from", "message", "message_tags", "created_time", "like_count", "comment_count", "attachment"
+    };
+
+    private static final ThreadFactory THREAD_FACTORY = new z_F4JDaemonThreadFactory("facebook4j-comment-thread");
+
+    private final Facebook facebook;
+    private int concurrency = 4;
+    private int pageSize = 100;
+    private int maxCalls;
+    private boolean expandReplies = true;
+    private String[] fields = DEFAULT_FIELDS;
+    private CallBudget budget;
+
+    public CommentThreadFetcher(Facebook facebook) {
+        this.facebook = facebook;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = Math.max(concurrency, 1);
+    }
+
+    /**
+     * @param pageSize comments requested per call, also the number of replies expanded inline
+     */
+    public void setPageSize(int pageSize) {
+        this.pageSize = Math.max(pageSize, 1);
+    }
+
+    /**
+     * @param maxCalls calls made per fetch at most, or 0 for no limit
+     */
+    public void setMaxCalls(int maxCalls) {
+        this.maxCalls = Math.max(maxCalls, 0);
+    }
+
+    /**
+     * @param expandReplies whether to request the first replies of each comment through field expansion,
+     *                      true by default
+     */
+    public void setExpandReplies(boolean expandReplies) {
+        this.expandReplies = expandReplies;
+    }
+
+    /**
+     * @param fields fields requested for each comment; <code>id</code> and <code>comment_count</code> are needed
+     */
+    public void setFields(String... fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * @param budget paces the calls made, or null for no pacing
+     */
+    public void setBudget(CallBudget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Fetches the thread into a list, parents always before their replies.
+     *
+     * @param objectId id of the post or other commented object
+     * @return the comments
+     * @throws FacebookException when a call failed or the fetch was interrupted
+     */
+    public List<ThreadedComment> fetch(String objectId) throws FacebookException {
+        final List<ThreadedComment> comments = new ArrayList<ThreadedComment>();
+        fetch(objectId, new CommentHandler() {
+            public void onComment(ThreadedComment comment) {
+                comments.add(comment);
+            }
+
+            public void onTruncated(String parentId) {
+            }
+        });
+        return comments;
+    }
+
+    /**
+     * Fetches the thread, handing each comment to the handler as it arrives.
+     *
+     * @param objectId id of the post or other commented object
+     * @param handler  receives the comments
+     * @return number of comments handed to the handler
+     * @throws FacebookException when a call failed, the handler aborted or the fetch was interrupted
+     */
+    public int fetch(String objectId, CommentHandler handler) throws FacebookException {
+        Fetch fetch = new Fetch(handler);
+        try {
+            Reading reading = new Reading().limit(pageSize).fields(fields);
+            if (expandReplies) {
+                reading.expand(new FieldExpansion("comments").limit(pageSize).fields(fields));
+            }
+            if (fetch.permit(objectId)) {
+                fetch.readPages(facebook.getPostComments(objectId, reading), objectId, 0);
+            }
+            fetch.group.await();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new FacebookException(ie);
+        } catch (FacebookException fe) {
+            fetch.group.fail(fe);
+        } finally {
+            fetch.group.shutdown();
+        }
+        fetch.group.throwFailure();
+        return fetch.found.get();
+    }
+
+    private final class Fetch {
+        private final CommentHandler handler;
+        private final ConcurrentMap<String, Boolean> seen = new ConcurrentHashMap<String, Boolean>();
+        private final AtomicInteger found = new AtomicInteger();
+        private final AtomicInteger calls = new AtomicInteger();
+        private final Lock handlerLock = new ReentrantLock();
+        private final z_F4JTaskGroup group = new z_F4JTaskGroup(concurrency, THREAD_FACTORY);
+
+        private Fetch(CommentHandler handler) {
+            this.handler = handler;
+        }
+
+        /**
+         * Reads the page and the pages following it.
+         */
+        private void readPages(PagableList<Comment> page, String parentId, int depth)
+                throws FacebookException, InterruptedException {
+            while (page != null && !group.isFailed()) {
+                for (Comment comment : page) {
+                    if (emit(comment, parentId, depth)) {
+                        expand(comment, depth + 1);
+                    }
+                }
+                Paging<Comment> paging = page.getPaging();
+                if (paging == null || paging.getNext() == null || !permit(parentId)) {
+                    return;
+                }
+                page = facebook.fetchNext(paging);
+            }
+        }
+
+        /**
+         * Reads the replies expanded inline and schedules the calls for the rest.
+         */
+        private void expand(final Comment comment, final int depth) throws FacebookException {
+            final PagableList<Comment> inline = comment.getComments();
+            if (inline != null && !inline.isEmpty()) {
+                for (Comment reply : inline) {
+                    if (emit(reply, comment.getId(), depth)) {
+                        expand(reply, depth + 1);
+                    }
+                }
+                final Paging<Comment> paging = inline.getPaging();
+                if (paging != null && paging.getNext() != null) {
+                    group.submit(new z_F4JTaskGroup.Task() {
+                        public void run() throws FacebookException, InterruptedException {
+                            if (permit(comment.getId())) {
+                                readPages(facebook.fetchNext(paging), comment.getId(), depth);
+                            }
+                        }
+                    });
+                }
+            } else if (comment.getCommentCount() != null && comment.getCommentCount() > 0) {
+                group.submit(new z_F4JTaskGroup.Task() {
+                    public void run() throws FacebookException, InterruptedException {
+                        if (permit(comment.getId())) {
+                            Reading reading = new Reading().limit(pageSize).fields(fields);
+                            readPages(facebook.getCommentReplies(comment.getId(), reading), comment.getId(), depth);
+                        }
+                    }
+                });
+            }
+        }
+
+        private boolean emit(Comment comment, String parentId, int depth) throws FacebookException {
+            if (comment.getId() == null || seen.putIfAbsent(comment.getId(), Boolean.TRUE) != null) {
+                return false;
+            }
+            handlerLock.lock();
+            try {
+                handler.onComment(new ThreadedComment(comment, parentId, depth));
+                found.incrementAndGet();
+            } finally {
+                handlerLock.unlock();
+            }
+            return true;
+        }
+
+        /**
+         * @return whether a call may be made for the comments of the parent
+         */
+        private boolean permit(String parentId) throws FacebookException, InterruptedException {
+            if (maxCalls > 0 && calls.incrementAndGet() > maxCalls) {
+                handlerLock.lock();
+                try {
+                    handler.onTruncated(parentId);
+                } finally {
+                    handlerLock.unlock();
+                }
+                return false;
+            }
+            if (budget != null) {
+                budget.acquire();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+import facebook4j.Paging;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+
+/**
+ * The position a paginated traversal of one edge of one object has reached.
+ */
+public final class CrawlCheckpoint implements java.io.Serializable {
+    private static final long serialVersionUID = -2931766027311412045L;
+
+    private final String objectId;
+    private final String edge;
+    private final String next;
+    private final String after;
+    private final String lastItemId;
+    private final long time;
+
+    /**
+     * @param objectId   the ID of the object being crawled
+     * @param edge       the edge being crawled, e.g. <code>feed</code>
+     * @param next       URL of the next page to fetch, or null when the edge is exhausted
+     * @param after      the <code>after</code> cursor of the last page, or null
+     * @param lastItemId the ID of the last item processed, or null
+     */
+    public CrawlCheckpoint(String objectId, String edge, String next, String after, String lastItemId) {
+        this(objectId, edge, next, after, lastItemId, System.currentTimeMillis());
+    }
+
+    /*package*/ CrawlCheckpoint(String objectId, String edge, String next, String after, String lastItemId,
+                                long time) {
+        if (objectId == null || edge == null) {
+            throw new NullPointerException("objectId and edge are required");
+        }
+        this.objectId = objectId;
+        this.edge = edge;
+        this.next = next;
+        this.after = after;
+        this.lastItemId = lastItemId;
+        this.time = time;
+    }
+
+    /**
+     * Creates the checkpoint reached after processing a page.
+     *
+     * @param paging     paging of the page just processed
+     * @param lastItemId the ID of its last item, or null
+     */
+    public static CrawlCheckpoint of(String objectId, String edge, Paging<?> paging, String lastItemId) {
+        String next = null;
+        String after = null;
+        if (paging != null) {
+            next = paging.getNext() == null ? null : paging.getNext().toString();
+            after = paging.getCursors() == null ? null : paging.getCursors().getAfter();
+        }
+        return new CrawlCheckpoint(objectId, edge, next, after, lastItemId);
+    }
+
+    public String getObjectId() {
+        return objectId;
+    }
+
+    public String getEdge() {
+        return edge;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public String getAfter() {
+        return after;
+    }
+
+    public String getLastItemId() {
+        return lastItemId;
+    }
+
+    /**
+     * @return when the checkpoint was taken, in milliseconds since the epoch
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * @return whether the edge has been crawled to its end
+     */
+    public boolean isExhausted() {
+        return next == null;
+    }
+
+    /**
+     * Returns a paging to resume from with <code>facebook.fetchNext(checkpoint.toPaging(Post.class))</code>.
+     *
+     * @param type element type of the edge
+     * @return the paging, or null when the edge is exhausted
+     */
+    public <T> Paging<T> toPaging(final Class<T> type) {
+        if (next == null) {
+            return null;
+        }
+        final URL url;
+        try {
+            url = new URL(next);
+        } catch (MalformedURLException e) {
+            return null;
+        }
+        return new Paging<T>() {
+            public Class<?> getJSONObjectType() {
+                return type;
+            }
+
+            public Cursors getCursors() {
+                if (after == null) {
+                    return null;
+                }
+                return new Cursors() {
+                    public String getAfter() {
+                        return after;
+                    }
+
+                    public String getBefore() {
+                        return null;
+                    }
+                };
+            }
+
+            public URL getPrevious() {
+                return null;
+            }
+
+            public URL getNext() {
+                return url;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CrawlCheckpoint)) return false;
+
+        CrawlCheckpoint that = (CrawlCheckpoint) o;
+
+        if (time != that.time) return false;
+        if (!objectId.equals(that.objectId)) return false;
+        if (!edge.equals(that.edge)) return false;
+        if (next != null ? !next.equals(that.next) : that.next != null) return false;
+        if (after != null ? !after.equals(that.after) : that.after != null) return false;
+        if (lastItemId != null ? !lastItemId.equals(that.lastItemId) : that.lastItemId != null) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = objectId.hashCode();
+        result = 31 * result + edge.hashCode();
+        result = 31 * result + (next != null ? next.hashCode() : 0);
+        result = 31 * result + (after != null ? after.hashCode() : 0);
+        result = 31 * result + (lastItemId != null ? lastItemId.hashCode() : 0);
+        result = 31 * result + (int) (time ^ (time >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CrawlCheckpoint{" +
+                "objectId='" + objectId + '\'' +
+                ", edge='" + edge + '\'' +
+                ", next='" + next + '\'' +
+                ", after='" + after + '\'' +
+                ", lastItemId='" + lastItemId + '\'' +
+                ", time=" + time +
+                '}';
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+import facebook4j.Comment;
+import facebook4j.Facebook;
+import facebook4j.FacebookException;
+import facebook4j.Like;
+import facebook4j.Post;
+import facebook4j.Reading;
+import facebook4j.ResponseList;
+
+import java.util.Date;
+
+/**
+ * The edges a {@link CrawlEngine} can follow.
+ */
+public enum CrawlEdge {
+    /** posts of a page, user or group, newest first */
+    FEED("feed", Post.class) {
+        @Override
+        ResponseList<?> fetch(Facebook facebook, String objectId, Reading reading) throws FacebookException {
+            return facebook.getFeed(objectId, reading);
+        }
+
+        @Override
+        String idOf(Object item) {
+            return ((Post) item).getId();
+        }
+
+        @Override
+        Date createdTimeOf(Object item) {
+            return ((Post) item).getCreatedTime();
+        }
+    },
+    /** comments of a post, or replies of a comment */
+    COMMENTS("comments", Comment.class) {
+        @Override
+        ResponseList<?> fetch(Facebook facebook, String objectId, Reading reading) throws FacebookException {
+            return facebook.getPostComments(objectId, reading);
+        }
+
+        @Override
+        String idOf(Object item) {
+            return ((Comment) item).getId();
+        }
+
+        @Override
+        Date createdTimeOf(Object item) {
+            return ((Comment) item).getCreatedTime();
+        }
+    },
+    /** likes of a post or comment */
+    LIKES("likes", Like.class) {
+        @Override
+        ResponseList<?> fetch(Facebook facebook, String objectId, Reading reading) throws FacebookException {
+            return facebook.getPostLikes(objectId, reading);
+        }
+
+        @Override
+        String idOf(Object item) {
+            return ((Like) item).getId();
+        }
+
+        @Override
+        Date createdTimeOf(Object item) {
+            return null;
+        }
+    };
+
+    private final String name;
+    private final Class<?> type;
+
+    private CrawlEdge(String name, Class<?> type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     * @return the Graph API name of the edge
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return element type of the edge
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Fetches the first page of the edge.
+     */
+    abstract ResponseList<?> fetch(Facebook facebook, String objectId, Reading reading) throws FacebookException;
+
+    abstract String idOf(Object item);
+
+    /**
+     * @return when the item was created, or null if unknown
+     */
+    abstract Date createdTimeOf(Object item);
+}
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+import facebook4j.Facebook;
+import facebook4j.FacebookException;
+import facebook4j.Paging;
+import facebook4j.ResponseList;
+import facebook4j.export.CallBudget;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Crawls object graphs such as page &rarr; post &rarr; comment &rarr; like as declared by a {@link CrawlSpec}.<br>
+ * Every page of every edge is a task, and fetching a page spawns the tasks of the edges of its objects and
+ * the task of the next page. The tasks run on a work-stealing scheduler, so a worker keeps paging the edge
+ * it is on while idle workers take over whole sub-trees.<br>
+ * Calls are spread over the clients added, each with its own {@link CallBudget}, typically one client per
+ * access token. Any {@link Facebook} instance works, including one configured with another HttpClient
+ * implementation or REST base URL, e.g. to load-test against a local stub.
+ * <pre>
+ * CrawlEngine engine = new CrawlEngine(spec);
+ * engine.addClient(facebook, new CallBudget(200, 1, TimeUnit.HOURS));
+ * engine.setParallelism(16);
+ * CrawlMetrics metrics = engine.crawl(pageIds, listener);
+ * </pre>
+ */
+public class CrawlEngine {
+    private static final class Client {
+        private final Facebook facebook;
+        private final CallBudget budget;
+
+        private Client(Facebook facebook, CallBudget budget) {
+            this.facebook = facebook;
+            this.budget = budget;
+        }
+    }
+
+    private final CrawlSpec spec;
+    private final List<Client> clients = new ArrayList<Client>();
+    private int parallelism = 8;
+    private CheckpointStore checkpointStore;
+    private volatile CrawlMetrics metrics;
+
+    public CrawlEngine(CrawlSpec spec) {
+        this.spec = spec;
+    }
+
+    /**
+     * @param facebook a client, usually authorized with its own access token
+     * @param budget   paces the calls made with the client, or null for no pacing
+     */
+    public void addClient(Facebook facebook, CallBudget budget) {
+        clients.add(new Client(facebook, budget));
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(parallelism, 1);
+    }
+
+    /**
+     * Stores a checkpoint for each page once the page and everything reached from it have been crawled, so that
+     * {@link #resume(Collection, CrawlListener)} picks up where an interrupted crawl stopped. Pages whose
+     * sub-tree met an error are not checkpointed, so that they are crawled again.
+     *
+     * @param checkpointStore the store, or null
+     */
+    public void setCheckpointStore(CheckpointStore checkpointStore) {
+        this.checkpointStore = checkpointStore;
+    }
+
+    /**
+     * @return metrics of the running or last crawl, or null before the first crawl
+     */
+    public CrawlMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Crawls from the root objects and returns when everything reachable has been visited.<br>
+     * Checkpoints stored before the crawl are ignored, so edges exhausted by an earlier crawl are crawled again.
+     *
+     * @param rootIds  ids of the root objects
+     * @param listener receives the objects reached
+     * @return metrics of the crawl
+     * @throws FacebookException when the listener aborted or the crawl was interrupted
+     */
+    public CrawlMetrics crawl(Collection<String> rootIds, CrawlListener listener) throws FacebookException {
+        return crawl(rootIds, listener, System.currentTimeMillis());
+    }
+
+    /**
+     * Resumes an interrupted crawl: each edge continues from its stored checkpoint, and edges exhausted
+     * according to their checkpoints are skipped.
+     *
+     * @param rootIds  ids of the root objects
+     * @param listener receives the objects reached
+     * @return metrics of the crawl
+     * @throws FacebookException when the listener aborted or the crawl was interrupted
+     * @see #setCheckpointStore(CheckpointStore)
+     */
+    public CrawlMetrics resume(Collection<String> rootIds, CrawlListener listener) throws FacebookException {
+        return crawl(rootIds, listener, Long.MIN_VALUE);
+    }
+
+    /**
+     * @param checkpointsAfter checkpoints taken at or before this time are ignored
+     */
+    private CrawlMetrics crawl(Collection<String> rootIds, CrawlListener listener, long checkpointsAfter)
+            throws FacebookException {
+        if (clients.isEmpty()) {
+            throw new IllegalStateException("No client added.");
+        }
+        Crawl crawl = new Crawl(listener, new ArrayList<Client>(clients), checkpointsAfter);
+        metrics = crawl.metrics;
+        WorkStealingScheduler scheduler = new WorkStealingScheduler(parallelism);
+        crawl.scheduler = scheduler;
+        crawl.metrics.start(scheduler);
+        try {
+            for (String rootId : rootIds) {
+                for (CrawlSpec.Step step : spec.getRoots()) {
+                    scheduler.submit(crawl.new EdgeTask(rootId, step, 1, null, 1, crawl.new PageState(null, 1)));
+                }
+            }
+            scheduler.awaitQuiescence();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new FacebookException(ie);
+        } finally {
+            scheduler.stop();
+            crawl.metrics.finish();
+        }
+        if (crawl.aborted.get() != null) {
+            throw crawl.aborted.get();
+        }
+        if (checkpointStore != null) {
+            checkpointStore.flush();
+        }
+        return crawl.metrics;
+    }
+
+    private final class Crawl {
+        private final CrawlListener listener;
+        private final List<Client> clients;
+        private final CrawlMetrics metrics = new CrawlMetrics();
+        private final AtomicInteger nextClient = new AtomicInteger();
+        private final AtomicReference<FacebookException> aborted = new AtomicReference<FacebookException>();
+        private final long cutoff;
+        private final long checkpointsAfter;
+        private WorkStealingScheduler scheduler;
+
+        private Crawl(CrawlListener listener, List<Client> clients, long checkpointsAfter) {
+            this.listener = listener;
+            this.clients = clients;
+            this.checkpointsAfter = checkpointsAfter;
+            this.cutoff = spec.getMaxAgeMillis() > 0 ? System.currentTimeMillis() - spec.getMaxAgeMillis() : 0;
+        }
+
+        /**
+         * Picks a client with budget left, waiting on one when all are exhausted.
+         */
+        private Facebook client() throws InterruptedException {
+            int start = nextClient.getAndIncrement() & Integer.MAX_VALUE;
+            for (int i = 0; i < clients.size(); i++) {
+                Client client = clients.get((start + i) % clients.size());
+                if (client.budget == null || client.budget.tryAcquire()) {
+                    metrics.calls.incrementAndGet();
+                    return client.facebook;
+                }
+            }
+            Client client = clients.get(start % clients.size());
+            client.budget.acquire();
+            metrics.calls.incrementAndGet();
+            return client.facebook;
+        }
+
+        private void abort(FacebookException fe) {
+            if (aborted.compareAndSet(null, fe)) {
+                scheduler.stop();
+            }
+        }
+
+        /**
+         * Tracks a fetched page until it and the pages reached from it are done, then stores its checkpoint.<br>
+         * A page waits for the edges spawned by its objects and, when it is not the first page of its edge, for
+         * the page before it, so the checkpoints of an edge are stored in order. The last page of an edge
+         * releases the page whose object the edge belongs to.
+         */
+        private final class PageState {
+            private final PageState parent;
+            private final AtomicInteger pending;
+            // both written before the page releases itself, read after the count drops to zero
+            private CrawlCheckpoint checkpoint;
+            private PageState successor;
+
+            private PageState(PageState parent, int pending) {
+                this.parent = parent;
+                this.pending = new AtomicInteger(pending);
+            }
+
+            /**
+             * @return the state of the first page of an edge of an object on this page
+             */
+            private PageState child() {
+                pending.incrementAndGet();
+                return new PageState(this, 1);
+            }
+
+            /**
+             * @return the state of the page after this one
+             */
+            private PageState next() {
+                successor = new PageState(parent, 2);
+                return successor;
+            }
+
+            private void release() throws FacebookException {
+                PageState state = this;
+                while (state != null && state.pending.decrementAndGet() == 0) {
+                    if (state.checkpoint != null && checkpointStore != null) {
+                        checkpointStore.put(state.checkpoint);
+                    }
+                    state = state.successor != null ? state.successor : state.parent;
+                }
+            }
+        }
+
+        /**
+         * Fetches one page of an edge.<br>
+         * A task that is skipped because the crawl aborted, or whose fetch failed, never releases its page, so no
+         * checkpoint above it is stored.
+         */
+        private final class EdgeTask implements Runnable {
+            private final String objectId;
+            private final CrawlSpec.Step step;
+            private final int depth;
+            private final Paging<?> paging;
+            private final int page;
+            private final PageState state;
+
+            private EdgeTask(String objectId, CrawlSpec.Step step, int depth, Paging<?> paging, int page,
+                             PageState state) {
+                this.objectId = objectId;
+                this.step = step;
+                this.depth = depth;
+                this.paging = paging;
+                this.page = page;
+                this.state = state;
+            }
+
+            public void run() {
+                try {
+                    crawl();
+                } catch (RuntimeException re) {
+                    // a bug in the listener or the edge: stop the crawl rather than lose the sub-tree silently
+                    metrics.errors.incrementAndGet();
+                    abort(new FacebookException(re));
+                }
+            }
+
+            private void crawl() {
+                if (aborted.get() != null) {
+                    return;
+                }
+                CrawlEdge edge = step.edge;
+                ResponseList<?> items;
+                try {
+                    Paging<?> from = paging;
+                    if (from == null && checkpointStore != null) {
+                        CrawlCheckpoint checkpoint = checkpointStore.get(objectId, edge.getName());
+                        if (checkpoint != null && checkpoint.getTime() > checkpointsAfter) {
+                            if (checkpoint.isExhausted()) {
+                                state.release();
+                                return;
+                            }
+                            from = checkpoint.toPaging(edge.getType());
+                        }
+                    }
+                    items = from == null ? edge.fetch(client(), objectId, step.reading) : client().fetchNext(from);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    abort(new FacebookException(ie));
+                    return;
+                } catch (FacebookException fe) {
+                    metrics.errors.incrementAndGet();
+                    listener.onError(objectId, edge, fe);
+                    return;
+                }
+                if (items == null) {
+                    try {
+                        state.release();
+                    } catch (FacebookException fe) {
+                        abort(fe);
+                    }
+                    return;
+                }
+                metrics.pages.incrementAndGet();
+
+                boolean reachedCutoff = false;
+                String lastId = null;
+                try {
+                    for (Object item : items) {
+                        Date createdTime = edge.createdTimeOf(item);
+                        if (createdTime != null && createdTime.getTime() < cutoff) {
+                            reachedCutoff = true;
+                            continue;
+                        }
+                        CrawlNode node = new CrawlNode(edge, item, objectId, depth);
+                        lastId = node.getId();
+                        metrics.nodes.incrementAndGet();
+                        listener.onNode(node);
+                        if (depth < spec.getMaxDepth() && lastId != null) {
+                            for (CrawlSpec.Step child : spec.getSteps(edge)) {
+                                scheduler.submit(new EdgeTask(lastId, child, depth + 1, null, 1, state.child()));
+                            }
+                        }
+                    }
+                    Paging<?> next = items.getPaging();
+                    boolean more = next != null && next.getNext() != null && page < spec.getMaxPagesPerEdge()
+                            && !(reachedCutoff && edge == CrawlEdge.FEED);
+                    state.checkpoint = CrawlCheckpoint.of(objectId, edge.getName(), next, lastId);
+                    // submitted last so that this worker pages on while the children are stolen
+                    if (more) {
+                        scheduler.submit(new EdgeTask(objectId, step, depth, next, page + 1, state.next()));
+                    }
+                    state.release();
+                } catch (FacebookException fe) {
+                    abort(fe);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+import facebook4j.FacebookException;
+
+/**
+ * Receives what a {@link CrawlEngine} reaches.
+ * Calls are made from the crawl's worker threads, several at once, so implementations have to be thread-safe.
+ */
+public interface CrawlListener {
+    /**
+     * @param node an object reached
+     * @throws FacebookException to abort the crawl. A RuntimeException aborts it as well, wrapped in a
+     *                           FacebookException.
+     */
+    void onNode(CrawlNode node) throws FacebookException;
+
+    /**
+     * Called when a page of an edge could not be fetched; the crawl goes on without that page and those after it.
+     *
+     * @param objectId id of the object the edge belongs to
+     * @param edge     the edge
+     * @param error    the failure
+     */
+    void onError(String objectId, CrawlEdge edge, FacebookException error);
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of a crawl, readable while it runs.
+ */
+public class CrawlMetrics implements CrawlMetricsMBean {
+    /*package*/ final AtomicLong calls = new AtomicLong();
+    /*package*/ final AtomicLong pages = new AtomicLong();
+    /*package*/ final AtomicLong nodes = new AtomicLong();
+    /*package*/ final AtomicLong errors = new AtomicLong();
+    private final long startTime = System.currentTimeMillis();
+    private volatile long endTime;
+    private volatile WorkStealingScheduler scheduler;
+    private volatile long steals;
+
+    /*package*/ void start(WorkStealingScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /*package*/ void finish() {
+        steals = scheduler.getStealCount();
+        scheduler = null;
+        endTime = System.currentTimeMillis();
+    }
+
+    public long getCallCount() {
+        return calls.get();
+    }
+
+    public long getPageCount() {
+        return pages.get();
+    }
+
+    public long getNodeCount() {
+        return nodes.get();
+    }
+
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+    public long getStealCount() {
+        WorkStealingScheduler running = scheduler;
+        return running != null ? running.getStealCount() : steals;
+    }
+
+    public long getElapsedMillis() {
+        long end = endTime;
+        return (end != 0 ? end : System.currentTimeMillis()) - startTime;
+    }
+
+    public double getCallsPerSecond() {
+        return perSecond(getCallCount());
+    }
+
+    public double getNodesPerSecond() {
+        return perSecond(getNodeCount());
+    }
+
+    private double perSecond(long count) {
+        long elapsed = getElapsedMillis();
+        return elapsed == 0 ? 0 : count * 1000.0 / elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return "CrawlMetrics{" +
+                "calls=" + getCallCount() +
+                ", pages=" + getPageCount() +
+                ", nodes=" + getNodeCount() +
+                ", errors=" + getErrorCount() +
+                ", steals=" + getStealCount() +
+                ", elapsedMillis=" + getElapsedMillis() +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+/**
+ * MBean interface for CrawlMetrics.
+ */
+public interface CrawlMetricsMBean {
+    /**
+     * @return the number of API calls made
+     */
+    long getCallCount();
+
+    /**
+     * @return the number of pages fetched
+     */
+    long getPageCount();
+
+    /**
+     * @return the number of objects handed to the listener
+     */
+    long getNodeCount();
+
+    /**
+     * @return the number of pages which could not be fetched
+     */
+    long getErrorCount();
+
+    /**
+     * @return the number of tasks taken from another worker's queue
+     */
+    long getStealCount();
+
+    /**
+     * @return milliseconds since the crawl started, up to its end
+     */
+    long getElapsedMillis();
+
+    double getCallsPerSecond();
+
+    double getNodesPerSecond();
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+/**
+ * An object reached by a {@link CrawlEngine}.
+ */
+public final class CrawlNode {
+    private final CrawlEdge edge;
+    private final Object object;
+    private final String parentId;
+    private final int depth;
+
+    /*package*/ CrawlNode(CrawlEdge edge, Object object, String parentId, int depth) {
+        this.edge = edge;
+        this.object = object;
+        this.parentId = parentId;
+        this.depth = depth;
+    }
+
+    /**
+     * @return the edge the object was reached through
+     */
+    public CrawlEdge getEdge() {
+        return edge;
+    }
+
+    /**
+     * @return the object, of the type of {@link CrawlEdge#getType()}
+     */
+    public Object getObject() {
+        return object;
+    }
+
+    public String getId() {
+        return edge.idOf(object);
+    }
+
+    /**
+     * @return id of the object the edge belongs to
+     */
+    public String getParentId() {
+        return parentId;
+    }
+
+    /**
+     * @return 1 for objects reached from a root, 2 for their children and so on
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    @Override
+    public String toString() {
+        return "CrawlNode{" +
+                "edge=" + edge +
+                ", id='" + getId() + '\'' +
+                ", parentId='" + parentId + '\'' +
+                ", depth=" + depth +
+                '}';
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+import facebook4j.Reading;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Declares what a {@link CrawlEngine} traverses.
+ * <pre>
+ * CrawlSpec spec = new CrawlSpec()
+ *         .root(CrawlEdge.FEED, new Reading().limit(100))
+ *         .follow(CrawlEdge.FEED, CrawlEdge.COMMENTS, new Reading().limit(100))
+ *         .follow(CrawlEdge.FEED, CrawlEdge.LIKES, null)
+ *         .follow(CrawlEdge.COMMENTS, CrawlEdge.COMMENTS, null)
+ *         .maxAge(7, TimeUnit.DAYS);
+ * </pre>
+ */
+public class CrawlSpec {
+    /*package*/ static final class Step {
+        /*package*/ final CrawlEdge edge;
+        /*package*/ final Reading reading;
+
+        private Step(CrawlEdge edge, Reading reading) {
+            this.edge = edge;
+            this.reading = reading;
+        }
+    }
+
+    private final List<Step> roots = new ArrayList<Step>();
+    private final Map<CrawlEdge, List<Step>> steps = new EnumMap<CrawlEdge, List<Step>>(CrawlEdge.class);
+    private int maxDepth = Integer.MAX_VALUE;
+    private long maxAgeMillis;
+    private int maxPagesPerEdge = Integer.MAX_VALUE;
+
+    /**
+     * Follows the edge from each root object.
+     *
+     * @param edge    the edge
+     * @param reading reading parameters of the edge, or null
+     * @return this spec
+     */
+    public CrawlSpec root(CrawlEdge edge, Reading reading) {
+        roots.add(new Step(edge, reading));
+        return this;
+    }
+
+    /**
+     * Follows the edge from each object reached through another edge.
+     *
+     * @param from    the edge objects were reached through
+     * @param edge    the edge to follow from them
+     * @param reading reading parameters of the edge, or null
+     * @return this spec
+     */
+    public CrawlSpec follow(CrawlEdge from, CrawlEdge edge, Reading reading) {
+        if (from == CrawlEdge.LIKES) {
+            throw new IllegalArgumentException("likes have no edges to follow");
+        }
+        List<Step> list = steps.get(from);
+        if (list == null) {
+            list = new ArrayList<Step>();
+            steps.put(from, list);
+        }
+        list.add(new Step(edge, reading));
+        return this;
+    }
+
+    /**
+     * @param maxDepth depth of the deepest objects reached, 1 being the objects of the root edges
+     * @return this spec
+     */
+    public CrawlSpec maxDepth(int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("maxDepth must be 1 or more");
+        }
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * Skips posts and comments created longer ago than the age, and stops paging a feed at them.
+     *
+     * @return this spec
+     */
+    public CrawlSpec maxAge(long age, TimeUnit unit) {
+        this.maxAgeMillis = unit.toMillis(age);
+        return this;
+    }
+
+    /**
+     * @param maxPagesPerEdge pages fetched per edge of each object at most
+     * @return this spec
+     */
+    public CrawlSpec maxPagesPerEdge(int maxPagesPerEdge) {
+        if (maxPagesPerEdge < 1) {
+            throw new IllegalArgumentException("maxPagesPerEdge must be 1 or more");
+        }
+        this.maxPagesPerEdge = maxPagesPerEdge;
+        return this;
+    }
+
+    /*package*/ List<Step> getRoots() {
+        return roots;
+    }
+
+    /*package*/ List<Step> getSteps(CrawlEdge from) {
+        List<Step> list = steps.get(from);
+        return list != null ? list : Collections.<Step>emptyList();
+    }
+
+    /*package*/ int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /*package*/ long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+
+    /*package*/ int getMaxPagesPerEdge() {
+        return maxPagesPerEdge;
+    }
+}
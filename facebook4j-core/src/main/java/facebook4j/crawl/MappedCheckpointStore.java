@@ -0,0 +1,494 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+import facebook4j.FacebookException;
+import facebook4j.internal.logging.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * A {@link CheckpointStore} backed by an append-only log in a memory-mapped file.<br>
+ * Every change is appended as a record framed by its length and CRC-32; the latest checkpoints are kept in memory.
+ * Writes reach the disk in batches, every {@link #setSyncEvery(int) n} records or
+ * {@link #setSyncIntervalMillis(long) t} milliseconds, whichever comes first, or on {@link #flush()}.
+ * When stale records outweigh live ones the log is compacted into a sibling file which then replaces the old one by a
+ * rename; the old log is never deleted before the compacted one is in place.<br>
+ * On opening, the log is scanned up to the first torn or corrupt record, so a crash loses at most the records
+ * written since the last sync.
+ * <pre>
+ * CheckpointStore store = new MappedCheckpointStore(new File("crawl.log"));
+ * CrawlCheckpoint checkpoint = store.get(pageId, "feed");
+ * ResponseList&lt;Post&gt; page = checkpoint == null ? facebook.getFeed(pageId)
+ *         : facebook.fetchNext(checkpoint.toPaging(Post.class));
+ * </pre>
+ */
+public class MappedCheckpointStore implements CheckpointStore {
+    private static final Logger logger = Logger.getLogger(MappedCheckpointStore.class);
+
+    private static final int HEADER_SIZE = 8;
+    private static final int INITIAL_SIZE = 1024 * 1024;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    private final File file;
+    private final Lock lock = new ReentrantLock();
+    private final Map<String, CrawlCheckpoint> checkpoints = new HashMap<String, CrawlCheckpoint>();
+    private final Map<String, Integer> recordSizes = new HashMap<String, Integer>();
+    private int syncEvery = 256;
+    private long syncIntervalMillis = 1000;
+    private int compactionThreshold = 4 * 1024 * 1024;
+
+    private RandomAccessFile raf;
+    private FileChannel channel;
+    private MappedByteBuffer log;
+    private int position;
+    private long liveBytes;
+    private int unsynced;
+    private long lastSync = System.currentTimeMillis();
+
+    /**
+     * Opens the log, creating it if needed, and recovers the checkpoints it holds.
+     *
+     * @throws FacebookException when the file cannot be opened
+     */
+    public MappedCheckpointStore(File file) throws FacebookException {
+        if (file == null) {
+            throw new NullPointerException("file is null");
+        }
+        this.file = file;
+        try {
+            restoreBackup();
+            open();
+            recover();
+        } catch (IOException ioe) {
+            throw new FacebookException("Failed to open checkpoints: " + file, ioe);
+        }
+    }
+
+    /**
+     * @param syncEvery number of records after which the log is forced to disk
+     */
+    public void setSyncEvery(int syncEvery) {
+        this.syncEvery = Math.max(syncEvery, 1);
+    }
+
+    /**
+     * @param syncIntervalMillis time after which pending records are forced to disk on the next write
+     */
+    public void setSyncIntervalMillis(long syncIntervalMillis) {
+        this.syncIntervalMillis = syncIntervalMillis;
+    }
+
+    /**
+     * @param compactionThreshold size in bytes below which the log is never compacted
+     */
+    public void setCompactionThreshold(int compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public CrawlCheckpoint get(String objectId, String edge) throws FacebookException {
+        lock.lock();
+        try {
+            ensureOpen();
+            return checkpoints.get(keyOf(objectId, edge));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(CrawlCheckpoint checkpoint) throws FacebookException {
+        lock.lock();
+        try {
+            ensureOpen();
+            byte[] record = encode(checkpoint);
+            append(record);
+            String key = keyOf(checkpoint.getObjectId(), checkpoint.getEdge());
+            checkpoints.put(key, checkpoint);
+            Integer previous = recordSizes.put(key, HEADER_SIZE + record.length);
+            liveBytes += HEADER_SIZE + record.length - (previous == null ? 0 : previous);
+            afterWrite();
+        } catch (IOException ioe) {
+            throw new FacebookException("Failed to write checkpoint: " + file, ioe);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(String objectId, String edge) throws FacebookException {
+        lock.lock();
+        try {
+            ensureOpen();
+            String key = keyOf(objectId, edge);
+            if (!checkpoints.containsKey(key)) {
+                return;
+            }
+            append(encodeRemove(objectId, edge));
+            checkpoints.remove(key);
+            liveBytes -= recordSizes.remove(key);
+            afterWrite();
+        } catch (IOException ioe) {
+            throw new FacebookException("Failed to write checkpoint: " + file, ioe);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void flush() throws FacebookException {
+        lock.lock();
+        try {
+            ensureOpen();
+            sync();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() throws FacebookException {
+        lock.lock();
+        try {
+            if (channel == null) {
+                return;
+            }
+            sync();
+            closeFile();
+        } catch (IOException ioe) {
+            throw new FacebookException("Failed to close checkpoints: " + file, ioe);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of checkpoints held
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return checkpoints.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return bytes of the log in use, live and stale records together
+     */
+    public int getLogSize() {
+        lock.lock();
+        try {
+            return position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String keyOf(String objectId, String edge) {
+        return objectId + "/" + edge;
+    }
+
+    private void ensureOpen() {
+        if (channel == null) {
+            throw new IllegalStateException("Checkpoint store already closed: " + file);
+        }
+    }
+
+    private void open() throws IOException {
+        raf = new RandomAccessFile(file, "rw");
+        channel = raf.getChannel();
+        long length = raf.length();
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Checkpoint log too large: " + length);
+        }
+        int size = (int) Math.max(length, INITIAL_SIZE);
+        if (length < size) {
+            raf.setLength(size);
+        }
+        log = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private void closeFile() throws IOException {
+        log = null;
+        try {
+            channel.close();
+            raf.close();
+        } finally {
+            channel = null;
+            raf = null;
+        }
+    }
+
+    private void recover() throws IOException {
+        int pos = 0;
+        int limit = log.capacity();
+        CRC32 crc = new CRC32();
+        boolean torn = false;
+        while (pos + HEADER_SIZE <= limit) {
+            int length = log.getInt(pos);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || pos + HEADER_SIZE + length > limit) {
+                torn = true;
+                break;
+            }
+            byte[] record = new byte[length];
+            ByteBuffer view = log.duplicate();
+            view.position(pos + HEADER_SIZE);
+            view.get(record);
+            crc.reset();
+            crc.update(record, 0, length);
+            if ((int) crc.getValue() != log.getInt(pos + 4)) {
+                torn = true;
+                break;
+            }
+            apply(record);
+            pos += HEADER_SIZE + length;
+        }
+        position = pos;
+        if (torn) {
+            logger.warn("Discarding a torn checkpoint record at offset ", String.valueOf(pos));
+            for (int i = pos; i < limit; i++) {
+                log.put(i, (byte) 0);
+            }
+            log.force();
+        }
+    }
+
+    private void apply(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        byte type = in.readByte();
+        String objectId = in.readUTF();
+        String edge = in.readUTF();
+        String key = keyOf(objectId, edge);
+        if (type == PUT) {
+            CrawlCheckpoint checkpoint = new CrawlCheckpoint(objectId, edge, readNullable(in), readNullable(in),
+                    readNullable(in), in.readLong());
+            checkpoints.put(key, checkpoint);
+            Integer previous = recordSizes.put(key, HEADER_SIZE + record.length);
+            liveBytes += HEADER_SIZE + record.length - (previous == null ? 0 : previous);
+        } else if (type == REMOVE) {
+            checkpoints.remove(key);
+            Integer previous = recordSizes.remove(key);
+            liveBytes -= previous == null ? 0 : previous;
+        } else {
+            throw new IOException("Unknown checkpoint record: " + type);
+        }
+    }
+
+    private static byte[] encode(CrawlCheckpoint checkpoint) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(PUT);
+        out.writeUTF(checkpoint.getObjectId());
+        out.writeUTF(checkpoint.getEdge());
+        writeNullable(out, checkpoint.getNext());
+        writeNullable(out, checkpoint.getAfter());
+        writeNullable(out, checkpoint.getLastItemId());
+        out.writeLong(checkpoint.getTime());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeRemove(String objectId, String edge) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(REMOVE);
+        out.writeUTF(objectId);
+        out.writeUTF(edge);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private void append(byte[] record) throws IOException {
+        int needed = HEADER_SIZE + record.length;
+        if (position + needed > log.capacity()) {
+            grow(position + needed);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, record.length);
+        ByteBuffer view = log.duplicate();
+        view.position(position + HEADER_SIZE);
+        view.put(record);
+        log.putInt(position + 4, (int) crc.getValue());
+        // the length goes last: until it is written, recovery sees the end of the log here
+        log.putInt(position, record.length);
+        position += needed;
+        unsynced++;
+    }
+
+    private void grow(int needed) throws IOException {
+        long size = log.capacity();
+        while (size < needed) {
+            size *= 2;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Checkpoint log too large: " + size);
+        }
+        log.force();
+        raf.setLength(size);
+        log = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private void afterWrite() throws IOException {
+        long now = System.currentTimeMillis();
+        if (unsynced >= syncEvery || now - lastSync >= syncIntervalMillis) {
+            sync();
+        }
+        if (position > compactionThreshold && position > liveBytes * 2) {
+            compact();
+        }
+    }
+
+    private void sync() {
+        if (unsynced > 0) {
+            log.force();
+            unsynced = 0;
+        }
+        lastSync = System.currentTimeMillis();
+    }
+
+    /**
+     * Writes the live checkpoints to a new log and swaps it in with a rename.
+     */
+    private void compact() throws IOException {
+        File tmp = new File(file.getPath() + ".compact");
+        FileOutputStream out = new FileOutputStream(tmp);
+        Map<String, Integer> sizes = new HashMap<String, Integer>();
+        int written = 0;
+        try {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+            CRC32 crc = new CRC32();
+            for (Map.Entry<String, CrawlCheckpoint> entry : checkpoints.entrySet()) {
+                byte[] record = encode(entry.getValue());
+                crc.reset();
+                crc.update(record, 0, record.length);
+                data.writeInt(record.length);
+                data.writeInt((int) crc.getValue());
+                data.write(record);
+                sizes.put(entry.getKey(), HEADER_SIZE + record.length);
+                written += HEADER_SIZE + record.length;
+            }
+            data.flush();
+            out.getFD().sync();
+        } catch (IOException ioe) {
+            out.close();
+            tmp.delete();
+            throw ioe;
+        } finally {
+            out.close();
+        }
+        sync();
+        closeFile();
+        try {
+            replace(tmp);
+        } catch (IOException ioe) {
+            tmp.delete();
+            reopen();
+            throw ioe;
+        }
+        open();
+        position = written;
+        liveBytes = written;
+        recordSizes.clear();
+        recordSizes.putAll(sizes);
+        logger.debug("Compacted checkpoints, live bytes: ", String.valueOf(written));
+    }
+
+    /**
+     * Moves the compacted log over the old one. Where a rename cannot replace an existing file, the old log is
+     * first moved aside, and moved back if the compacted one cannot take its place.
+     */
+    private void replace(File compacted) throws IOException {
+        if (compacted.renameTo(file)) {
+            return;
+        }
+        File old = backupOf(file);
+        if (!file.renameTo(old)) {
+            throw new IOException("cannot rename " + file + " to " + old);
+        }
+        if (!compacted.renameTo(file)) {
+            if (!old.renameTo(file)) {
+                throw new IOException("cannot rename " + old + " back to " + file);
+            }
+            throw new IOException("cannot rename " + compacted + " to " + file);
+        }
+        if (!old.delete()) {
+            logger.warn("Failed to delete ", old.getPath());
+        }
+    }
+
+    /**
+     * Reopens the log after a failed compaction and recovers it from the records on disk.
+     */
+    private void reopen() throws IOException {
+        restoreBackup();
+        open();
+        checkpoints.clear();
+        recordSizes.clear();
+        liveBytes = 0;
+        recover();
+    }
+
+    /**
+     * Puts back the old log when a compaction was interrupted after moving it aside.
+     */
+    private void restoreBackup() throws IOException {
+        File old = backupOf(file);
+        if (!file.exists() && old.exists() && !old.renameTo(file)) {
+            throw new IOException("cannot rename " + old + " to " + file);
+        }
+    }
+
+    private static File backupOf(File file) {
+        return new File(file.getPath() + ".old");
+    }
+
+    @Override
+    public String toString() {
+        return "MappedCheckpointStore{" +
+                "file=" + file +
+                '}';
+    }
+}
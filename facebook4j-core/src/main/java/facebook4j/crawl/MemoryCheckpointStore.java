@@ -0,0 +1,45 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link CheckpointStore} holding checkpoints in memory only.
+ */
+public class MemoryCheckpointStore implements CheckpointStore {
+    private final ConcurrentMap<String, CrawlCheckpoint> checkpoints = new ConcurrentHashMap<String, CrawlCheckpoint>();
+
+    public CrawlCheckpoint get(String objectId, String edge) {
+        return checkpoints.get(objectId + "/" + edge);
+    }
+
+    public void put(CrawlCheckpoint checkpoint) {
+        checkpoints.put(checkpoint.getObjectId() + "/" + checkpoint.getEdge(), checkpoint);
+    }
+
+    public void remove(String objectId, String edge) {
+        checkpoints.remove(objectId + "/" + edge);
+    }
+
+    public void flush() {
+    }
+
+    public void close() {
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+import facebook4j.Comment;
+
+/**
+ * A comment of a flattened comment thread, linked to its parent.
+ *
+ * @see CommentThreadFetcher
+ */
+public final class ThreadedComment implements java.io.Serializable {
+    private static final long serialVersionUID = -3902718004519827313L;
+
+    private final Comment comment;
+    private final String parentId;
+    private final int depth;
+
+    /*package*/ ThreadedComment(Comment comment, String parentId, int depth) {
+        this.comment = comment;
+        this.parentId = parentId;
+        this.depth = depth;
+    }
+
+    public Comment getComment() {
+        return comment;
+    }
+
+    public String getId() {
+        return comment.getId();
+    }
+
+    /**
+     * @return id of the comment replied to, or the id of the commented object for a top-level comment
+     */
+    public String getParentId() {
+        return parentId;
+    }
+
+    /**
+     * @return 0 for a top-level comment, 1 for a reply and so on
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    @Override
+    public String toString() {
+        return "ThreadedComment{" +
+                "id=" + comment.getId() +
+                ", parentId='" + parentId + '\'' +
+                ", depth=" + depth +
+                '}';
+    }
+}
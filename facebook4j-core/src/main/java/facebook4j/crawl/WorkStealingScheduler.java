@@ -0,0 +1,227 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+import facebook4j.internal.logging.Logger;
+import facebook4j.internal.util.z_F4JDaemonThreadFactory;
+
+import java.util.LinkedList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs tasks which spawn further tasks on a fixed set of workers, each with its own deque.<br>
+ * A worker runs its newest task first, which keeps it paging the edge it is on, and an idle worker steals the
+ * oldest task of another, which spreads whole sub-trees rather than single pages.
+ */
+/*package*/ final class WorkStealingScheduler {
+    private static final Logger logger = Logger.getLogger(WorkStealingScheduler.class);
+
+    private static final ThreadFactory THREAD_FACTORY = new z_F4JDaemonThreadFactory("facebook4j-crawl");
+
+    private final Worker[] workers;
+    private final ThreadLocal<Worker> currentWorker = new ThreadLocal<Worker>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger nextWorker = new AtomicInteger();
+    private final AtomicLong steals = new AtomicLong();
+    private final Lock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private int idle;
+    private volatile boolean stopped;
+
+    /*package*/ WorkStealingScheduler(int parallelism) {
+        workers = new Worker[Math.max(parallelism, 1)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(i);
+        }
+        for (Worker worker : workers) {
+            THREAD_FACTORY.newThread(worker).start();
+        }
+    }
+
+    /**
+     * Queues the task on the calling worker, or on some worker when called from outside.
+     */
+    /*package*/ void submit(Runnable task) {
+        if (stopped) {
+            return;
+        }
+        pending.incrementAndGet();
+        Worker worker = currentWorker.get();
+        if (worker == null) {
+            worker = workers[(nextWorker.getAndIncrement() & Integer.MAX_VALUE) % workers.length];
+        }
+        worker.push(task);
+        lock.lock();
+        try {
+            if (idle > 0) {
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every task submitted, directly or by other tasks, has run, or until stopped.
+     */
+    /*package*/ void awaitQuiescence() throws InterruptedException {
+        lock.lock();
+        try {
+            while (pending.get() > 0 && !stopped) {
+                changed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the workers; queued tasks are dropped.
+     */
+    /*package*/ void stop() {
+        stopped = true;
+        lock.lock();
+        try {
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*package*/ long getStealCount() {
+        return steals.get();
+    }
+
+    private boolean hasWork() {
+        for (Worker worker : workers) {
+            if (!worker.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class Worker implements Runnable {
+        private final int index;
+        private final LinkedList<Runnable> deque = new LinkedList<Runnable>();
+        private final Lock dequeLock = new ReentrantLock();
+
+        private Worker(int index) {
+            this.index = index;
+        }
+
+        public void run() {
+            currentWorker.set(this);
+            try {
+                while (!stopped) {
+                    Runnable task = pollLast();
+                    if (task == null) {
+                        task = steal();
+                    }
+                    if (task == null) {
+                        waitForWork();
+                        continue;
+                    }
+                    try {
+                        task.run();
+                    } catch (RuntimeException re) {
+                        logger.error("Crawl task failed", re);
+                    } finally {
+                        if (pending.decrementAndGet() == 0) {
+                            lock.lock();
+                            try {
+                                changed.signalAll();
+                            } finally {
+                                lock.unlock();
+                            }
+                        }
+                    }
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private Runnable steal() {
+            for (int i = 1; i < workers.length; i++) {
+                Runnable task = workers[(index + i) % workers.length].pollFirst();
+                if (task != null) {
+                    steals.incrementAndGet();
+                    return task;
+                }
+            }
+            return null;
+        }
+
+        private void waitForWork() throws InterruptedException {
+            lock.lock();
+            try {
+                while (!stopped && !hasWork()) {
+                    idle++;
+                    try {
+                        changed.await();
+                    } finally {
+                        idle--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void push(Runnable task) {
+            dequeLock.lock();
+            try {
+                deque.addLast(task);
+            } finally {
+                dequeLock.unlock();
+            }
+        }
+
+        private Runnable pollLast() {
+            dequeLock.lock();
+            try {
+                return deque.isEmpty() ? null : deque.removeLast();
+            } finally {
+                dequeLock.unlock();
+            }
+        }
+
+        private Runnable pollFirst() {
+            dequeLock.lock();
+            try {
+                return deque.isEmpty() ? null : deque.removeFirst();
+            } finally {
+                dequeLock.unlock();
+            }
+        }
+
+        private boolean isEmpty() {
+            dequeLock.lock();
+            try {
+                return deque.isEmpty();
+            } finally {
+                dequeLock.unlock();
+            }
+        }
+    }
+}
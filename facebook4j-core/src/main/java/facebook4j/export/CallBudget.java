@@ -0,0 +1,104 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.export;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A token bucket limiting how many API calls may be made per interval.<br>
+ * Tokens refill continuously, and up to a full interval's worth may be spent in a burst.
+ * One budget can be shared by several exporters to keep them under a common quota.
+ */
+public class CallBudget {
+    private final int calls;
+    private final long intervalNanos;
+    private final Lock lock = new ReentrantLock();
+    private final Condition refilled = lock.newCondition();
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param calls    calls allowed per interval
+     * @param interval length of the interval
+     * @param unit     unit of the interval
+     */
+    public CallBudget(int calls, long interval, TimeUnit unit) {
+        if (calls <= 0 || interval <= 0) {
+            throw new IllegalArgumentException("calls and interval must be positive");
+        }
+        this.calls = calls;
+        this.intervalNanos = unit.toNanos(interval);
+        this.tokens = calls;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Blocks until a call may be made.
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                long waitNanos = (long) ((1 - tokens) * intervalNanos / calls);
+                refilled.awaitNanos(Math.max(waitNanos, 1));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return true if a call may be made now, in which case the call is counted
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            refill();
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(calls, tokens + (double) (now - lastRefill) * calls / intervalNanos);
+        lastRefill = now;
+    }
+
+    @Override
+    public String toString() {
+        return "CallBudget{" +
+                "calls=" + calls +
+                ", intervalNanos=" + intervalNanos +
+                '}';
+    }
+}
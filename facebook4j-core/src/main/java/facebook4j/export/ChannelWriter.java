@@ -0,0 +1,193 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Buffers encoded elements in a pooled buffer and drains it to a channel, optionally through gzip.<br>
+ * With gzip on, every {@link #checkpoint()} ends the current gzip member, so everything written up to a
+ * checkpoint can be decompressed even if the export dies afterwards. {@link #getPosition()} is then the end of
+ * that member in the channel.
+ */
+/*package*/ final class ChannelWriter {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final WritableByteChannel channel;
+    private final boolean gzip;
+    private final BufferPool pool;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder;
+    private final OutputStream channelOut = new ChannelOutputStream();
+    private GZIPOutputStream member;
+    private long bytesWritten;
+    private long position;
+
+    /**
+     * @param position position of the channel the writer starts at
+     */
+    /*package*/ ChannelWriter(WritableByteChannel channel, boolean gzip, BufferPool pool, long position) {
+        this.channel = channel;
+        this.position = position;
+        this.gzip = gzip;
+        this.pool = pool;
+        this.buffer = pool.acquire();
+        this.encoder = UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /*package*/ void writeByte(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put((byte) b);
+    }
+
+    /*package*/ void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    /*package*/ void writeUTF8(String str) throws IOException {
+        CharBuffer in = CharBuffer.wrap(str);
+        encoder.reset();
+        while (encoder.encode(in, buffer, true) == CoderResult.OVERFLOW) {
+            drain();
+        }
+        while (encoder.flush(buffer) == CoderResult.OVERFLOW) {
+            drain();
+        }
+    }
+
+    /**
+     * Pushes everything written so far to the channel.
+     */
+    /*package*/ void checkpoint() throws IOException {
+        drain();
+        if (member != null) {
+            member.finish();
+            member = null;
+        }
+    }
+
+    /**
+     * Flushes and returns the buffer to the pool. The channel is left open.
+     */
+    /*package*/ void close() throws IOException {
+        checkpoint();
+        pool.release(buffer);
+    }
+
+    /**
+     * Returns the buffer to the pool without flushing it.
+     */
+    /*package*/ void discard() {
+        pool.release(buffer);
+    }
+
+    /**
+     * @return bytes handed to the channel or, with gzip on, to the compressor
+     */
+    /*package*/ long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * @return position of the channel after the bytes written to it so far, compressed if gzip is on
+     */
+    /*package*/ long getPosition() {
+        return position;
+    }
+
+    private void drain() throws IOException {
+        if (buffer.position() == 0) {
+            // nothing to write, and no empty gzip member to start
+            return;
+        }
+        buffer.flip();
+        bytesWritten += buffer.remaining();
+        if (gzip) {
+            if (member == null) {
+                member = new GZIPOutputStream(channelOut, buffer.capacity());
+            }
+            member.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        } else {
+            position += buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes the compressor's output straight to the channel, counting it.
+     */
+    private final class ChannelOutputStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ByteBuffer bytes = ByteBuffer.wrap(b, off, len);
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            position += len;
+        }
+    }
+
+    /**
+     * @return the number of bytes {@link #writeUTF8(String)} produces for the string
+     */
+    /*package*/ static int utf8Length(String str) {
+        int length = 0;
+        int size = str.length();
+        for (int i = 0; i < size; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(str.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isHighSurrogate(c) || Character.isLowSurrogate(c)) {
+                // replaced by '?'
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
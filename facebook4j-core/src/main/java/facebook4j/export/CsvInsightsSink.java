@@ -0,0 +1,100 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.export;
+
+import facebook4j.FacebookException;
+import facebook4j.Insight;
+import facebook4j.internal.logging.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.TimeZone;
+
+/**
+ * An {@link InsightsSink} writing one CSV row per value:
+ * <code>object_id,metric,period,end_time,key,value</code>.<br>
+ * The key is empty for plain values and holds the breakdown key for values broken down by e.g. country.
+ */
+public class CsvInsightsSink implements InsightsSink {
+    private static final Logger logger = Logger.getLogger(CsvInsightsSink.class);
+
+    private final Writer writer;
+    private final SimpleDateFormat format;
+    private int errorCount;
+
+    /**
+     * @param writer destination, left open
+     */
+    public CsvInsightsSink(Writer writer) throws FacebookException {
+        this.writer = writer;
+        this.format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ");
+        this.format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        write("object_id,metric,period,end_time,key,value\n");
+    }
+
+    public void onInsight(String objectId, Insight insight) throws FacebookException {
+        StringBuilder rows = new StringBuilder();
+        for (Insight.Value value : insight.getValues()) {
+            Date endTime = value.getEndTime();
+            Insight.Value.Entry entry = value.getValue();
+            Iterator<String> keys = entry.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                rows.append(escape(objectId)).append(',')
+                    .append(escape(insight.getName())).append(',')
+                    .append(escape(insight.getPeriod())).append(',')
+                    .append(endTime == null ? "" : format.format(endTime)).append(',')
+                    .append(escape(key)).append(',')
+                    .append(entry.get(key) == null ? "" : entry.get(key)).append('\n');
+            }
+        }
+        write(rows.toString());
+    }
+
+    public void onError(String objectId, Date since, Date until, FacebookException error) {
+        errorCount++;
+        logger.warn("Failed to export insights of " + objectId + ": ", error.getMessage());
+    }
+
+    /**
+     * @return number of windows which could not be exported
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    private void write(String str) throws FacebookException {
+        try {
+            writer.write(str);
+        } catch (IOException ioe) {
+            throw new FacebookException("Failed to write insights", ioe);
+        }
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') == -1 && value.indexOf('"') == -1 && value.indexOf('\n') == -1) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
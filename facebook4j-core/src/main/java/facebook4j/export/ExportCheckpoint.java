@@ -0,0 +1,40 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.export;
+
+import facebook4j.FacebookException;
+
+import java.net.URL;
+
+/**
+ * Receives the positions up to which {@link PagedExporter} has handed elements to the channel.<br>
+ * An interrupted export to a file is resumed with <code>resume(page, offset, written, position, ...)</code> from
+ * the last checkpoint, which first truncates the file to <code>position</code>.
+ */
+public interface ExportCheckpoint {
+    /**
+     * @param page     URL of the page being exported
+     * @param offset   number of elements of the page already written
+     * @param written  number of elements written so far, counting those of the export it resumed
+     * @param position position of the channel after the elements written so far, once they are flushed and,
+     *                 with gzip on, their gzip member is finished. For a {@link java.nio.channels.FileChannel}
+     *                 this is the position in the file, otherwise the number of bytes written to the channel
+     *                 since the export started.
+     * @throws FacebookException to abort the export
+     */
+    void onCheckpoint(URL page, int offset, long written, long position) throws FacebookException;
+}
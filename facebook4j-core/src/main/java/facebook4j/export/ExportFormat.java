@@ -0,0 +1,49 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.export;
+
+import java.io.IOException;
+
+/**
+ * Formats {@link PagedExporter} can write elements in.
+ */
+public enum ExportFormat {
+    /**
+     * One JSON object per line, separated by <code>\n</code>.
+     */
+    NDJSON {
+        @Override
+        void write(String json, ChannelWriter out) throws IOException {
+            out.writeUTF8(json);
+            out.writeByte('\n');
+        }
+    },
+
+    /**
+     * Each JSON object as UTF-8, preceded by its length in bytes as an unsigned LEB128 varint.
+     * Read it back with {@link LengthPrefixedReader}.
+     */
+    LENGTH_PREFIXED {
+        @Override
+        void write(String json, ChannelWriter out) throws IOException {
+            out.writeVarint(ChannelWriter.utf8Length(json));
+            out.writeUTF8(json);
+        }
+    };
+
+    abstract void write(String json, ChannelWriter out) throws IOException;
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.export;
+
+import facebook4j.Facebook;
+import facebook4j.FacebookException;
+import facebook4j.Insight;
+import facebook4j.Paging;
+import facebook4j.Reading;
+import facebook4j.ResponseList;
+import facebook4j.internal.logging.Logger;
+import facebook4j.internal.util.z_F4JDaemonThreadFactory;
+import facebook4j.internal.util.z_F4JInternalStringUtil;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exports insights of many objects over long date ranges.<br>
+ * Several metrics are requested per call (<code>/{object-id}/insights/metric1,metric2</code>), long ranges are
+ * split into windows the Graph API accepts, and the calls run concurrently, optionally under a {@link CallBudget}.
+ * Calls are generated lazily and results are handed to the {@link InsightsSink} as they arrive, so memory use
+ * does not grow with the number of objects or the length of the range.
+ * <pre>
+ * InsightsExporter exporter = new InsightsExporter(facebook);
+ * exporter.setBudget(new CallBudget(200, 1, TimeUnit.HOURS));
+ * exporter.export(pageIds, Arrays.asList("page_impressions", "page_engaged_users"), "day", since, until,
+ *         new CsvInsightsSink(writer));
+ * </pre>
+ */
+public class InsightsExporter {
+    private static final Logger logger = Logger.getLogger(InsightsExporter.class);
+
+    /** the Graph API refuses insights ranges longer than 93 days */
+    public static final long MAX_WINDOW_MILLIS = 90L * 24 * 60 * 60 * 1000;
+
+    private static final ThreadFactory THREAD_FACTORY = new z_F4JDaemonThreadFactory("facebook4j-insights-exporter");
+
+    private final Facebook facebook;
+    private int concurrency = 4;
+    private int metricsPerCall = 25;
+    private long windowMillis = MAX_WINDOW_MILLIS;
+    private CallBudget budget;
+
+    public InsightsExporter(Facebook facebook) {
+        this.facebook = facebook;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = Math.max(concurrency, 1);
+    }
+
+    public void setMetricsPerCall(int metricsPerCall) {
+        this.metricsPerCall = Math.max(metricsPerCall, 1);
+    }
+
+    /**
+     * @param windowMillis length of the date range requested per call, at most {@link #MAX_WINDOW_MILLIS}
+     */
+    public void setWindowMillis(long windowMillis) {
+        if (windowMillis <= 0 || windowMillis > MAX_WINDOW_MILLIS) {
+            throw new IllegalArgumentException("windowMillis must be between 1 and " + MAX_WINDOW_MILLIS);
+        }
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * @param budget limits the calls made, or null for no limit
+     */
+    public void setBudget(CallBudget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Exports the metrics of every object over the range.<br>
+     * The pages of each window are followed for as long as they stay within it. A failed call is reported to
+     * {@link InsightsSink#onError} and the export goes on.
+     *
+     * @param objectIds the IDs of pages or applications
+     * @param metrics   metric names
+     * @param period    <code>day</code>, <code>week</code>, <code>days_28</code> and so on, or null for the default
+     * @param since     start of the range
+     * @param until     end of the range
+     * @param sink      receives the insights
+     * @return number of insights handed to the sink
+     * @throws FacebookException when the sink aborted the export or the export was interrupted
+     */
+    public int export(Collection<String> objectIds, List<String> metrics, final String period,
+                      Date since, Date until, final InsightsSink sink) throws FacebookException {
+        List<String> metricGroups = new ArrayList<String>();
+        for (int i = 0; i < metrics.size(); i += metricsPerCall) {
+            List<String> group = metrics.subList(i, Math.min(i + metricsPerCall, metrics.size()));
+            metricGroups.add(z_F4JInternalStringUtil.join(group.toArray(new String[group.size()])));
+        }
+
+        final int maxInFlight = concurrency * 2;
+        final Semaphore inFlight = new Semaphore(maxInFlight);
+        final Lock sinkLock = new ReentrantLock();
+        final AtomicInteger exported = new AtomicInteger();
+        final AtomicReference<FacebookException> aborted = new AtomicReference<FacebookException>();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, THREAD_FACTORY);
+        try {
+            exporting:
+            for (final String objectId : objectIds) {
+                for (final String metric : metricGroups) {
+                    for (long start = since.getTime(); start < until.getTime(); start += windowMillis) {
+                        final Date windowSince = new Date(start);
+                        final Date windowUntil = new Date(Math.min(start + windowMillis, until.getTime()));
+                        inFlight.acquire();
+                        if (aborted.get() != null) {
+                            inFlight.release();
+                            break exporting;
+                        }
+                        executor.execute(new Runnable() {
+                            public void run() {
+                                try {
+                                    exportWindow(objectId, metric, period, windowSince, windowUntil,
+                                            sink, sinkLock, exported, aborted);
+                                } finally {
+                                    inFlight.release();
+                                }
+                            }
+                        });
+                    }
+                }
+            }
+            inFlight.acquire(maxInFlight);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new FacebookException(ie);
+        } finally {
+            executor.shutdownNow();
+        }
+        if (aborted.get() != null) {
+            throw aborted.get();
+        }
+        return exported.get();
+    }
+
+    private void exportWindow(String objectId, String metric, String period, Date since, Date until, InsightsSink sink,
+                              Lock sinkLock, AtomicInteger exported, AtomicReference<FacebookException> aborted) {
+        long pageSince = since.getTime() / 1000L;
+        ResponseList<Insight> insights = null;
+        while (aborted.get() == null) {
+            try {
+                if (budget != null) {
+                    budget.acquire();
+                }
+                if (insights == null) {
+                    Reading reading = new Reading().since(since).until(until);
+                    if (period != null) {
+                        reading.addParameter("period", period);
+                    }
+                    insights = facebook.getInsights(objectId, metric, reading);
+                } else {
+                    insights = facebook.fetchNext(insights.getPaging());
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                aborted.compareAndSet(null, new FacebookException("Export of insights interrupted", ie));
+                return;
+            } catch (FacebookException fe) {
+                logger.debug("Failed to export insights of ", objectId);
+                sinkLock.lock();
+                try {
+                    sink.onError(objectId, since, until, fe);
+                } finally {
+                    sinkLock.unlock();
+                }
+                return;
+            }
+            if (insights == null) {
+                return;
+            }
+            sinkLock.lock();
+            try {
+                for (Insight insight : insights) {
+                    sink.onInsight(objectId, insight);
+                    exported.incrementAndGet();
+                }
+            } catch (FacebookException fe) {
+                aborted.compareAndSet(null, fe);
+                return;
+            } finally {
+                sinkLock.unlock();
+            }
+            Paging<Insight> paging = insights.getPaging();
+            if (insights.size() == 0 || paging == null || paging.getNext() == null) {
+                return;
+            }
+            long nextSince = sinceOf(paging.getNext());
+            // insights pages move the date range: stop once it leaves the window or stops moving forward
+            if (nextSince != -1 && (nextSince <= pageSince || nextSince >= until.getTime() / 1000L)) {
+                return;
+            }
+            pageSince = nextSince;
+        }
+    }
+
+    private static long sinceOf(URL url) {
+        String query = url.getQuery();
+        if (query == null) {
+            return -1;
+        }
+        for (String param : query.split("&")) {
+            if (param.startsWith("since=")) {
+                try {
+                    return Long.parseLong(param.substring("since=".length()));
+                } catch (NumberFormatException nfe) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.export;
+
+import facebook4j.FacebookException;
+import facebook4j.Insight;
+
+import java.util.Date;
+
+/**
+ * Receives the insights exported by {@link InsightsExporter} as soon as each window has been fetched.<br>
+ * Calls are never made concurrently, so implementations need no synchronization.
+ */
+public interface InsightsSink {
+    /**
+     * @param objectId the ID of the page or application
+     * @param insight  one metric over one window
+     * @throws FacebookException to abort the export
+     */
+    void onInsight(String objectId, Insight insight) throws FacebookException;
+
+    /**
+     * @param objectId the ID of the page or application
+     * @param since    start of the failed window
+     * @param until    end of the failed window
+     * @param error    cause
+     */
+    void onError(String objectId, Date since, Date until, FacebookException error);
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.export;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads back elements written in {@link ExportFormat#LENGTH_PREFIXED}.
+ */
+public class LengthPrefixedReader {
+    private final InputStream in;
+    private byte[] bytes = new byte[1024];
+
+    /**
+     * @param in source, decompressed already when the export was gzipped
+     */
+    public LengthPrefixedReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * @return the next element as JSON, or null at the end of the stream
+     * @throws IOException when the stream is truncated or unreadable
+     */
+    public String next() throws IOException {
+        int b = in.read();
+        if (b == -1) {
+            return null;
+        }
+        long length = 0;
+        int shift = 0;
+        while (true) {
+            length |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+            shift += 7;
+            if (shift > 28) {
+                throw new IOException("Malformed length");
+            }
+            b = in.read();
+            if (b == -1) {
+                throw new EOFException();
+            }
+        }
+        int size = (int) length;
+        if (bytes.length < size) {
+            bytes = new byte[Math.max(size, bytes.length * 2)];
+        }
+        int read = 0;
+        while (read < size) {
+            int n = in.read(bytes, read, size - read);
+            if (n == -1) {
+                throw new EOFException();
+            }
+            read += n;
+        }
+        return new String(bytes, 0, size, "UTF-8");
+    }
+}
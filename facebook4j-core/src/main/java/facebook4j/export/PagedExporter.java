@@ -0,0 +1,258 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.export;
+
+import facebook4j.Facebook;
+import facebook4j.FacebookException;
+import facebook4j.Paging;
+import facebook4j.RawAPIResponse;
+import facebook4j.Reading;
+import facebook4j.internal.logging.Logger;
+import facebook4j.internal.org.json.JSONArray;
+import facebook4j.internal.org.json.JSONException;
+import facebook4j.internal.org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Walks a chain of pages and writes every element straight to a channel.<br>
+ * Pages are fetched raw with {@link Facebook#fetchPage(URL)} and each element is written as soon as its page
+ * arrives, so no entities are built and heap use is bounded by one page regardless of the length of the chain.
+ * <pre>
+ * PagedExporter exporter = new PagedExporter(facebook);
+ * exporter.setGzip(true);
+ * exporter.setCheckpoint(checkpoint);
+ * exporter.export("me/feed", new Reading().limit(100), channel, ExportFormat.NDJSON);
+ * </pre>
+ * An export to a file that was interrupted is resumed from its last checkpoint with
+ * {@link #resume(URL, int, long, long, FileChannel, ExportFormat)}.
+ */
+public class PagedExporter {
+    private static final Logger logger = Logger.getLogger(PagedExporter.class);
+
+    private final Facebook facebook;
+    private boolean gzip;
+    private int checkpointInterval = 1000;
+    private int maxPages = Integer.MAX_VALUE;
+    private ExportCheckpoint checkpoint;
+
+    public PagedExporter(Facebook facebook) {
+        this.facebook = facebook;
+    }
+
+    /**
+     * @param gzip whether to gzip the output. Each checkpoint starts a new gzip member.
+     */
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    /**
+     * @param checkpointInterval number of elements between checkpoints
+     */
+    public void setCheckpointInterval(int checkpointInterval) {
+        this.checkpointInterval = Math.max(checkpointInterval, 1);
+    }
+
+    /**
+     * @param maxPages number of pages after which the export stops
+     */
+    public void setMaxPages(int maxPages) {
+        this.maxPages = Math.max(maxPages, 1);
+    }
+
+    /**
+     * @param checkpoint receives the checkpoints, or null
+     */
+    public void setCheckpoint(ExportCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * Exports an edge from its first page.
+     *
+     * @param path    path of the edge, e.g. <code>me/feed</code>
+     * @param reading reading options, or null
+     * @param channel destination, left open
+     * @param format  output format
+     * @return number of elements written
+     * @throws FacebookException when a page could not be fetched or written
+     */
+    public long export(String path, Reading reading, WritableByteChannel channel, ExportFormat format)
+            throws FacebookException {
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        String url = facebook.getConfiguration().getRestBaseURL() + path;
+        if (reading != null && reading.getQuery().length() > 0) {
+            url += "?" + reading.getQuery();
+        }
+        try {
+            return export(new URL(url), 0, channel, format);
+        } catch (MalformedURLException e) {
+            throw new FacebookException(e);
+        }
+    }
+
+    /**
+     * Exports the pages following a result already fetched, e.g. <code>facebook.getFeed().getPaging()</code>.
+     *
+     * @return number of elements written
+     * @throws FacebookException when a page could not be fetched or written
+     */
+    public long export(Paging<?> paging, WritableByteChannel channel, ExportFormat format) throws FacebookException {
+        if (paging == null || paging.getNext() == null) {
+            return 0;
+        }
+        return export(paging.getNext(), 0, channel, format);
+    }
+
+    /**
+     * Exports the pages from <code>page</code> on, skipping the first <code>offset</code> elements of it.
+     *
+     * @return number of elements written
+     * @throws FacebookException when a page could not be fetched or written
+     */
+    public long export(URL page, int offset, WritableByteChannel channel, ExportFormat format)
+            throws FacebookException {
+        return export(page, offset, 0, channel, format);
+    }
+
+    /**
+     * Continues an export from the values of an {@link ExportCheckpoint}, appending to the channel as it is.
+     *
+     * @param page    page of the checkpoint
+     * @param offset  offset of the checkpoint
+     * @param written count of the checkpoint, carried forward so that later checkpoints stay cumulative
+     * @return number of elements written, including <code>written</code>
+     * @throws FacebookException when a page could not be fetched or written
+     */
+    public long export(URL page, int offset, long written, WritableByteChannel channel, ExportFormat format)
+            throws FacebookException {
+        try {
+            return export(page, offset, written, positionOf(channel), channel, format);
+        } catch (IOException ioe) {
+            throw new FacebookException("Failed to write the export", ioe);
+        }
+    }
+
+    /**
+     * Resumes an interrupted export to a file from the values of its last {@link ExportCheckpoint}.<br>
+     * Whatever was written after the checkpoint, such as elements past it or an unfinished gzip member, is
+     * cut off first: the file is truncated to <code>position</code> and writing continues there.
+     *
+     * @param page     page of the checkpoint
+     * @param offset   offset of the checkpoint
+     * @param written  count of the checkpoint, carried forward so that later checkpoints stay cumulative
+     * @param position position of the checkpoint
+     * @param channel  the file exported to, opened for writing but not for appending
+     * @return number of elements written, including <code>written</code>
+     * @throws FacebookException when a page could not be fetched or written
+     */
+    public long resume(URL page, int offset, long written, long position, FileChannel channel, ExportFormat format)
+            throws FacebookException {
+        try {
+            if (channel.size() < position) {
+                throw new FacebookException("The export is shorter than its checkpoint: " + channel.size()
+                        + " < " + position);
+            }
+            channel.truncate(position);
+            channel.position(position);
+        } catch (IOException ioe) {
+            throw new FacebookException("Failed to truncate the export", ioe);
+        }
+        return export(page, offset, written, position, channel, format);
+    }
+
+    private static long positionOf(WritableByteChannel channel) throws IOException {
+        return channel instanceof FileChannel ? ((FileChannel) channel).position() : 0;
+    }
+
+    private long export(URL page, int offset, long written, long position, WritableByteChannel channel,
+                        ExportFormat format) throws FacebookException {
+        ChannelWriter out = new ChannelWriter(channel, gzip, BufferPool.SHARED, position);
+        long checkpointed = written;
+        int pages = 0;
+        boolean completed = false;
+        try {
+            while (page != null && pages < maxPages) {
+                RawAPIResponse response = facebook.fetchPage(page);
+                pages++;
+                JSONObject json = response.asJSONObject();
+                JSONArray data = json == null ? null : json.optJSONArray("data");
+                if (data == null) {
+                    break;
+                }
+                int size = data.length();
+                for (int i = offset; i < size; i++) {
+                    format.write(data.getJSONObject(i).toString(), out);
+                    written++;
+                    if (written - checkpointed >= checkpointInterval) {
+                        checkpoint(out, page, i + 1, written);
+                        checkpointed = written;
+                    }
+                }
+                URL next = nextOf(json);
+                page = next != null && size > 0 ? next : null;
+                offset = 0;
+            }
+            if (page != null && written > checkpointed) {
+                // stopped by maxPages: mark where the next export goes on
+                checkpoint(out, page, 0, written);
+            }
+            out.close();
+            completed = true;
+        } catch (IOException ioe) {
+            throw new FacebookException("Failed to write the export", ioe);
+        } catch (JSONException jsone) {
+            throw new FacebookException(jsone);
+        } finally {
+            if (!completed) {
+                out.discard();
+            }
+        }
+        logger.debug("Exported " + written + " elements in " + pages + " pages, bytes: ",
+                String.valueOf(out.getBytesWritten()));
+        return written;
+    }
+
+    private void checkpoint(ChannelWriter out, URL page, int offset, long written)
+            throws IOException, FacebookException {
+        out.checkpoint();
+        if (checkpoint != null) {
+            checkpoint.onCheckpoint(page, offset, written, out.getPosition());
+        }
+    }
+
+    private static URL nextOf(JSONObject json) {
+        JSONObject paging = json.optJSONObject("paging");
+        if (paging == null || paging.isNull("next")) {
+            return null;
+        }
+        try {
+            return new URL(paging.getString("next"));
+        } catch (JSONException e) {
+            return null;
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.geo;
+
+import facebook4j.GeoLocation;
+
+/**
+ * A latitude/longitude aligned box. Boxes crossing the antimeridian are not supported.
+ */
+public class BoundingBox implements GeoRegion, java.io.Serializable {
+    private static final long serialVersionUID = -2918620378201954172L;
+
+    private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+    private final double south;
+    private final double west;
+    private final double north;
+    private final double east;
+
+    /**
+     * @param south southern latitude
+     * @param west  western longitude
+     * @param north northern latitude
+     * @param east  eastern longitude
+     */
+    public BoundingBox(double south, double west, double north, double east) {
+        if (south > north || west > east) {
+            throw new IllegalArgumentException("south must not exceed north, nor west exceed east");
+        }
+        this.south = south;
+        this.west = west;
+        this.north = north;
+        this.east = east;
+    }
+
+    public double getSouth() {
+        return south;
+    }
+
+    public double getWest() {
+        return west;
+    }
+
+    public double getNorth() {
+        return north;
+    }
+
+    public double getEast() {
+        return east;
+    }
+
+    public GeoLocation getCenter() {
+        return new GeoLocation((south + north) / 2, (west + east) / 2);
+    }
+
+    /**
+     * @return distance in meters from the center to the farthest corner, i.e. the radius of a circle covering the box
+     */
+    public double getRadiusMeters() {
+        double centerLat = (south + north) / 2;
+        double centerLng = (west + east) / 2;
+        // the corners nearer the equator are the farther ones
+        double lat = Math.abs(south) > Math.abs(north) ? north : south;
+        return distanceMeters(centerLat, centerLng, lat, west);
+    }
+
+    /**
+     * @return the four quadrants of this box
+     */
+    public BoundingBox[] split() {
+        double midLat = (south + north) / 2;
+        double midLng = (west + east) / 2;
+        return new BoundingBox[] {
+            new BoundingBox(midLat, west, north, midLng),
+            new BoundingBox(midLat, midLng, north, east),
+            new BoundingBox(south, west, midLat, midLng),
+            new BoundingBox(south, midLng, midLat, east),
+        };
+    }
+
+    public BoundingBox getBounds() {
+        return this;
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        return south <= latitude && latitude <= north && west <= longitude && longitude <= east;
+    }
+
+    public boolean intersects(BoundingBox box) {
+        return box.south <= north && south <= box.north && box.west <= east && west <= box.east;
+    }
+
+    /**
+     * @return great-circle distance in meters
+     */
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BoundingBox)) return false;
+        BoundingBox that = (BoundingBox) o;
+        return Double.compare(that.south, south) == 0 && Double.compare(that.west, west) == 0
+                && Double.compare(that.north, north) == 0 && Double.compare(that.east, east) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        long bits = Double.doubleToLongBits(south);
+        bits = 31 * bits + Double.doubleToLongBits(west);
+        bits = 31 * bits + Double.doubleToLongBits(north);
+        bits = 31 * bits + Double.doubleToLongBits(east);
+        return (int) (bits ^ (bits >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox{" +
+                "south=" + south +
+                ", west=" + west +
+                ", north=" + north +
+                ", east=" + east +
+                '}';
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.geo;
+
+import facebook4j.GeoLocation;
+
+import java.util.List;
+
+/**
+ * A simple polygon given by its vertices, treating latitude/longitude as plane coordinates.
+ * That is accurate enough for city sized regions; polygons crossing the antimeridian are not supported.
+ */
+public class GeoPolygon implements GeoRegion, java.io.Serializable {
+    private static final long serialVersionUID = 4402171863245109711L;
+
+    private final double[] lats;
+    private final double[] lngs;
+    private final BoundingBox bounds;
+
+    /**
+     * @param vertices at least three vertices, in order; the polygon is closed implicitly
+     */
+    public GeoPolygon(List<GeoLocation> vertices) {
+        if (vertices.size() < 3) {
+            throw new IllegalArgumentException("a polygon needs at least three vertices");
+        }
+        lats = new double[vertices.size()];
+        lngs = new double[vertices.size()];
+        double south = Double.MAX_VALUE, west = Double.MAX_VALUE;
+        double north = -Double.MAX_VALUE, east = -Double.MAX_VALUE;
+        for (int i = 0; i < vertices.size(); i++) {
+            lats[i] = vertices.get(i).getLatitude();
+            lngs[i] = vertices.get(i).getLongitude();
+            south = Math.min(south, lats[i]);
+            north = Math.max(north, lats[i]);
+            west = Math.min(west, lngs[i]);
+            east = Math.max(east, lngs[i]);
+        }
+        bounds = new BoundingBox(south, west, north, east);
+    }
+
+    public BoundingBox getBounds() {
+        return bounds;
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        if (!bounds.contains(latitude, longitude)) {
+            return false;
+        }
+        // ray casting towards the east
+        boolean inside = false;
+        for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+            if ((lats[i] > latitude) != (lats[j] > latitude)
+                    && longitude < (lngs[j] - lngs[i]) * (latitude - lats[i]) / (lats[j] - lats[i]) + lngs[i]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    public boolean intersects(BoundingBox box) {
+        if (!bounds.intersects(box)) {
+            return false;
+        }
+        if (contains(box.getSouth(), box.getWest()) || contains(box.getSouth(), box.getEast())
+                || contains(box.getNorth(), box.getWest()) || contains(box.getNorth(), box.getEast())) {
+            return true;
+        }
+        for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+            if (box.contains(lats[i], lngs[i])) {
+                return true;
+            }
+            if (crossesBox(lats[j], lngs[j], lats[i], lngs[i], box)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean crossesBox(double lat1, double lng1, double lat2, double lng2, BoundingBox box) {
+        double s = box.getSouth(), w = box.getWest(), n = box.getNorth(), e = box.getEast();
+        return crosses(lat1, lng1, lat2, lng2, s, w, s, e)
+                || crosses(lat1, lng1, lat2, lng2, n, w, n, e)
+                || crosses(lat1, lng1, lat2, lng2, s, w, n, w)
+                || crosses(lat1, lng1, lat2, lng2, s, e, n, e);
+    }
+
+    private static boolean crosses(double ay, double ax, double by, double bx,
+                                   double cy, double cx, double dy, double dx) {
+        double d1 = orientation(cx, cy, dx, dy, ax, ay);
+        double d2 = orientation(cx, cy, dx, dy, bx, by);
+        double d3 = orientation(ax, ay, bx, by, cx, cy);
+        double d4 = orientation(ax, ay, bx, by, dx, dy);
+        return ((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0));
+    }
+
+    private static double orientation(double ax, double ay, double bx, double by, double cx, double cy) {
+        return (bx - ax) * (cy - ay) - (by - ay) * (cx - ax);
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.geo;
+
+/**
+ * An area searched by {@link RegionPlaceSearch}.
+ */
+public interface GeoRegion {
+    /**
+     * @return the smallest box enclosing the region
+     */
+    BoundingBox getBounds();
+
+    /**
+     * @return whether the point lies in the region
+     */
+    boolean contains(double latitude, double longitude);
+
+    /**
+     * @return whether the box and the region overlap
+     */
+    boolean intersects(BoundingBox box);
+}
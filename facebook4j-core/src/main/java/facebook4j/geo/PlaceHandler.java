@@ -0,0 +1,32 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.geo;
+
+import facebook4j.FacebookException;
+import facebook4j.Place;
+
+/**
+ * Receives the places found by {@link RegionPlaceSearch}, each place once.
+ * Calls are never made from two threads at once.
+ */
+public interface PlaceHandler {
+    /**
+     * @param place a place not handed over before
+     * @throws FacebookException to abort the search
+     */
+    void onPlace(Place place) throws FacebookException;
+}
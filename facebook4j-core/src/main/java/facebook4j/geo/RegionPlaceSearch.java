@@ -0,0 +1,254 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.geo;
+
+import facebook4j.Facebook;
+import facebook4j.FacebookException;
+import facebook4j.Paging;
+import facebook4j.Place;
+import facebook4j.Reading;
+import facebook4j.ResponseList;
+import facebook4j.internal.logging.Logger;
+import facebook4j.internal.util.z_F4JDaemonThreadFactory;
+import facebook4j.internal.util.z_F4JTaskGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Searches places over a whole region rather than a single circle.<br>
+ * The region is tiled into cells each covered by one <code>searchPlaces(query, center, distance)</code> call.
+ * A cell whose first page comes back full is split into quadrants and searched again, down to
+ * {@link #setMinDistance(int) a minimum size} where its pages are followed instead, so dense areas are not
+ * cut off by the per-query cap. Cells are searched concurrently and places are handed to the
+ * {@link PlaceHandler} as they arrive, once per id.
+ * <pre>
+ * RegionPlaceSearch search = new RegionPlaceSearch(facebook);
+ * search.setConcurrency(8);
+ * search.search("coffee", new BoundingBox(37.70, -122.52, 37.81, -122.35), new PlaceHandler() {
+ *     public void onPlace(Place place) {
+ *         ...
+ *     }
+ * });
+ * </pre>
+ */
+public class RegionPlaceSearch {
+    private static final Logger logger = Logger.getLogger(RegionPlaceSearch.class);
+
+    /** the largest distance the Graph API accepts for a place search */
+    public static final int MAX_DISTANCE = 50000;
+
+    private static final ThreadFactory THREAD_FACTORY = new z_F4JDaemonThreadFactory("facebook4j-region-place-search");
+
+    private final Facebook facebook;
+    private int concurrency = 4;
+    private int limit = 100;
+    private int maxDistance = MAX_DISTANCE;
+    private int minDistance = 250;
+    private int maxPagesPerCell = 10;
+    private String[] fields;
+
+    public RegionPlaceSearch(Facebook facebook) {
+        this.facebook = facebook;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = Math.max(concurrency, 1);
+    }
+
+    /**
+     * @param limit places requested per call; a cell answering this many is considered dense
+     */
+    public void setLimit(int limit) {
+        this.limit = Math.max(limit, 1);
+    }
+
+    /**
+     * @param maxDistance radius in meters of the initial cells, at most {@link #MAX_DISTANCE}
+     */
+    public void setMaxDistance(int maxDistance) {
+        if (maxDistance <= 0 || maxDistance > MAX_DISTANCE) {
+            throw new IllegalArgumentException("maxDistance must be between 1 and " + MAX_DISTANCE);
+        }
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * @param minDistance radius in meters below which dense cells are paged through instead of split
+     */
+    public void setMinDistance(int minDistance) {
+        this.minDistance = Math.max(minDistance, 1);
+    }
+
+    /**
+     * @param maxPagesPerCell pages followed in a dense cell that cannot be split further
+     */
+    public void setMaxPagesPerCell(int maxPagesPerCell) {
+        this.maxPagesPerCell = Math.max(maxPagesPerCell, 1);
+    }
+
+    /**
+     * @param fields fields requested for each place, or null for the defaults
+     */
+    public void setFields(String... fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Searches the region.<br>
+     * Places whose location is known and outside the region are skipped.
+     *
+     * @param query   the search condition
+     * @param region  the area to cover
+     * @param handler receives the places
+     * @return number of places handed to the handler
+     * @throws FacebookException when a call failed, the handler aborted or the search was interrupted
+     */
+    public int search(final String query, final GeoRegion region, final PlaceHandler handler) throws FacebookException {
+        final Search search = new Search(query, region, handler);
+        try {
+            for (BoundingBox cell : tile(region, maxDistance)) {
+                search.submit(cell);
+            }
+            search.group.await();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new FacebookException(ie);
+        } finally {
+            search.group.shutdown();
+        }
+        search.group.throwFailure();
+        return search.found.get();
+    }
+
+    /**
+     * Tiles the bounds of the region into cells covered by circles of at most <code>maxDistance</code> meters,
+     * dropping the cells outside the region.
+     */
+    /*package*/ static List<BoundingBox> tile(GeoRegion region, int maxDistance) {
+        BoundingBox bounds = region.getBounds();
+        double centerLat = (bounds.getSouth() + bounds.getNorth()) / 2;
+        double height = BoundingBox.distanceMeters(bounds.getSouth(), 0, bounds.getNorth(), 0);
+        double width = Math.max(
+                BoundingBox.distanceMeters(bounds.getSouth(), bounds.getWest(), bounds.getSouth(), bounds.getEast()),
+                BoundingBox.distanceMeters(bounds.getNorth(), bounds.getWest(), bounds.getNorth(), bounds.getEast()));
+        // a square cell of side s is covered by a circle of radius s / sqrt(2)
+        double side = maxDistance * Math.sqrt(2);
+        int rows = Math.max(1, (int) Math.ceil(height / side));
+        int cols = Math.max(1, (int) Math.ceil(width / side));
+        double latStep = (bounds.getNorth() - bounds.getSouth()) / rows;
+        double lngStep = (bounds.getEast() - bounds.getWest()) / cols;
+        List<BoundingBox> cells = new ArrayList<BoundingBox>(rows * cols);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                BoundingBox cell = new BoundingBox(
+                        bounds.getSouth() + row * latStep, bounds.getWest() + col * lngStep,
+                        row == rows - 1 ? bounds.getNorth() : bounds.getSouth() + (row + 1) * latStep,
+                        col == cols - 1 ? bounds.getEast() : bounds.getWest() + (col + 1) * lngStep);
+                if (region.intersects(cell)) {
+                    cells.add(cell);
+                }
+            }
+        }
+        logger.debug("Region tiled into cells: ", String.valueOf(cells.size()));
+        return cells;
+    }
+
+    private final class Search {
+        private final String query;
+        private final GeoRegion region;
+        private final PlaceHandler handler;
+        private final ConcurrentMap<String, Boolean> seen = new ConcurrentHashMap<String, Boolean>();
+        private final AtomicInteger found = new AtomicInteger();
+        private final Lock handlerLock = new ReentrantLock();
+        private final z_F4JTaskGroup group = new z_F4JTaskGroup(concurrency, THREAD_FACTORY);
+
+        private Search(String query, GeoRegion region, PlaceHandler handler) {
+            this.query = query;
+            this.region = region;
+            this.handler = handler;
+        }
+
+        private void submit(final BoundingBox cell) {
+            group.submit(new z_F4JTaskGroup.Task() {
+                public void run() throws FacebookException {
+                    searchCell(cell);
+                }
+            });
+        }
+
+        private void searchCell(BoundingBox cell) throws FacebookException {
+            int distance = (int) Math.ceil(cell.getRadiusMeters());
+            Reading reading = new Reading().limit(limit);
+            if (fields != null) {
+                reading.fields(fields);
+            }
+            ResponseList<Place> places = facebook.searchPlaces(query, cell.getCenter(), distance, reading);
+            handle(places);
+            boolean dense = places.size() >= limit && places.getPaging() != null && places.getPaging().getNext() != null;
+            if (!dense) {
+                return;
+            }
+            if (distance / 2 >= minDistance) {
+                for (BoundingBox quadrant : cell.split()) {
+                    if (region.intersects(quadrant)) {
+                        submit(quadrant);
+                    }
+                }
+                return;
+            }
+            Paging<Place> paging = places.getPaging();
+            for (int page = 1; page < maxPagesPerCell && paging != null && paging.getNext() != null; page++) {
+                if (group.isFailed()) {
+                    return;
+                }
+                places = facebook.fetchNext(paging);
+                if (places.isEmpty()) {
+                    return;
+                }
+                handle(places);
+                paging = places.getPaging();
+            }
+        }
+
+        private void handle(List<Place> places) throws FacebookException {
+            for (Place place : places) {
+                Place.Location location = place.getLocation();
+                if (location != null && location.getLatitude() != null && location.getLongitude() != null
+                        && !region.contains(location.getLatitude(), location.getLongitude())) {
+                    continue;
+                }
+                if (place.getId() == null || seen.putIfAbsent(place.getId(), Boolean.TRUE) != null) {
+                    continue;
+                }
+                handlerLock.lock();
+                try {
+                    handler.onPlace(place);
+                    found.incrementAndGet();
+                } finally {
+                    handlerLock.unlock();
+                }
+            }
+        }
+    }
+}
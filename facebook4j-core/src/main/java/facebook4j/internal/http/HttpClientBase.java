@@ -9,12 +9,27 @@ import facebook4j.internal.logging.Logger;
 public class HttpClientBase implements Serializable {
     private static final Logger logger = Logger.getLogger(HttpClientBase.class);
     protected final HttpClientConfiguration CONF;
+    private volatile boolean shutdown = false;
 
     public HttpClientBase(HttpClientConfiguration conf) {
         this.CONF = conf;
     }
 
+    /**
+     * Shuts down this client. Subsequent requests will fail with IllegalStateException.
+     */
     public void shutdown() {
+        shutdown = true;
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    protected void ensureNotShutdown() {
+        if (shutdown) {
+            throw new IllegalStateException("HttpClient has already been shut down.");
+        }
     }
 
     protected boolean isProxyConfigured() {
@@ -29,6 +29,27 @@ public interface HttpClientConfiguration {
 
     String getHttpProxyPassword();
 
+    /**
+     * @return comma separated proxy pool, each entry as <code>[user:password@]host:port</code>
+     */
+    String getHttpProxies();
+
+    /**
+     * @return proxy selection strategy name, one of {@link ProxySelection}
+     */
+    String getHttpProxySelection();
+
+    /**
+     * @return seconds between active health checks of the proxy pool, 0 to rely on request failures only
+     */
+    int getHttpProxyHealthCheckIntervalSeconds();
+
+    /**
+     * @return whether credentials of pooled proxies tunnelling https may be supplied through the default
+     *         {@link java.net.Authenticator}, see {@link ProxyPool}
+     */
+    boolean isHttpProxyAuthenticatorEnabled();
+
     int getHttpConnectionTimeout();
 
     int getHttpReadTimeout();
@@ -44,4 +65,20 @@ public interface HttpClientConfiguration {
     boolean isPrettyDebugEnabled();
 
     boolean isGZIPEnabled();
+
+    /**
+     * @return wire logs are written at info level for 1 in this many requests, 0 to write them at debug level only
+     */
+    int getHttpWireLogSampling();
+
+    /**
+     * @return comma separated URL fragments (endpoints, object ids or access tokens) a request has to contain to be
+     * sampled, or null to sample all requests
+     */
+    String getHttpWireLogFilter();
+
+    /**
+     * @return number of characters of a body written to sampled wire logs
+     */
+    int getHttpWireLogMaxBodyLength();
 }
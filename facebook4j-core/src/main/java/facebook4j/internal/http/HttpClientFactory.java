@@ -24,7 +24,8 @@ import java.lang.reflect.InvocationTargetException;
  * @since Twitter4J 2.1.2
  */
 public final class HttpClientFactory {
-    private static final Constructor HTTP_CLIENT_CONSTRUCTOR;
+    // null for the default HttpClientImpl, which is created without reflection so that native images need no metadata
+    private static final Constructor<?> HTTP_CLIENT_CONSTRUCTOR;
     private static final String HTTP_CLIENT_IMPLEMENTATION = "facebook4j.http.httpClient";
 
     static {
@@ -43,21 +44,21 @@ public final class HttpClientFactory {
             } catch (ClassNotFoundException ignore) {
             }
         }
-        if (null == clazz) {
+        Constructor<?> constructor = null;
+        if (null != clazz) {
             try {
-                clazz = Class.forName("facebook4j.internal.http.HttpClientImpl");
-            } catch (ClassNotFoundException cnfe) {
-                throw new AssertionError(cnfe);
+                constructor = clazz.getConstructor(HttpClientConfiguration.class);
+            } catch (NoSuchMethodException nsme) {
+                throw new AssertionError(nsme);
             }
         }
-        try {
-            HTTP_CLIENT_CONSTRUCTOR = clazz.getConstructor(HttpClientConfiguration.class);
-        } catch (NoSuchMethodException nsme) {
-            throw new AssertionError(nsme);
-        }
+        HTTP_CLIENT_CONSTRUCTOR = constructor;
     }
 
     public static HttpClient getInstance(HttpClientConfiguration conf) {
+        if (HTTP_CLIENT_CONSTRUCTOR == null) {
+            return new HttpClientImpl(conf);
+        }
         try {
             return (HttpClient) HTTP_CLIENT_CONSTRUCTOR.newInstance(conf);
         } catch (InstantiationException e) {
@@ -19,21 +19,15 @@ package facebook4j.internal.http;
 import facebook4j.FacebookException;
 import facebook4j.conf.ConfigurationContext;
 import facebook4j.internal.logging.Logger;
-import facebook4j.internal.util.z_F4JInternalStringUtil;
 
 import java.io.BufferedInputStream;
 import java.io.DataOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Authenticator;
 import java.net.HttpURLConnection;
-import java.net.InetSocketAddress;
-import java.net.PasswordAuthentication;
-import java.net.Proxy;
 import java.net.URL;
 import java.net.URLEncoder;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -52,6 +46,8 @@ public class HttpClientImpl extends HttpClientBase implements HttpClient, HttpRe
 
     private static final Logger logger = Logger.getLogger(HttpClientImpl.class);
 
+    private transient volatile WireLog wireLog;
+
     static {
         // disable keepAlive (Android 2.1 or earlier)
         // quick and dirty workaround for TFJ-296
@@ -65,6 +61,10 @@ public class HttpClientImpl extends HttpClientBase implements HttpClient, HttpRe
         }
     }
 
+    private transient volatile ProxyPool proxyPool;
+    private transient volatile boolean proxyPoolInitialized = false;
+    private transient volatile boolean proxyAuthenticatorWarned = false;
+
     public HttpClientImpl() {
         super(ConfigurationContext.getInstance());
     }
@@ -73,17 +73,6 @@ public class HttpClientImpl extends HttpClientBase implements HttpClient, HttpRe
         super(conf);
     }
 
-    private static final Map<HttpClientConfiguration, HttpClient> instanceMap = new HashMap<HttpClientConfiguration, HttpClient>(1);
-
-    public static HttpClient getInstance(HttpClientConfiguration conf) {
-        HttpClient client = instanceMap.get(conf);
-        if (null == client) {
-            client = new HttpClientImpl(conf);
-            instanceMap.put(conf, client);
-        }
-        return client;
-    }
-
     public HttpResponse get(String url) throws FacebookException {
         return request(new HttpRequest(RequestMethod.GET, url, null, null, null));
     }
@@ -93,18 +82,23 @@ public class HttpClientImpl extends HttpClientBase implements HttpClient, HttpRe
     }
 
     public HttpResponse request(HttpRequest req) throws FacebookException {
+        ensureNotShutdown();
         int retriedCount;
         int retry = CONF.getHttpRetryCount() + 1;
         HttpResponse res = null;
+        WireLog.Trace trace = getWireLog().start(req);
         for (retriedCount = 0; retriedCount < retry; retriedCount++) {
             int responseCode = -1;
+            ProxyPool pool = getProxyPool();
+            ProxyPool.Entry proxy = pool == null ? null : pool.select(req);
+            long started = System.currentTimeMillis();
             try {
                 HttpURLConnection con;
                 OutputStream os = null;
                 try {
-                    con = getConnection(req.getURL());
+                    con = getConnection(req.getURL(), proxy);
                     con.setDoInput(true);
-                    setHeaders(req, con);
+                    setHeaders(req, con, trace);
                     con.setRequestMethod(req.getMethod().name());
                     if (req.getMethod() == POST) {
                         if (HttpParameter.containsFile(req.getParameters())) {
@@ -132,7 +126,9 @@ public class HttpClientImpl extends HttpClientBase implements HttpClient, HttpRe
                                     write(out, boundary + "\r\n");
                                     write(out, "Content-Disposition: form-data; name=\"" + param.getName() + "\"\r\n");
                                     write(out, "Content-Type: text/plain; charset=UTF-8\r\n\r\n");
-                                    logger.debug(param.getValue());
+                                    if (trace != null) {
+                                        trace.param(param.getName(), param.getValue());
+                                    }
                                     out.write(param.getValue().getBytes("UTF-8"));
                                     write(out, "\r\n");
                                 }
@@ -144,7 +140,9 @@ public class HttpClientImpl extends HttpClientBase implements HttpClient, HttpRe
                             con.setRequestProperty("Content-Type",
                                     "application/x-www-form-urlencoded");
                             String postParam = HttpParameter.encodeParameters(req.getParameters());
-                            logger.debug("Post Params: ", postParam);
+                            if (trace != null) {
+                                trace.log("Post Params: ", postParam);
+                            }
                             byte[] bytes = postParam.getBytes("UTF-8");
                             con.setRequestProperty("Content-Length",
                                     Integer.toString(bytes.length));
@@ -156,17 +154,21 @@ public class HttpClientImpl extends HttpClientBase implements HttpClient, HttpRe
                         os.close();
                     }
                     res = new HttpResponseImpl(con, CONF);
+                    res.setTrace(trace);
                     responseCode = con.getResponseCode();
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("Response: ");
+                    if (proxy != null) {
+                        pool.reportSuccess(proxy, System.currentTimeMillis() - started);
+                    }
+                    if (trace != null) {
+                        trace.log("Response: ");
                         Map<String, List<String>> responseHeaders = con.getHeaderFields();
                         for (String key : responseHeaders.keySet()) {
                             List<String> values = responseHeaders.get(key);
                             for (String value : values) {
                                 if (key != null) {
-                                    logger.debug(key + ": " + value);
+                                    trace.log(key + ": ", value);
                                 } else {
-                                    logger.debug(value);
+                                    trace.log(value);
                                 }
                             }
                         }
@@ -190,15 +192,20 @@ public class HttpClientImpl extends HttpClientBase implements HttpClient, HttpRe
                 }
             } catch (IOException ioe) {
                 // connection timeout or read timeout
+                if (proxy != null) {
+                    pool.reportFailure(proxy);
+                }
                 if (retriedCount == CONF.getHttpRetryCount()) {
                     throw new FacebookException(ioe.getMessage(), ioe, responseCode);
                 }
             }
             try {
-                if (logger.isDebugEnabled() && res != null) {
+                if (trace != null && res != null) {
                     res.asString();
                 }
-                logger.debug("Sleeping " + CONF.getHttpRetryIntervalSeconds() + " seconds until the next retry.");
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Sleeping " + CONF.getHttpRetryIntervalSeconds() + " seconds until the next retry.");
+                }
                 Thread.sleep(CONF.getHttpRetryIntervalSeconds() * 1000);
             } catch (InterruptedException ignore) {
                 //nothing to do
@@ -220,49 +227,47 @@ public class HttpClientImpl extends HttpClientBase implements HttpClient, HttpRe
      *
      * @param req        The request
      * @param connection HttpURLConnection
+     * @param trace      wire log of the request, or null
      */
-    private void setHeaders(HttpRequest req, HttpURLConnection connection) {
-        if (logger.isDebugEnabled()) {
-            logger.debug("Request: ");
-            logger.debug(req.getMethod().name() + " ", req.getURL());
+    private void setHeaders(HttpRequest req, HttpURLConnection connection, WireLog.Trace trace) {
+        if (trace != null) {
+            trace.log("Request: ");
+            trace.log(req.getMethod().name() + " ", req.getURL());
         }
 
         if (req.getRequestHeaders() != null) {
             for (String key : req.getRequestHeaders().keySet()) {
                 connection.addRequestProperty(key, req.getRequestHeaders().get(key));
-                logger.debug(key + ": " + req.getRequestHeaders().get(key));
+                if (trace != null) {
+                    trace.log(key + ": ", req.getRequestHeaders().get(key));
+                }
             }
         }
     }
 
+    private WireLog getWireLog() {
+        WireLog log = wireLog;
+        if (log == null) {
+            // not serialized along with the client
+            log = new WireLog(logger, CONF);
+            wireLog = log;
+        }
+        return log;
+    }
+
     protected HttpURLConnection getConnection(String url) throws IOException {
+        ProxyPool pool = getProxyPool();
+        return getConnection(url, pool == null ? null : pool.select(null));
+    }
+
+    protected HttpURLConnection getConnection(String url, ProxyPool.Entry proxy) throws IOException {
         HttpURLConnection con;
-        if (isProxyConfigured()) {
-            if (CONF.getHttpProxyUser() != null && !CONF.getHttpProxyUser().equals("")) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("Proxy AuthUser: " + CONF.getHttpProxyUser());
-                    logger.debug("Proxy AuthPassword: " + z_F4JInternalStringUtil.maskString(CONF.getHttpProxyPassword()));
-                }
-                Authenticator.setDefault(new Authenticator() {
-                    @Override
-                    protected PasswordAuthentication
-                    getPasswordAuthentication() {
-                        //respond only to proxy auth requests
-                        if (getRequestorType().equals(RequestorType.PROXY)) {
-                            return new PasswordAuthentication(CONF.getHttpProxyUser(),
-                                    CONF.getHttpProxyPassword().toCharArray());
-                        } else {
-                            return null;
-                        }
-                    }
-                });
-            }
-            final Proxy proxy = new Proxy(Proxy.Type.HTTP, InetSocketAddress
-                    .createUnresolved(CONF.getHttpProxyHost(), CONF.getHttpProxyPort()));
+        if (proxy != null) {
             if (logger.isDebugEnabled()) {
-                logger.debug("Opening proxied connection(" + CONF.getHttpProxyHost() + ":" + CONF.getHttpProxyPort() + ")");
+                logger.debug("Opening proxied connection(" + proxy.getAddress() + ")");
             }
-            con = (HttpURLConnection) new URL(url).openConnection(proxy);
+            con = (HttpURLConnection) new URL(url).openConnection(proxy.getProxy());
+            authorizeProxy(con, proxy);
         } else {
             con = (HttpURLConnection) new URL(url).openConnection();
         }
@@ -275,4 +280,52 @@ public class HttpClientImpl extends HttpClientBase implements HttpClient, HttpRe
         con.setInstanceFollowRedirects(false);
         return con;
     }
+
+    /**
+     * Supplies the proxy credentials: as a header for plain-http URLs, through {@link ProxyAuthenticator} for
+     * https URLs, where the header would be sent through the tunnel to the endpoint rather than to the proxy.
+     * The latter installs a JVM-global authenticator and is only done when
+     * {@link HttpClientConfiguration#isHttpProxyAuthenticatorEnabled()} is set.
+     */
+    void authorizeProxy(HttpURLConnection con, ProxyPool.Entry proxy) {
+        if (proxy.getProxyAuthorization() == null) {
+            return;
+        }
+        if ("http".equalsIgnoreCase(con.getURL().getProtocol())) {
+            con.setRequestProperty("Proxy-Authorization", proxy.getProxyAuthorization());
+        } else if (CONF.isHttpProxyAuthenticatorEnabled()) {
+            ProxyAuthenticator.register(proxy);
+        } else if (!proxyAuthenticatorWarned) {
+            proxyAuthenticatorWarned = true;
+            logger.warn("Credentials of proxy " + proxy.getAddress() + " are not sent for https requests, "
+                    + "set http.proxyAuthenticatorEnabled to supply them through the default Authenticator.");
+        }
+    }
+
+    protected ProxyPool getProxyPool() {
+        if (!proxyPoolInitialized) {
+            synchronized (this) {
+                if (!proxyPoolInitialized) {
+                    ProxyPool pool = ProxyPool.getInstance(CONF);
+                    if (pool != null && CONF.getHttpProxyHealthCheckIntervalSeconds() > 0) {
+                        pool.startHealthChecks(CONF.getHttpProxyHealthCheckIntervalSeconds() * 1000L);
+                    }
+                    proxyPool = pool;
+                    proxyPoolInitialized = true;
+                }
+            }
+        }
+        return proxyPool;
+    }
+
+    /**
+     * Shuts down this client, stopping the health checks of its proxy pool.
+     */
+    @Override
+    public synchronized void shutdown() {
+        super.shutdown();
+        if (proxyPool != null) {
+            proxyPool.stopHealthChecks();
+        }
+    }
 }
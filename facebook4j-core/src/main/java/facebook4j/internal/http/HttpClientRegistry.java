@@ -0,0 +1,178 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.internal.http;
+
+import facebook4j.internal.logging.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A registry of HttpClients shared by every HttpClientWrapper with an equal configuration.<br>
+ * Clients are reference counted: each {@link #acquire(HttpClientConfiguration)} must be paired with one
+ * {@link #release(HttpClientConfiguration)}. A client nobody holds is shut down once it has been idle
+ * for longer than the idle timeout.
+ */
+public final class HttpClientRegistry {
+    private static final Logger logger = Logger.getLogger(HttpClientRegistry.class);
+
+    private static final HttpClientRegistry SINGLETON = new HttpClientRegistry(60 * 1000);
+
+    private final ConcurrentMap<HttpClientConfiguration, Entry> entries = new ConcurrentHashMap<HttpClientConfiguration, Entry>();
+    private volatile long idleTimeoutMillis;
+
+    /**
+     * @param idleTimeoutMillis how long an unreferenced client is kept before being shut down
+     */
+    public HttpClientRegistry(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public static HttpClientRegistry getInstance() {
+        return SINGLETON;
+    }
+
+    public void setIdleTimeout(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Returns the shared client for the configuration, creating it if necessary, and increments its reference count.
+     *
+     * @param conf configuration
+     * @return shared client
+     */
+    public HttpClient acquire(HttpClientConfiguration conf) {
+        reclaimIdle();
+        while (true) {
+            Entry entry = entries.get(conf);
+            if (entry == null) {
+                Entry newEntry = new Entry(HttpClientFactory.getInstance(conf));
+                entry = entries.putIfAbsent(conf, newEntry);
+                if (entry == null) {
+                    entry = newEntry;
+                }
+            }
+            if (entry.retain()) {
+                return entry.client;
+            }
+            // the entry has just been reclaimed
+            entries.remove(conf, entry);
+        }
+    }
+
+    /**
+     * Decrements the reference count of the client for the configuration.
+     *
+     * @param conf configuration
+     */
+    public void release(HttpClientConfiguration conf) {
+        Entry entry = entries.get(conf);
+        if (entry != null) {
+            entry.release();
+        }
+        reclaimIdle();
+    }
+
+    /**
+     * @param conf configuration
+     * @return the number of holders of the client for the configuration
+     */
+    public int getReferenceCount(HttpClientConfiguration conf) {
+        Entry entry = entries.get(conf);
+        return entry == null ? 0 : Math.max(entry.refCount.get(), 0);
+    }
+
+    /**
+     * @return the number of clients currently registered
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Shuts down and removes every client which has not been referenced for longer than the idle timeout.
+     */
+    public void reclaimIdle() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<HttpClientConfiguration, Entry> e : entries.entrySet()) {
+            Entry entry = e.getValue();
+            if (now - entry.idleSince >= idleTimeoutMillis && entry.retire()) {
+                entries.remove(e.getKey(), entry);
+                logger.debug("Shutting down idle HttpClient: ", String.valueOf(entry.client));
+                entry.client.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Shuts down every registered client regardless of its reference count.
+     */
+    public void shutdownAll() {
+        for (Map.Entry<HttpClientConfiguration, Entry> e : entries.entrySet()) {
+            Entry entry = e.getValue();
+            entry.refCount.set(-1);
+            entries.remove(e.getKey(), entry);
+            entry.client.shutdown();
+        }
+    }
+
+    private static final class Entry {
+        private final HttpClient client;
+        // number of holders, or -1 once the client has been retired
+        private final AtomicInteger refCount = new AtomicInteger();
+        private volatile long idleSince = Long.MAX_VALUE;
+
+        Entry(HttpClient client) {
+            this.client = client;
+        }
+
+        boolean retain() {
+            while (true) {
+                int current = refCount.get();
+                if (current < 0) {
+                    return false;
+                }
+                if (refCount.compareAndSet(current, current + 1)) {
+                    idleSince = Long.MAX_VALUE;
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            while (true) {
+                int current = refCount.get();
+                if (current <= 0) {
+                    return;
+                }
+                if (refCount.compareAndSet(current, current - 1)) {
+                    if (current == 1) {
+                        idleSince = System.currentTimeMillis();
+                    }
+                    return;
+                }
+            }
+        }
+
+        boolean retire() {
+            return refCount.compareAndSet(0, -1);
+        }
+    }
+}
@@ -19,9 +19,11 @@ package facebook4j.internal.http;
 import facebook4j.FacebookException;
 import facebook4j.auth.Authorization;
 import facebook4j.conf.ConfigurationContext;
+import facebook4j.management.SingleFlightStatistics;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static facebook4j.internal.http.RequestMethod.*;
 
@@ -31,8 +33,11 @@ import static facebook4j.internal.http.RequestMethod.*;
  * @author Yusuke Yamamoto - yusuke at mac.com
  */
 public class HttpClientWrapper implements java.io.Serializable {
+    private static final SingleFlightGroup SINGLE_FLIGHT = new SingleFlightGroup(new SingleFlightStatistics(1000));
+
     private final HttpClientWrapperConfiguration wrapperConf;
     private HttpClient http;
+    private final AtomicBoolean released = new AtomicBoolean(false);
 
     private final Map<String, String> requestHeaders;
     private static final long serialVersionUID = -6511977105603119379L;
@@ -41,24 +46,33 @@ public class HttpClientWrapper implements java.io.Serializable {
     public HttpClientWrapper(HttpClientWrapperConfiguration wrapperConf) {
         this.wrapperConf = wrapperConf;
         requestHeaders = wrapperConf.getRequestHeaders();
-        http = HttpClientFactory.getInstance(wrapperConf);
+        http = HttpClientRegistry.getInstance().acquire(wrapperConf);
     }
 
     // never used with this project. Just for handiness for those using this class.
     public HttpClientWrapper() {
         this.wrapperConf = ConfigurationContext.getInstance();
         requestHeaders = wrapperConf.getRequestHeaders();
-        http = HttpClientFactory.getInstance(wrapperConf);
+        http = HttpClientRegistry.getInstance().acquire(wrapperConf);
     }
 
+    /**
+     * Releases the shared HttpClient. The client itself is shut down once no wrapper holds it any longer.
+     */
     public void shutdown() {
-        http.shutdown();
+        if (released.compareAndSet(false, true)) {
+            HttpClientRegistry.getInstance().release(wrapperConf);
+        }
     }
 
     protected HttpResponse request(HttpRequest req) throws FacebookException {
         HttpResponse res;
         try {
-            res = http.request(req);
+            if (wrapperConf.isSingleFlightEnabled()) {
+                res = SINGLE_FLIGHT.request(req, http);
+            } else {
+                res = http.request(req);
+            }
             //fire HttpResponseEvent
             if (httpResponseListener != null) {
                 httpResponseListener.httpResponseReceived(new HttpResponseEvent(req, res, null));
@@ -72,6 +86,10 @@ public class HttpClientWrapper implements java.io.Serializable {
         return res;
     }
 
+    public static SingleFlightStatistics getSingleFlightStatistics() {
+        return SINGLE_FLIGHT.getStatistics();
+    }
+
     public void setHttpResponseListener(HttpResponseListener listener) {
         httpResponseListener = listener;
     }
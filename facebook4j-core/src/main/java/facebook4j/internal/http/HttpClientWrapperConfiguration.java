@@ -23,4 +23,9 @@ public interface HttpClientWrapperConfiguration extends HttpClientConfiguration
      * @return request headers
      */
     Map<String, String> getRequestHeaders();
+
+    /**
+     * @return true if concurrent identical GET requests should share a single in-flight request
+     */
+    boolean isSingleFlightEnabled();
 }
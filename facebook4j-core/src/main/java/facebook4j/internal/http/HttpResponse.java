@@ -19,6 +19,7 @@ package facebook4j.internal.http;
 import facebook4j.FacebookException;
 import facebook4j.conf.ConfigurationContext;
 import facebook4j.internal.logging.Logger;
+import facebook4j.internal.logging.MessageSupplier;
 import facebook4j.internal.org.json.JSONArray;
 import facebook4j.internal.org.json.JSONException;
 import facebook4j.internal.org.json.JSONObject;
@@ -29,8 +30,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.StringReader;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * A data class representing HTTP Response
@@ -53,11 +57,19 @@ public abstract class HttpResponse {
     protected String responseAsString = null;
     protected InputStream is;
     private boolean streamConsumed = false;
+    // a response may be shared between threads (single-flight), guards lazy reading and parsing
+    private final Lock lock = new ReentrantLock();
+    // wire log of the request, null when neither debug logging nor sampling applies
+    private WireLog.Trace trace;
 
     public int getStatusCode() {
         return statusCode;
     }
 
+    /*package*/ void setTrace(WireLog.Trace trace) {
+        this.trace = trace;
+    }
+
     public abstract String getResponseHeader(String name);
 
     public abstract Map<String, List<String>> getResponseHeaderFields();
@@ -88,6 +100,15 @@ public abstract class HttpResponse {
      * @throws FacebookException
      */
     public String asString() throws FacebookException {
+        lock.lock();
+        try {
+            return readString();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String readString() throws FacebookException {
         if (null == responseAsString) {
             BufferedReader br = null;
             InputStream stream = null;
@@ -103,7 +124,11 @@ public abstract class HttpResponse {
                     buf.append(line).append("\n");
                 }
                 this.responseAsString = buf.toString();
-                logger.debug(responseAsString);
+                if (trace != null) {
+                    trace.body(responseAsString);
+                } else {
+                    logger.debug(responseAsString);
+                }
                 stream.close();
                 streamConsumed = true;
             } catch (IOException ioe) {
@@ -137,6 +162,15 @@ public abstract class HttpResponse {
      * @throws FacebookException
      */
     public JSONObject asJSONObject() throws FacebookException {
+        lock.lock();
+        try {
+            return readJSONObject();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private JSONObject readJSONObject() throws FacebookException {
         if (json == null) {
             Reader reader = null;
             try {
@@ -146,12 +180,7 @@ public abstract class HttpResponse {
                 } else {
                     json = new JSONObject(responseAsString);
                 }
-                if (CONF.isPrettyDebugEnabled()) {
-                    logger.debug(json.toString(1));
-                } else {
-                    logger.debug(responseAsString != null ? responseAsString :
-                            json.toString());
-                }
+                logBody(json);
             } catch (JSONException jsone) {
                 if (responseAsString == null) {
                     throw new FacebookException(jsone.getMessage(), jsone);
@@ -181,6 +210,15 @@ public abstract class HttpResponse {
      * @throws FacebookException
      */
     public JSONArray asJSONArray() throws FacebookException {
+        lock.lock();
+        try {
+            return readJSONArray();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private JSONArray readJSONArray() throws FacebookException {
         if (jsonArray == null) {
             Reader reader = null;
             try {
@@ -190,12 +228,7 @@ public abstract class HttpResponse {
                 } else {
                     jsonArray = new JSONArray(responseAsString);
                 }
-                if (CONF.isPrettyDebugEnabled()) {
-                    logger.debug(jsonArray.toString(1));
-                } else {
-                    logger.debug(responseAsString != null ? responseAsString :
-                            jsonArray.toString());
-                }
+                logBody(jsonArray);
             } catch (JSONException jsone) {
                 if (logger.isDebugEnabled()) {
                     throw new FacebookException(jsone.getMessage() + ":" + this.responseAsString, jsone);
@@ -216,6 +249,10 @@ public abstract class HttpResponse {
     }
 
     public Reader asReader() {
+        if (responseAsString != null) {
+            // already buffered, e.g. shared by a single-flight call
+            return new StringReader(responseAsString);
+        }
         try {
             return new BufferedReader(new InputStreamReader(is, "UTF-8"));
         } catch (java.io.UnsupportedEncodingException uee) {
@@ -223,6 +260,26 @@ public abstract class HttpResponse {
         }
     }
 
+    private void logBody(final Object json) {
+        MessageSupplier body = new MessageSupplier() {
+            public String get() {
+                try {
+                    if (CONF.isPrettyDebugEnabled()) {
+                        return json instanceof JSONObject ? ((JSONObject) json).toString(1)
+                                : ((JSONArray) json).toString(1);
+                    }
+                } catch (JSONException ignore) {
+                }
+                return responseAsString != null ? responseAsString : json.toString();
+            }
+        };
+        if (trace != null) {
+            trace.body(body.get());
+        } else {
+            logger.debug(body);
+        }
+    }
+
     private void disconnectForcibly() {
         try {
             disconnect();
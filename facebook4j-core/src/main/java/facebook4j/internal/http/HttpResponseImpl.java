@@ -50,12 +50,12 @@ public class HttpResponseImpl extends HttpResponse {
 
     @Override
     public String getResponseHeader(String name) {
-        return con.getHeaderField(name);
+        return con == null ? null : con.getHeaderField(name);
     }
 
     @Override
     public Map<String, List<String>> getResponseHeaderFields() {
-        return con.getHeaderFields();
+        return con == null ? null : con.getHeaderFields();
     }
 
     /**
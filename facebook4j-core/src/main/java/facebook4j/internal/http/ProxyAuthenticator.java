@@ -0,0 +1,143 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.internal.http;
+
+import facebook4j.internal.logging.Logger;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.Authenticator;
+import java.net.InetAddress;
+import java.net.PasswordAuthentication;
+import java.net.URL;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Answers proxy authentication requests of pooled proxies which tunnel https connections.<br>
+ * The JDK does not send request headers with the CONNECT request, so the credentials of such a proxy can only
+ * be supplied through the default {@link Authenticator}, which is JVM-global. This authenticator is therefore
+ * only installed when {@link HttpClientConfiguration#isHttpProxyAuthenticatorEnabled()} is set, and it chains
+ * to the default it replaces: requests of type {@link java.net.Authenticator.RequestorType#PROXY} for a
+ * registered host and port are answered here, every other request is passed on to the previous default.<br>
+ * Passing requests on needs <code>Authenticator.requestPasswordAuthenticationInstance</code> (Java 9 and
+ * later). On older JVMs, or when the current default cannot be read, the authenticator is not installed over
+ * an existing one; https requests through authenticating pooled proxies then fail with 407 unless the
+ * application's own authenticator answers them.
+ */
+final class ProxyAuthenticator extends Authenticator {
+    private static final Logger logger = Logger.getLogger(ProxyAuthenticator.class);
+
+    private static final ProxyAuthenticator INSTANCE = new ProxyAuthenticator();
+    private static final Method REQUEST_INSTANCE = requestInstanceMethod();
+    private static boolean installed = false;
+
+    private final ConcurrentMap<String, PasswordAuthentication> credentials =
+            new ConcurrentHashMap<String, PasswordAuthentication>();
+    private volatile Authenticator previous;
+
+    private ProxyAuthenticator() {
+    }
+
+    /**
+     * Registers the credentials of the proxy, installing this authenticator as the default on first use.
+     *
+     * @param entry proxy with credentials
+     * @return whether this authenticator is the default and will answer for the proxy
+     */
+    static boolean register(ProxyPool.Entry entry) {
+        if (entry.getPasswordAuthentication() == null) {
+            return false;
+        }
+        INSTANCE.credentials.put(key(entry.getHost(), entry.getPort()), entry.getPasswordAuthentication());
+        return install();
+    }
+
+    private static synchronized boolean install() {
+        if (installed) {
+            return true;
+        }
+        Authenticator current;
+        try {
+            current = getDefault();
+        } catch (Exception e) {
+            logger.warn("Cannot read the default Authenticator, credentials of https proxies are not supplied: ",
+                    e.toString());
+            return false;
+        }
+        if (current == INSTANCE) {
+            installed = true;
+            return true;
+        }
+        if (current != null && REQUEST_INSTANCE == null) {
+            logger.warn("An Authenticator is already installed and cannot be chained on this JVM, "
+                    + "credentials of https proxies are not supplied.");
+            return false;
+        }
+        INSTANCE.previous = current;
+        Authenticator.setDefault(INSTANCE);
+        installed = true;
+        return true;
+    }
+
+    private static Authenticator getDefault() throws Exception {
+        try {
+            return (Authenticator) Authenticator.class.getMethod("getDefault").invoke(null);
+        } catch (NoSuchMethodException beforeJava9) {
+            Field field = Authenticator.class.getDeclaredField("theAuthenticator");
+            field.setAccessible(true);
+            return (Authenticator) field.get(null);
+        }
+    }
+
+    private static Method requestInstanceMethod() {
+        try {
+            return Authenticator.class.getMethod("requestPasswordAuthenticationInstance", String.class,
+                    InetAddress.class, int.class, String.class, String.class, String.class, URL.class,
+                    RequestorType.class);
+        } catch (NoSuchMethodException beforeJava9) {
+            return null;
+        }
+    }
+
+    @Override
+    protected PasswordAuthentication getPasswordAuthentication() {
+        if (getRequestorType() == RequestorType.PROXY) {
+            PasswordAuthentication answer = credentials.get(key(getRequestingHost(), getRequestingPort()));
+            if (answer != null) {
+                return answer;
+            }
+        }
+        Authenticator delegate = previous;
+        if (delegate == null || REQUEST_INSTANCE == null) {
+            return null;
+        }
+        try {
+            return (PasswordAuthentication) REQUEST_INSTANCE.invoke(delegate, getRequestingHost(),
+                    getRequestingSite(), getRequestingPort(), getRequestingProtocol(), getRequestingPrompt(),
+                    getRequestingScheme(), getRequestingURL(), getRequestorType());
+        } catch (Exception e) {
+            logger.warn("Previous Authenticator failed: ", e.toString());
+            return null;
+        }
+    }
+
+    private static String key(String host, int port) {
+        return (host == null ? "" : host.toLowerCase(Locale.ENGLISH)) + ":" + port;
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.internal.http;
+
+import facebook4j.auth.AccessToken;
+import facebook4j.auth.OAuthAuthorization;
+import facebook4j.internal.logging.Logger;
+import facebook4j.internal.util.z_F4JDaemonThreadFactory;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.PasswordAuthentication;
+import java.net.Proxy;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of egress HTTP proxies with passive and active health checks.<br>
+ * Proxy credentials are sent as a <code>Proxy-Authorization</code> header to plain-http URLs only. For https
+ * URLs the header would travel inside the tunnel to the endpoint instead of reaching the proxy, so the
+ * credentials are answered through the default {@link java.net.Authenticator} for that proxy's host and port,
+ * if <code>http.proxyAuthenticatorEnabled</code> is set.
+ * The JDK disables Basic authentication for tunnels by default: authenticating proxies used for https need
+ * Basic removed from the <code>jdk.http.auth.tunneling.disabledSchemes</code> system property, e.g.
+ * <code>-Djdk.http.auth.tunneling.disabledSchemes=""</code>.
+ */
+public final class ProxyPool {
+    private static final Logger logger = Logger.getLogger(ProxyPool.class);
+
+    private static final int DEFAULT_MAX_FAILURES = 3;
+    private static final long DEFAULT_RETRY_INTERVAL_MILLIS = 30 * 1000;
+    private static final int HEALTH_CHECK_TIMEOUT_MILLIS = 3000;
+    private static final ThreadFactory THREAD_FACTORY = new z_F4JDaemonThreadFactory("facebook4j-proxy-health-check");
+
+    private final List<Entry> entries;
+    private final ProxySelection selection;
+    private final int maxFailures;
+    private final long retryIntervalMillis;
+    private final AtomicInteger roundRobinIndex = new AtomicInteger();
+    private volatile ScheduledExecutorService healthChecker;
+
+    public ProxyPool(List<Entry> entries, ProxySelection selection) {
+        this(entries, selection, DEFAULT_MAX_FAILURES, DEFAULT_RETRY_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param entries             proxies
+     * @param selection           selection strategy
+     * @param maxFailures         consecutive failures after which a proxy is considered unhealthy
+     * @param retryIntervalMillis how long an unhealthy proxy is skipped before it is tried again
+     */
+    public ProxyPool(List<Entry> entries, ProxySelection selection, int maxFailures, long retryIntervalMillis) {
+        if (entries == null || entries.size() == 0) {
+            throw new IllegalArgumentException("at least one proxy is required");
+        }
+        this.entries = Collections.unmodifiableList(new ArrayList<Entry>(entries));
+        this.selection = selection;
+        this.maxFailures = maxFailures;
+        this.retryIntervalMillis = retryIntervalMillis;
+    }
+
+    /**
+     * Builds a pool from <code>http.proxies</code>, falling back to the single <code>http.proxyHost</code>.
+     *
+     * @param conf configuration
+     * @return proxy pool, or null if no proxy is configured
+     */
+    public static ProxyPool getInstance(HttpClientConfiguration conf) {
+        ProxySelection selection = ProxySelection.getInstance(conf.getHttpProxySelection());
+        String proxies = conf.getHttpProxies();
+        if (proxies != null && proxies.trim().length() > 0) {
+            return new ProxyPool(parse(proxies), selection);
+        }
+        String host = conf.getHttpProxyHost();
+        if (host != null && !host.equals("")) {
+            List<Entry> entries = new ArrayList<Entry>(1);
+            entries.add(new Entry(host, conf.getHttpProxyPort(), conf.getHttpProxyUser(), conf.getHttpProxyPassword()));
+            return new ProxyPool(entries, selection);
+        }
+        return null;
+    }
+
+    /**
+     * @param spec comma separated proxies, each entry as <code>[user:password@]host:port</code>
+     * @return parsed proxies
+     */
+    public static List<Entry> parse(String spec) {
+        List<Entry> entries = new ArrayList<Entry>();
+        for (String item : spec.split(",")) {
+            item = item.trim();
+            if (item.length() == 0) {
+                continue;
+            }
+            String user = null;
+            String password = null;
+            int at = item.lastIndexOf('@');
+            if (at != -1) {
+                String credentials = item.substring(0, at);
+                item = item.substring(at + 1);
+                int colon = credentials.indexOf(':');
+                if (colon == -1) {
+                    user = credentials;
+                } else {
+                    user = credentials.substring(0, colon);
+                    password = credentials.substring(colon + 1);
+                }
+            }
+            int colon = item.lastIndexOf(':');
+            if (colon == -1) {
+                throw new IllegalArgumentException("proxy port is missing: " + item);
+            }
+            int port;
+            try {
+                port = Integer.parseInt(item.substring(colon + 1));
+            } catch (NumberFormatException nfe) {
+                throw new IllegalArgumentException("illegal proxy port: " + item);
+            }
+            entries.add(new Entry(item.substring(0, colon), port, user, password));
+        }
+        return entries;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public ProxySelection getSelection() {
+        return selection;
+    }
+
+    /**
+     * Chooses a proxy for the request.
+     *
+     * @param req request, may be null
+     * @return selected proxy
+     */
+    public Entry select(HttpRequest req) {
+        List<Entry> candidates = getCandidates();
+        switch (selection) {
+            case LEAST_LATENCY:
+                Entry fastest = null;
+                for (Entry entry : candidates) {
+                    if (fastest == null || entry.latencyMillis < fastest.latencyMillis) {
+                        fastest = entry;
+                    }
+                }
+                return fastest;
+            case STICKY_BY_TOKEN:
+                String token = getAccessToken(req);
+                if (token != null) {
+                    // rendezvous hashing keeps a token on its proxy as long as that proxy stays healthy
+                    Entry sticky = null;
+                    int best = 0;
+                    for (Entry entry : candidates) {
+                        int score = mix((token + '@' + entry.getAddress()).hashCode());
+                        if (sticky == null || score > best) {
+                            sticky = entry;
+                            best = score;
+                        }
+                    }
+                    return sticky;
+                }
+                // no token: round robin
+                return roundRobin(candidates);
+            default:
+                return roundRobin(candidates);
+        }
+    }
+
+    private Entry roundRobin(List<Entry> candidates) {
+        int index = roundRobinIndex.getAndIncrement() & Integer.MAX_VALUE;
+        return candidates.get(index % candidates.size());
+    }
+
+    private List<Entry> getCandidates() {
+        long now = System.currentTimeMillis();
+        List<Entry> candidates = new ArrayList<Entry>(entries.size());
+        for (Entry entry : entries) {
+            if (entry.healthy || now - entry.unhealthySince >= retryIntervalMillis) {
+                candidates.add(entry);
+            }
+        }
+        // every proxy is down: try them all rather than failing every request
+        return candidates.size() > 0 ? candidates : entries;
+    }
+
+    private static int mix(int h) {
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        h *= 0xc2b2ae35;
+        h ^= (h >>> 16);
+        return h;
+    }
+
+    private static String getAccessToken(HttpRequest req) {
+        if (req == null) {
+            return null;
+        }
+        if (req.getAuthorization() instanceof OAuthAuthorization) {
+            OAuthAuthorization oauth = (OAuthAuthorization) req.getAuthorization();
+            if (oauth.isEnabled()) {
+                AccessToken accessToken = oauth.getOAuthAccessToken();
+                return accessToken.getToken();
+            }
+        }
+        String url = req.getURL();
+        int index = url.indexOf("access_token=");
+        if (index == -1) {
+            return null;
+        }
+        int end = url.indexOf('&', index);
+        return url.substring(index + "access_token=".length(), end == -1 ? url.length() : end);
+    }
+
+    /**
+     * @param entry         the proxy used
+     * @param elapsedMillis time to response
+     */
+    public void reportSuccess(Entry entry, long elapsedMillis) {
+        entry.consecutiveFailures.set(0);
+        entry.healthy = true;
+        long latency = entry.latencyMillis;
+        // exponentially weighted moving average, the first sample is taken as is
+        entry.latencyMillis = latency <= 0 ? elapsedMillis : (latency * 7 + elapsedMillis) / 8;
+    }
+
+    /**
+     * @param entry the proxy which failed to connect or respond
+     */
+    public void reportFailure(Entry entry) {
+        if (entry.consecutiveFailures.incrementAndGet() >= maxFailures) {
+            markUnhealthy(entry);
+        }
+    }
+
+    private void markUnhealthy(Entry entry) {
+        if (entry.healthy) {
+            logger.warn("Proxy marked unhealthy: ", entry.getAddress());
+        }
+        entry.healthy = false;
+        entry.unhealthySince = System.currentTimeMillis();
+    }
+
+    /**
+     * Actively probes every proxy by opening a TCP connection to it.
+     */
+    public void checkHealth() {
+        for (Entry entry : entries) {
+            Socket socket = new Socket();
+            long start = System.currentTimeMillis();
+            try {
+                socket.connect(new InetSocketAddress(entry.host, entry.port), HEALTH_CHECK_TIMEOUT_MILLIS);
+                if (!entry.healthy) {
+                    logger.info("Proxy recovered: ", entry.getAddress());
+                }
+                entry.consecutiveFailures.set(0);
+                entry.healthy = true;
+                if (entry.latencyMillis <= 0) {
+                    entry.latencyMillis = System.currentTimeMillis() - start;
+                }
+            } catch (IOException ioe) {
+                markUnhealthy(entry);
+            } finally {
+                try {
+                    socket.close();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts probing the proxies periodically on a daemon thread.
+     *
+     * @param intervalMillis interval between health checks
+     */
+    public synchronized void startHealthChecks(long intervalMillis) {
+        stopHealthChecks();
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(THREAD_FACTORY);
+        executor.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                checkHealth();
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        healthChecker = executor;
+    }
+
+    /**
+     * Stops the health checks started by {@link #startHealthChecks(long)}.
+     */
+    public synchronized void stopHealthChecks() {
+        ScheduledExecutorService executor = healthChecker;
+        if (executor != null) {
+            executor.shutdownNow();
+            healthChecker = null;
+        }
+    }
+
+    boolean isHealthChecking() {
+        return healthChecker != null;
+    }
+
+    @Override
+    public String toString() {
+        return "ProxyPool{" +
+                "entries=" + entries +
+                ", selection=" + selection +
+                '}';
+    }
+
+    /**
+     * A proxy and its health state.
+     */
+    public static final class Entry {
+        private final String host;
+        private final int port;
+        private final String user;
+        private final String proxyAuthorization;
+        private final PasswordAuthentication passwordAuthentication;
+        private final Proxy proxy;
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile boolean healthy = true;
+        private volatile long unhealthySince;
+        private volatile long latencyMillis;
+
+        public Entry(String host, int port, String user, String password) {
+            this.host = host;
+            this.port = port;
+            this.user = user;
+            this.proxy = new Proxy(Proxy.Type.HTTP, InetSocketAddress.createUnresolved(host, port));
+            if (user != null && !user.equals("")) {
+                String credentials = user + ":" + (password == null ? "" : password);
+                try {
+                    this.proxyAuthorization = "Basic " + BASE64Encoder.encode(credentials.getBytes("UTF-8"));
+                } catch (UnsupportedEncodingException neverHappen) {
+                    throw new AssertionError(neverHappen);
+                }
+                this.passwordAuthentication = new PasswordAuthentication(user,
+                        password == null ? new char[0] : password.toCharArray());
+            } else {
+                this.proxyAuthorization = null;
+                this.passwordAuthentication = null;
+            }
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public String getAddress() {
+            return host + ":" + port;
+        }
+
+        public Proxy getProxy() {
+            return proxy;
+        }
+
+        /**
+         * @return value of the Proxy-Authorization header, or null if the proxy needs no credentials
+         */
+        public String getProxyAuthorization() {
+            return proxyAuthorization;
+        }
+
+        /**
+         * @return credentials of the proxy, or null if the proxy needs no credentials
+         */
+        PasswordAuthentication getPasswordAuthentication() {
+            return passwordAuthentication;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public long getLatencyMillis() {
+            return latencyMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" +
+                    "address=" + getAddress() +
+                    ", user=" + user +
+                    ", healthy=" + healthy +
+                    ", latencyMillis=" + latencyMillis +
+                    '}';
+        }
+    }
+}
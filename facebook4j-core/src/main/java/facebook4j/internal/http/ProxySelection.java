@@ -0,0 +1,36 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.internal.http;
+
+/**
+ * Strategies choosing a proxy out of a {@link ProxyPool}.
+ */
+public enum ProxySelection {
+    /** cycles through the healthy proxies */
+    ROUND_ROBIN,
+    /** picks the healthy proxy with the lowest recent latency */
+    LEAST_LATENCY,
+    /** always routes the same access token through the same healthy proxy */
+    STICKY_BY_TOKEN;
+
+    public static ProxySelection getInstance(String name) {
+        if (name == null || name.trim().length() == 0) {
+            return ROUND_ROBIN;
+        }
+        return valueOf(name.trim().toUpperCase());
+    }
+}
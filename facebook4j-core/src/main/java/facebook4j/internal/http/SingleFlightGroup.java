@@ -0,0 +1,173 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.internal.http;
+
+import facebook4j.FacebookException;
+import facebook4j.management.SingleFlightStatistics;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Deduplicates concurrent identical GET requests.<br>
+ * The first caller for a key (method, URL, parameters, authorization and headers) executes the request,
+ * callers arriving while it is in flight wait for it and receive the same, fully buffered response.
+ */
+public final class SingleFlightGroup {
+    private static final Pattern SECRET_PARAMETERS = Pattern.compile("((?:access_token|appsecret_proof)=)[^&]*");
+
+    private final ConcurrentMap<String, Call> calls = new ConcurrentHashMap<String, Call>();
+    private final SingleFlightStatistics statistics;
+
+    public SingleFlightGroup(SingleFlightStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    public SingleFlightStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Executes the request with the specified client, sharing the response with identical requests in flight.
+     *
+     * @param req    the request
+     * @param client the client which executes the request
+     * @return the response
+     * @throws FacebookException when the shared request failed
+     */
+    public HttpResponse request(HttpRequest req, HttpClient client) throws FacebookException {
+        if (req.getMethod() != RequestMethod.GET) {
+            return client.request(req);
+        }
+        String key = keyOf(req);
+        while (true) {
+            Call call = new Call();
+            Call inFlight = calls.putIfAbsent(key, call);
+            if (inFlight == null) {
+                return execute(key, call, req, client);
+            }
+            if (inFlight.join()) {
+                statistics.waiterJoined(maskKey(key));
+                return inFlight.await();
+            }
+            // the in-flight call has just completed, try again
+            calls.remove(key, inFlight);
+        }
+    }
+
+    private HttpResponse execute(String key, Call call, HttpRequest req, HttpClient client) throws FacebookException {
+        statistics.requestStarted();
+        HttpResponse res = null;
+        FacebookException error = null;
+        try {
+            res = client.request(req);
+        } catch (FacebookException fe) {
+            error = fe;
+        } catch (RuntimeException re) {
+            error = new FacebookException(re.getMessage(), re);
+        } finally {
+            calls.remove(key, call);
+            statistics.requestFinished();
+        }
+        if (call.close() > 0 && res != null && error == null) {
+            // buffer the body so that every waiter can read it
+            try {
+                res.asString();
+            } catch (FacebookException fe) {
+                error = fe;
+            }
+        }
+        call.complete(res, error);
+        if (error != null) {
+            throw error;
+        }
+        return res;
+    }
+
+    static String keyOf(HttpRequest req) {
+        StringBuilder key = new StringBuilder()
+                .append(req.getMethod().name()).append(' ')
+                .append(req.getURL());
+        if (req.getParameters() != null && req.getParameters().length > 0) {
+            key.append(' ').append(Arrays.asList(req.getParameters()));
+        }
+        if (req.getAuthorization() != null) {
+            key.append(' ').append(req.getAuthorization().getClass().getName())
+               .append('@').append(req.getAuthorization().hashCode());
+        }
+        if (req.getRequestHeaders() != null) {
+            key.append(' ').append(req.getRequestHeaders());
+        }
+        return key.toString();
+    }
+
+    static String maskKey(String key) {
+        String urlPart = key;
+        int end = key.indexOf(' ', key.indexOf(' ') + 1);
+        if (end != -1) {
+            urlPart = key.substring(0, end);
+        }
+        return SECRET_PARAMETERS.matcher(urlPart).replaceAll("$1***");
+    }
+
+    private static final class Call {
+        // number of waiters, or -1 once the leader stopped accepting waiters
+        private final AtomicInteger waiters = new AtomicInteger();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private HttpResponse response;
+        private FacebookException error;
+
+        boolean join() {
+            while (true) {
+                int current = waiters.get();
+                if (current < 0) {
+                    return false;
+                }
+                if (waiters.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        int close() {
+            return waiters.getAndSet(-1);
+        }
+
+        void complete(HttpResponse response, FacebookException error) {
+            this.response = response;
+            this.error = error;
+            done.countDown();
+        }
+
+        HttpResponse await() throws FacebookException {
+            try {
+                done.await();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new FacebookException("interrupted while waiting for an in-flight request", ie);
+            }
+            if (error != null) {
+                throw error;
+            }
+            return response;
+        }
+    }
+}
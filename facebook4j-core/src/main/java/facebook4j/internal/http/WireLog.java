@@ -0,0 +1,142 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.internal.http;
+
+import facebook4j.auth.AccessToken;
+import facebook4j.auth.OAuthAuthorization;
+import facebook4j.internal.logging.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Decides which requests have their wire logs (request line, headers, parameters and bodies) written.<br>
+ * With debug level logging enabled every request is logged at debug level, as before. Independently of the log
+ * level, 1 in {@link HttpClientConfiguration#getHttpWireLogSampling()} requests matching
+ * {@link HttpClientConfiguration#getHttpWireLogFilter()} is logged at info level, with bodies truncated and
+ * credentials masked, so that one tenant or endpoint can be diagnosed without enabling debug logging for all.
+ * Requests which are not logged cost a level check and, when sampling, a few string comparisons.
+ */
+final class WireLog {
+    private static final String CREDENTIAL_NAMES = "access_token|appsecret_proof|client_secret";
+    // name=value in URLs and form bodies
+    private static final Pattern CREDENTIALS = Pattern.compile("((?:" + CREDENTIAL_NAMES + ")=[^&\\s]{0,6})[^&\\s]*");
+    // "name":"value" in JSON bodies
+    private static final Pattern JSON_CREDENTIALS = Pattern.compile("(\"(?:" + CREDENTIAL_NAMES + ")\"\\s*:\\s*\"[^\"\\\\]{0,6})[^\"]*");
+    private static final Pattern CREDENTIAL_NAME = Pattern.compile(CREDENTIAL_NAMES);
+
+    private final Logger logger;
+    private final int sampling;
+    private final String[] filters;
+    private final int maxBodyLength;
+    private final AtomicLong matched = new AtomicLong();
+
+    WireLog(Logger logger, HttpClientConfiguration conf) {
+        this.logger = logger;
+        this.sampling = conf.getHttpWireLogSampling();
+        String filter = conf.getHttpWireLogFilter();
+        this.filters = filter == null || filter.trim().length() == 0 ? null : filter.trim().split("\\s*,\\s*");
+        this.maxBodyLength = conf.getHttpWireLogMaxBodyLength();
+    }
+
+    /**
+     * @return the trace of the request, or null when the request is not logged
+     */
+    Trace start(HttpRequest req) {
+        if (sampling > 0 && matches(req) && matched.getAndIncrement() % sampling == 0 && logger.isInfoEnabled()) {
+            return new Trace(logger, true, maxBodyLength);
+        }
+        return logger.isDebugEnabled() ? new Trace(logger, false, -1) : null;
+    }
+
+    private boolean matches(HttpRequest req) {
+        if (filters == null) {
+            return true;
+        }
+        String token = null;
+        if (req.getAuthorization() instanceof OAuthAuthorization) {
+            OAuthAuthorization auth = (OAuthAuthorization) req.getAuthorization();
+            AccessToken accessToken = auth.isEnabled() ? auth.getOAuthAccessToken() : null;
+            token = accessToken == null ? null : accessToken.getToken();
+        }
+        for (String filter : filters) {
+            if (req.getURL().contains(filter) || filter.equals(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String mask(String message) {
+        String masked = CREDENTIALS.matcher(message).replaceAll("$1...");
+        return JSON_CREDENTIALS.matcher(masked).replaceAll("$1...");
+    }
+
+    /**
+     * Writes the wire log of one request.
+     */
+    static final class Trace {
+        private final Logger logger;
+        private final boolean sampled;
+        private final int maxBodyLength;
+
+        private Trace(Logger logger, boolean sampled, int maxBodyLength) {
+            this.logger = logger;
+            this.sampled = sampled;
+            this.maxBodyLength = maxBodyLength;
+        }
+
+        void log(String message) {
+            if (sampled) {
+                logger.info(mask(message));
+            } else {
+                logger.debug(message);
+            }
+        }
+
+        void log(String message, String message2) {
+            log(message + message2);
+        }
+
+        /**
+         * Logs the value of a request parameter which is sent without its name, e.g. a multipart form field.
+         */
+        void param(String name, String value) {
+            if (sampled && CREDENTIAL_NAME.matcher(name).matches()) {
+                log(value.substring(0, Math.min(6, value.length())) + "...");
+            } else {
+                log(value);
+            }
+        }
+
+        void body(String body) {
+            if (body == null) {
+                return;
+            }
+            int length = body.length();
+            if (sampled) {
+                // mask before truncating so a cut cannot leave a credential unmatched
+                body = mask(body);
+            }
+            if (maxBodyLength >= 0 && body.length() > maxBodyLength) {
+                log(body.substring(0, maxBodyLength) + "...(" + length + " chars)");
+            } else {
+                log(body);
+            }
+        }
+    }
+}
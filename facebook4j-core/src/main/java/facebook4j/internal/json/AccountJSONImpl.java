@@ -47,10 +47,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/AccountJSONImpl(JSONObject json) throws FacebookException {
@@ -104,9 +101,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Account> createAccountList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -114,14 +108,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject accountJSONObject = list.getJSONObject(i);
                 Account account = new AccountJSONImpl(accountJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(account, accountJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, account, accountJSONObject);
                 accounts.add(account);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(accounts, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, accounts, list);
             return accounts;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -56,10 +56,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/AchievementJSONImpl(JSONObject json) throws FacebookException {
@@ -167,9 +164,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Achievement> createAchievementList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -177,14 +171,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject achievementJSONObject = list.getJSONObject(i);
                 Achievement achievement = new AchievementJSONImpl(achievementJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(achievement, achievementJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, achievement, achievementJSONObject);
                 achievements.add(achievement);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(achievements, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, achievements, list);
             return achievements;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -42,9 +42,6 @@ import facebook4j.internal.org.json.JSONObject;
     /*package*/
     static ResponseList<Activity> createActivityList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -52,14 +49,10 @@ import facebook4j.internal.org.json.JSONObject;
             for (int i = 0; i < size; i++) {
                 JSONObject activityJSONObject = list.getJSONObject(i);
                 Activity activity = new ActivityJSONImpl(activityJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(activity, activityJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, activity, activityJSONObject);
                 activities.add(activity);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(activities, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, activities, list);
             return activities;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
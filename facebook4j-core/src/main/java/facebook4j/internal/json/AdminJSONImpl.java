@@ -46,10 +46,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/AdminJSONImpl(JSONObject json) throws FacebookException {
@@ -96,9 +93,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Admin> createAdminList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -106,14 +100,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject adminJSONObject = list.getJSONObject(i);
                 Admin admin = new AdminJSONImpl(adminJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(admin, adminJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, admin, adminJSONObject);
                 admins.add(admin);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(admins, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, admins, list);
             return admins;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -56,10 +56,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/AlbumJSONImpl(JSONObject json) throws FacebookException {
@@ -196,9 +193,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Album> createAlbumList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -206,14 +200,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject albumJSONObject = list.getJSONObject(i);
                 Album album = new AlbumJSONImpl(albumJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(album, albumJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, album, albumJSONObject);
                 albums.add(album);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(albums, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, albums, list);
             return albums;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
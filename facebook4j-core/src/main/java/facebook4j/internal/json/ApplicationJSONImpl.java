@@ -87,10 +87,7 @@ import facebook4j.internal.org.json.JSONObject;
     /*package*/ApplicationJSONImpl(HttpResponse res, Configuration conf) throws FacebookException {
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/ApplicationJSONImpl(JSONObject json) throws FacebookException {
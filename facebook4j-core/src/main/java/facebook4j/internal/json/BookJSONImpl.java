@@ -42,9 +42,6 @@ import facebook4j.internal.org.json.JSONObject;
     /*package*/
     static ResponseList<Book> createBookList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -52,14 +49,10 @@ import facebook4j.internal.org.json.JSONObject;
             for (int i = 0; i < size; i++) {
                 JSONObject bookJSONObject = list.getJSONObject(i);
                 Book book = new BookJSONImpl(bookJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(book, bookJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, book, bookJSONObject);
                 books.add(book);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(books, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, books, list);
             return books;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -41,10 +41,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/CategoryJSONImpl(JSONObject json) throws FacebookException {
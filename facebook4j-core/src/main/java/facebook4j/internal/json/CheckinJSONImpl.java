@@ -58,10 +58,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/CheckinJSONImpl(JSONObject json) throws FacebookException {
@@ -188,9 +185,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Checkin> createCheckinList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -198,14 +192,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject checkinJSONObject = list.getJSONObject(i);
                 Checkin checkin = new CheckinJSONImpl(checkinJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(checkin, checkinJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, checkin, checkinJSONObject);
                 checkins.add(checkin);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(checkins, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, checkins, list);
             return checkins;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -20,6 +20,7 @@ import facebook4j.Category;
 import facebook4j.Comment;
 import facebook4j.FacebookException;
 import facebook4j.Image;
+import facebook4j.PagableList;
 import facebook4j.ResponseList;
 import facebook4j.Tag;
 import facebook4j.conf.Configuration;
@@ -55,15 +56,13 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     private Boolean isUserLikes;
     private Attachment attachment;
     private Comment parent;
+    private PagableList<Comment> comments;
     
     /*package*/CommentJSONImpl(HttpResponse res, Configuration conf) throws FacebookException {
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/CommentJSONImpl(JSONObject json) throws FacebookException {
@@ -105,6 +104,21 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             if (!json.isNull("parent")) {
                 parent = new CommentJSONImpl(json.getJSONObject("parent"));
             }
+            if (!json.isNull("comments")) {
+                JSONObject commentsJSONObject = json.getJSONObject("comments");
+                if (!commentsJSONObject.isNull("data")) {
+                    JSONArray list = commentsJSONObject.getJSONArray("data");
+                    final int size = list.length();
+                    comments = new PagableListImpl<Comment>(size, commentsJSONObject);
+                    for (int i = 0; i < size; i++) {
+                        comments.add(new CommentJSONImpl(list.getJSONObject(i)));
+                    }
+                } else {
+                    comments = new PagableListImpl<Comment>(1, commentsJSONObject);
+                }
+            } else {
+                comments = new PagableListImpl<Comment>(0);
+            }
         } catch (JSONException jsone) {
             throw new FacebookException(jsone.getMessage(), jsone);
         }
@@ -166,12 +180,13 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         return parent;
     }
 
+    public PagableList<Comment> getComments() {
+        return comments;
+    }
+
     /*package*/
     static ResponseList<Comment> createCommentList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -179,14 +194,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject commentJSONObject = list.getJSONObject(i);
                 Comment comment = new CommentJSONImpl(commentJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(comment, commentJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, comment, commentJSONObject);
                 comments.add(comment);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(comments, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, comments, list);
             return comments;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -235,6 +246,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
                 ", isUserLikes=" + isUserLikes +
                 ", attachment=" + attachment +
                 ", parent=" + parent +
+                ", comments=" + comments +
                 '}';
     }
 
@@ -16,14 +16,68 @@
 
 package facebook4j.internal.json;
 
-import facebook4j.json.DataObjectFactory;
+import facebook4j.Account;
+import facebook4j.Achievement;
+import facebook4j.Activity;
+import facebook4j.Admin;
+import facebook4j.Album;
+import facebook4j.Book;
+import facebook4j.Category;
+import facebook4j.Checkin;
+import facebook4j.Comment;
+import facebook4j.Domain;
+import facebook4j.Event;
+import facebook4j.FacebookException;
+import facebook4j.Family;
+import facebook4j.Friend;
+import facebook4j.FriendRequest;
+import facebook4j.Friendlist;
+import facebook4j.Game;
+import facebook4j.Group;
+import facebook4j.GroupDoc;
+import facebook4j.GroupMember;
+import facebook4j.Insight;
+import facebook4j.Interest;
+import facebook4j.Like;
+import facebook4j.Link;
+import facebook4j.Location;
+import facebook4j.Message;
+import facebook4j.Milestone;
+import facebook4j.Movie;
+import facebook4j.Music;
+import facebook4j.Note;
+import facebook4j.Notification;
+import facebook4j.Offer;
+import facebook4j.Page;
+import facebook4j.PageSetting;
+import facebook4j.Photo;
+import facebook4j.Place;
+import facebook4j.Poke;
+import facebook4j.Post;
+import facebook4j.Question;
+import facebook4j.QuestionVotes;
+import facebook4j.RSVPStatus;
+import facebook4j.Score;
+import facebook4j.Subscribedto;
+import facebook4j.Subscriber;
+import facebook4j.Tab;
+import facebook4j.Tag;
+import facebook4j.Tagged;
+import facebook4j.Television;
+import facebook4j.User;
+import facebook4j.Video;
+import facebook4j.conf.Configuration;
+import facebook4j.internal.org.json.JSONObject;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
 
 /**
- * provides public access to package private methods of facebook4j.json.DataObjectFactory class.<br>
- * This class is not intended to be used by Twitter4J client.
+ * Backs facebook4j.json.DataObjectFactory: constructs the *JSONImpl classes directly and holds the raw JSON forms.<br>
+ * Raw JSON forms are only registered while JSONStore is enabled, and stay available from any thread for as long as
+ * the object is reachable and among the last 10000 registered.<br>
+ * Each *JSONImpl class is loaded on the first call of its factory method rather than all at once.<br>
+ * This class is not intended to be used by Facebook4J client.
  *
  * @author Yusuke Yamamoto - yusuke at mac.com
  */
@@ -32,52 +86,385 @@ public class DataObjectFactoryUtil {
         throw new AssertionError("not intended to be instantiated.");
     }
 
-    private static final Method CLEAR_THREAD_LOCAL_MAP;
-    private static final Method REGISTER_JSON_OBJECT;
-
-    static {
-        Method[] methods = DataObjectFactory.class.getDeclaredMethods();
-        Method clearThreadLocalMap = null;
-        Method registerJSONObject = null;
-        for (Method method : methods) {
-            if (method.getName().equals("clearThreadLocalMap")) {
-                clearThreadLocalMap = method;
-                clearThreadLocalMap.setAccessible(true);
-            } else if (method.getName().equals("registerJSONObject")) {
-                registerJSONObject = method;
-                registerJSONObject.setAccessible(true);
-            }
+    /*package*/ static final int RAW_JSON_CAPACITY = 10000;
+
+    private static final RawJSONStore rawJSONStore = new RawJSONStore(RAW_JSON_CAPACITY);
+
+    /**
+     * associate a raw JSON form to the object
+     */
+    public static <T> T registerJSONObject(T key, Object json) {
+        rawJSONStore.put(key, json);
+        return key;
+    }
+
+    /**
+     * Associates the JSON form to an object parsed from it: in the raw JSON store while JSONStore is enabled,
+     * and on the object itself while the entity codec is enabled.
+     */
+    public static <T> T registerJSONObject(Configuration conf, T key, Object json) {
+        if (conf.isJSONStoreEnabled()) {
+            rawJSONStore.put(key, json);
         }
-        if (null == clearThreadLocalMap || null == registerJSONObject) {
-            throw new AssertionError();
+        if (conf.isEntityCodecEnabled()) {
+            retainJSON(key, json);
         }
-        CLEAR_THREAD_LOCAL_MAP = clearThreadLocalMap;
-        REGISTER_JSON_OBJECT = registerJSONObject;
+        return key;
     }
 
     /**
-     * provides a public access to {DAOFactory#clearThreadLocalMap}
+     * Keeps the JSON form on the data object itself, for {@link facebook4j.json.EntityEncoder}.
      */
-    public static void clearThreadLocalMap() {
-        try {
-            CLEAR_THREAD_LOCAL_MAP.invoke(null);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new AssertionError(e);
+    public static void retainJSON(Object entity, Object json) {
+        if (entity instanceof RetainsJSON) {
+            ((RetainsJSON) entity).setRetainedJSON(json);
         }
     }
 
     /**
-     * provides a public access to {DAOFactory#registerJSONObject}
+     * @return the JSON form kept on the data object, or null
      */
-    public static <T> T registerJSONObject(T key, Object json) {
-        try {
-            return (T) REGISTER_JSON_OBJECT.invoke(null, key, json);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new AssertionError(e);
+    public static Object getRetainedJSON(Object entity) {
+        entity = unwrap(entity);
+        return entity instanceof RetainsJSON ? ((RetainsJSON) entity).getRetainedJSON() : null;
+    }
+
+    /**
+     * @return the raw JSON form registered for the object, or null
+     */
+    public static Object getJSONObject(Object obj) {
+        return rawJSONStore.get(obj);
+    }
+
+    public static Account createAccount(JSONObject json) throws FacebookException {
+        return new AccountJSONImpl(json);
+    }
+
+    public static Achievement createAchievement(JSONObject json) throws FacebookException {
+        return new AchievementJSONImpl(json);
+    }
+
+    public static Activity createActivity(JSONObject json) throws FacebookException {
+        return new ActivityJSONImpl(json);
+    }
+
+    public static Admin createAdmin(JSONObject json) throws FacebookException {
+        return new AdminJSONImpl(json);
+    }
+
+    public static Album createAlbum(JSONObject json) throws FacebookException {
+        return new AlbumJSONImpl(json);
+    }
+
+    public static Book createBook(JSONObject json) throws FacebookException {
+        return new BookJSONImpl(json);
+    }
+
+    public static Category createCategory(JSONObject json) throws FacebookException {
+        return new CategoryJSONImpl(json);
+    }
+
+    public static Checkin createCheckin(JSONObject json) throws FacebookException {
+        return new CheckinJSONImpl(json);
+    }
+
+    public static Comment createComment(JSONObject json) throws FacebookException {
+        return new CommentJSONImpl(json);
+    }
+
+    public static Domain createDomain(JSONObject json) throws FacebookException {
+        return new DomainJSONImpl(json);
+    }
+
+    public static Event createEvent(JSONObject json) throws FacebookException {
+        return new EventJSONImpl(json);
+    }
+
+    public static Family createFamily(JSONObject json) throws FacebookException {
+        return new FamilyJSONImpl(json);
+    }
+
+    public static Friend createFriend(JSONObject json) throws FacebookException {
+        return new FriendJSONImpl(json);
+    }
+
+    public static Friendlist createFriendlist(JSONObject json) throws FacebookException {
+        return new FriendlistJSONImpl(json);
+    }
+
+    public static FriendRequest createFriendRequest(JSONObject json) throws FacebookException {
+        return new FriendRequestJSONImpl(json);
+    }
+
+    public static Game createGame(JSONObject json) throws FacebookException {
+        return new GameJSONImpl(json);
+    }
+
+    public static GroupDoc createGroupDoc(JSONObject json) throws FacebookException {
+        return new GroupDocJSONImpl(json);
+    }
+
+    public static Group createGroup(JSONObject json) throws FacebookException {
+        return new GroupJSONImpl(json);
+    }
+
+    public static GroupMember createGroupMember(JSONObject json) throws FacebookException {
+        return new GroupMemberJSONImpl(json);
+    }
+
+    public static Insight createInsight(JSONObject json) throws FacebookException {
+        return new InsightJSONImpl(json);
+    }
+
+    public static Interest createInterest(JSONObject json) throws FacebookException {
+        return new InterestJSONImpl(json);
+    }
+
+    public static Like createLike(JSONObject json) throws FacebookException {
+        return new LikeJSONImpl(json);
+    }
+
+    public static Link createLink(JSONObject json) throws FacebookException {
+        return new LinkJSONImpl(json);
+    }
+
+    public static Location createLocation(JSONObject json) throws FacebookException {
+        return new LocationJSONImpl(json);
+    }
+
+    public static Message createMessage(JSONObject json) throws FacebookException {
+        return new MessageJSONImpl(json);
+    }
+
+    public static Milestone createMilestone(JSONObject json) throws FacebookException {
+        return new MilestoneJSONImpl(json);
+    }
+
+    public static Movie createMovie(JSONObject json) throws FacebookException {
+        return new MovieJSONImpl(json);
+    }
+
+    public static Music createMusic(JSONObject json) throws FacebookException {
+        return new MusicJSONImpl(json);
+    }
+
+    public static Note createNote(JSONObject json) throws FacebookException {
+        return new NoteJSONImpl(json);
+    }
+
+    public static Notification createNotification(JSONObject json) throws FacebookException {
+        return new NotificationJSONImpl(json);
+    }
+
+    public static Offer createOffer(JSONObject json) throws FacebookException {
+        return new OfferJSONImpl(json);
+    }
+
+    public static Page createPage(JSONObject json) throws FacebookException {
+        return new PageJSONImpl(json);
+    }
+
+    public static PageSetting createPageSetting(JSONObject json) throws FacebookException {
+        return new PageSettingJSONImpl(json);
+    }
+
+    public static Photo createPhoto(JSONObject json) throws FacebookException {
+        return new PhotoJSONImpl(json);
+    }
+
+    public static Place createPlace(JSONObject json) throws FacebookException {
+        return new PlaceJSONImpl(json);
+    }
+
+    public static Poke createPoke(JSONObject json) throws FacebookException {
+        return new PokeJSONImpl(json);
+    }
+
+    public static Post createPost(JSONObject json) throws FacebookException {
+        return new PostJSONImpl(json);
+    }
+
+    public static Question createQuestion(JSONObject json) throws FacebookException {
+        return new QuestionJSONImpl(json);
+    }
+
+    public static QuestionVotes createQuestionVotes(JSONObject json) throws FacebookException {
+        return new QuestionVotesJSONImpl(json);
+    }
+
+    public static RSVPStatus createRSVPStatus(JSONObject json) throws FacebookException {
+        return new RSVPStatusJSONImpl(json);
+    }
+
+    public static Score createScore(JSONObject json) throws FacebookException {
+        return new ScoreJSONImpl(json);
+    }
+
+    public static Subscribedto createSubscribedto(JSONObject json) throws FacebookException {
+        return new SubscribedtoJSONImpl(json);
+    }
+
+    public static Subscriber createSubscriber(JSONObject json) throws FacebookException {
+        return new SubscriberJSONImpl(json);
+    }
+
+    public static Tab createTab(JSONObject json) throws FacebookException {
+        return new TabJSONImpl(json);
+    }
+
+    public static Tagged createTagged(JSONObject json) throws FacebookException {
+        return new TaggedJSONImpl(json);
+    }
+
+    public static Tag createTag(JSONObject json) throws FacebookException {
+        return new TagJSONImpl(json);
+    }
+
+    public static Television createTelevision(JSONObject json) throws FacebookException {
+        return new TelevisionJSONImpl(json);
+    }
+
+    public static User createUser(JSONObject json) throws FacebookException {
+        return new UserJSONImpl(json);
+    }
+
+    public static Video createVideo(JSONObject json) throws FacebookException {
+        return new VideoJSONImpl(json);
+    }
+
+    /**
+     * Implemented by the invocation handler of a dynamic proxy standing in for a data object, so that the
+     * object behind it can be encoded.
+     */
+    public interface EntityProxy {
+        Object getEntity();
+    }
+
+    private static Object unwrap(Object entity) {
+        if (entity != null && Proxy.isProxyClass(entity.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(entity);
+            if (handler instanceof EntityProxy) {
+                return ((EntityProxy) handler).getEntity();
+            }
+        }
+        return entity;
+    }
+
+    /**
+     * Returns the stable number identifying the type of an object created by this class, used by
+     * facebook4j.json.EntityEncoder. Numbers are never reused; new types are appended.
+     *
+     * @return the type number, or 0 if the object is not a data object
+     */
+    public static int typeOf(Object entity) {
+        Class<?> type = unwrap(entity).getClass();
+        if (type == AccountJSONImpl.class) return 1;
+        if (type == AchievementJSONImpl.class) return 2;
+        if (type == ActivityJSONImpl.class) return 3;
+        if (type == AdminJSONImpl.class) return 4;
+        if (type == AlbumJSONImpl.class) return 5;
+        if (type == BookJSONImpl.class) return 6;
+        if (type == CategoryJSONImpl.class) return 7;
+        if (type == CheckinJSONImpl.class) return 8;
+        if (type == CommentJSONImpl.class) return 9;
+        if (type == DomainJSONImpl.class) return 10;
+        if (type == EventJSONImpl.class) return 11;
+        if (type == FamilyJSONImpl.class) return 12;
+        if (type == FriendJSONImpl.class) return 13;
+        if (type == FriendlistJSONImpl.class) return 14;
+        if (type == FriendRequestJSONImpl.class) return 15;
+        if (type == GameJSONImpl.class) return 16;
+        if (type == GroupDocJSONImpl.class) return 17;
+        if (type == GroupJSONImpl.class) return 18;
+        if (type == GroupMemberJSONImpl.class) return 19;
+        if (type == InsightJSONImpl.class) return 20;
+        if (type == InterestJSONImpl.class) return 21;
+        if (type == LikeJSONImpl.class) return 22;
+        if (type == LinkJSONImpl.class) return 23;
+        if (type == LocationJSONImpl.class) return 24;
+        if (type == MessageJSONImpl.class) return 25;
+        if (type == MilestoneJSONImpl.class) return 26;
+        if (type == MovieJSONImpl.class) return 27;
+        if (type == MusicJSONImpl.class) return 28;
+        if (type == NoteJSONImpl.class) return 29;
+        if (type == NotificationJSONImpl.class) return 30;
+        if (type == OfferJSONImpl.class) return 31;
+        if (type == PageJSONImpl.class) return 32;
+        if (type == PageSettingJSONImpl.class) return 33;
+        if (type == PhotoJSONImpl.class) return 34;
+        if (type == PlaceJSONImpl.class) return 35;
+        if (type == PokeJSONImpl.class) return 36;
+        if (type == PostJSONImpl.class) return 37;
+        if (type == QuestionJSONImpl.class) return 38;
+        if (type == QuestionVotesJSONImpl.class) return 39;
+        if (type == RSVPStatusJSONImpl.class) return 40;
+        if (type == ScoreJSONImpl.class) return 41;
+        if (type == SubscribedtoJSONImpl.class) return 42;
+        if (type == SubscriberJSONImpl.class) return 43;
+        if (type == TabJSONImpl.class) return 44;
+        if (type == TaggedJSONImpl.class) return 45;
+        if (type == TagJSONImpl.class) return 46;
+        if (type == TelevisionJSONImpl.class) return 47;
+        if (type == UserJSONImpl.class) return 48;
+        if (type == VideoJSONImpl.class) return 49;
+        return 0;
+    }
+
+    /**
+     * Constructs the data object of a type number returned by {@link #typeOf(Object)}.
+     */
+    public static Object create(int type, JSONObject json) throws FacebookException {
+        switch (type) {
+            case 1: return new AccountJSONImpl(json);
+            case 2: return new AchievementJSONImpl(json);
+            case 3: return new ActivityJSONImpl(json);
+            case 4: return new AdminJSONImpl(json);
+            case 5: return new AlbumJSONImpl(json);
+            case 6: return new BookJSONImpl(json);
+            case 7: return new CategoryJSONImpl(json);
+            case 8: return new CheckinJSONImpl(json);
+            case 9: return new CommentJSONImpl(json);
+            case 10: return new DomainJSONImpl(json);
+            case 11: return new EventJSONImpl(json);
+            case 12: return new FamilyJSONImpl(json);
+            case 13: return new FriendJSONImpl(json);
+            case 14: return new FriendlistJSONImpl(json);
+            case 15: return new FriendRequestJSONImpl(json);
+            case 16: return new GameJSONImpl(json);
+            case 17: return new GroupDocJSONImpl(json);
+            case 18: return new GroupJSONImpl(json);
+            case 19: return new GroupMemberJSONImpl(json);
+            case 20: return new InsightJSONImpl(json);
+            case 21: return new InterestJSONImpl(json);
+            case 22: return new LikeJSONImpl(json);
+            case 23: return new LinkJSONImpl(json);
+            case 24: return new LocationJSONImpl(json);
+            case 25: return new MessageJSONImpl(json);
+            case 26: return new MilestoneJSONImpl(json);
+            case 27: return new MovieJSONImpl(json);
+            case 28: return new MusicJSONImpl(json);
+            case 29: return new NoteJSONImpl(json);
+            case 30: return new NotificationJSONImpl(json);
+            case 31: return new OfferJSONImpl(json);
+            case 32: return new PageJSONImpl(json);
+            case 33: return new PageSettingJSONImpl(json);
+            case 34: return new PhotoJSONImpl(json);
+            case 35: return new PlaceJSONImpl(json);
+            case 36: return new PokeJSONImpl(json);
+            case 37: return new PostJSONImpl(json);
+            case 38: return new QuestionJSONImpl(json);
+            case 39: return new QuestionVotesJSONImpl(json);
+            case 40: return new RSVPStatusJSONImpl(json);
+            case 41: return new ScoreJSONImpl(json);
+            case 42: return new SubscribedtoJSONImpl(json);
+            case 43: return new SubscriberJSONImpl(json);
+            case 44: return new TabJSONImpl(json);
+            case 45: return new TaggedJSONImpl(json);
+            case 46: return new TagJSONImpl(json);
+            case 47: return new TelevisionJSONImpl(json);
+            case 48: return new UserJSONImpl(json);
+            case 49: return new VideoJSONImpl(json);
+            default: throw new FacebookException("Unknown data object type: " + type);
         }
     }
 }
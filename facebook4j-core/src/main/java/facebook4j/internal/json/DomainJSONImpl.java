@@ -43,9 +43,6 @@ import facebook4j.internal.org.json.JSONObject;
     /*package*/
     static List<Domain> createDomainArray(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             List<Domain> domains = new ArrayList<Domain>();
             Iterator ids = json.keys();
@@ -53,14 +50,10 @@ import facebook4j.internal.org.json.JSONObject;
                 String id = (String) ids.next();
                 JSONObject domainJSONObject = (JSONObject) json.get(id);
                 Domain domain = new DomainJSONImpl(domainJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(domain, domainJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, domain, domainJSONObject);
                 domains.add(domain);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(domains, json);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, domains, json);
             return domains;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -68,10 +68,7 @@ import facebook4j.internal.org.json.JSONObject;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/EventJSONImpl(JSONObject json) throws FacebookException {
@@ -173,9 +170,6 @@ import facebook4j.internal.org.json.JSONObject;
     /*package*/
     static ResponseList<Event> createEventList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -183,14 +177,10 @@ import facebook4j.internal.org.json.JSONObject;
             for (int i = 0; i < size; i++) {
                 JSONObject eventJSONObject = list.getJSONObject(i);
                 Event event = new EventJSONImpl(eventJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(event, eventJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, event, eventJSONObject);
                 events.add(event);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(events, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, events, list);
             return events;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -27,10 +27,11 @@ import facebook4j.internal.org.json.JSONObject;
  * 
  * @author Ryuji Yamashita - roundrop at gmail.com
  */
-/*package*/ abstract class FacebookResponseImpl implements FacebookResponse, java.io.Serializable {
+/*package*/ abstract class FacebookResponseImpl implements FacebookResponse, RetainsJSON, java.io.Serializable {
     private static final long serialVersionUID = 4709046756028485684L;
     
     private Metadata metadata;
+    private transient Object retainedJSON;
 
     public FacebookResponseImpl() {}
     
@@ -50,4 +51,12 @@ import facebook4j.internal.org.json.JSONObject;
         return metadata;
     }
 
+    public Object getRetainedJSON() {
+        return retainedJSON;
+    }
+
+    public void setRetainedJSON(Object json) {
+        this.retainedJSON = json;
+    }
+
 }
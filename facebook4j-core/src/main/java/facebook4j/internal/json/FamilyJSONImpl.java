@@ -39,10 +39,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res, conf);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/FamilyJSONImpl(JSONObject json) throws FacebookException {
@@ -61,9 +58,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Family> createFamilyList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -71,14 +65,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject familyJSONObject = list.getJSONObject(i);
                 Family family = new FamilyJSONImpl(familyJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(family, familyJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, family, familyJSONObject);
                 familys.add(family);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(familys, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, familys, list);
             return familys;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -42,9 +42,6 @@ import facebook4j.internal.org.json.JSONObject;
     /*package*/
     static ResponseList<Friend> createFriendList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -52,14 +49,10 @@ import facebook4j.internal.org.json.JSONObject;
             for (int i = 0; i < size; i++) {
                 JSONObject friendJSONObject = list.getJSONObject(i);
                 Friend friend = new FriendJSONImpl(friendJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(friend, friendJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, friend, friendJSONObject);
                 friends.add(friend);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(friends, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, friends, list);
             return friends;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
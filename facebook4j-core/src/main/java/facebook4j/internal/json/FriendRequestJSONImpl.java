@@ -46,10 +46,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/FriendRequestJSONImpl(JSONObject json) throws FacebookException {
@@ -102,9 +99,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<FriendRequest> createFriendRequestList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -112,14 +106,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject friendRequestJSONObject = list.getJSONObject(i);
                 FriendRequest friendRequest = new FriendRequestJSONImpl(friendRequestJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(friendRequest, friendRequestJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, friendRequest, friendRequestJSONObject);
                 friendRequests.add(friendRequest);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(friendRequests, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, friendRequests, list);
             return friendRequests;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
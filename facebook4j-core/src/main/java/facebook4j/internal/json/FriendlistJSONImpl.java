@@ -41,10 +41,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/FriendlistJSONImpl(JSONObject json) throws FacebookException {
@@ -71,9 +68,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Friendlist> createFriendlistList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -81,14 +75,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject friendlistJSONObject = list.getJSONObject(i);
                 Friendlist friendlist = new FriendlistJSONImpl(friendlistJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(friendlist, friendlistJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, friendlist, friendlistJSONObject);
                 friendlists.add(friendlist);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(friendlists, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, friendlists, list);
             return friendlists;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -42,9 +42,6 @@ import facebook4j.internal.org.json.JSONObject;
     /*package*/
     static ResponseList<Game> createGameList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -52,14 +49,10 @@ import facebook4j.internal.org.json.JSONObject;
             for (int i = 0; i < size; i++) {
                 JSONObject gameJSONObject = list.getJSONObject(i);
                 Game game = new GameJSONImpl(gameJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(game, gameJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, game, gameJSONObject);
                 games.add(game);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(games, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, games, list);
             return games;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
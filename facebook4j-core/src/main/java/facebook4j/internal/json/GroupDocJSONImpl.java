@@ -52,10 +52,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/GroupDocJSONImpl(JSONObject json) throws FacebookException {
@@ -126,9 +123,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<GroupDoc> createGroupDocList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -136,14 +130,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject groupDocJSONObject = list.getJSONObject(i);
                 GroupDoc doc = new GroupDocJSONImpl(groupDocJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(doc, groupDocJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, doc, groupDocJSONObject);
                 docs.add(doc);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(docs, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, docs, list);
             return docs;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -59,10 +59,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
     /*package*/GroupJSONImpl(JSONObject json) throws FacebookException {
         super();
@@ -146,9 +143,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Group> createGroupList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -156,14 +150,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject groupJSONObject = list.getJSONObject(i);
                 Group group = new GroupJSONImpl(groupJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(group, groupJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, group, groupJSONObject);
                 groups.add(group);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(groups, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, groups, list);
             return groups;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
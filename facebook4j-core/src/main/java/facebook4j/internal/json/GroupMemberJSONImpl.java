@@ -36,10 +36,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res, conf);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
     /*package*/GroupMemberJSONImpl(JSONObject json) throws FacebookException {
         super(json);
@@ -57,9 +54,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<GroupMember> createGroupMemberList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -67,14 +61,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject groupMemberJSONObject = list.getJSONObject(i);
                 GroupMember member = new GroupMemberJSONImpl(groupMemberJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(member, groupMemberJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, member, groupMemberJSONObject);
                 members.add(member);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(members, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, members, list);
             return members;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
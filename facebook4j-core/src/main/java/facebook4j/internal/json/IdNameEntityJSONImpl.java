@@ -39,10 +39,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/IdNameEntityJSONImpl(HttpResponse res, Configuration conf) throws FacebookException {
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
     
     /*package*/IdNameEntityJSONImpl(JSONObject json) throws FacebookException {
@@ -70,9 +67,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<IdNameEntity> createIdNameEntityList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -80,14 +74,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject entityJSONObject = list.getJSONObject(i);
                 IdNameEntity entity = new IdNameEntityJSONImpl(entityJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(entity, entityJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, entity, entityJSONObject);
                 entities.add(entity);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(entities, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, entities, list);
             return entities;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
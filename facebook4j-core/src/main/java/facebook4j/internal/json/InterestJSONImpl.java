@@ -42,9 +42,6 @@ import facebook4j.internal.org.json.JSONObject;
     /*package*/
     static ResponseList<Interest> createInterestList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -52,14 +49,10 @@ import facebook4j.internal.org.json.JSONObject;
             for (int i = 0; i < size; i++) {
                 JSONObject interestJSONObject = list.getJSONObject(i);
                 Interest interest = new InterestJSONImpl(interestJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(interest, interestJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, interest, interestJSONObject);
                 interests.add(interest);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(interests, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, interests, list);
             return interests;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -42,9 +42,6 @@ import facebook4j.internal.org.json.JSONObject;
     /*package*/
     static ResponseList<Like> createLikeList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -52,14 +49,10 @@ import facebook4j.internal.org.json.JSONObject;
             for (int i = 0; i < size; i++) {
                 JSONObject likeJSONObject = list.getJSONObject(i);
                 Like like = new LikeJSONImpl(likeJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(like, likeJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, like, likeJSONObject);
                 likes.add(like);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(likes, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, likes, list);
             return likes;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
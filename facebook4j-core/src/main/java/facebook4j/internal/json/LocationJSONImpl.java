@@ -51,10 +51,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/LocationJSONImpl(JSONObject json) throws FacebookException {
@@ -127,9 +124,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Location> createLocationList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -137,14 +131,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject locationJSONObject = list.getJSONObject(i);
                 Location location = new LocationJSONImpl(locationJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(location, locationJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, location, locationJSONObject);
                 locations.add(location);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(locations, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, locations, list);
             return locations;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
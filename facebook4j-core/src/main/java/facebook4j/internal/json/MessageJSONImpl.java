@@ -56,10 +56,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/MessageJSONImpl(JSONObject json) throws FacebookException {
@@ -146,9 +143,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Message> createMessageList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -156,14 +150,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject messageJSONObject = list.getJSONObject(i);
                 Message message = new MessageJSONImpl(messageJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(message, messageJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, message, messageJSONObject);
                 messages.add(message);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(messages, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, messages, list);
             return messages;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -173,9 +163,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static InboxResponseList<Message> createInboxMessageList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -183,14 +170,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject messageJSONObject = list.getJSONObject(i);
                 Message message = new MessageJSONImpl(messageJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(message, messageJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, message, messageJSONObject);
                 messages.add(message);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(messages, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, messages, list);
             return messages;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
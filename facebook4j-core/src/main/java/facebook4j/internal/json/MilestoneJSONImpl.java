@@ -48,10 +48,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/MilestoneJSONImpl(JSONObject json) throws FacebookException {
@@ -109,9 +106,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Milestone> createMilestoneList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -119,14 +113,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject eventJSONObject = list.getJSONObject(i);
                 Milestone milestone = new MilestoneJSONImpl(eventJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(milestone, eventJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, milestone, eventJSONObject);
                 milestones.add(milestone);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(milestones, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, milestones, list);
             return milestones;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
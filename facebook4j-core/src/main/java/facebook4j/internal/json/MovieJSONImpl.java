@@ -42,9 +42,6 @@ import facebook4j.internal.org.json.JSONObject;
     /*package*/
     static ResponseList<Movie> createMovieList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -52,14 +49,10 @@ import facebook4j.internal.org.json.JSONObject;
             for (int i = 0; i < size; i++) {
                 JSONObject movieJSONObject = list.getJSONObject(i);
                 Movie movie = new MovieJSONImpl(movieJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(movie, movieJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, movie, movieJSONObject);
                 movies.add(movie);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(movies, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, movies, list);
             return movies;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
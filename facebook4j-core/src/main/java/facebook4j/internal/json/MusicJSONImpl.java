@@ -43,9 +43,6 @@ import facebook4j.internal.org.json.JSONObject;
     /*package*/
     static ResponseList<Music> createMusicList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -53,14 +50,10 @@ import facebook4j.internal.org.json.JSONObject;
             for (int i = 0; i < size; i++) {
                 JSONObject musicJSONObject = list.getJSONObject(i);
                 Music music = new MusicJSONImpl(musicJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(music, musicJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, music, musicJSONObject);
                 musics.add(music);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(musics, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, musics, list);
             return musics;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -47,10 +47,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/NoteJSONImpl(JSONObject json) throws FacebookException {
@@ -119,9 +116,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Note> createNoteList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -129,14 +123,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject noteJSONObject = list.getJSONObject(i);
                 Note note = new NoteJSONImpl(noteJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(note, noteJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, note, noteJSONObject);
                 notes.add(note);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(notes, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, notes, list);
             return notes;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -53,10 +53,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/NotificationJSONImpl(JSONObject json) throws FacebookException {
@@ -136,9 +133,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Notification> createNotificationList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -146,14 +140,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject notificationJSONObject = list.getJSONObject(i);
                 Notification notification = new NotificationJSONImpl(notificationJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(notification, notificationJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, notification, notificationJSONObject);
                 notifications.add(notification);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(notifications, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, notifications, list);
             return notifications;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
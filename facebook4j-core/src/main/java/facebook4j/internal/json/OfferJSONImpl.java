@@ -56,10 +56,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/OfferJSONImpl(JSONObject json) throws FacebookException {
@@ -150,9 +147,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Offer> createOfferList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -160,14 +154,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject offerJSONObject = list.getJSONObject(i);
                 Offer offer = new OfferJSONImpl(offerJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(offer, offerJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, offer, offerJSONObject);
                 offers.add(offer);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(offers, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, offers, list);
             return offers;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -25,6 +25,9 @@ import facebook4j.internal.org.json.JSONObject;
 
 import java.net.URL;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
 
@@ -61,10 +64,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/PageJSONImpl(JSONObject json) throws FacebookException {
@@ -191,11 +191,26 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     }
 
     /*package*/
-    static ResponseList<Page> createPageList(HttpResponse res, Configuration conf) throws FacebookException {
+    static Map<String, Page> createPageMap(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
+            JSONObject json = res.asJSONObject();
+            Map<String, Page> pages = new LinkedHashMap<String, Page>();
+            Iterator<?> ids = json.keys();
+            while (ids.hasNext()) {
+                String id = (String) ids.next();
+                Page page = new PageJSONImpl(json.getJSONObject(id));
+                pages.put(id, page);
+                DataObjectFactoryUtil.registerJSONObject(conf, page, json.getJSONObject(id));
             }
+            return pages;
+        } catch (JSONException jsone) {
+            throw new FacebookException(jsone);
+        }
+    }
+
+    /*package*/
+    static ResponseList<Page> createPageList(HttpResponse res, Configuration conf) throws FacebookException {
+        try {
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -204,9 +219,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
                 Page page = new PageJSONImpl(list.getJSONObject(i));
                 pages.add(page);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(pages, json);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, pages, json);
             return pages;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -216,11 +229,11 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (!(o instanceof PageJSONImpl)) return false;
+        if (!(o instanceof Page)) return false;
 
-        PageJSONImpl pageJSON = (PageJSONImpl) o;
+        String otherId = ((Page) o).getId();
 
-        if (id != null ? !id.equals(pageJSON.id) : pageJSON.id != null) return false;
+        if (id != null ? !id.equals(otherId) : otherId != null) return false;
 
         return true;
     }
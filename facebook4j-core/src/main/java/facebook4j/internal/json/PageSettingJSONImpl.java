@@ -41,10 +41,7 @@ public class PageSettingJSONImpl extends FacebookResponseImpl implements PageSet
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/PageSettingJSONImpl(JSONObject json) throws FacebookException {
@@ -68,9 +65,6 @@ public class PageSettingJSONImpl extends FacebookResponseImpl implements PageSet
     /*package*/
     static ResponseList<PageSetting> createLikeList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -79,9 +73,7 @@ public class PageSettingJSONImpl extends FacebookResponseImpl implements PageSet
                 PageSetting setting = new PageSettingJSONImpl(list.getJSONObject(i));
                 settings.add(setting);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(settings, json);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, settings, json);
             return settings;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -52,9 +52,6 @@ import java.util.List;
 
     /*package*/
     static List<Permission> createPermissionArray(HttpResponse res, Configuration conf) throws FacebookException {    	
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-        }
         List<Permission> permissions = new ArrayList<Permission>();
         JSONObject json = res.asJSONObject();
         try {
@@ -65,9 +62,7 @@ import java.util.List;
                 boolean isGranted =  "granted".equalsIgnoreCase(permissionJSONObject.getString("status"));
                 permissions.add(new PermissionJSONImpl(permissionName, isGranted));
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(permissions, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, permissions, list);
             return permissions;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone.getMessage(), jsone);
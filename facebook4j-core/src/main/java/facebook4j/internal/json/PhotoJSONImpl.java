@@ -69,10 +69,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/PhotoJSONImpl(JSONObject json) throws FacebookException {
@@ -244,9 +241,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Photo> createPhotoList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -254,14 +248,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject photoJSONObject = list.getJSONObject(i);
                 Photo photo = new PhotoJSONImpl(photoJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(photo, photoJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, photo, photoJSONObject);
                 photos.add(photo);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(photos, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, photos, list);
             return photos;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -46,10 +46,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/PlaceJSONImpl(JSONObject json) throws FacebookException {
@@ -100,9 +97,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Place> createPlaceList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -110,14 +104,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject placeJSONObject = list.getJSONObject(i);
                 Place place = new PlaceJSONImpl(placeJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(place, placeJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, place, placeJSONObject);
                 places.add(place);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(places, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, places, list);
             return places;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
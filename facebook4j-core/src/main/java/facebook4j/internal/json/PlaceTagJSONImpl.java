@@ -28,10 +28,7 @@ public class PlaceTagJSONImpl extends FacebookResponseImpl implements PlaceTag,
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/PlaceTagJSONImpl(JSONObject json) throws FacebookException {
@@ -69,9 +66,6 @@ public class PlaceTagJSONImpl extends FacebookResponseImpl implements PlaceTag,
 	/*package*/
     static ResponseList<PlaceTag> createPlaceTagList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -79,14 +73,10 @@ public class PlaceTagJSONImpl extends FacebookResponseImpl implements PlaceTag,
             for (int i = 0; i < size; i++) {
                 JSONObject placeJSONObject = list.getJSONObject(i);
                 PlaceTag placeTag = new PlaceTagJSONImpl(placeJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(placeTag, placeJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, placeTag, placeJSONObject);
                 places.add(placeTag);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(places, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, places, list);
             return places;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
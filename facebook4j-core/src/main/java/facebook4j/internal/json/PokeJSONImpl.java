@@ -44,10 +44,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/PokeJSONImpl(JSONObject json) throws FacebookException {
@@ -85,9 +82,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Poke> createPokeList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -95,14 +89,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject pokeJSONObject = list.getJSONObject(i);
                 Poke poke = new PokeJSONImpl(pokeJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(poke, pokeJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, poke, pokeJSONObject);
                 pokes.add(poke);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(pokes, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, pokes, list);
             return pokes;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -90,10 +90,7 @@ final class PostJSONImpl extends FacebookResponseImpl implements Post, java.io.S
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/PostJSONImpl(JSONObject json) throws FacebookException {
@@ -382,9 +379,6 @@ final class PostJSONImpl extends FacebookResponseImpl implements Post, java.io.S
     /*package*/
     static ResponseList<Post> createPostList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -392,14 +386,10 @@ final class PostJSONImpl extends FacebookResponseImpl implements Post, java.io.S
             for (int i = 0; i < size; i++) {
                 JSONObject postJSONObject = list.getJSONObject(i);
                 Post post = new PostJSONImpl(postJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(post, postJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, post, postJSONObject);
                 posts.add(post);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(posts, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, posts, list);
             return posts;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -48,10 +48,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/QuestionJSONImpl(JSONObject json) throws FacebookException {
@@ -107,9 +104,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Question> createQuestionList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -117,14 +111,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject questionJSONObject = list.getJSONObject(i);
                 Question question = new QuestionJSONImpl(questionJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(question, questionJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, question, questionJSONObject);
                 questions.add(question);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(questions, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, questions, list);
             return questions;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -270,9 +260,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     static ResponseList<Question.Option> createOptionList(HttpResponse res, Configuration conf)
     throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -281,9 +268,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
                 Question.Option option = new OptionJSONImpl(list.getJSONObject(i));
                 options.add(option);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(options, json);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, options, json);
             return options;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -42,10 +42,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/QuestionVotesJSONImpl(JSONObject json) throws FacebookException {
@@ -84,9 +81,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<QuestionVotes> createQuestionVotesList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -94,14 +88,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject questionVotesJSONObject = list.getJSONObject(i);
                 QuestionVotes questionVotes = new QuestionVotesJSONImpl(questionVotesJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(questionVotes, questionVotesJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, questionVotes, questionVotesJSONObject);
                 questionVotesList.add(questionVotes);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(questionVotesList, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, questionVotesList, list);
             return questionVotesList;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -41,10 +41,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/RSVPStatusJSONImpl(JSONObject json) throws FacebookException {
@@ -73,9 +70,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<RSVPStatus> createRSVPStatusList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -83,14 +77,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject rsvpStatusJSONObject = list.getJSONObject(i);
                 RSVPStatus rsvpStatus = new RSVPStatusJSONImpl(rsvpStatusJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(rsvpStatus, rsvpStatusJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, rsvpStatus, rsvpStatusJSONObject);
                 rsvpStatuses.add(rsvpStatus);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(rsvpStatuses, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, rsvpStatuses, list);
             return rsvpStatuses;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.internal.json;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the raw JSON forms of parsed objects, visible from any thread.<br>
+ * Objects are held weakly and compared by identity, so an entry goes away with its object and entities with
+ * equal ids never see each other's JSON. At most <code>capacity</code> entries are kept, oldest evicted first.
+ */
+/*package*/ final class RawJSONStore {
+    private static final Object SELF = new Object();
+
+    private final Lock lock = new ReentrantLock();
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+    private final Map<IdentityKey, Object> entries;
+
+    /*package*/ RawJSONStore(final int capacity) {
+        this.entries = new LinkedHashMap<IdentityKey, Object>(16, 0.75f, false) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<IdentityKey, Object> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /*package*/ void put(Object obj, Object json) {
+        IdentityKey key = new IdentityKey(obj, queue);
+        // a value referring to its own key would never let the key be collected
+        Object value = json == obj ? SELF : json;
+        lock.lock();
+        try {
+            expunge();
+            entries.remove(key);
+            entries.put(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*package*/ Object get(Object obj) {
+        Object value;
+        lock.lock();
+        try {
+            expunge();
+            value = entries.get(new IdentityKey(obj, null));
+        } finally {
+            lock.unlock();
+        }
+        return value == SELF ? obj : value;
+    }
+
+    /*package*/ int size() {
+        lock.lock();
+        try {
+            expunge();
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void expunge() {
+        Reference<?> ref;
+        while ((ref = queue.poll()) != null) {
+            entries.remove(ref);
+        }
+    }
+
+    private static final class IdentityKey extends WeakReference<Object> {
+        private final int hash;
+
+        IdentityKey(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof IdentityKey)) return false;
+            Object referent = get();
+            return referent != null && referent == ((IdentityKey) o).get();
+        }
+    }
+}
@@ -55,9 +55,6 @@ import facebook4j.internal.org.json.JSONObject;
 
     private static ResponseList<JSONObject> createJSONObjectList(JSONObject json, Configuration conf) throws FacebookException {
         try {
-            if (null != conf && conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONArray jsonArray = json.getJSONArray("data");
             final int size = jsonArray.length();
             ResponseList<JSONObject> results = new ResponseListImpl<JSONObject>(size, json);
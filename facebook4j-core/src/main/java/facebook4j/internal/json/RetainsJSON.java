@@ -0,0 +1,27 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.internal.json;
+
+/**
+ * A data object which can keep the JSON form it was parsed from, for {@link facebook4j.json.EntityEncoder}.<br>
+ * The JSON is only kept while the entity codec is enabled, and is not serialized.
+ */
+/*package*/ interface RetainsJSON {
+    Object getRetainedJSON();
+
+    void setRetainedJSON(Object json);
+}
@@ -44,10 +44,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/ScoreJSONImpl(JSONObject json) throws FacebookException {
@@ -85,9 +82,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Score> createScoreList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -95,14 +89,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject scoreJSONObject = list.getJSONObject(i);
                 Score score = new ScoreJSONImpl(scoreJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(score, scoreJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, score, scoreJSONObject);
                 scores.add(score);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(scores, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, scores, list);
             return scores;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -42,9 +42,6 @@ import facebook4j.internal.org.json.JSONObject;
     /*package*/
     static ResponseList<Subscribedto> createSubscribedtoList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -52,14 +49,10 @@ import facebook4j.internal.org.json.JSONObject;
             for (int i = 0; i < size; i++) {
                 JSONObject subscribedtoJSONObject = list.getJSONObject(i);
                 Subscribedto subscribedto = new SubscribedtoJSONImpl(subscribedtoJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(subscribedto, subscribedtoJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, subscribedto, subscribedtoJSONObject);
                 subscribedtos.add(subscribedto);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(subscribedtos, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, subscribedtos, list);
             return subscribedtos;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -42,9 +42,6 @@ import facebook4j.internal.org.json.JSONObject;
     /*package*/
     static ResponseList<Subscriber> createSubscriberList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -52,14 +49,10 @@ import facebook4j.internal.org.json.JSONObject;
             for (int i = 0; i < size; i++) {
                 JSONObject subscriberJSONObject = list.getJSONObject(i);
                 Subscriber subscriber = new SubscriberJSONImpl(subscriberJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(subscriber, subscriberJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, subscriber, subscriberJSONObject);
                 subscribers.add(subscriber);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(subscribers, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, subscribers, list);
             return subscribers;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
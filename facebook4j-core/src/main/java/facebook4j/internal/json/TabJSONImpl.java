@@ -51,10 +51,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/TabJSONImpl(JSONObject json) throws FacebookException {
@@ -124,9 +121,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Tab> createTabList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -134,14 +128,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject tabJSONObject = list.getJSONObject(i);
                 Tab tab = new TabJSONImpl(tabJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(tab, tabJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, tab, tabJSONObject);
                 tabs.add(tab);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(tabs, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, tabs, list);
             return tabs;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -49,10 +49,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/TagJSONImpl(JSONObject json) throws FacebookException {
@@ -123,9 +120,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Tag> createTagList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -133,14 +127,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject tagJSONObject = list.getJSONObject(i);
                 Tag tag = new TagJSONImpl(tagJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(tag, tagJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, tag, tagJSONObject);
                 tags.add(tag);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(tags, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, tags, list);
             return tags;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -24,10 +24,7 @@ final class TaggableFriendJSONImpl extends FacebookResponseImpl implements Tagga
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 	
 	/* package */TaggableFriendJSONImpl(JSONObject json) throws FacebookException {
@@ -70,9 +67,6 @@ final class TaggableFriendJSONImpl extends FacebookResponseImpl implements Tagga
     static ResponseList<TaggableFriend> createTaggableFriendList(HttpResponse res, Configuration conf)
     		throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -80,14 +74,10 @@ final class TaggableFriendJSONImpl extends FacebookResponseImpl implements Tagga
             for (int i = 0; i < size; i++) {
                 JSONObject friendJSONObject = list.getJSONObject(i);
                 TaggableFriend friend = new TaggableFriendJSONImpl(friendJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(friend, friendJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, friend, friendJSONObject);
                 friends.add(friend);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(friends, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, friends, list);
             return friends;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
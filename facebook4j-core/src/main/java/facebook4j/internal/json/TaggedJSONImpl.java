@@ -49,10 +49,7 @@ public class TaggedJSONImpl extends FacebookResponseImpl implements Tagged, java
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/TaggedJSONImpl(JSONObject json) throws FacebookException {
@@ -160,9 +157,6 @@ public class TaggedJSONImpl extends FacebookResponseImpl implements Tagged, java
     /*package*/
     static ResponseList<Tagged> createTaggedList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -170,14 +164,10 @@ public class TaggedJSONImpl extends FacebookResponseImpl implements Tagged, java
             for (int i = 0; i < size; i++) {
                 JSONObject taggedJSONObject = list.getJSONObject(i);
                 Tagged tagged = new TaggedJSONImpl(taggedJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(tagged, taggedJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, tagged, taggedJSONObject);
                 taggeds.add(tagged);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(taggeds, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, taggeds, list);
             return taggeds;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -41,9 +41,6 @@ import facebook4j.internal.org.json.JSONObject;
     /*package*/
     static ResponseList<Television> createTelevisionList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -51,14 +48,10 @@ import facebook4j.internal.org.json.JSONObject;
             for (int i = 0; i < size; i++) {
                 JSONObject televisionJSONObject = list.getJSONObject(i);
                 Television television = new TelevisionJSONImpl(televisionJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(television, televisionJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, television, televisionJSONObject);
                 televisions.add(television);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(televisions, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, televisions, list);
             return televisions;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
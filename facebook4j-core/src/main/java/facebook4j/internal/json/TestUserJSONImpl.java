@@ -53,9 +53,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<TestUser> createTestUserList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -63,14 +60,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject testUserJSONObject = list.getJSONObject(i);
                 TestUser testUser = new TestUserJSONImpl(testUserJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(testUser, testUserJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, testUser, testUserJSONObject);
                 testUsers.add(testUser);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(testUsers, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, testUsers, list);
             return testUsers;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
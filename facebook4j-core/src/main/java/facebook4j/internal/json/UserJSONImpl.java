@@ -33,8 +33,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
 
@@ -43,7 +45,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
  *
  * @author Ryuji Yamashita - roundrop at gmail.com
  */
-/*package*/ class UserJSONImpl implements User, Comparable<User>, java.io.Serializable {
+/*package*/ class UserJSONImpl implements User, Comparable<User>, RetainsJSON, java.io.Serializable {
     private static final long serialVersionUID = 3839339196757459703L;
 
     private String id;
@@ -81,16 +83,12 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     private URL website;
     private List<User.Work> work;
     private User.AgeRange ageRange;
+    private transient Object retainedJSON;
 
     /*package*/UserJSONImpl(HttpResponse res, Configuration conf) throws FacebookException {
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-        }
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/UserJSONImpl(JSONObject json) throws FacebookException {
@@ -373,12 +371,17 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
        return ageRange;
    }
 
+    public Object getRetainedJSON() {
+        return retainedJSON;
+    }
+
+    public void setRetainedJSON(Object json) {
+        this.retainedJSON = json;
+    }
+
     /*package*/
     static ResponseList<User> createUserList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -386,14 +389,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject userJSONObject = list.getJSONObject(i);
                 User user = new UserJSONImpl(userJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(user, userJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, user, userJSONObject);
                 users.add(user);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(users, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, users, list);
             return users;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
@@ -403,19 +402,32 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static List<User> createUserArray(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             List<User> users = new ArrayList<User>();
-            Iterator ids = json.keys();
+            Iterator<?> ids = json.keys();
             while (ids.hasNext()) {
                 String id = (String) ids.next();
                 User user = new UserJSONImpl((JSONObject) json.get(id));
                 users.add(user);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(users, json);
+            DataObjectFactoryUtil.registerJSONObject(conf, users, json);
+            return users;
+        } catch (JSONException jsone) {
+            throw new FacebookException(jsone);
+        }
+    }
+
+    /*package*/
+    static Map<String, User> createUserMap(HttpResponse res, Configuration conf) throws FacebookException {
+        try {
+            JSONObject json = res.asJSONObject();
+            Map<String, User> users = new LinkedHashMap<String, User>();
+            Iterator<?> ids = json.keys();
+            while (ids.hasNext()) {
+                String id = (String) ids.next();
+                User user = new UserJSONImpl(json.getJSONObject(id));
+                users.put(id, user);
+                DataObjectFactoryUtil.registerJSONObject(conf, user, json.getJSONObject(id));
             }
             return users;
         } catch (JSONException jsone) {
@@ -62,10 +62,7 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
         super(res);
         JSONObject json = res.asJSONObject();
         init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
-        }
+        DataObjectFactoryUtil.registerJSONObject(conf, this, json);
     }
 
     /*package*/VideoJSONImpl(JSONObject json) throws FacebookException {
@@ -190,9 +187,6 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
     /*package*/
     static ResponseList<Video> createVideoList(HttpResponse res, Configuration conf) throws FacebookException {
         try {
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.clearThreadLocalMap();
-            }
             JSONObject json = res.asJSONObject();
             JSONArray list = json.getJSONArray("data");
             final int size = list.length();
@@ -200,14 +194,10 @@ import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
             for (int i = 0; i < size; i++) {
                 JSONObject videoJSONObject = list.getJSONObject(i);
                 Video video = new VideoJSONImpl(videoJSONObject);
-                if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(video, videoJSONObject);
-                }
+                DataObjectFactoryUtil.registerJSONObject(conf, video, videoJSONObject);
                 videos.add(video);
             }
-            if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(videos, list);
-            }
+            DataObjectFactoryUtil.registerJSONObject(conf, videos, list);
             return videos;
         } catch (JSONException jsone) {
             throw new FacebookException(jsone);
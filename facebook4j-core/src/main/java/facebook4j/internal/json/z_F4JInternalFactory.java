@@ -77,6 +77,7 @@ import facebook4j.internal.http.HttpResponse;
 import facebook4j.internal.org.json.JSONObject;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Ryuji Yamashita - roundrop at gmail.com
@@ -87,6 +88,7 @@ public interface z_F4JInternalFactory extends java.io.Serializable {
     User createUser(HttpResponse res) throws FacebookException;
     ResponseList<User> createUserList(HttpResponse res) throws FacebookException;
     List<User> createUserArray(HttpResponse res) throws FacebookException;
+    Map<String, User> createUserMap(HttpResponse res) throws FacebookException;
 
     IdNameEntity createIdNameEntity(HttpResponse res) throws FacebookException;
     ResponseList<IdNameEntity> createIdNameEntityList(HttpResponse res) throws FacebookException;
@@ -157,6 +159,7 @@ public interface z_F4JInternalFactory extends java.io.Serializable {
 
     Page createPage(HttpResponse res) throws FacebookException;
     ResponseList<Page> createPageList(HttpResponse res) throws FacebookException;
+    Map<String, Page> createPageMap(HttpResponse res) throws FacebookException;
 
     ResponseList<PageSetting> createPageSettingList(HttpResponse res) throws FacebookException;
 
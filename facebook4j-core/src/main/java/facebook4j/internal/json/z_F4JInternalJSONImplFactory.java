@@ -78,6 +78,7 @@ import facebook4j.internal.http.HttpResponse;
 import facebook4j.internal.org.json.JSONObject;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Ryuji Yamashita - roundrop at gmail.com
@@ -107,6 +108,10 @@ public class z_F4JInternalJSONImplFactory implements z_F4JInternalFactory {
         return UserJSONImpl.createUserArray(res, conf);
     }
 
+    public Map<String, User> createUserMap(HttpResponse res) throws FacebookException {
+        return UserJSONImpl.createUserMap(res, conf);
+    }
+
     public IdNameEntity createIdNameEntity(HttpResponse res) throws FacebookException {
         return new IdNameEntityJSONImpl(res, conf);
     }
@@ -285,6 +290,10 @@ public class z_F4JInternalJSONImplFactory implements z_F4JInternalFactory {
         return PageJSONImpl.createPageList(res, conf);
     }
 
+    public Map<String, Page> createPageMap(HttpResponse res) throws FacebookException {
+        return PageJSONImpl.createPageMap(res, conf);
+    }
+
     public ResponseList<PageSetting> createPageSettingList(HttpResponse res) throws FacebookException {
         return PageSettingJSONImpl.createLikeList(res, conf);
     }
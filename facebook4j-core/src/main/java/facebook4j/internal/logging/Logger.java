@@ -31,21 +31,22 @@ public abstract class Logger {
         if (loggerFactoryImpl != null) {
             loggerFactory = getLoggerFactoryIfAvailable(loggerFactoryImpl, loggerFactoryImpl);
         }
+        // the bundled factories are created without reflection, so that native images need no metadata for them
         // use SLF4J if it's found in the classpath
-        if (null == loggerFactory) {
-            loggerFactory = getLoggerFactoryIfAvailable("org.slf4j.impl.StaticLoggerBinder", "facebook4j.internal.logging.SLF4JLoggerFactory");
+        if (null == loggerFactory && isAvailable("org.slf4j.impl.StaticLoggerBinder")) {
+            loggerFactory = new SLF4JLoggerFactory();
         }
         // otherwise, use commons-logging if it's found in the classpath
-        if (null == loggerFactory) {
-            loggerFactory = getLoggerFactoryIfAvailable("org.apache.commons.logging.Log", "facebook4j.internal.logging.CommonsLoggingLoggerFactory");
+        if (null == loggerFactory && isAvailable("org.apache.commons.logging.Log")) {
+            loggerFactory = new CommonsLoggingLoggerFactory();
         }
         // otherwise, use log4j if it's found in the classpath
-        if (null == loggerFactory) {
-            loggerFactory = getLoggerFactoryIfAvailable("org.apache.log4j.Logger", "facebook4j.internal.logging.Log4JLoggerFactory");
+        if (null == loggerFactory && isAvailable("org.apache.log4j.Logger")) {
+            loggerFactory = new Log4JLoggerFactory();
         }
         // on Google App Engine, use java.util.logging
-        if (null == loggerFactory) {
-            loggerFactory = getLoggerFactoryIfAvailable("com.google.appengine.api.urlfetch.URLFetchService", "facebook4j.internal.logging.JULLoggerFactory");
+        if (null == loggerFactory && isAvailable("com.google.appengine.api.urlfetch.URLFetchService")) {
+            loggerFactory = new JULLoggerFactory();
         }
         // otherwise, use the default logger
         if (null == loggerFactory) {
@@ -54,6 +55,17 @@ public abstract class Logger {
         LOGGER_FACTORY = loggerFactory;
     }
 
+    private static boolean isAvailable(String className) {
+        try {
+            Class.forName(className);
+            return true;
+        } catch (ClassNotFoundException ignore) {
+        } catch (SecurityException ignore) {
+        } catch (LinkageError ignore) {
+        }
+        return false;
+    }
+
     private static LoggerFactory getLoggerFactoryIfAvailable(String checkClassName, String implementationClass) {
         try {
             Class.forName(checkClassName);
@@ -151,4 +163,84 @@ public abstract class Logger {
      */
     public abstract void error(String message, Throwable th);
 
+    /**
+     * @param supplier message, built only when debug level logging is enabled
+     */
+    public void debug(MessageSupplier supplier) {
+        if (isDebugEnabled()) {
+            debug(supplier.get());
+        }
+    }
+
+    /**
+     * @param supplier message, built only when info level logging is enabled
+     */
+    public void info(MessageSupplier supplier) {
+        if (isInfoEnabled()) {
+            info(supplier.get());
+        }
+    }
+
+    /**
+     * @param supplier message, built only when warn level logging is enabled
+     */
+    public void warn(MessageSupplier supplier) {
+        if (isWarnEnabled()) {
+            warn(supplier.get());
+        }
+    }
+
+    /**
+     * Logs an event with key/value pairs as <code>event key1=value1 key2="value 2"</code>.<br>
+     * Values may be {@link MessageSupplier}s; nothing is formatted unless debug level logging is enabled.
+     *
+     * @param event     event name
+     * @param keyValues alternating keys and values
+     */
+    public void debugEvent(String event, Object... keyValues) {
+        if (isDebugEnabled()) {
+            debug(format(event, keyValues));
+        }
+    }
+
+    /**
+     * @param event     event name
+     * @param keyValues alternating keys and values
+     * @see #debugEvent(String, Object...)
+     */
+    public void infoEvent(String event, Object... keyValues) {
+        if (isInfoEnabled()) {
+            info(format(event, keyValues));
+        }
+    }
+
+    /**
+     * @param event     event name
+     * @param keyValues alternating keys and values
+     * @see #debugEvent(String, Object...)
+     */
+    public void warnEvent(String event, Object... keyValues) {
+        if (isWarnEnabled()) {
+            warn(format(event, keyValues));
+        }
+    }
+
+    /*package*/ static String format(String event, Object[] keyValues) {
+        StringBuilder buf = new StringBuilder(event);
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            Object value = keyValues[i + 1];
+            if (value instanceof MessageSupplier) {
+                value = ((MessageSupplier) value).get();
+            }
+            buf.append(' ').append(keyValues[i]).append('=');
+            String str = String.valueOf(value);
+            if (str.length() == 0 || str.indexOf(' ') != -1 || str.indexOf('"') != -1 || str.indexOf('=') != -1) {
+                buf.append('"').append(str.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            } else {
+                buf.append(str);
+            }
+        }
+        return buf.toString();
+    }
+
 }
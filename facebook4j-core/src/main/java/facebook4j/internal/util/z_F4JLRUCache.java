@@ -18,10 +18,14 @@ package facebook4j.internal.util;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 public final class z_F4JLRUCache<K, V> {
 
     private final Map<K, V> cacheMap;
+    // a j.u.c lock rather than a monitor, so that virtual threads are never pinned here
+    private final Lock lock = new ReentrantLock();
 
     public z_F4JLRUCache(final int maxSize) {
 
@@ -34,11 +38,30 @@ public final class z_F4JLRUCache<K, V> {
         };
     }
 
-    public synchronized void put(K key, V elem) {
-        cacheMap.put(key, elem);
+    public void put(K key, V elem) {
+        lock.lock();
+        try {
+            cacheMap.put(key, elem);
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public synchronized V get(K key) {
-        return cacheMap.get(key);
+    public V get(K key) {
+        lock.lock();
+        try {
+            return cacheMap.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V remove(K key) {
+        lock.lock();
+        try {
+            return cacheMap.remove(key);
+        } finally {
+            lock.unlock();
+        }
     }
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.internal.util;
+
+import facebook4j.FacebookException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs tasks which may submit further tasks, and waits until all of them completed or one failed.<br>
+ * The first failure is kept and the tasks not yet started are skipped. A task throwing a RuntimeException fails
+ * the group with a FacebookException caused by it.
+ * <pre>
+ * z_F4JTaskGroup group = new z_F4JTaskGroup(4, threadFactory);
+ * try {
+ *     group.submit(task);
+ *     group.await();
+ * } finally {
+ *     group.shutdown();
+ * }
+ * group.throwFailure();
+ * </pre>
+ */
+public final class z_F4JTaskGroup {
+    private final ExecutorService executor;
+    private final AtomicReference<FacebookException> failure = new AtomicReference<FacebookException>();
+    private final Lock lock = new ReentrantLock();
+    private final Condition finished = lock.newCondition();
+    private int pending;
+
+    public z_F4JTaskGroup(int threads, ThreadFactory threadFactory) {
+        this.executor = Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    /**
+     * Runs the task on the group's threads. Does nothing once the group is shut down.
+     */
+    public void submit(final Task task) {
+        lock.lock();
+        try {
+            pending++;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        if (failure.get() == null) {
+                            task.run();
+                        }
+                    } catch (FacebookException fe) {
+                        fail(fe);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        fail(new FacebookException(ie));
+                    } catch (RuntimeException re) {
+                        fail(new FacebookException(re));
+                    } finally {
+                        done();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException shutDown) {
+            done();
+        }
+    }
+
+    private void done() {
+        lock.lock();
+        try {
+            pending--;
+            if (pending == 0 || failure.get() != null) {
+                finished.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a failure unless one was already recorded, and wakes up {@link #await()}.
+     */
+    public void fail(FacebookException fe) {
+        if (failure.compareAndSet(null, fe)) {
+            lock.lock();
+            try {
+                finished.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public boolean isFailed() {
+        return failure.get() != null;
+    }
+
+    /**
+     * Blocks until every submitted task completed or one failed.
+     */
+    public void await() throws InterruptedException {
+        lock.lock();
+        try {
+            while (pending > 0 && failure.get() == null) {
+                finished.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Interrupts the running tasks and discards the queued ones.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @throws FacebookException the first failure, if any
+     */
+    public void throwFailure() throws FacebookException {
+        FacebookException fe = failure.get();
+        if (fe != null) {
+            throw fe;
+        }
+    }
+
+    public interface Task {
+        void run() throws FacebookException, InterruptedException;
+    }
+}
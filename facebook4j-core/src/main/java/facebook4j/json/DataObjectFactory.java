@@ -66,13 +66,10 @@ import facebook4j.Tagged;
 import facebook4j.Television;
 import facebook4j.User;
 import facebook4j.Video;
+import facebook4j.internal.json.DataObjectFactoryUtil;
 import facebook4j.internal.org.json.JSONException;
 import facebook4j.internal.org.json.JSONObject;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * @author Ryuji Yamashita - roundrop at gmail.com
@@ -82,228 +79,16 @@ public final class DataObjectFactory {
         throw new AssertionError("not intended to be instantiated.");
     }
 
-    private static final Constructor<Account> accountConstructor;
-    private static final Constructor<Achievement> achievementConstructor;
-    private static final Constructor<Activity> activityConstructor;
-    private static final Constructor<Admin> adminConstructor;
-    private static final Constructor<Album> albumConstructor;
-    private static final Constructor<Book> bookConstructor;
-    private static final Constructor<Category> categoryConstructor;
-    private static final Constructor<Checkin> checkinConstructor;
-    private static final Constructor<Comment> commentConstructor;
-    private static final Constructor<Domain> domainConstructor;
-    private static final Constructor<Event> eventConstructor;
-    private static final Constructor<Family> familyConstructor;
-    private static final Constructor<Friend> friendConstructor;
-    private static final Constructor<Friendlist> friendlistConstructor;
-    private static final Constructor<FriendRequest> friendRequestConstructor;
-    private static final Constructor<Game> gameConstructor;
-    private static final Constructor<GroupDoc> groupDocConstructor;
-    private static final Constructor<Group> groupConstructor;
-    private static final Constructor<GroupMember> groupMemberConstructor;
-    private static final Constructor<Insight> insightConstructor;
-    private static final Constructor<Interest> interestConstructor;
-    private static final Constructor<Like> likeConstructor;
-    private static final Constructor<Link> linkConstructor;
-    private static final Constructor<Location> locationConstructor;
-    private static final Constructor<Message> messageConstructor;
-    private static final Constructor<Milestone> milestoneConstructor;
-    private static final Constructor<Movie> movieConstructor;
-    private static final Constructor<Music> musicConstructor;
-    private static final Constructor<Note> noteConstructor;
-    private static final Constructor<Notification> notificationConstructor;
-    private static final Constructor<Offer> offerConstructor;
-    private static final Constructor<Page> pageConstructor;
-    private static final Constructor<PageSetting> pageSettingConstructor;
-    private static final Constructor<Photo> photoConstructor;
-    private static final Constructor<Place> placeConstructor;
-    private static final Constructor<Poke> pokeConstructor;
-    private static final Constructor<Post> postConstructor;
-    private static final Constructor<Question> questionConstructor;
-    private static final Constructor<QuestionVotes> questionVotesConstructor;
-    private static final Constructor<RSVPStatus> rsvpStatusConstructor;
-    private static final Constructor<Score> scoreConstructor;
-    private static final Constructor<Subscribedto> subscribedtoConstructor;
-    private static final Constructor<Subscriber> subscriberConstructor;
-    private static final Constructor<Tab> tabConstructor;
-    private static final Constructor<Tagged> taggedConstructor;
-    private static final Constructor<Tag> tagConstructor;
-    private static final Constructor<Television> televisionConstructor;
-    private static final Constructor<User> userConstructor;
-    private static final Constructor<Video> videoConstructor;
-
-    static {
-        try {
-            accountConstructor = (Constructor<Account>) Class.forName("facebook4j.internal.json.AccountJSONImpl").getDeclaredConstructor(JSONObject.class);
-            accountConstructor.setAccessible(true);
-
-            achievementConstructor = (Constructor<Achievement>) Class.forName("facebook4j.internal.json.AchievementJSONImpl").getDeclaredConstructor(JSONObject.class);
-            achievementConstructor.setAccessible(true);
-
-            activityConstructor = (Constructor<Activity>) Class.forName("facebook4j.internal.json.ActivityJSONImpl").getDeclaredConstructor(JSONObject.class);
-            activityConstructor.setAccessible(true);
-
-            adminConstructor = (Constructor<Admin>) Class.forName("facebook4j.internal.json.AdminJSONImpl").getDeclaredConstructor(JSONObject.class);
-            adminConstructor.setAccessible(true);
-
-            albumConstructor = (Constructor<Album>) Class.forName("facebook4j.internal.json.AlbumJSONImpl").getDeclaredConstructor(JSONObject.class);
-            albumConstructor.setAccessible(true);
-
-            bookConstructor = (Constructor<Book>) Class.forName("facebook4j.internal.json.BookJSONImpl").getDeclaredConstructor(JSONObject.class);
-            bookConstructor.setAccessible(true);
-
-            categoryConstructor = (Constructor<Category>) Class.forName("facebook4j.internal.json.CategoryJSONImpl").getDeclaredConstructor(JSONObject.class);
-            categoryConstructor.setAccessible(true);
-
-            checkinConstructor = (Constructor<Checkin>) Class.forName("facebook4j.internal.json.CheckinJSONImpl").getDeclaredConstructor(JSONObject.class);
-            checkinConstructor.setAccessible(true);
-
-            commentConstructor = (Constructor<Comment>) Class.forName("facebook4j.internal.json.CommentJSONImpl").getDeclaredConstructor(JSONObject.class);
-            commentConstructor.setAccessible(true);
-            
-            domainConstructor = (Constructor<Domain>) Class.forName("facebook4j.internal.json.DomainJSONImpl").getDeclaredConstructor(JSONObject.class);
-            domainConstructor.setAccessible(true);
-
-            eventConstructor = (Constructor<Event>) Class.forName("facebook4j.internal.json.EventJSONImpl").getDeclaredConstructor(JSONObject.class);
-            eventConstructor.setAccessible(true);
-            
-            familyConstructor = (Constructor<Family>) Class.forName("facebook4j.internal.json.FamilyJSONImpl").getDeclaredConstructor(JSONObject.class);
-            familyConstructor.setAccessible(true);
-
-            friendConstructor = (Constructor<Friend>) Class.forName("facebook4j.internal.json.FriendJSONImpl").getDeclaredConstructor(JSONObject.class);
-            friendConstructor.setAccessible(true);
-            
-            friendlistConstructor = (Constructor<Friendlist>) Class.forName("facebook4j.internal.json.FriendlistJSONImpl").getDeclaredConstructor(JSONObject.class);
-            friendlistConstructor.setAccessible(true);
-
-            friendRequestConstructor = (Constructor<FriendRequest>) Class.forName("facebook4j.internal.json.FriendRequestJSONImpl").getDeclaredConstructor(JSONObject.class);
-            friendRequestConstructor.setAccessible(true);
-
-            gameConstructor = (Constructor<Game>) Class.forName("facebook4j.internal.json.GameJSONImpl").getDeclaredConstructor(JSONObject.class);
-            gameConstructor.setAccessible(true);
-
-            groupDocConstructor = (Constructor<GroupDoc>) Class.forName("facebook4j.internal.json.GroupDocJSONImpl").getDeclaredConstructor(JSONObject.class);
-            groupDocConstructor.setAccessible(true);
-            
-            groupConstructor = (Constructor<Group>) Class.forName("facebook4j.internal.json.GroupJSONImpl").getDeclaredConstructor(JSONObject.class);
-            groupConstructor.setAccessible(true);
-            
-            groupMemberConstructor = (Constructor<GroupMember>) Class.forName("facebook4j.internal.json.GroupMemberJSONImpl").getDeclaredConstructor(JSONObject.class);
-            groupMemberConstructor.setAccessible(true);
-
-            insightConstructor = (Constructor<Insight>) Class.forName("facebook4j.internal.json.InsightJSONImpl").getDeclaredConstructor(JSONObject.class);
-            insightConstructor.setAccessible(true);
-
-            interestConstructor = (Constructor<Interest>) Class.forName("facebook4j.internal.json.InterestJSONImpl").getDeclaredConstructor(JSONObject.class);
-            interestConstructor.setAccessible(true);
-
-            likeConstructor = (Constructor<Like>) Class.forName("facebook4j.internal.json.LikeJSONImpl").getDeclaredConstructor(JSONObject.class);
-            likeConstructor.setAccessible(true);
-
-            linkConstructor = (Constructor<Link>) Class.forName("facebook4j.internal.json.LinkJSONImpl").getDeclaredConstructor(JSONObject.class);
-            linkConstructor.setAccessible(true);
-
-            locationConstructor = (Constructor<Location>) Class.forName("facebook4j.internal.json.LocationJSONImpl").getDeclaredConstructor(JSONObject.class);
-            locationConstructor.setAccessible(true);
-
-            messageConstructor = (Constructor<Message>) Class.forName("facebook4j.internal.json.MessageJSONImpl").getDeclaredConstructor(JSONObject.class);
-            messageConstructor.setAccessible(true);
-            
-            milestoneConstructor = (Constructor<Milestone>) Class.forName("facebook4j.internal.json.MilestoneJSONImpl").getDeclaredConstructor(JSONObject.class);
-            milestoneConstructor.setAccessible(true);
-
-            movieConstructor = (Constructor<Movie>) Class.forName("facebook4j.internal.json.MovieJSONImpl").getDeclaredConstructor(JSONObject.class);
-            movieConstructor.setAccessible(true);
-
-            musicConstructor = (Constructor<Music>) Class.forName("facebook4j.internal.json.MusicJSONImpl").getDeclaredConstructor(JSONObject.class);
-            musicConstructor.setAccessible(true);
-
-            noteConstructor = (Constructor<Note>) Class.forName("facebook4j.internal.json.NoteJSONImpl").getDeclaredConstructor(JSONObject.class);
-            noteConstructor.setAccessible(true);
-
-            notificationConstructor = (Constructor<Notification>) Class.forName("facebook4j.internal.json.NotificationJSONImpl").getDeclaredConstructor(JSONObject.class);
-            notificationConstructor.setAccessible(true);
-
-            offerConstructor = (Constructor<Offer>) Class.forName("facebook4j.internal.json.OfferJSONImpl").getDeclaredConstructor(JSONObject.class);
-            offerConstructor.setAccessible(true);
-
-            pageConstructor = (Constructor<Page>) Class.forName("facebook4j.internal.json.PageJSONImpl").getDeclaredConstructor(JSONObject.class);
-            pageConstructor.setAccessible(true);
-
-            pageSettingConstructor = (Constructor<PageSetting>) Class.forName("facebook4j.internal.json.PageSettingJSONImpl").getDeclaredConstructor(JSONObject.class);
-            pageSettingConstructor.setAccessible(true);
-
-            photoConstructor = (Constructor<Photo>) Class.forName("facebook4j.internal.json.PhotoJSONImpl").getDeclaredConstructor(JSONObject.class);
-            photoConstructor.setAccessible(true);
-            
-            placeConstructor = (Constructor<Place>) Class.forName("facebook4j.internal.json.PlaceJSONImpl").getDeclaredConstructor(JSONObject.class);
-            placeConstructor.setAccessible(true);
-
-            pokeConstructor = (Constructor<Poke>) Class.forName("facebook4j.internal.json.PokeJSONImpl").getDeclaredConstructor(JSONObject.class);
-            pokeConstructor.setAccessible(true);
-
-            postConstructor = (Constructor<Post>) Class.forName("facebook4j.internal.json.PostJSONImpl").getDeclaredConstructor(JSONObject.class);
-            postConstructor.setAccessible(true);
-            
-            questionConstructor = (Constructor<Question>) Class.forName("facebook4j.internal.json.QuestionJSONImpl").getDeclaredConstructor(JSONObject.class);
-            questionConstructor.setAccessible(true);
-            
-            questionVotesConstructor = (Constructor<QuestionVotes>) Class.forName("facebook4j.internal.json.QuestionVotesJSONImpl").getDeclaredConstructor(JSONObject.class);
-            questionVotesConstructor.setAccessible(true);
-
-            rsvpStatusConstructor = (Constructor<RSVPStatus>) Class.forName("facebook4j.internal.json.RSVPStatusJSONImpl").getDeclaredConstructor(JSONObject.class);
-            rsvpStatusConstructor.setAccessible(true);
-            
-            scoreConstructor = (Constructor<Score>) Class.forName("facebook4j.internal.json.ScoreJSONImpl").getDeclaredConstructor(JSONObject.class);
-            scoreConstructor.setAccessible(true);
-
-            subscribedtoConstructor = (Constructor<Subscribedto>) Class.forName("facebook4j.internal.json.SubscribedtoJSONImpl").getDeclaredConstructor(JSONObject.class);
-            subscribedtoConstructor.setAccessible(true);
-
-            subscriberConstructor = (Constructor<Subscriber>) Class.forName("facebook4j.internal.json.SubscriberJSONImpl").getDeclaredConstructor(JSONObject.class);
-            subscriberConstructor.setAccessible(true);
-
-            tabConstructor = (Constructor<Tab>) Class.forName("facebook4j.internal.json.TabJSONImpl").getDeclaredConstructor(JSONObject.class);
-            tabConstructor.setAccessible(true);
-            
-            taggedConstructor = (Constructor<Tagged>) Class.forName("facebook4j.internal.json.TaggedJSONImpl").getDeclaredConstructor(JSONObject.class);
-            taggedConstructor.setAccessible(true);
-
-            tagConstructor = (Constructor<Tag>) Class.forName("facebook4j.internal.json.TagJSONImpl").getDeclaredConstructor(JSONObject.class);
-            tagConstructor.setAccessible(true);
-
-            televisionConstructor = (Constructor<Television>) Class.forName("facebook4j.internal.json.TelevisionJSONImpl").getDeclaredConstructor(JSONObject.class);
-            televisionConstructor.setAccessible(true);
-
-            userConstructor = (Constructor<User>) Class.forName("facebook4j.internal.json.UserJSONImpl").getDeclaredConstructor(JSONObject.class);
-            userConstructor.setAccessible(true);
-
-            videoConstructor = (Constructor<Video>) Class.forName("facebook4j.internal.json.VideoJSONImpl").getDeclaredConstructor(JSONObject.class);
-            videoConstructor.setAccessible(true);
-            
-        } catch (NoSuchMethodException e) {
-            throw new ExceptionInInitializerError(e);
-        } catch (ClassNotFoundException e) {
-            throw new ExceptionInInitializerError(e);
-        }
-    }
-
-    private static final ThreadLocal<Map> rawJsonMap = new ThreadLocal<Map>() {
-        @Override
-        protected Map initialValue() {
-            return new HashMap();
-        }
-    };
-
     /**
      * Returns a raw JSON form of the provided object.<br>
-     * Note that raw JSON forms can be retrieved only from the same thread invoked the last method call and will become inaccessible once another method call
+     * Raw JSON forms are kept only while JSONStore is enabled. They can be retrieved from any thread, for the very object
+     * returned by the API method, until that object is garbage collected or evicted by newer ones.
      *
      * @param obj
      * @return raw JSON
      */
     public static String getRawJSON(Object obj) {
-        Object json = rawJsonMap.get().get(obj);
+        Object json = DataObjectFactoryUtil.getJSONObject(obj);
         if (json instanceof String) {
             return (String) json;
         } else if (json != null) {
@@ -323,14 +108,7 @@ public final class DataObjectFactory {
      */
     public static Account createAccount(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return accountConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createAccount(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -345,14 +123,7 @@ public final class DataObjectFactory {
      */
     public static Achievement createAchievement(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return achievementConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createAchievement(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -367,14 +138,7 @@ public final class DataObjectFactory {
      */
     public static Activity createActivity(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return activityConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createActivity(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -389,14 +153,7 @@ public final class DataObjectFactory {
      */
     public static Admin createAdmin(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return adminConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createAdmin(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -411,14 +168,7 @@ public final class DataObjectFactory {
      */
     public static Album createAlbum(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return albumConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createAlbum(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -433,14 +183,7 @@ public final class DataObjectFactory {
      */
     public static Book createBook(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return bookConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createBook(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -455,14 +198,7 @@ public final class DataObjectFactory {
      */
     public static Category createCategory(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return categoryConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createCategory(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -477,14 +213,7 @@ public final class DataObjectFactory {
      */
     public static Checkin createCheckin(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return checkinConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createCheckin(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -499,14 +228,7 @@ public final class DataObjectFactory {
      */
     public static Comment createComment(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return commentConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createComment(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -521,14 +243,7 @@ public final class DataObjectFactory {
      */
     public static Domain createDomain(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return domainConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createDomain(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -543,14 +258,7 @@ public final class DataObjectFactory {
      */
     public static Event createEvent(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return eventConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createEvent(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -565,14 +273,7 @@ public final class DataObjectFactory {
      */
     public static Family createFamily(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return familyConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createFamily(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -587,14 +288,7 @@ public final class DataObjectFactory {
      */
     public static Friend createFriend(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return friendConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createFriend(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -609,14 +303,7 @@ public final class DataObjectFactory {
      */
     public static Friendlist createFriendlist(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return friendlistConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createFriendlist(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -631,14 +318,7 @@ public final class DataObjectFactory {
      */
     public static FriendRequest createFriendRequest(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return friendRequestConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createFriendRequest(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -653,14 +333,7 @@ public final class DataObjectFactory {
      */
     public static Game createGame(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return gameConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createGame(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -675,14 +348,7 @@ public final class DataObjectFactory {
      */
     public static GroupDoc createGroupDoc(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return groupDocConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createGroupDoc(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -697,14 +363,7 @@ public final class DataObjectFactory {
      */
     public static Group createGroup(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return groupConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createGroup(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -719,14 +378,7 @@ public final class DataObjectFactory {
      */
     public static GroupMember createGroupMember(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return groupMemberConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createGroupMember(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -741,14 +393,7 @@ public final class DataObjectFactory {
      */
     public static Insight createInsight(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return insightConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createInsight(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -763,14 +408,7 @@ public final class DataObjectFactory {
      */
     public static Interest createInterest(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return interestConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createInterest(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -785,14 +423,7 @@ public final class DataObjectFactory {
      */
     public static Like createLike(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return likeConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createLike(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -807,14 +438,7 @@ public final class DataObjectFactory {
      */
     public static Link createLink(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return linkConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createLink(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -829,14 +453,7 @@ public final class DataObjectFactory {
      */
     public static Location createLocation(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return locationConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createLocation(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -851,14 +468,7 @@ public final class DataObjectFactory {
      */
     public static Message createMessage(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return messageConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createMessage(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -873,14 +483,7 @@ public final class DataObjectFactory {
      */
     public static Milestone createMilestone(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return milestoneConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createMilestone(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -895,14 +498,7 @@ public final class DataObjectFactory {
      */
     public static Movie createMovie(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return movieConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createMovie(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -917,14 +513,7 @@ public final class DataObjectFactory {
      */
     public static Music createMusic(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return musicConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createMusic(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -939,14 +528,7 @@ public final class DataObjectFactory {
      */
     public static Note createNote(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return noteConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createNote(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -961,14 +543,7 @@ public final class DataObjectFactory {
      */
     public static Notification createNotification(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return notificationConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createNotification(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -983,14 +558,7 @@ public final class DataObjectFactory {
      */
     public static Offer createOffer(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return offerConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createOffer(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1005,14 +573,7 @@ public final class DataObjectFactory {
      */
     public static Page createPage(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return pageConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createPage(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1027,14 +588,7 @@ public final class DataObjectFactory {
      */
     public static PageSetting createPageSetting(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return pageSettingConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createPageSetting(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1049,14 +603,7 @@ public final class DataObjectFactory {
      */
     public static Photo createPhoto(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return photoConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createPhoto(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1071,14 +618,7 @@ public final class DataObjectFactory {
      */
     public static Place createPlace(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return placeConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createPlace(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1093,14 +633,7 @@ public final class DataObjectFactory {
      */
     public static Poke createPoke(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return pokeConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createPoke(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1115,14 +648,7 @@ public final class DataObjectFactory {
      */
     public static Post createPost(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return postConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createPost(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1137,14 +663,7 @@ public final class DataObjectFactory {
      */
     public static Question createQuestion(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return questionConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createQuestion(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1159,14 +678,7 @@ public final class DataObjectFactory {
      */
     public static QuestionVotes createQuestionVotes(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return questionVotesConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createQuestionVotes(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1181,14 +693,7 @@ public final class DataObjectFactory {
      */
     public static RSVPStatus createRSVPStatus(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return rsvpStatusConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createRSVPStatus(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1203,14 +708,7 @@ public final class DataObjectFactory {
      */
     public static Score createScore(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return scoreConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createScore(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1225,14 +723,7 @@ public final class DataObjectFactory {
      */
     public static Subscribedto createSubscribedto(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return subscribedtoConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createSubscribedto(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1247,14 +738,7 @@ public final class DataObjectFactory {
      */
     public static Subscriber createSubscriber(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return subscriberConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createSubscriber(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1269,14 +753,7 @@ public final class DataObjectFactory {
      */
     public static Tab createTab(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return tabConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createTab(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1291,14 +768,7 @@ public final class DataObjectFactory {
      */
     public static Tagged createTagged(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return taggedConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createTagged(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1313,14 +783,7 @@ public final class DataObjectFactory {
      */
     public static Tag createTag(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return tagConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createTag(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1335,14 +798,7 @@ public final class DataObjectFactory {
      */
     public static Television createTelevision(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return televisionConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createTelevision(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1357,14 +813,7 @@ public final class DataObjectFactory {
      */
     public static User createUser(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return userConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createUser(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
@@ -1379,33 +828,9 @@ public final class DataObjectFactory {
      */
     public static Video createVideo(String rawJSON) throws FacebookException {
         try {
-            JSONObject json = new JSONObject(rawJSON);
-            return videoConstructor.newInstance(json);
-        } catch (InstantiationException e) {
-            throw new FacebookException(e);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new FacebookException(e);
+            return DataObjectFactoryUtil.createVideo(new JSONObject(rawJSON));
         } catch (JSONException e) {
             throw new FacebookException(e);
         }
     }
-    
-    /**
-     * clear raw JSON forms associated with the current thread.<br>
-     * Currently this method is called indirectly by facebook4j.internal.util.DataObjectFactoryUtil, and should be called directly once *JSONImpl classes are migrated to facebook4j.json.* package.
-     */
-    static void clearThreadLocalMap() {
-        rawJsonMap.get().clear();
-    }
-
-    /**
-     * associate a raw JSON form to the current thread<br>
-     * Currently this method is called indirectly by facebook4j.internal.util.DataObjectFactoryUtil, and should be called directly once *JSONImpl classes are migrated to facebook4j.json.* package.
-     */
-    static <T> T registerJSONObject(T key, Object json) {
-        rawJsonMap.get().put(key, json);
-        return key;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.json;
+
+/**
+ * Constants of the binary format written by {@link EntityEncoder} and read by {@link EntityDecoder}.
+ * <pre>
+ * stream  := 'F' '4' 'J' 'B' version entity*
+ * entity  := varint(type) value
+ * value   := NULL | FALSE | TRUE | INT zigzag-varint | DOUBLE 8 bytes | NUMBER string | STRING string
+ *          | OBJECT varint(n) (string value){n} | ARRAY varint(n) value{n}
+ * string  := varint(index + 1)                  reference to an earlier string of the stream
+ *          | 0 varint(length) utf-8 bytes       literal, remembered when at most 64 chars long
+ * </pre>
+ * The type is the number given by facebook4j.internal.json.DataObjectFactoryUtil#typeOf.
+ */
+/*package*/ final class EntityCodec {
+    private EntityCodec() {
+        throw new AssertionError("not intended to be instantiated.");
+    }
+
+    /*package*/ static final byte[] MAGIC = {'F', '4', 'J', 'B'};
+    /*package*/ static final int VERSION = 1;
+
+    /*package*/ static final int NULL = 0;
+    /*package*/ static final int FALSE = 1;
+    /*package*/ static final int TRUE = 2;
+    /*package*/ static final int INT = 3;
+    /*package*/ static final int DOUBLE = 4;
+    /*package*/ static final int NUMBER = 5;
+    /*package*/ static final int STRING = 6;
+    /*package*/ static final int OBJECT = 7;
+    /*package*/ static final int ARRAY = 8;
+
+    /** strings longer than this are not worth remembering for deduplication */
+    /*package*/ static final int MAX_SHARED_LENGTH = 64;
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.json;
+
+import facebook4j.FacebookException;
+import facebook4j.internal.json.DataObjectFactoryUtil;
+import facebook4j.internal.org.json.JSONArray;
+import facebook4j.internal.org.json.JSONException;
+import facebook4j.internal.org.json.JSONObject;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.util.ArrayList;
+import java.util.List;
+
+import static facebook4j.json.EntityCodec.*;
+
+/**
+ * Reads data objects written by {@link EntityEncoder}.<br>
+ * The buffer is read in place, without copying it first.
+ * <pre>
+ * EntityDecoder decoder = new EntityDecoder(ByteBuffer.wrap(cache.get(key)));
+ * while (decoder.hasNext()) {
+ *     Post post = decoder.next(Post.class);
+ * }
+ * </pre>
+ */
+public class EntityDecoder {
+    private final ByteBuffer buffer;
+    private final CharsetDecoder utf8 = Charset.forName("UTF-8").newDecoder();
+    private final List<String> strings = new ArrayList<String>();
+    private boolean retainJSON;
+
+    /**
+     * @param buffer the stream, read from its position to its limit. The buffer itself is left untouched.
+     * @throws FacebookException when the buffer does not start with a stream of a supported version
+     */
+    public EntityDecoder(ByteBuffer buffer) throws FacebookException {
+        this.buffer = buffer.duplicate();
+        try {
+            for (byte b : MAGIC) {
+                if (this.buffer.get() != b) {
+                    throw new FacebookException("Not an entity stream");
+                }
+            }
+            int version = this.buffer.get();
+            if (version < 1 || version > VERSION) {
+                throw new FacebookException("Unsupported entity stream version: " + version);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new FacebookException("Not an entity stream");
+        }
+    }
+
+    /**
+     * @param retainJSON whether decoded objects keep their JSON, so they can be encoded again
+     */
+    public void setRetainJSON(boolean retainJSON) {
+        this.retainJSON = retainJSON;
+    }
+
+    public boolean hasNext() {
+        return buffer.hasRemaining();
+    }
+
+    /**
+     * @return the next object
+     * @throws FacebookException when the stream is truncated or malformed
+     */
+    public Object next() throws FacebookException {
+        try {
+            int type = (int) readVarint();
+            Object json = readValue();
+            if (!(json instanceof JSONObject)) {
+                throw new FacebookException("Malformed entity stream");
+            }
+            Object entity = DataObjectFactoryUtil.create(type, (JSONObject) json);
+            if (retainJSON) {
+                DataObjectFactoryUtil.retainJSON(entity, json);
+            }
+            return entity;
+        } catch (BufferUnderflowException e) {
+            throw new FacebookException("Truncated entity stream");
+        } catch (CharacterCodingException e) {
+            throw new FacebookException(e);
+        } catch (JSONException e) {
+            throw new FacebookException(e);
+        }
+    }
+
+    /**
+     * @return the next object
+     * @throws FacebookException when the stream is truncated or malformed
+     * @throws ClassCastException when the next object is not of the type
+     */
+    public <T> T next(Class<T> type) throws FacebookException {
+        return type.cast(next());
+    }
+
+    private Object readValue() throws FacebookException, CharacterCodingException, JSONException {
+        int tag = buffer.get();
+        switch (tag) {
+            case NULL:
+                return JSONObject.NULL;
+            case FALSE:
+                return Boolean.FALSE;
+            case TRUE:
+                return Boolean.TRUE;
+            case INT:
+                long n = readVarint();
+                long value = (n >>> 1) ^ -(n & 1);
+                if (value == (int) value) {
+                    return (int) value;
+                }
+                return value;
+            case DOUBLE:
+                return Double.longBitsToDouble(buffer.getLong());
+            case NUMBER:
+                return JSONObject.stringToValue(readString());
+            case STRING:
+                return readString();
+            case OBJECT:
+                int fields = readLength();
+                JSONObject object = new JSONObject();
+                for (int i = 0; i < fields; i++) {
+                    String key = readString();
+                    object.put(key, readValue());
+                }
+                return object;
+            case ARRAY:
+                int length = readLength();
+                JSONArray array = new JSONArray();
+                for (int i = 0; i < length; i++) {
+                    array.put(readValue());
+                }
+                return array;
+            default:
+                throw new FacebookException("Malformed entity stream");
+        }
+    }
+
+    private String readString() throws FacebookException, CharacterCodingException {
+        long index = readVarint();
+        if (index != 0) {
+            if (index < 0 || index > strings.size()) {
+                throw new FacebookException("Malformed entity stream");
+            }
+            return strings.get((int) index - 1);
+        }
+        int length = readLength();
+        ByteBuffer bytes = buffer.slice();
+        bytes.limit(length);
+        buffer.position(buffer.position() + length);
+        String str = utf8.decode(bytes).toString();
+        if (str.length() <= MAX_SHARED_LENGTH) {
+            strings.add(str);
+        }
+        return str;
+    }
+
+    /**
+     * Reads a byte length or an element count. Each element takes at least one byte, so neither can exceed
+     * the bytes left.
+     */
+    private int readLength() throws FacebookException {
+        long length = readVarint();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new FacebookException("Malformed entity stream");
+        }
+        return (int) length;
+    }
+
+    private long readVarint() throws FacebookException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new FacebookException("Malformed entity stream");
+    }
+}
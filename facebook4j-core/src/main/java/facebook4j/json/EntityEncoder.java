@@ -0,0 +1,241 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.json;
+
+import facebook4j.FacebookException;
+import facebook4j.internal.json.DataObjectFactoryUtil;
+import facebook4j.internal.org.json.JSONArray;
+import facebook4j.internal.org.json.JSONException;
+import facebook4j.internal.org.json.JSONObject;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static facebook4j.json.EntityCodec.*;
+
+/**
+ * Writes data objects such as {@link facebook4j.Post} or {@link facebook4j.User} in a compact, versioned binary
+ * format, far smaller and faster than Java serialization. Read them back with {@link EntityDecoder}.<br>
+ * Strings shared by several objects of one stream, such as field names or the names in <code>from</code>, are
+ * written only once.<br>
+ * An object is encoded from the JSON it was parsed from, which it keeps itself only when it was obtained with
+ * the entity codec enabled (<code>entityCodecEnabled</code>), or decoded by an {@link EntityDecoder} with
+ * {@link EntityDecoder#setRetainJSON(boolean)} on. The raw JSON store of JSONStore is not involved.<br>
+ * Only the objects returned by Facebook4J, including the elements of returned lists, keep their JSON. Objects
+ * nested in them, such as <code>post.getComments().get(0)</code>, do not and cannot be written on their own:
+ * they are written, and read back, as part of the object they belong to.
+ * <pre>
+ * EntityEncoder encoder = new EntityEncoder();
+ * for (Post post : facebook.getFeed()) {
+ *     encoder.write(post);
+ * }
+ * cache.put(key, encoder.toByteArray());
+ * </pre>
+ */
+public class EntityEncoder {
+    private final Map<String, Integer> strings = new HashMap<String, Integer>();
+    private byte[] bytes = new byte[512];
+    private int size;
+    private int count;
+
+    public EntityEncoder() {
+        for (byte b : MAGIC) {
+            writeByte(b);
+        }
+        writeByte(VERSION);
+    }
+
+    /**
+     * Appends an object to the stream.
+     *
+     * @param entity an object returned by Facebook4J
+     * @return this encoder
+     * @throws IllegalArgumentException when the object is not a data object
+     * @throws IllegalStateException    when the JSON of the object is not available, e.g. for a nested object
+     * @throws FacebookException        when the JSON of the object is malformed
+     */
+    public EntityEncoder write(Object entity) throws FacebookException {
+        int type = DataObjectFactoryUtil.typeOf(entity);
+        if (type == 0) {
+            throw new IllegalArgumentException("Not a data object: " + entity.getClass().getName());
+        }
+        Object json = DataObjectFactoryUtil.getRetainedJSON(entity);
+        if (json == null) {
+            throw new IllegalStateException("The JSON of the object is not available. Enable entityCodecEnabled;"
+                    + " objects nested in others are only written with the object they belong to.");
+        }
+        try {
+            if (json instanceof String) {
+                json = new JSONObject((String) json);
+            }
+            writeVarint(type);
+            writeValue(json);
+        } catch (JSONException e) {
+            throw new FacebookException(e);
+        }
+        count++;
+        return this;
+    }
+
+    /**
+     * @return number of objects written
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return length of the stream in bytes
+     */
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        byte[] copy = new byte[size];
+        System.arraycopy(bytes, 0, copy, 0, size);
+        return copy;
+    }
+
+    /**
+     * @return a read-only view of the stream, without copying
+     */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(bytes, 0, size).asReadOnlyBuffer();
+    }
+
+    private void writeValue(Object value) throws JSONException {
+        if (value == null || value == JSONObject.NULL) {
+            writeByte(NULL);
+        } else if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            writeByte(OBJECT);
+            writeVarint(object.length());
+            Iterator<?> keys = object.keys();
+            while (keys.hasNext()) {
+                String key = (String) keys.next();
+                writeString(key);
+                writeValue(object.opt(key));
+            }
+        } else if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            int length = array.length();
+            writeByte(ARRAY);
+            writeVarint(length);
+            for (int i = 0; i < length; i++) {
+                writeValue(array.opt(i));
+            }
+        } else if (value instanceof String) {
+            writeByte(STRING);
+            writeString((String) value);
+        } else if (value instanceof Boolean) {
+            writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            long n = ((Number) value).longValue();
+            writeByte(INT);
+            writeVarint((n << 1) ^ (n >> 63));
+        } else if (value instanceof Double || value instanceof Float) {
+            long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+            writeByte(DOUBLE);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                writeByte((int) (bits >>> shift));
+            }
+        } else if (value instanceof Number) {
+            writeByte(NUMBER);
+            writeString(value.toString());
+        } else {
+            writeByte(STRING);
+            writeString(value.toString());
+        }
+    }
+
+    private void writeString(String str) {
+        Integer index = strings.get(str);
+        if (index != null) {
+            writeVarint(index + 1);
+            return;
+        }
+        if (str.length() <= MAX_SHARED_LENGTH) {
+            strings.put(str, strings.size());
+        }
+        writeByte(0);
+        writeVarint(utf8Length(str));
+        int length = str.length();
+        for (int i = 0; i < length; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                writeByte(c);
+            } else if (c < 0x800) {
+                writeByte(0xC0 | (c >> 6));
+                writeByte(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, str.charAt(++i));
+                writeByte(0xF0 | (cp >> 18));
+                writeByte(0x80 | ((cp >> 12) & 0x3F));
+                writeByte(0x80 | ((cp >> 6) & 0x3F));
+                writeByte(0x80 | (cp & 0x3F));
+            } else if (Character.isHighSurrogate(c) || Character.isLowSurrogate(c)) {
+                writeByte('?');
+            } else {
+                writeByte(0xE0 | (c >> 12));
+                writeByte(0x80 | ((c >> 6) & 0x3F));
+                writeByte(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static int utf8Length(String str) {
+        int length = 0;
+        int size = str.length();
+        for (int i = 0; i < size; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(str.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isHighSurrogate(c) || Character.isLowSurrogate(c)) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    private void writeByte(int b) {
+        if (size == bytes.length) {
+            byte[] grown = new byte[bytes.length * 2];
+            System.arraycopy(bytes, 0, grown, 0, size);
+            bytes = grown;
+        }
+        bytes[size++] = (byte) b;
+    }
+}
@@ -18,6 +18,8 @@ package facebook4j.management;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Container for all InvocationStatisticsCalculators in a given API (like Twitter)
@@ -26,7 +28,7 @@ import java.util.Map;
  */
 public class APIStatistics implements APIStatisticsMBean {
     private final InvocationStatisticsCalculator API_STATS_CALCULATOR;
-    private final Map<String, InvocationStatisticsCalculator> METHOD_STATS_MAP;
+    private final ConcurrentMap<String, InvocationStatisticsCalculator> METHOD_STATS_MAP;
     private final int HISTORY_SIZE;
 
     /**
@@ -34,7 +36,7 @@ public class APIStatistics implements APIStatisticsMBean {
      */
     public APIStatistics(int historySize) {
         API_STATS_CALCULATOR = new InvocationStatisticsCalculator("API", historySize);
-        METHOD_STATS_MAP = new HashMap<String, InvocationStatisticsCalculator>(100);
+        METHOD_STATS_MAP = new ConcurrentHashMap<String, InvocationStatisticsCalculator>(100);
         HISTORY_SIZE = historySize;
     }
 
@@ -42,28 +44,31 @@ public class APIStatistics implements APIStatisticsMBean {
      * @param method the method invoked
      * @param time   the method execution time
      */
-    public synchronized void methodCalled(String method, long time, boolean success) {
+    public void methodCalled(String method, long time, boolean success) {
         getMethodStatistics(method).increment(time, success);
 
         // increment for entire API
         API_STATS_CALCULATOR.increment(time, success);
     }
 
-    private synchronized InvocationStatisticsCalculator getMethodStatistics(String method) {
+    private InvocationStatisticsCalculator getMethodStatistics(String method) {
         InvocationStatisticsCalculator methodStats = METHOD_STATS_MAP.get(method);
 
         if (methodStats == null) {
-            methodStats = new InvocationStatisticsCalculator(method, HISTORY_SIZE);
-            METHOD_STATS_MAP.put(method, methodStats);
+            InvocationStatisticsCalculator newStats = new InvocationStatisticsCalculator(method, HISTORY_SIZE);
+            methodStats = METHOD_STATS_MAP.putIfAbsent(method, newStats);
+            if (methodStats == null) {
+                methodStats = newStats;
+            }
         }
         return methodStats;
     }
 
-    public synchronized Iterable<? extends InvocationStatistics> getInvocationStatistics() {
+    public Iterable<? extends InvocationStatistics> getInvocationStatistics() {
         return METHOD_STATS_MAP.values();
     }
 
-    public synchronized void reset() {
+    public void reset() {
         API_STATS_CALCULATOR.reset();
         METHOD_STATS_MAP.clear();
     }
@@ -93,7 +98,7 @@ public class APIStatistics implements APIStatisticsMBean {
     }
 
 
-    public synchronized Map<String, String> getMethodLevelSummariesAsString() {
+    public Map<String, String> getMethodLevelSummariesAsString() {
         Map<String, String> summariesMap = new HashMap<String, String>();
 
         Collection<InvocationStatisticsCalculator> allMethodStats = METHOD_STATS_MAP.values();
@@ -104,7 +109,7 @@ public class APIStatistics implements APIStatisticsMBean {
         return summariesMap;
     }
 
-    public synchronized String getMethodLevelSummary(String methodName) {
+    public String getMethodLevelSummary(String methodName) {
         return METHOD_STATS_MAP.get(methodName).toString();
     }
 }
\ No newline at end of file
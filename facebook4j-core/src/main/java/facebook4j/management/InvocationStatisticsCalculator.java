@@ -16,6 +16,8 @@
 
 package facebook4j.management;
 
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Object that collects/aggregates statistics for the invocation of a given method.
@@ -23,12 +25,13 @@ package facebook4j.management;
  * @author Nick Dellamaggiore (nick.dellamaggiore <at> gmail.com)
  */
 public class InvocationStatisticsCalculator implements InvocationStatistics {
+    private final Lock lock = new ReentrantLock();
     private String name;
     private long[] times;
     private int index;
-    private long callCount;
-    private long errorCount;
-    private long totalTime;
+    private volatile long callCount;
+    private volatile long errorCount;
+    private volatile long totalTime;
 
     /**
      * @param name        the name of this API method
@@ -40,14 +43,19 @@ public class InvocationStatisticsCalculator implements InvocationStatistics {
     }
 
     public void increment(long time, boolean success) {
-        callCount++;
-        errorCount += success ? 0 : 1;
-        totalTime += time;
-
-        times[index] = time;
-
-        if (++index >= times.length)
-            index = 0;
+        lock.lock();
+        try {
+            callCount++;
+            errorCount += success ? 0 : 1;
+            totalTime += time;
+
+            times[index] = time;
+
+            if (++index >= times.length)
+                index = 0;
+        } finally {
+            lock.unlock();
+        }
     }
 
     public String getName() {
@@ -66,26 +74,36 @@ public class InvocationStatisticsCalculator implements InvocationStatistics {
         return totalTime;
     }
 
-    public synchronized long getAverageTime() {
-        int stopIndex = Math.min(Math.abs((int) callCount), times.length);
-        if (stopIndex == 0) {
-            return 0;
+    public long getAverageTime() {
+        lock.lock();
+        try {
+            int stopIndex = Math.min(Math.abs((int) callCount), times.length);
+            if (stopIndex == 0) {
+                return 0;
+            }
+
+            long totalTime = 0;
+            for (int i = 0; i < stopIndex; i++) {
+                totalTime += times[i];
+
+            }
+            return totalTime / stopIndex;
+        } finally {
+            lock.unlock();
         }
-
-        long totalTime = 0;
-        for (int i = 0; i < stopIndex; i++) {
-            totalTime += times[i];
-
-        }
-        return totalTime / stopIndex;
     }
 
-    public synchronized void reset() {
-        callCount = 0;
-        errorCount = 0;
-        totalTime = 0;
-        times = new long[times.length];
-        index = 0;
+    public void reset() {
+        lock.lock();
+        try {
+            callCount = 0;
+            errorCount = 0;
+            totalTime = 0;
+            times = new long[times.length];
+            index = 0;
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
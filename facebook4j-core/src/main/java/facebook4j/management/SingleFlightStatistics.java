@@ -0,0 +1,105 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package facebook4j.management;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of the single-flight request deduplication.
+ */
+public class SingleFlightStatistics implements SingleFlightStatisticsMBean {
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private final AtomicLong executedCount = new AtomicLong();
+    private final AtomicLong sharedCount = new AtomicLong();
+    private final ConcurrentMap<String, AtomicLong> waiterCounts = new ConcurrentHashMap<String, AtomicLong>();
+    private final int maxKeys;
+
+    /**
+     * @param maxKeys the maximum number of keys to track waiter counts for
+     */
+    public SingleFlightStatistics(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public void requestStarted() {
+        inFlightCount.incrementAndGet();
+        executedCount.incrementAndGet();
+    }
+
+    public void requestFinished() {
+        inFlightCount.decrementAndGet();
+    }
+
+    /**
+     * @param key the request key the waiter joined
+     */
+    public void waiterJoined(String key) {
+        sharedCount.incrementAndGet();
+        AtomicLong count = waiterCounts.get(key);
+        if (count == null) {
+            if (waiterCounts.size() >= maxKeys) {
+                return;
+            }
+            AtomicLong newCount = new AtomicLong();
+            count = waiterCounts.putIfAbsent(key, newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    public int getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    public long getExecutedCount() {
+        return executedCount.get();
+    }
+
+    public long getSharedCount() {
+        return sharedCount.get();
+    }
+
+    public Map<String, Long> getWaiterCounts() {
+        Map<String, Long> result = new HashMap<String, Long>(waiterCounts.size());
+        for (Map.Entry<String, AtomicLong> entry : waiterCounts.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        return result;
+    }
+
+    public void reset() {
+        executedCount.set(0);
+        sharedCount.set(0);
+        waiterCounts.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "SingleFlightStatistics{" +
+                "inFlightCount=" + inFlightCount +
+                ", executedCount=" + executedCount +
+                ", sharedCount=" + sharedCount +
+                ", waiterCounts=" + waiterCounts +
+                '}';
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package facebook4j.management;
+
+import java.util.Map;
+
+/**
+ * Simple MBean interface for SingleFlightStatistics.
+ */
+public interface SingleFlightStatisticsMBean {
+    /**
+     * @return the number of requests which are currently in flight
+     */
+    int getInFlightCount();
+
+    /**
+     * @return the number of requests actually sent to Facebook
+     */
+    long getExecutedCount();
+
+    /**
+     * @return the number of callers served by another caller's in-flight request
+     */
+    long getSharedCount();
+
+    /**
+     * @return the number of waiters per request key (access tokens are masked)
+     */
+    Map<String, Long> getWaiterCounts();
+
+    void reset();
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.sync;
+
+import facebook4j.Facebook;
+import facebook4j.FacebookException;
+import facebook4j.Post;
+import facebook4j.Reading;
+import facebook4j.ResponseList;
+
+/**
+ * Edges of posts which {@link FeedSync} can synchronize.
+ */
+public enum FeedEdge {
+    FEED("feed") {
+        ResponseList<Post> fetch(Facebook facebook, String objectId, Reading reading) throws FacebookException {
+            return facebook.getFeed(objectId, reading);
+        }
+    },
+    POSTS("posts") {
+        ResponseList<Post> fetch(Facebook facebook, String objectId, Reading reading) throws FacebookException {
+            return facebook.getPosts(objectId, reading);
+        }
+    },
+    STATUSES("statuses") {
+        ResponseList<Post> fetch(Facebook facebook, String objectId, Reading reading) throws FacebookException {
+            return facebook.getStatuses(objectId, reading);
+        }
+    },
+    TAGGED("tagged") {
+        ResponseList<Post> fetch(Facebook facebook, String objectId, Reading reading) throws FacebookException {
+            return facebook.getTagged(objectId, reading);
+        }
+    },
+    GROUP_FEED("feed") {
+        ResponseList<Post> fetch(Facebook facebook, String objectId, Reading reading) throws FacebookException {
+            return facebook.getGroupFeed(objectId, reading);
+        }
+    };
+
+    private final String name;
+
+    private FeedEdge(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the name of the edge in the Graph API
+     */
+    public String getName() {
+        return name;
+    }
+
+    abstract ResponseList<Post> fetch(Facebook facebook, String objectId, Reading reading) throws FacebookException;
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.sync;
+
+import facebook4j.Facebook;
+import facebook4j.FacebookException;
+import facebook4j.Paging;
+import facebook4j.Post;
+import facebook4j.Reading;
+import facebook4j.ResponseList;
+import facebook4j.internal.logging.Logger;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Incrementally synchronizes edges of posts such as <code>/{page-id}/feed</code>.<br>
+ * The newest <code>updated_time</code> seen for each (object, edge) is kept in a {@link WatermarkStore}, and the
+ * next synchronization only requests posts <code>since</code> that watermark. The window boundary is inclusive,
+ * so posts at the watermark come back again; only those are checked against a {@link SeenFilter} of
+ * (id, updated_time), which is stored together with the watermark.<br>
+ * A synchronization cut short by {@link #setMaxPages(int)} keeps the watermark and records a cursor instead;
+ * the next runs read on from the cursor, and the watermark advances once the window has been read through.<br>
+ * The state is only stored after every post has been handed to the listener, so a failure in between
+ * delivers the posts again on the next run.
+ * <pre>
+ * FeedSync sync = new FeedSync(facebook, new FileWatermarkStore(new File("watermarks.properties")));
+ * sync.sync("19292868552", FeedEdge.FEED, listener);
+ * </pre>
+ */
+public class FeedSync {
+    private static final Logger logger = Logger.getLogger(FeedSync.class);
+
+    // only posts sharing the watermark or cursor second are added, so a small filter suffices
+    private static final int SEEN_FILTER_CAPACITY = 500;
+    private static final double SEEN_FILTER_FALSE_POSITIVE_RATE = 0.001;
+
+    private final Facebook facebook;
+    private final WatermarkStore store;
+    private int limit = 25;
+    private int maxPages = 10;
+
+    public FeedSync(Facebook facebook, WatermarkStore store) {
+        if (facebook == null || store == null) {
+            throw new NullPointerException("facebook and store must not be null");
+        }
+        this.facebook = facebook;
+        this.store = store;
+    }
+
+    /**
+     * @param limit number of posts requested per page
+     */
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * @param maxPages maximum number of pages fetched per synchronization
+     */
+    public void setMaxPages(int maxPages) {
+        this.maxPages = maxPages;
+    }
+
+    public WatermarkStore getWatermarkStore() {
+        return store;
+    }
+
+    /**
+     * @param objectId the ID of the page, user or group
+     * @param edge     the edge
+     * @return the watermark, or -1 if the pair has never been read through
+     * @throws FacebookException when the store is unavailable
+     */
+    public long getWatermark(String objectId, FeedEdge edge) throws FacebookException {
+        SyncState state = store.getState(objectId, edge.getName());
+        return state == null ? -1 : state.getWatermark();
+    }
+
+    /*package*/ static SeenFilter newSeenFilter() {
+        return new SeenFilter(SEEN_FILTER_CAPACITY, SEEN_FILTER_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Fetches the posts new or updated since the previous synchronization and hands them to the listener.
+     *
+     * @param objectId the ID of the page, user or group
+     * @param edge     edge to synchronize
+     * @param listener receives the delta
+     * @return number of posts delivered
+     * @throws FacebookException when Facebook service or network is unavailable
+     */
+    public int sync(String objectId, FeedEdge edge, FeedSyncListener listener) throws FacebookException {
+        SyncState state = store.getState(objectId, edge.getName());
+        long watermark = state == null ? -1 : state.getWatermark();
+        long cursor = state == null ? -1 : state.getCursor();
+        SeenFilter seen = state == null ? newSeenFilter() : state.getSeenFilter();
+
+        Reading reading = new Reading().limit(limit);
+        if (watermark >= 0) {
+            reading.since(new Date(watermark * 1000L));
+        }
+        if (cursor >= 0) {
+            reading.until(new Date(cursor * 1000L));
+        }
+        long newest = state == null ? -1 : Math.max(watermark, state.getPendingWatermark());
+        long oldest = cursor;
+        Map<String, Long> deliveredAt = new HashMap<String, Long>();
+        boolean truncated = false;
+        int delivered = 0;
+        int pages = 0;
+        ResponseList<Post> posts = edge.fetch(facebook, objectId, reading);
+        while (posts != null) {
+            pages++;
+            for (Post post : posts) {
+                long time = timeOf(post);
+                if (time >= 0) {
+                    if (watermark >= 0 && time < watermark) {
+                        continue;
+                    }
+                    // read by an earlier run of this synchronization, or updated since and left to the next one
+                    if (cursor >= 0 && time > cursor) {
+                        continue;
+                    }
+                    newest = Math.max(newest, time);
+                    oldest = oldest < 0 ? time : Math.min(oldest, time);
+                }
+                String key = post.getId() + "@" + time;
+                // only posts on a window boundary can have been delivered before
+                if ((time < 0 || time == watermark || time == cursor) && seen.mightContain(key)) {
+                    continue;
+                }
+                listener.onPost(objectId, edge, post);
+                deliveredAt.put(key, time);
+                delivered++;
+            }
+            Paging<Post> paging = posts.getPaging();
+            if (paging == null || paging.getNext() == null || posts.size() == 0) {
+                break;
+            }
+            if (pages >= maxPages) {
+                truncated = oldest >= 0;
+                break;
+            }
+            posts = facebook.fetchNext(paging);
+        }
+
+        SyncState newState;
+        if (truncated) {
+            newState = new SyncState(watermark, newest, oldest, seen);
+        } else {
+            newState = new SyncState(Math.max(watermark, newest), -1, -1, seen);
+        }
+        for (Map.Entry<String, Long> entry : deliveredAt.entrySet()) {
+            long time = entry.getValue();
+            if (time < 0 || time == newState.getPendingWatermark() || time == newState.getWatermark()
+                    || time == newState.getCursor()) {
+                seen.put(entry.getKey());
+            }
+        }
+        if (delivered > 0 || truncated || cursor >= 0) {
+            store.setState(objectId, edge.getName(), newState);
+        }
+        logger.debug("Synchronized " + objectId + "/" + edge.getName() + ": ", delivered + " posts");
+        return delivered;
+    }
+
+    private static long timeOf(Post post) {
+        Date time = post.getUpdatedTime() != null ? post.getUpdatedTime() : post.getCreatedTime();
+        return time == null ? -1 : time.getTime() / 1000L;
+    }
+}
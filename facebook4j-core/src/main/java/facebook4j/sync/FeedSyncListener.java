@@ -0,0 +1,31 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.sync;
+
+import facebook4j.Post;
+
+/**
+ * Receives the posts which are new or updated since the previous synchronization.
+ */
+public interface FeedSyncListener {
+    /**
+     * @param objectId the ID of the synchronized object
+     * @param edge     the synchronized edge
+     * @param post     new or updated post
+     */
+    void onPost(String objectId, FeedEdge edge, Post post);
+}
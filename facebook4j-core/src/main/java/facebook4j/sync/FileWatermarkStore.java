@@ -0,0 +1,189 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.sync;
+
+import facebook4j.FacebookException;
+import facebook4j.internal.logging.Logger;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link WatermarkStore} backed by a properties file.<br>
+ * The watermark of a pair is kept under <code>{object-id}/{edge}</code>, next to its seen filter and,
+ * while a synchronization is unfinished, its pending watermark and cursor.<br>
+ * Every update rewrites the file through a temporary file which is forced to disk before it replaces the
+ * file, so a crash never leaves it half written.
+ */
+public class FileWatermarkStore implements WatermarkStore {
+    private static final Logger logger = Logger.getLogger(FileWatermarkStore.class);
+
+    private final File file;
+    private final Lock lock = new ReentrantLock();
+    private Properties watermarks;
+
+    public FileWatermarkStore(File file) {
+        if (file == null) {
+            throw new NullPointerException("file is null");
+        }
+        this.file = file;
+    }
+
+    public SyncState getState(String objectId, String edge) throws FacebookException {
+        lock.lock();
+        try {
+            Properties props = load();
+            String key = objectId + "/" + edge;
+            String watermark = props.getProperty(key);
+            if (watermark == null) {
+                return null;
+            }
+            String seen = props.getProperty(key + ".seen");
+            try {
+                return new SyncState(Long.parseLong(watermark),
+                        Long.parseLong(props.getProperty(key + ".pending", "-1")),
+                        Long.parseLong(props.getProperty(key + ".cursor", "-1")),
+                        seen == null ? FeedSync.newSeenFilter() : SeenFilter.decode(seen));
+            } catch (IllegalArgumentException iae) {
+                throw new FacebookException("Broken state of " + key + " in " + file, iae);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setState(String objectId, String edge, SyncState state) throws FacebookException {
+        lock.lock();
+        try {
+            Properties props = load();
+            String key = objectId + "/" + edge;
+            props.setProperty(key, String.valueOf(state.getWatermark()));
+            if (state.isResuming()) {
+                props.setProperty(key + ".pending", String.valueOf(state.getPendingWatermark()));
+                props.setProperty(key + ".cursor", String.valueOf(state.getCursor()));
+            } else {
+                props.remove(key + ".pending");
+                props.remove(key + ".cursor");
+            }
+            props.setProperty(key + ".seen", state.getSeenFilter().encode());
+            save();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Properties load() throws FacebookException {
+        if (watermarks == null) {
+            Properties props = new Properties();
+            try {
+                restoreBackup();
+            } catch (IOException ioe) {
+                throw new FacebookException("Failed to read watermarks: " + file, ioe);
+            }
+            if (file.exists()) {
+                InputStream is = null;
+                try {
+                    is = new FileInputStream(file);
+                    props.load(is);
+                } catch (IOException ioe) {
+                    throw new FacebookException("Failed to read watermarks: " + file, ioe);
+                } finally {
+                    try {
+                        if (is != null) {
+                            is.close();
+                        }
+                    } catch (IOException ignore) {
+                    }
+                }
+            }
+            watermarks = props;
+        }
+        return watermarks;
+    }
+
+    private void save() throws FacebookException {
+        File tmp = new File(file.getPath() + ".tmp");
+        FileOutputStream os = null;
+        try {
+            os = new FileOutputStream(tmp);
+            watermarks.store(os, "facebook4j sync watermarks");
+            os.getFD().sync();
+            os.close();
+            os = null;
+            replace(tmp);
+        } catch (IOException ioe) {
+            throw new FacebookException("Failed to write watermarks: " + file, ioe);
+        } finally {
+            try {
+                if (os != null) {
+                    os.close();
+                }
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    /**
+     * Moves the written file in place. renameTo does not replace an existing file on some platforms: the old
+     * file is then moved aside first, and moved back if the new one cannot take its place.
+     */
+    private void replace(File written) throws IOException {
+        if (written.renameTo(file)) {
+            return;
+        }
+        File old = backupOf(file);
+        if (!file.renameTo(old)) {
+            throw new IOException("cannot rename " + file + " to " + old);
+        }
+        if (!written.renameTo(file)) {
+            if (!old.renameTo(file)) {
+                throw new IOException("cannot rename " + old + " back to " + file);
+            }
+            throw new IOException("cannot rename " + written + " to " + file);
+        }
+        if (!old.delete()) {
+            logger.warn("Failed to delete ", old.getPath());
+        }
+    }
+
+    /**
+     * Puts back the old file when an update was interrupted after moving it aside.
+     */
+    private void restoreBackup() throws IOException {
+        File old = backupOf(file);
+        if (!file.exists() && old.exists() && !old.renameTo(file)) {
+            throw new IOException("cannot rename " + old + " to " + file);
+        }
+    }
+
+    private static File backupOf(File file) {
+        return new File(file.getPath() + ".old");
+    }
+
+    @Override
+    public String toString() {
+        return "FileWatermarkStore{" +
+                "file=" + file +
+                '}';
+    }
+}
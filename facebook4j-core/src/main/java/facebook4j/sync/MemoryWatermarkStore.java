@@ -0,0 +1,42 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.sync;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link WatermarkStore} kept in memory only.
+ */
+public class MemoryWatermarkStore implements WatermarkStore {
+    private final ConcurrentMap<String, SyncState> states = new ConcurrentHashMap<String, SyncState>();
+
+    public SyncState getState(String objectId, String edge) {
+        return states.get(objectId + "/" + edge);
+    }
+
+    public void setState(String objectId, String edge, SyncState state) {
+        states.put(objectId + "/" + edge, state);
+    }
+
+    @Override
+    public String toString() {
+        return "MemoryWatermarkStore{" +
+                "states=" + states +
+                '}';
+    }
+}
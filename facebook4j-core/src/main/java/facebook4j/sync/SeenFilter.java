@@ -0,0 +1,230 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.sync;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A compact probabilistic set of already seen keys (a Bloom filter).<br>
+ * It never reports an added key as unseen, and reports an unseen key as seen with about the configured
+ * false positive rate. Two generations are kept: once the current one holds the expected number of keys,
+ * it becomes the previous one and the oldest keys are forgotten, so memory stays bounded.
+ */
+public class SeenFilter implements java.io.Serializable {
+    private static final long serialVersionUID = -6047322916871384115L;
+
+    private final int expectedInsertions;
+    private final int numBits;
+    private final int numHashes;
+    private final Lock lock = new ReentrantLock();
+    private long[] current;
+    private long[] previous;
+    private int count;
+
+    /**
+     * @param expectedInsertions number of keys each generation holds
+     * @param falsePositiveRate  acceptable probability of reporting an unseen key as seen, e.g. 0.001
+     */
+    public SeenFilter(int expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        this.expectedInsertions = expectedInsertions;
+        double ln2 = Math.log(2);
+        this.numBits = (int) Math.max(64, Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * ln2));
+        this.current = new long[(numBits + 63) >>> 6];
+        this.previous = new long[current.length];
+    }
+
+    private SeenFilter(int expectedInsertions, int numBits, int numHashes, int count, long[] current, long[] previous) {
+        this.expectedInsertions = expectedInsertions;
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+        this.count = count;
+        this.current = current;
+        this.previous = previous;
+    }
+
+    /**
+     * Restores a filter written by {@link #encode()}.
+     *
+     * @param encoded encoded form
+     * @return filter
+     * @throws IllegalArgumentException when the form is broken
+     */
+    public static SeenFilter decode(String encoded) {
+        String[] parts = encoded.split(",", -1);
+        if (parts.length != 6) {
+            throw new IllegalArgumentException("not an encoded SeenFilter");
+        }
+        int expectedInsertions = Integer.parseInt(parts[0]);
+        int numBits = Integer.parseInt(parts[1]);
+        int numHashes = Integer.parseInt(parts[2]);
+        int count = Integer.parseInt(parts[3]);
+        int words = (numBits + 63) >>> 6;
+        if (expectedInsertions <= 0 || numBits <= 0 || numHashes <= 0
+                || parts[4].length() != words * 16 || parts[5].length() != words * 16) {
+            throw new IllegalArgumentException("not an encoded SeenFilter");
+        }
+        return new SeenFilter(expectedInsertions, numBits, numHashes, count,
+                decodeBits(parts[4], words), decodeBits(parts[5], words));
+    }
+
+    /**
+     * @return a compact text form of the filter, for {@link #decode(String)}
+     */
+    public String encode() {
+        lock.lock();
+        try {
+            StringBuilder buf = new StringBuilder(current.length * 32 + 32);
+            buf.append(expectedInsertions).append(',').append(numBits).append(',')
+                    .append(numHashes).append(',').append(count).append(',');
+            encodeBits(current, buf);
+            buf.append(',');
+            encodeBits(previous, buf);
+            return buf.toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void encodeBits(long[] bits, StringBuilder buf) {
+        for (long word : bits) {
+            String hex = Long.toHexString(word);
+            for (int i = hex.length(); i < 16; i++) {
+                buf.append('0');
+            }
+            buf.append(hex);
+        }
+    }
+
+    private static long[] decodeBits(String hex, int words) {
+        long[] bits = new long[words];
+        for (int i = 0; i < words; i++) {
+            // parsed in halves, Long.parseLong rejects words with the top bit set
+            long high = Long.parseLong(hex.substring(i * 16, i * 16 + 8), 16);
+            long low = Long.parseLong(hex.substring(i * 16 + 8, i * 16 + 16), 16);
+            bits[i] = (high << 32) | low;
+        }
+        return bits;
+    }
+
+    /**
+     * @param key key
+     * @return true if the key has probably been added before
+     */
+    public boolean mightContain(String key) {
+        lock.lock();
+        try {
+            return contains(current, key) || contains(previous, key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the key.
+     *
+     * @param key key
+     * @return true if the key had not been seen before
+     */
+    public boolean put(String key) {
+        lock.lock();
+        try {
+            if (contains(current, key) || contains(previous, key)) {
+                return false;
+            }
+            if (count >= expectedInsertions) {
+                long[] recycled = previous;
+                previous = current;
+                current = recycled;
+                Arrays.fill(current, 0L);
+                count = 0;
+            }
+            int h1 = hash1(key);
+            int h2 = hash2(key);
+            for (int i = 0; i < numHashes; i++) {
+                int bit = index(h1, h2, i);
+                current[bit >>> 6] |= 1L << bit;
+            }
+            count++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return size of the filter in bytes
+     */
+    public int getSizeInBytes() {
+        return current.length * 8 * 2;
+    }
+
+    private boolean contains(long[] bits, String key) {
+        int h1 = hash1(key);
+        int h2 = hash2(key);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = index(h1, h2, i);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // double hashing: the i-th probe is h1 + i * h2
+    private int index(int h1, int h2, int i) {
+        return ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+    }
+
+    private static int hash1(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        h *= 0xc2b2ae35;
+        h ^= (h >>> 16);
+        return h;
+    }
+
+    // FNV-1a, forced odd so that every probe differs
+    private static int hash2(String key) {
+        int h = 0x811c9dc5;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x01000193;
+        }
+        return h | 1;
+    }
+
+    @Override
+    public String toString() {
+        return "SeenFilter{" +
+                "expectedInsertions=" + expectedInsertions +
+                ", numBits=" + numBits +
+                ", numHashes=" + numHashes +
+                ", count=" + count +
+                '}';
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.sync;
+
+/**
+ * The state of one (object, edge) pair synchronized by {@link FeedSync}, as kept in a {@link WatermarkStore}.<br>
+ * Times are UNIX times in seconds, -1 when unset. A synchronization cut short by
+ * {@link FeedSync#setMaxPages(int)} leaves the watermark where it was and records the newest time seen as the
+ * pending watermark and the oldest time read as the cursor; later runs read on from the cursor down to the
+ * watermark, which only then advances to the pending one.
+ */
+public final class SyncState implements java.io.Serializable {
+    private static final long serialVersionUID = 2954402213460283861L;
+
+    private final long watermark;
+    private final long pendingWatermark;
+    private final long cursor;
+    private final SeenFilter seenFilter;
+
+    /**
+     * @param watermark        newest time of the posts read through
+     * @param pendingWatermark newest time of an unfinished synchronization, or -1
+     * @param cursor           oldest time read by an unfinished synchronization, or -1
+     * @param seenFilter       posts delivered at the watermark and at the cursor
+     */
+    public SyncState(long watermark, long pendingWatermark, long cursor, SeenFilter seenFilter) {
+        if (seenFilter == null) {
+            throw new NullPointerException("seenFilter is null");
+        }
+        this.watermark = watermark;
+        this.pendingWatermark = pendingWatermark;
+        this.cursor = cursor;
+        this.seenFilter = seenFilter;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public long getPendingWatermark() {
+        return pendingWatermark;
+    }
+
+    public long getCursor() {
+        return cursor;
+    }
+
+    /**
+     * @return true while a synchronization cut short has not yet read through to the watermark
+     */
+    public boolean isResuming() {
+        return cursor >= 0;
+    }
+
+    public SeenFilter getSeenFilter() {
+        return seenFilter;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncState{" +
+                "watermark=" + watermark +
+                ", pendingWatermark=" + pendingWatermark +
+                ", cursor=" + cursor +
+                ", seenFilter=" + seenFilter +
+                '}';
+    }
+}
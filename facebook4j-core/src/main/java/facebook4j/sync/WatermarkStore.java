@@ -0,0 +1,41 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.sync;
+
+import facebook4j.FacebookException;
+
+/**
+ * Persists the {@link SyncState} of each (object, edge) pair synchronized by {@link FeedSync}.<br>
+ * The watermark and the seen filter are stored together, so the filter still holds after a restart.
+ */
+public interface WatermarkStore {
+    /**
+     * @param objectId the ID of the object
+     * @param edge     the name of the edge, e.g. <code>feed</code>
+     * @return the state, or null if the pair has never been synchronized
+     * @throws FacebookException when the store is unavailable
+     */
+    SyncState getState(String objectId, String edge) throws FacebookException;
+
+    /**
+     * @param objectId the ID of the object
+     * @param edge     the name of the edge, e.g. <code>feed</code>
+     * @param state    the state
+     * @throws FacebookException when the store is unavailable
+     */
+    void setState(String objectId, String edge, SyncState state) throws FacebookException;
+}
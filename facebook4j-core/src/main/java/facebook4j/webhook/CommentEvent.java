@@ -0,0 +1,77 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.webhook;
+
+import facebook4j.internal.org.json.JSONObject;
+
+import java.util.Date;
+
+import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
+
+/**
+ * A comment added to, edited on or removed from a post in the feed.
+ */
+public class CommentEvent extends WebhookEvent {
+    private static final long serialVersionUID = 8126401977583325521L;
+
+    private final String verb;
+    private final String commentId;
+    private final String postId;
+    private final String parentId;
+    private final String senderId;
+    private final String message;
+
+    /*package*/ CommentEvent(String object, String id, Date time, String field, JSONObject value) {
+        super(object, id, time, field, value);
+        this.verb = getRawString("verb", value);
+        this.commentId = getRawString("comment_id", value);
+        this.postId = getRawString("post_id", value);
+        this.parentId = getRawString("parent_id", value);
+        this.senderId = getRawString("sender_id", value);
+        this.message = getRawString("message", value);
+    }
+
+    /**
+     * @return <code>add</code>, <code>edited</code>, <code>remove</code> and so on
+     */
+    public String getVerb() {
+        return verb;
+    }
+
+    public String getCommentId() {
+        return commentId;
+    }
+
+    public String getPostId() {
+        return postId;
+    }
+
+    /**
+     * @return the ID of the post or comment replied to
+     */
+    public String getParentId() {
+        return parentId;
+    }
+
+    public String getSenderId() {
+        return senderId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
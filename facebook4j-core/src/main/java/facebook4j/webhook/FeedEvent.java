@@ -0,0 +1,71 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.webhook;
+
+import facebook4j.internal.org.json.JSONObject;
+
+import java.util.Date;
+
+import static facebook4j.internal.util.z_F4JInternalParseUtil.*;
+
+/**
+ * A change of the <code>feed</code> field other than a comment: a post, status, photo, reaction, share and so on.
+ */
+public class FeedEvent extends WebhookEvent {
+    private static final long serialVersionUID = -1436612640930318427L;
+
+    private final String item;
+    private final String verb;
+    private final String postId;
+    private final String senderId;
+    private final String message;
+
+    /*package*/ FeedEvent(String object, String id, Date time, String field, JSONObject value) {
+        super(object, id, time, field, value);
+        this.item = getRawString("item", value);
+        this.verb = getRawString("verb", value);
+        this.postId = getRawString("post_id", value);
+        this.senderId = getRawString("sender_id", value);
+        this.message = getRawString("message", value);
+    }
+
+    /**
+     * @return kind of the item, e.g. <code>status</code>, <code>post</code> or <code>reaction</code>
+     */
+    public String getItem() {
+        return item;
+    }
+
+    /**
+     * @return <code>add</code>, <code>edited</code>, <code>remove</code> and so on
+     */
+    public String getVerb() {
+        return verb;
+    }
+
+    public String getPostId() {
+        return postId;
+    }
+
+    public String getSenderId() {
+        return senderId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.webhook;
+
+import facebook4j.auth.OAuthAuthorization;
+import facebook4j.internal.logging.Logger;
+import facebook4j.internal.org.json.JSONArray;
+import facebook4j.internal.org.json.JSONException;
+import facebook4j.internal.org.json.JSONObject;
+import facebook4j.internal.util.z_F4JDaemonThreadFactory;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Consumes Graph API webhooks (Realtime Updates) independently of the HTTP server in use.<br>
+ * {@link #verify(String, String, String)} answers the subscription verification request, and
+ * {@link #handle(String, byte[])} checks the <code>X-Hub-Signature</code> of a notification and parses and
+ * dispatches it on a pool of worker threads, so the HTTP response can be sent right away.
+ *
+ * @see WebhookServer
+ * @see <a href="https://developers.facebook.com/docs/graph-api/webhooks">Webhooks - Facebook Developers</a>
+ */
+public class Webhook {
+    private static final Logger logger = Logger.getLogger(Webhook.class);
+
+    private static final ThreadFactory THREAD_FACTORY = new z_F4JDaemonThreadFactory("facebook4j-webhook-worker");
+
+    private final String appSecret;
+    private final String verifyToken;
+    private final WebhookListener listener;
+    private final ExecutorService workers;
+
+    /**
+     * @param appSecret   the app secret notifications are signed with
+     * @param verifyToken the token given when subscribing
+     * @param listener    receives the events
+     * @param workerCount number of threads parsing and dispatching notifications
+     */
+    public Webhook(String appSecret, String verifyToken, WebhookListener listener, int workerCount) {
+        if (appSecret == null || listener == null) {
+            throw new NullPointerException("appSecret and listener must not be null");
+        }
+        this.appSecret = appSecret;
+        this.verifyToken = verifyToken;
+        this.listener = listener;
+        this.workers = Executors.newFixedThreadPool(workerCount, THREAD_FACTORY);
+    }
+
+    /**
+     * Answers the verification request sent when the subscription is created.
+     *
+     * @param mode        <code>hub.mode</code>
+     * @param verifyToken <code>hub.verify_token</code>
+     * @param challenge   <code>hub.challenge</code>
+     * @return the challenge to echo back, or null if the request must be refused
+     */
+    public String verify(String mode, String verifyToken, String challenge) {
+        if ("subscribe".equals(mode) && this.verifyToken != null && this.verifyToken.equals(verifyToken)) {
+            return challenge;
+        }
+        return null;
+    }
+
+    /**
+     * @param signature value of the <code>X-Hub-Signature</code> (<code>sha1=...</code>)
+     *                  or <code>X-Hub-Signature-256</code> (<code>sha256=...</code>) header
+     * @param body      raw request body
+     * @return true if the body has been signed with the app secret
+     */
+    public boolean isValidSignature(String signature, byte[] body) {
+        if (signature == null || body == null) {
+            return false;
+        }
+        String expected;
+        if (signature.startsWith("sha256=")) {
+            expected = "sha256=" + OAuthAuthorization.hmacHex(OAuthAuthorization.HMAC_SHA_256, appSecret, body);
+        } else if (signature.startsWith("sha1=")) {
+            expected = "sha1=" + OAuthAuthorization.hmacHex(OAuthAuthorization.HMAC_SHA_1, appSecret, body);
+        } else {
+            return false;
+        }
+        return constantTimeEquals(expected, signature.toLowerCase());
+    }
+
+    // compares every character so that the time taken does not reveal how much of a forged signature matched
+    private static boolean constantTimeEquals(String a, String b) {
+        if (a.length() != b.length()) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < a.length(); i++) {
+            diff |= a.charAt(i) ^ b.charAt(i);
+        }
+        return diff == 0;
+    }
+
+    /**
+     * Validates a notification and queues it for dispatching.
+     *
+     * @param signature value of the <code>X-Hub-Signature</code> or <code>X-Hub-Signature-256</code> header
+     * @param body      raw request body
+     * @return false if the signature is invalid and the notification has been dropped
+     */
+    public boolean handle(String signature, final byte[] body) {
+        if (!isValidSignature(signature, body)) {
+            logger.warn("Webhook notification with an invalid signature dropped: ", String.valueOf(signature));
+            return false;
+        }
+        try {
+            workers.execute(new Runnable() {
+                public void run() {
+                    dispatch(body);
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            listener.onException(ree);
+        }
+        return true;
+    }
+
+    /*package*/ void dispatch(byte[] body) {
+        try {
+            JSONObject json = new JSONObject(new String(body, "UTF-8"));
+            String object = json.optString("object");
+            JSONArray entries = json.optJSONArray("entry");
+            if (entries == null) {
+                return;
+            }
+            for (int i = 0; i < entries.length(); i++) {
+                JSONObject entry = entries.getJSONObject(i);
+                String id = entry.optString("id");
+                Date time = new Date(entry.optLong("time") * 1000L);
+                JSONArray changes = entry.optJSONArray("changes");
+                if (changes == null) {
+                    continue;
+                }
+                for (int j = 0; j < changes.length(); j++) {
+                    JSONObject change = changes.getJSONObject(j);
+                    fire(object, id, time, change.optString("field"), change.optJSONObject("value"));
+                }
+            }
+        } catch (JSONException jsone) {
+            listener.onException(jsone);
+        } catch (UnsupportedEncodingException neverHappen) {
+            throw new AssertionError(neverHappen);
+        }
+    }
+
+    private void fire(String object, String id, Date time, String field, JSONObject value) {
+        try {
+            if ("feed".equals(field) && value != null) {
+                if ("comment".equals(value.optString("item"))) {
+                    listener.onComment(new CommentEvent(object, id, time, field, value));
+                } else {
+                    listener.onFeed(new FeedEvent(object, id, time, field, value));
+                }
+            } else {
+                listener.onChange(new WebhookEvent(object, id, time, field, value));
+            }
+        } catch (Exception e) {
+            listener.onException(e);
+        }
+    }
+
+    /**
+     * Stops the worker threads. Queued notifications are still dispatched.
+     */
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
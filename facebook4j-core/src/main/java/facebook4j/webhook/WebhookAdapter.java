@@ -0,0 +1,34 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.webhook;
+
+/**
+ * An empty {@link WebhookListener} to override selectively.
+ */
+public class WebhookAdapter implements WebhookListener {
+    public void onFeed(FeedEvent event) {
+    }
+
+    public void onComment(CommentEvent event) {
+    }
+
+    public void onChange(WebhookEvent event) {
+    }
+
+    public void onException(Exception ex) {
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.webhook;
+
+import facebook4j.internal.org.json.JSONObject;
+
+import java.util.Date;
+
+/**
+ * A change notification delivered by a Graph API webhook (Realtime Updates).
+ */
+public class WebhookEvent implements java.io.Serializable {
+    private static final long serialVersionUID = 5391725085367620718L;
+
+    private final String object;
+    private final String id;
+    private final Date time;
+    private final String field;
+    private final String value;
+
+    /*package*/ WebhookEvent(String object, String id, Date time, String field, JSONObject value) {
+        this.object = object;
+        this.id = id;
+        this.time = time;
+        this.field = field;
+        this.value = value == null ? null : value.toString();
+    }
+
+    /**
+     * @return type of the subscribed object, e.g. <code>page</code> or <code>user</code>
+     */
+    public String getObject() {
+        return object;
+    }
+
+    /**
+     * @return the ID of the changed object
+     */
+    public String getId() {
+        return id;
+    }
+
+    public Date getTime() {
+        return time;
+    }
+
+    /**
+     * @return the changed field, e.g. <code>feed</code>
+     */
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * @return the raw JSON of the change
+     */
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" +
+                "object='" + object + '\'' +
+                ", id='" + id + '\'' +
+                ", time=" + time +
+                ", field='" + field + '\'' +
+                ", value=" + value +
+                '}';
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.webhook;
+
+/**
+ * Receives the change notifications dispatched by {@link Webhook}.
+ * Methods are called on the webhook's worker threads.
+ *
+ * @see WebhookAdapter
+ */
+public interface WebhookListener {
+    void onFeed(FeedEvent event);
+
+    void onComment(CommentEvent event);
+
+    /**
+     * Called for every change which is neither a feed item nor a comment, e.g. a page's <code>name</code>.
+     *
+     * @param event change
+     */
+    void onChange(WebhookEvent event);
+
+    void onException(Exception ex);
+}
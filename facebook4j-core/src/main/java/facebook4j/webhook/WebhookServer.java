@@ -0,0 +1,284 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.webhook;
+
+import facebook4j.internal.logging.Logger;
+import facebook4j.internal.util.z_F4JDaemonThreadFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A minimal embedded HTTP endpoint for a {@link Webhook}.<br>
+ * It serves a single path: GET answers the verification request and POST accepts notifications.
+ * Each connection carries one request and is closed after the response. Put it behind a TLS terminating
+ * proxy, or use {@link Webhook} directly from an existing servlet container instead.
+ */
+public class WebhookServer {
+    private static final Logger logger = Logger.getLogger(WebhookServer.class);
+
+    private static final int MAX_HEADER_LENGTH = 8 * 1024;
+    private static final int MAX_HEADERS = 100;
+    private static final int MAX_HEADER_SECTION_LENGTH = 32 * 1024;
+    private static final int MAX_BODY_LENGTH = 1024 * 1024;
+    private static final int SO_TIMEOUT_MILLIS = 10 * 1000;
+
+    private static final ThreadFactory THREAD_FACTORY = new z_F4JDaemonThreadFactory("facebook4j-webhook-connection");
+    private static final ThreadFactory ACCEPTOR_THREAD_FACTORY = new z_F4JDaemonThreadFactory("facebook4j-webhook-acceptor");
+
+    private final int port;
+    private final String path;
+    private final Webhook webhook;
+    private final int connectionThreads;
+    private ServerSocket serverSocket;
+    private ExecutorService connections;
+    private Thread acceptor;
+
+    /**
+     * @param port    port to listen on, 0 for any free port
+     * @param path    request path, e.g. <code>/webhook</code>
+     * @param webhook handles the requests
+     */
+    public WebhookServer(int port, String path, Webhook webhook) {
+        this(port, path, webhook, 4);
+    }
+
+    public WebhookServer(int port, String path, Webhook webhook, int connectionThreads) {
+        this.port = port;
+        this.path = path;
+        this.webhook = webhook;
+        this.connectionThreads = connectionThreads;
+    }
+
+    public void start() throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("already started");
+        }
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(port));
+        connections = Executors.newFixedThreadPool(connectionThreads, THREAD_FACTORY);
+        final ServerSocket socket = serverSocket;
+        acceptor = ACCEPTOR_THREAD_FACTORY.newThread(new Runnable() {
+            public void run() {
+                accept(socket);
+            }
+        });
+        acceptor.start();
+        logger.info("Webhook server listening on port ", String.valueOf(getPort()));
+    }
+
+    /**
+     * @return the port actually listened on
+     */
+    public int getPort() {
+        return serverSocket == null ? port : serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections. Connections already accepted are served; the webhook itself is left running.
+     */
+    public void stop() {
+        if (serverSocket == null) {
+            return;
+        }
+        // closed first, so the acceptor stops before the executor refuses its connections
+        try {
+            serverSocket.close();
+        } catch (IOException ignore) {
+        }
+        connections.shutdown();
+        serverSocket = null;
+    }
+
+    private void accept(ServerSocket socket) {
+        while (!socket.isClosed()) {
+            try {
+                final Socket client = socket.accept();
+                try {
+                    connections.execute(new Runnable() {
+                        public void run() {
+                            serve(client);
+                        }
+                    });
+                } catch (RejectedExecutionException stopped) {
+                    // accepted while stopping
+                    client.close();
+                    return;
+                }
+            } catch (SocketException closed) {
+                return;
+            } catch (IOException ioe) {
+                logger.warn("Failed to accept a webhook connection: ", ioe.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket client) {
+        try {
+            client.setSoTimeout(SO_TIMEOUT_MILLIS);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(client.getInputStream()));
+            OutputStream out = client.getOutputStream();
+            String requestLine = readLine(in);
+            if (requestLine == null) {
+                return;
+            }
+            String[] parts = requestLine.split(" ");
+            if (parts.length < 2) {
+                respond(out, 400, "Bad Request");
+                return;
+            }
+            String method = parts[0];
+            String target = parts[1];
+            Map<String, String> headers = new HashMap<String, String>();
+            int headerCount = 0;
+            int headerSectionLength = 0;
+            String line;
+            while ((line = readLine(in)) != null && line.length() > 0) {
+                headerSectionLength += line.length() + 2;
+                if (headerSectionLength > MAX_HEADER_SECTION_LENGTH) {
+                    respond(out, 431, "Request Header Fields Too Large");
+                    return;
+                }
+                int colon = line.indexOf(':');
+                // excess headers are read but not kept, so the response is not cut off by a reset
+                if (colon > 0 && ++headerCount <= MAX_HEADERS) {
+                    headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ENGLISH), line.substring(colon + 1).trim());
+                }
+            }
+            if (headerCount > MAX_HEADERS) {
+                respond(out, 431, "Request Header Fields Too Large");
+                return;
+            }
+            int question = target.indexOf('?');
+            String requestPath = question == -1 ? target : target.substring(0, question);
+            if (!requestPath.equals(path)) {
+                respond(out, 404, "Not Found");
+            } else if (method.equals("GET")) {
+                Map<String, String> query;
+                try {
+                    query = parseQuery(question == -1 ? "" : target.substring(question + 1));
+                } catch (IllegalArgumentException malformedEscape) {
+                    respond(out, 400, "Bad Request");
+                    return;
+                }
+                String challenge = webhook.verify(query.get("hub.mode"), query.get("hub.verify_token"), query.get("hub.challenge"));
+                if (challenge == null) {
+                    respond(out, 403, "Forbidden");
+                } else {
+                    respond(out, 200, challenge);
+                }
+            } else if (method.equals("POST")) {
+                String contentLength = headers.get("content-length");
+                if (contentLength == null) {
+                    respond(out, 411, "Length Required");
+                    return;
+                }
+                int length;
+                try {
+                    length = Integer.parseInt(contentLength);
+                } catch (NumberFormatException nfe) {
+                    respond(out, 400, "Bad Request");
+                    return;
+                }
+                if (length < 0 || length > MAX_BODY_LENGTH) {
+                    respond(out, 413, "Request Entity Too Large");
+                    return;
+                }
+                byte[] body = new byte[length];
+                in.readFully(body);
+                String signature = headers.get("x-hub-signature-256");
+                if (signature == null) {
+                    signature = headers.get("x-hub-signature");
+                }
+                if (webhook.handle(signature, body)) {
+                    respond(out, 200, "OK");
+                } else {
+                    respond(out, 403, "Forbidden");
+                }
+            } else {
+                respond(out, 405, "Method Not Allowed");
+            }
+        } catch (IOException ioe) {
+            logger.debug("Webhook connection failed: ", ioe.getMessage());
+        } finally {
+            try {
+                client.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') {
+                break;
+            }
+            if (c != '\r') {
+                line.write(c);
+            }
+            if (line.size() > MAX_HEADER_LENGTH) {
+                throw new IOException("header too long");
+            }
+        }
+        if (c == -1 && line.size() == 0) {
+            return null;
+        }
+        return line.toString("ISO-8859-1");
+    }
+
+    private static Map<String, String> parseQuery(String query) throws UnsupportedEncodingException {
+        Map<String, String> params = new HashMap<String, String>();
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), "UTF-8"), URLDecoder.decode(pair.substring(eq + 1), "UTF-8"));
+            }
+        }
+        return params;
+    }
+
+    private static void respond(OutputStream out, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes("UTF-8");
+        String head = "HTTP/1.1 " + status + " " + (status == 200 ? "OK" : body) + "\r\n"
+                + "Content-Type: text/plain; charset=UTF-8\r\n"
+                + "Content-Length: " + bytes.length + "\r\n"
+                + "Connection: close\r\n\r\n";
+        out.write(head.getBytes("ISO-8859-1"));
+        out.write(bytes);
+        out.flush();
+    }
+}
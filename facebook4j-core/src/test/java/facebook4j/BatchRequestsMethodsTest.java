@@ -340,5 +340,70 @@ public class BatchRequestsMethodsTest {
             assertThat(actual2.getString("id"), is("696350950427193"));
             assertThat(actual2.getString("post_id"), is("1234567890123456_696350960427192"));
         }
+
+        @Test
+        public void parseBodies() throws Exception {
+            facebook.setMockJSON("mock_json/batch/simple.json");
+            BatchRequests<BatchRequest> batch = new BatchRequests<BatchRequest>();
+            batch.add(new BatchRequest(RequestMethod.GET, "me"));
+            batch.add(new BatchRequest(RequestMethod.GET, "me/friends?limit=50"));
+            List<BatchResponse> actuals = facebook.executeBatch(batch, true);
+            assertThat(actuals.get(0).asJSONObject().getString("id"), is("1234567890123456"));
+            assertThat(actuals.get(1).asResponseList().size(), is(3));
+        }
+    }
+
+    public static class read {
+        @Test
+        public void escapedBody() throws Exception {
+            String json = "[{\"code\":200,\"headers\":[{\"name\":\"A\",\"value\":\"1\"},{\"name\":\"A\",\"value\":\"2\"}],"
+                    + "\"body\":\"{\\\"name\\\":\\\"caf\\u00e9 \\ud83d\\ude00 \\u65e5\\\",\\\"path\\\":\\\"a\\\\/b\\\"}\"},"
+                    + "null,{\"code\":500,\"body\":null}]";
+            List<BatchResponse> responses = BatchResponseReader.read(new java.io.StringReader(json));
+            assertThat(responses.size(), is(3));
+
+            BatchResponse first = responses.get(0);
+            assertThat(first.getStatusCode(), is(200));
+            assertThat(first.getResponseHeader("A"), is("2"));
+            assertThat(first.getResponseHeaderFields().get("A").size(), is(2));
+            String expected = "{\"name\":\"caf\u00e9 \ud83d\ude00 \u65e5\",\"path\":\"a\\/b\"}";
+            assertThat(first.asString(), is(expected));
+            assertThat(((BatchResponseImpl) first).getBodyLength(), is(expected.getBytes("UTF-8").length));
+            assertThat(first.asJSONObject().getString("name"), is("caf\u00e9 \ud83d\ude00 \u65e5"));
+            assertThat(first.asJSONObject().getString("path"), is("a/b"));
+
+            assertThat(responses.get(1), is(nullValue()));
+            assertThat(responses.get(2).getStatusCode(), is(500));
+            assertThat(responses.get(2).asString(), is(nullValue()));
+            assertThat(responses.get(2).getResponseHeaderFields().isEmpty(), is(true));
+        }
+
+        @Test
+        public void parseAllInParallel() throws Exception {
+            StringBuilder json = new StringBuilder("[");
+            StringBuilder data = new StringBuilder();
+            for (int i = 0; i < 200; i++) {
+                data.append(i == 0 ? "" : ",").append("{\\\"id\\\":\\\"").append(i).append("\\\"}");
+            }
+            for (int i = 0; i < 64; i++) {
+                json.append(i == 0 ? "" : ",").append("{\"code\":200,\"body\":\"{\\\"data\\\":[")
+                        .append(data).append("],\\\"n\\\":").append(i).append("}\"}");
+            }
+            json.append("]");
+            List<BatchResponse> responses = BatchResponseReader.read(new java.io.StringReader(json.toString()));
+            long bytes = 0;
+            for (BatchResponse response : responses) {
+                bytes += ((BatchResponseImpl) response).getBodyLength();
+            }
+            assertThat(bytes > BatchResponseReader.PARALLEL_THRESHOLD, is(true));
+
+            BatchResponseReader.parseAll(responses, 4);
+            for (int i = 0; i < responses.size(); i++) {
+                JSONObject body = responses.get(i).asJSONObject();
+                assertThat(body.getInt("n"), is(i));
+                assertThat(body.getJSONArray("data").length(), is(200));
+            }
+            assertThat(responses.get(3).asResponseList().size(), is(200));
+        }
     }
 }
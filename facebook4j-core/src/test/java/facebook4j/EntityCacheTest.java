@@ -0,0 +1,141 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j;
+
+import facebook4j.auth.AccessToken;
+import facebook4j.conf.ConfigurationBuilder;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class EntityCacheTest {
+
+    @Test
+    public void fieldSubset() throws Exception {
+        EntityCache cache = new EntityCache(10, 60);
+        Object user = new Object();
+        cache.put(Object.class, "", "1", new Reading().fields("name", "birthday", "hometown"), user);
+
+        assertThat(cache.get(Object.class, "", "1", new Reading().fields("id", "name")), is(sameInstance(user)));
+        assertThat(cache.get(Object.class, "", "1", new Reading().fields("name", "email")), is(nullValue()));
+        assertThat(cache.get(Object.class, "", "1", null), is(nullValue()));
+        assertThat(cache.get(Object.class, "", "2", new Reading().fields("name")), is(nullValue()));
+    }
+
+    @Test
+    public void defaultFields() throws Exception {
+        EntityCache cache = new EntityCache(10, 60);
+        Object user = new Object();
+        cache.put(Object.class, "", "1", null, user);
+
+        assertThat(cache.get(Object.class, "", "1", null), is(sameInstance(user)));
+        assertThat(cache.get(Object.class, "", "1", new Reading().fields("name")), is(nullValue()));
+    }
+
+    @Test
+    public void expansionsAreOpaque() throws Exception {
+        EntityCache cache = new EntityCache(10, 60);
+        Object post = new Object();
+        cache.put(Object.class, "", "1", new Reading().fields("message", "comments.limit(5){from,message}"), post);
+
+        assertThat(cache.get(Object.class, "", "1", new Reading().fields("comments.limit(5){from,message}")),
+                is(sameInstance(post)));
+        assertThat(cache.get(Object.class, "", "1", new Reading().fields("comments.limit(25){from,message}")),
+                is(nullValue()));
+    }
+
+    @Test
+    public void expiresAndEvicts() throws Exception {
+        EntityCache expiring = new EntityCache(10, 0);
+        expiring.put(Object.class, "", "1", null, new Object());
+        assertThat(expiring.get(Object.class, "", "1", null), is(nullValue()));
+
+        EntityCache small = new EntityCache(2, 60);
+        small.put(Object.class, "", "1", null, new Object());
+        small.put(Object.class, "", "2", null, new Object());
+        small.get(Object.class, "", "1", null);
+        small.put(Object.class, "", "3", null, new Object());
+        assertThat(small.get(Object.class, "", "1", null), is(notNullValue()));
+        assertThat(small.get(Object.class, "", "2", null), is(nullValue()));
+        assertThat(small.get(Object.class, "", "3", null), is(notNullValue()));
+    }
+
+    @Test
+    public void cacheable() throws Exception {
+        assertThat(EntityCache.isCacheable(null), is(true));
+        assertThat(EntityCache.isCacheable(new Reading().fields("name")), is(true));
+        assertThat(EntityCache.isCacheable(new Reading().fields("name").locale(java.util.Locale.US)), is(false));
+    }
+
+    @Test
+    public void getUser() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create(new ConfigurationBuilder().setEntityCacheSize(100).build());
+        facebook.setMockJSON("mock_json/user/me.json");
+        User user = facebook.getUser("100001568838021", new Reading().fields("name", "gender", "locale"));
+
+        facebook.setMockJSON("mock_json/page/f4j.json");
+        assertThat(facebook.getUser("100001568838021", new Reading().fields("name")), is(sameInstance(user)));
+        assertThat(facebook.getUser("100001568838021", new Reading().fields("name", "email")), is(not(sameInstance(user))));
+    }
+
+    @Test
+    public void scopedByAccessToken() throws Exception {
+        EntityCache cache = new EntityCache(10, 60);
+        Object user = new Object();
+        cache.put(Object.class, EntityCache.scopeOf("token1"), "1", null, user);
+
+        assertThat(cache.get(Object.class, EntityCache.scopeOf("token1"), "1", null), is(sameInstance(user)));
+        assertThat(cache.get(Object.class, EntityCache.scopeOf("token2"), "1", null), is(nullValue()));
+        assertThat(EntityCache.scopeOf("token1").contains("token1"), is(false));
+        assertThat(EntityCache.isCacheableId("me"), is(false));
+    }
+
+    @Test
+    public void tokenSwitch() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create(new ConfigurationBuilder().setEntityCacheSize(100).build());
+        facebook.setOAuthAppId("appId", "appSecret");
+        facebook.setOAuthAccessToken(new AccessToken("token1"));
+        facebook.setMockJSON("mock_json/user/me.json");
+        User user = facebook.getUser("100001568838021");
+        assertThat(facebook.getUser("100001568838021"), is(sameInstance(user)));
+
+        facebook.setOAuthAccessToken(new AccessToken("token2"));
+        assertThat(facebook.getUser("100001568838021"), is(not(sameInstance(user))));
+    }
+
+    @Test
+    public void meIsNotCached() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create(new ConfigurationBuilder().setEntityCacheSize(100).build());
+        facebook.setMockJSON("mock_json/page/f4j.json");
+        Page page = facebook.getPage();
+        assertThat(facebook.getPage(), is(not(sameInstance(page))));
+    }
+
+    @Test
+    public void deletePostInvalidates() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create(new ConfigurationBuilder().setEntityCacheSize(100).build());
+        facebook.setMockJSON("mock_json/post/post.json");
+        Post post = facebook.getPost("1");
+        assertThat(facebook.getPost("1"), is(sameInstance(post)));
+
+        facebook.setMockJSON("mock_json/true.json");
+        facebook.deletePost("1");
+        facebook.setMockJSON("mock_json/post/post.json");
+        assertThat(facebook.getPost("1"), is(not(sameInstance(post))));
+    }
+}
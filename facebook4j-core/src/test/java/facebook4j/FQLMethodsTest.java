@@ -23,10 +23,17 @@ import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
+import static facebook4j.junit.F4JHttpParameterMatchers.*;
 import static facebook4j.junit.URLMatchers.*;
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
@@ -67,6 +74,38 @@ public class FQLMethodsTest {
             assertThat(jsonObject.getString("uid"), is("1234567890123456"));
             assertThat(jsonObject.getString("name"), is("foo bar"));
         }
+
+        @Test
+        public void handler() throws Exception {
+            facebook.setMockJSON("mock_json/fql/friends.json");
+            final List<String> uids = new ArrayList<String>();
+            int rows = facebook.executeFQL("SELECT uid2 FROM friend WHERE uid1=me()", null, new FQLRowHandler() {
+                public void onRow(String queryName, JSONObject row) throws FacebookException {
+                    assertThat(queryName, is(nullValue()));
+                    uids.add(row.optString("uid2"));
+                }
+            });
+            assertThat(facebook.getHttpMethod(), is(RequestMethod.GET));
+            assertThat(rows, is(3));
+            assertThat(uids, is(Arrays.asList("100000000", "100000001", "100000002")));
+        }
+
+        @Test
+        public void longQuery() throws Exception {
+            facebook.setMockJSON("mock_json/fql/friends.json");
+            StringBuilder query = new StringBuilder("SELECT uid2 FROM friend WHERE uid1=me() AND uid2 IN (");
+            for (int i = 0; i < 300; i++) {
+                query.append(i == 0 ? "" : ",").append(100000000 + i);
+            }
+            query.append(")");
+            JSONArray actual = facebook.executeFQL(query.toString(), Locale.JAPAN);
+            assertThat(facebook.getHttpMethod(), is(RequestMethod.POST));
+            assertThat(facebook.getEndpointURL(), is(pathOf("/fql")));
+            assertThat(facebook.getHttpParameters(), hasPostParameter("q", query.toString()));
+            assertThat(facebook.getHttpParameters(), hasPostParameter("method", "GET"));
+            assertThat(facebook.getHttpParameters(), hasPostParameter("locale", "ja_JP"));
+            assertThat(actual.length(), is(3));
+        }
     }
 
     public static class executeMultiFQL extends MockFacebookTestBase {
@@ -108,6 +147,73 @@ public class FQLMethodsTest {
             JSONObject jsonObject2 = actual2.getJSONObject(0);
             assertThat(jsonObject2.getString("name"), is("foo bar"));
         }
+
+        @Test
+        public void handler() throws Exception {
+            facebook.setMockJSON("mock_json/fql/multi.json");
+            Map<String, String> queries = new HashMap<String, String>();
+            queries.put("my_id", "SELECT uid FROM user WHERE uid = me()");
+            queries.put("my_name", "SELECT name FROM user WHERE uid = me()");
+            final Map<String, JSONObject> rows = new HashMap<String, JSONObject>();
+            int count = facebook.executeMultiFQL(queries, null, new FQLRowHandler() {
+                public void onRow(String queryName, JSONObject row) throws FacebookException {
+                    rows.put(queryName, row);
+                }
+            });
+            assertThat(facebook.getEndpointURL(), is(pathOf("/fql")));
+            assertThat(count, is(2));
+            assertThat(rows.get("my_id").getString("uid"), is("1234567890123456"));
+            assertThat(rows.get("my_name").getString("name"), is("foo bar"));
+        }
+    }
+
+    public static class split {
+        @Test
+        public void dependentQueriesStayTogether() throws Exception {
+            Map<String, String> queries = new LinkedHashMap<String, String>();
+            queries.put("friends", "SELECT uid2 FROM friend WHERE uid1 = me()");
+            queries.put("names", "SELECT name FROM user WHERE uid IN (SELECT uid2 FROM #friends)");
+            queries.put("pages", "SELECT page_id FROM page_fan WHERE uid = me()");
+            queries.put("groups", "SELECT gid FROM group_member WHERE uid = me()");
+            queries.put("group_names", "SELECT name FROM group WHERE gid IN (SELECT gid FROM #groups)");
+
+            List<Map<String, String>> requests = MultiFQL.split(queries, 4);
+            assertThat(requests.size(), is(3));
+            assertThat(requests.get(0).keySet(), is(keys("friends", "names")));
+            assertThat(requests.get(1).keySet(), is(keys("pages")));
+            assertThat(requests.get(2).keySet(), is(keys("groups", "group_names")));
+
+            assertThat(MultiFQL.split(queries, 1).get(0), is(queries));
+        }
+
+        @Test
+        public void concurrently() throws Exception {
+            Map<String, String> queries = new LinkedHashMap<String, String>();
+            for (int i = 0; i < 8; i++) {
+                queries.put("q" + i, "SELECT uid FROM user WHERE uid = " + i);
+            }
+            final List<String> executed = new ArrayList<String>();
+            MultiFQL multi = new MultiFQL(new MultiFQL.Executor() {
+                public int execute(Map<String, String> part, FQLRowHandler handler) throws FacebookException {
+                    for (String name : part.keySet()) {
+                        handler.onRow(name, new JSONObject());
+                    }
+                    return part.size();
+                }
+            }, 3);
+            int rows = multi.execute(queries, new FQLRowHandler() {
+                public void onRow(String queryName, JSONObject row) {
+                    executed.add(queryName);
+                }
+            });
+            assertThat(rows, is(8));
+            assertThat(executed.size(), is(8));
+            assertThat(executed.containsAll(queries.keySet()), is(true));
+        }
+
+        private static Set<String> keys(String... names) {
+            return new LinkedHashSet<String>(Arrays.asList(names));
+        }
     }
 
 }
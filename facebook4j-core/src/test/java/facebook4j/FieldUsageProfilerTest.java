@@ -0,0 +1,201 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j;
+
+import facebook4j.conf.ConfigurationBuilder;
+import facebook4j.json.DataObjectFactory;
+import facebook4j.json.EntityDecoder;
+import facebook4j.json.EntityEncoder;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Method;
+
+import static facebook4j.junit.URLMatchers.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class FieldUsageProfilerTest {
+
+    @After
+    public void tearDown() throws Exception {
+        FieldUsageProfiler.getInstance().clear();
+    }
+
+    @Test
+    public void learnFields() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create(new ConfigurationBuilder().setAdaptiveFieldsEnabled(true).build());
+        facebook.setMockJSON("mock_json/user/me.json");
+
+        for (int i = 0; i <= FieldUsageProfiler.PROFILING_CALLS; i++) {
+            User user = facebook.getUser("6666");
+            assertThat(user.getFirstName(), is("Firstname"));
+            if (i < FieldUsageProfiler.PROFILING_CALLS) {
+                assertThat(facebook.getEndpointURL().toString(), not(containsString("fields=")));
+                assertThat(user.isVerified(), is(true));
+            } else {
+                assertThat(facebook.getEndpointURL(), hasParameter("fields", "first_name,id,verified"));
+            }
+        }
+    }
+
+    @Test
+    public void fallbackOnUnrequestedField() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create(new ConfigurationBuilder().setAdaptiveFieldsEnabled(true).build());
+        facebook.setMockJSON("mock_json/user/me.json");
+
+        User user = null;
+        for (int i = 0; i <= FieldUsageProfiler.PROFILING_CALLS; i++) {
+            user = facebook.getUser("6666");
+            user.getName();
+        }
+        assertThat(facebook.getEndpointURL(), hasParameter("fields", "id,name"));
+
+        assertThat(user.getGender(), is("male"));
+        assertThat(facebook.getEndpointURL().toString(), not(containsString("fields=")));
+    }
+
+    @Test
+    public void explicitFieldsAreNotProfiled() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create(new ConfigurationBuilder().setAdaptiveFieldsEnabled(true).build());
+        facebook.setMockJSON("mock_json/user/me_fields.json");
+
+        User user = facebook.getUser("6666", new Reading().fields("gender"));
+        assertThat(facebook.getEndpointURL(), hasParameter("fields", "gender"));
+        assertThat(user.getClass().getName(), is("facebook4j.internal.json.UserJSONImpl"));
+    }
+
+    @Test
+    public void fieldOf() throws Exception {
+        assertThat(FieldUsageProfiler.fieldOf(User.class, User.class.getMethod("getFirstName")), is("first_name"));
+        assertThat(FieldUsageProfiler.fieldOf(User.class, User.class.getMethod("isVerified")), is("verified"));
+        assertThat(FieldUsageProfiler.fieldOf(User.class, User.class.getMethod("isInstalled")), is("installed"));
+        assertThat(FieldUsageProfiler.fieldOf(Page.class, Page.class.getMethod("getTalkingAboutCount")), is("talking_about_count"));
+        assertThat(FieldUsageProfiler.fieldOf(Page.class, Page.class.getMethod("isPublished")), is("is_published"));
+        assertThat(FieldUsageProfiler.fieldOf(Page.class, Page.class.getMethod("isCommunityPage")), is("is_community_page"));
+        assertThat(FieldUsageProfiler.fieldOf(Page.class, Page.class.getMethod("canPost")), is("can_post"));
+        assertThat(FieldUsageProfiler.fieldOf(Page.class, FacebookResponse.class.getMethod("getMetadata")), is(nullValue()));
+        assertThat(FieldUsageProfiler.fieldOf(Page.class, Object.class.getMethod("toString")), is(nullValue()));
+    }
+
+    @Test
+    public void everyGetterHasAField() throws Exception {
+        for (Class<?> type : new Class<?>[]{User.class, Page.class}) {
+            for (Method method : type.getDeclaredMethods()) {
+                assertThat(type.getSimpleName() + "." + method.getName(),
+                        FieldUsageProfiler.fieldOf(type, method), is(notNullValue()));
+            }
+        }
+    }
+
+    @Test
+    public void narrowedPageFields() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create(new ConfigurationBuilder().setAdaptiveFieldsEnabled(true).build());
+        facebook.setMockJSON("mock_json/page/f4j.json");
+
+        for (int i = 0; i <= FieldUsageProfiler.PROFILING_CALLS; i++) {
+            Page page = facebook.getPage("137246726435626");
+            assertThat(page.isPublished(), is(false));
+            assertThat(page.isCommunityPage(), is(false));
+            assertThat(page.canPost(), is(true));
+        }
+        assertThat(facebook.getEndpointURL(), hasParameter("fields", "can_post,id,is_community_page,is_published"));
+    }
+
+    @Test
+    public void rawJSONOfProfiledEntity() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create(new ConfigurationBuilder()
+                .setAdaptiveFieldsEnabled(true).setJSONStoreEnabled(true).build());
+        facebook.setMockJSON("mock_json/page/f4j.json");
+
+        Page page = facebook.getPage("137246726435626");
+        assertThat(DataObjectFactory.getRawJSON(page), containsString("\"is_published\""));
+    }
+
+    @Test
+    public void fallbackFailureIsPropagated() throws Exception {
+        final String json = "{\"id\":\"1\",\"name\":\"F4J\"}";
+        final boolean[] failing = {false};
+        FieldUsageProfiler.Fetcher<Page> fetcher = new FieldUsageProfiler.Fetcher<Page>() {
+            public Page fetch(Reading reading) throws FacebookException {
+                if (failing[0]) {
+                    throw new FacebookException("unavailable");
+                }
+                return DataObjectFactory.createPage(json);
+            }
+        };
+        Page page = null;
+        for (int i = 0; i <= FieldUsageProfiler.PROFILING_CALLS; i++) {
+            page = FieldUsageProfiler.getInstance().fetch(Page.class, "getPage", null, fetcher);
+            page.getName();
+        }
+        failing[0] = true;
+        try {
+            page.getCategory();
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+            assertThat(expected.getCause(), is(instanceOf(FacebookException.class)));
+        }
+
+        failing[0] = false;
+        assertThat(page.getCategory(), is(nullValue()));
+        assertThat(page.getName(), is("F4J"));
+    }
+
+    @Test
+    public void namedCallSite() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create(new ConfigurationBuilder().setAdaptiveFieldsEnabled(true).build());
+        facebook.setMockJSON("mock_json/user/me.json");
+
+        for (int i = 0; i < FieldUsageProfiler.PROFILING_CALLS; i++) {
+            facebook.getUser("6666", new Reading().callSite("profile")).getFirstName();
+        }
+        // another line of code, same named call site
+        User user = facebook.getUser("6666", new Reading().callSite("profile"));
+        assertThat(facebook.getEndpointURL(), hasParameter("fields", "first_name,id"));
+        assertThat(user.getFirstName(), is("Firstname"));
+        assertThat(new Reading().callSite("profile").getQuery(), is(""));
+    }
+
+    @Test
+    public void profiledEntityBehavesAsEntity() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create(new ConfigurationBuilder()
+                .setAdaptiveFieldsEnabled(true).setEntityCodecEnabled(true).build());
+        facebook.setMockJSON("mock_json/page/f4j.json");
+
+        Page page = facebook.getPage("137246726435626");
+        Page plain = DataObjectFactory.createPage("{\"id\":\"137246726435626\"}");
+        assertThat(plain.equals(page), is(true));
+        assertThat(page.equals(plain), is(true));
+
+        EntityEncoder encoder = new EntityEncoder().write(page);
+        Page decoded = new EntityDecoder(encoder.toByteBuffer()).next(Page.class);
+        assertThat(decoded.getName(), is(page.getName()));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(page);
+        out.close();
+        Page deserialized = (Page) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+        assertThat(deserialized.getName(), is(page.getName()));
+        assertThat(deserialized, is(page));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class MultiIdLookupTest {
+
+    private static class EchoFetcher implements MultiIdLookup.Fetcher<String> {
+        final List<String> requests = Collections.synchronizedList(new ArrayList<String>());
+
+        public Map<String, String> fetch(String ids) throws FacebookException {
+            requests.add(ids);
+            Map<String, String> result = new LinkedHashMap<String, String>();
+            for (String id : ids.split(",")) {
+                if (id.startsWith("bad")) {
+                    throw new FacebookException("{\"error\":{\"message\":\"(#803) Some of the aliases you requested do not exist: " + id
+                            + "\",\"type\":\"OAuthException\",\"code\":803,\"error_subcode\":-1}}");
+                }
+                result.put(id, "object" + id);
+            }
+            return result;
+        }
+    }
+
+    @Test
+    public void chunked() throws Exception {
+        List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < 120; i++) {
+            ids.add(String.valueOf(i));
+        }
+        ids.add("0");
+        EchoFetcher fetcher = new EchoFetcher();
+        BulkResult<String> result = new MultiIdLookup<String>(fetcher, 4).lookup(ids);
+
+        assertThat(fetcher.requests.size(), is(3));
+        assertThat(result.getResults().size(), is(120));
+        assertThat(result.hasErrors(), is(false));
+        assertThat(result.getResults().keySet().iterator().next(), is("0"));
+        assertThat(result.get("119"), is("object119"));
+    }
+
+    @Test
+    public void perIdErrors() throws Exception {
+        EchoFetcher fetcher = new EchoFetcher();
+        BulkResult<String> result = new MultiIdLookup<String>(fetcher, 1).lookup(Arrays.asList("1", "bad2", "3"));
+
+        assertThat(fetcher.requests.size(), is(4));
+        assertThat(result.getResults().size(), is(2));
+        assertThat(result.get("3"), is("object3"));
+        assertThat(result.getErrors().size(), is(1));
+        assertThat(result.getErrors().get("bad2").getErrorCode(), is(803));
+    }
+}
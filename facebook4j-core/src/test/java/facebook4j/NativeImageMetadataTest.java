@@ -0,0 +1,176 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j;
+
+import facebook4j.conf.ConfigurationBuilder;
+import facebook4j.internal.http.HttpClientFactory;
+import facebook4j.internal.http.HttpClientImpl;
+import facebook4j.internal.org.json.JSONArray;
+import facebook4j.internal.org.json.JSONObject;
+import facebook4j.internal.org.json.JSONTokener;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class NativeImageMetadataTest {
+    private static final String DIR = "META-INF/native-image/com.gauge.facebook4j/facebook4j-core/";
+    private static final Pattern REFLECTIVE_CALL = Pattern.compile("Proxy\\.newProxyInstance\\(|Class\\.forName\\(");
+
+    /**
+     * Reflective call sites per source file. A new one needs native-image metadata before it is counted here.
+     */
+    private static final Map<String, Integer> REFLECTIVE_CALL_SITES = new TreeMap<String, Integer>();
+
+    static {
+        // AppEngineFacebookImpl ships with the appengine module
+        REFLECTIVE_CALL_SITES.put("facebook4j/FacebookFactory.java", 1);
+        // User and Page proxies: proxy-config.json
+        REFLECTIVE_CALL_SITES.put("facebook4j/FieldUsageProfiler.java", 1);
+        // probes for Android and App Engine
+        REFLECTIVE_CALL_SITES.put("facebook4j/conf/ConfigurationBase.java", 2);
+        // PropertyConfigurationFactory: reflect-config.json
+        REFLECTIVE_CALL_SITES.put("facebook4j/conf/ConfigurationContext.java", 1);
+        // probe for Android
+        REFLECTIVE_CALL_SITES.put("facebook4j/internal/http/HttpClientImpl.java", 1);
+        // HttpClientImpl: reflect-config.json; the alternative client ships with another module
+        REFLECTIVE_CALL_SITES.put("facebook4j/internal/http/HttpClientFactory.java", 2);
+        // logging probes, and the LoggerFactory implementations: reflect-config.json
+        REFLECTIVE_CALL_SITES.put("facebook4j/internal/logging/Logger.java", 3);
+    }
+
+    private static Object read(String name) throws Exception {
+        InputStream is = NativeImageMetadataTest.class.getClassLoader().getResourceAsStream(DIR + name);
+        assertThat(name, is, is(notNullValue()));
+        try {
+            return new JSONTokener(new InputStreamReader(is, "UTF-8")).nextValue();
+        } finally {
+            is.close();
+        }
+    }
+
+    @Test
+    public void reflectConfig() throws Exception {
+        JSONArray entries = (JSONArray) read("reflect-config.json");
+        assertThat(entries.length() > 0, is(true));
+        for (int i = 0; i < entries.length(); i++) {
+            JSONObject entry = entries.getJSONObject(i);
+            Class<?> clazz = Class.forName(entry.getString("name"));
+            JSONArray methods = entry.getJSONArray("methods");
+            for (int j = 0; j < methods.length(); j++) {
+                JSONObject method = methods.getJSONObject(j);
+                assertThat(method.getString("name"), is("<init>"));
+                JSONArray types = method.getJSONArray("parameterTypes");
+                Class<?>[] parameterTypes = new Class<?>[types.length()];
+                for (int k = 0; k < types.length(); k++) {
+                    parameterTypes[k] = Class.forName(types.getString(k));
+                }
+                assertThat(clazz.getDeclaredConstructor(parameterTypes), is(notNullValue()));
+            }
+        }
+    }
+
+    @Test
+    public void proxyConfig() throws Exception {
+        JSONArray entries = (JSONArray) read("proxy-config.json");
+        Set<String> proxied = new HashSet<String>();
+        for (int i = 0; i < entries.length(); i++) {
+            JSONArray interfaces = entries.getJSONObject(i).getJSONArray("interfaces");
+            assertThat(interfaces.length(), is(2));
+            assertThat(Class.forName(interfaces.getString(0)).isInterface(), is(true));
+            assertThat(interfaces.getString(1), is("java.io.Serializable"));
+            proxied.add(interfaces.getString(0));
+        }
+        assertThat(FieldUsageProfiler.getProfiledTypes().isEmpty(), is(false));
+        for (Class<?> type : FieldUsageProfiler.getProfiledTypes()) {
+            assertThat(type.getName(), proxied.contains(type.getName()), is(true));
+        }
+    }
+
+    @Test
+    public void reflectiveCallSites() throws Exception {
+        Map<String, Integer> found = new TreeMap<String, Integer>();
+        File root = new File("src/main/java");
+        assertThat(root.getAbsolutePath(), root.isDirectory(), is(true));
+        scan(root, "", found);
+        assertThat("reflective call sites changed; add native-image metadata for new ones",
+                found, is(REFLECTIVE_CALL_SITES));
+    }
+
+    private static void scan(File dir, String path, Map<String, Integer> found) throws Exception {
+        File[] files = dir.listFiles();
+        for (File file : files) {
+            String name = path + file.getName();
+            if (file.isDirectory()) {
+                scan(file, name + "/", found);
+            } else if (name.endsWith(".java")) {
+                Matcher matcher = REFLECTIVE_CALL.matcher(readFully(file));
+                int count = 0;
+                while (matcher.find()) {
+                    count++;
+                }
+                if (count > 0) {
+                    found.put(name, count);
+                }
+            }
+        }
+    }
+
+    private static String readFully(File file) throws Exception {
+        Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+        try {
+            StringBuilder buf = new StringBuilder();
+            char[] chars = new char[8192];
+            int read;
+            while ((read = reader.read(chars)) != -1) {
+                buf.append(chars, 0, read);
+            }
+            return buf.toString();
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void resourceConfig() throws Exception {
+        JSONArray includes = ((JSONObject) read("resource-config.json")).getJSONObject("resources").getJSONArray("includes");
+        boolean properties = false;
+        for (int i = 0; i < includes.length(); i++) {
+            properties |= Pattern.compile(includes.getJSONObject(i).getString("pattern")).matcher("facebook4j.properties").matches();
+        }
+        assertThat(properties, is(true));
+    }
+
+    @Test
+    public void defaultsWithoutReflection() throws Exception {
+        assertThat(new FacebookFactory().getInstance(), is(instanceOf(FacebookImpl.class)));
+        assertThat(HttpClientFactory.getInstance(new ConfigurationBuilder().build()),
+                is(instanceOf(HttpClientImpl.class)));
+    }
+}
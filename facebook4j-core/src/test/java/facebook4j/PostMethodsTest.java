@@ -120,6 +120,34 @@ public class PostMethodsTest extends MockFacebookTestBase {
             assertThat(actuals.size(), is(2));
         }
 
+        @Test
+        public void expanded() throws Exception {
+            facebook.setMockJSON("mock_json/post/feed_expanded.json");
+            ResponseList<Post> actuals = facebook.getFeed("1234567890123456", new Reading()
+                    .fields("message")
+                    .expand(new FieldExpansion("comments").limit(25).fields("from", "message")
+                                    .expand(new FieldExpansion("comments").summary(true)),
+                            new FieldExpansion("likes").limit(0).summary(true)));
+            assertThat(facebook.getHttpMethod(), is(RequestMethod.GET));
+            assertThat(facebook.getEndpointURL(), is(pathOf("/1234567890123456/feed")));
+            assertThat(facebook.getEndpointURL(), hasParameter("fields",
+                    "message,comments.limit(25){from,message,comments.summary(true)},likes.limit(0).summary(true)"));
+
+            assertThat(actuals.size(), is(1));
+            Post actual = actuals.get(0);
+            assertThat(actual.getMessage(), is("Hello"));
+            assertThat(actual.getLikes().size(), is(0));
+            assertThat(actual.getLikes().getSummary().getTotalCount(), is(42));
+            assertThat(actual.getComments().size(), is(1));
+            assertThat(actual.getComments().getPaging().getCursors().getAfter(), is("MQ=="));
+            Comment comment = actual.getComments().get(0);
+            assertThat(comment.getFrom().getName(), is("Commenter"));
+            assertThat(comment.getMessage(), is("First!"));
+            assertThat(comment.getComments().size(), is(1));
+            assertThat(comment.getComments().get(0).getMessage(), is("Second"));
+            assertThat(comment.getComments().getSummary().getTotalCount(), is(1));
+        }
+
         @Test
         public void id() throws Exception {
             facebook.setMockJSON("mock_json/post/feed.json");
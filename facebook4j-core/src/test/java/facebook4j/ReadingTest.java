@@ -16,6 +16,7 @@
 
 package facebook4j;
 
+import facebook4j.internal.http.HttpParameter;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
@@ -35,6 +36,24 @@ import static org.junit.Assert.*;
 @RunWith(Enclosed.class)
 public class ReadingTest {
 
+    public static class Expand {
+        @Test
+        public void nested() throws Exception {
+            Reading reading = new Reading()
+                    .fields("message")
+                    .expand(new FieldExpansion("comments").limit(25).fields("from", "message")
+                                    .expand(new FieldExpansion("comments").summary(true)),
+                            new FieldExpansion("likes").limit(0).summary(true));
+            assertThat(reading.getQuery(), is("fields=" + HttpParameter.encode(
+                    "message,comments.limit(25){from,message,comments.summary(true)},likes.limit(0).summary(true)")));
+        }
+
+        @Test(expected = IllegalStateException.class)
+        public void duplicatedModifier() throws Exception {
+            new FieldExpansion("comments").limit(10).limit(20);
+        }
+    }
+
     public static class Fields {
         @Test(expected = NullPointerException.class)
         public void nul() throws Exception {
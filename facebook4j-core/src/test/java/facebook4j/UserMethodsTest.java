@@ -22,6 +22,7 @@ import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 
 import java.net.URL;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 
@@ -339,6 +340,21 @@ public class UserMethodsTest extends MockFacebookTestBase {
 
             assertThat(users.size(), is(2));
         }
+
+        @Test
+        public void bulk() throws Exception {
+            facebook.setMockJSON("mock_json/user/users.json");
+            BulkResult<User> users = facebook.getUsers(Arrays.asList("4", "BillGates", "unknown"), new Reading().fields("name"));
+            assertThat(facebook.getHttpMethod(), is(RequestMethod.GET));
+            assertThat(facebook.getEndpointURL(), is(pathOf("/")));
+            assertThat(facebook.getEndpointURL(), hasParameter("ids", "4,BillGates,unknown"));
+            assertThat(facebook.getEndpointURL(), hasParameter("fields", "name"));
+
+            assertThat(users.getResults().size(), is(2));
+            assertThat(users.get("4").getName(), is("Mark Zuckerberg"));
+            assertThat(users.getErrors().size(), is(1));
+            assertThat(users.getErrors().containsKey("unknown"), is(true));
+        }
     }
 
 }
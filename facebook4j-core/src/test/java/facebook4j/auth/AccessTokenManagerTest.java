@@ -0,0 +1,225 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.auth;
+
+import facebook4j.FacebookException;
+import facebook4j.MockFacebook;
+import facebook4j.MockFacebookFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class AccessTokenManagerTest {
+    private static final long DAY = 24L * 60 * 60;
+
+    private MockFacebook facebook;
+    private StubEndpoint endpoint;
+
+    private static class StubEndpoint implements AccessTokenManager.Endpoint {
+        private final AtomicInteger inspections = new AtomicInteger();
+        private final AtomicInteger extensions = new AtomicInteger();
+        private final AtomicInteger appTokens = new AtomicInteger();
+        private final CountDownLatch inspected = new CountDownLatch(1);
+        private boolean failing;
+        private String broken;
+
+        public AccessToken inspect(String accessToken) throws FacebookException {
+            inspections.incrementAndGet();
+            inspected.countDown();
+            if (accessToken.equals(broken)) {
+                throw new IllegalStateException("bug");
+            }
+            return new AccessToken(accessToken, accessToken.startsWith("long") ? 60 * DAY : 2 * DAY);
+        }
+
+        public AccessToken extend(String accessToken) throws FacebookException {
+            if (failing) {
+                throw new FacebookException("expired");
+            }
+            return new AccessToken("long-" + extensions.incrementAndGet(), 60 * DAY);
+        }
+
+        public AccessToken appAccessToken() throws FacebookException {
+            return new AccessToken("app|" + appTokens.incrementAndGet());
+        }
+    }
+
+    private static class Recorder implements AccessTokenListener {
+        private final List<String> events = new ArrayList<String>();
+
+        public void onRefreshed(AccessToken oldToken, AccessToken newToken) {
+            events.add(oldToken.getToken() + "->" + newToken.getToken());
+        }
+
+        public void onRefreshFailed(AccessToken token, FacebookException error) {
+            events.add(token.getToken() + " failed");
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        facebook = MockFacebookFactory.create();
+        facebook.setOAuthAppId("mock", "json");
+        endpoint = new StubEndpoint();
+    }
+
+    @Test
+    public void refreshesOwnToken() throws Exception {
+        AccessToken shortLived = new AccessToken("short", 2 * DAY);
+        facebook.setOAuthAccessToken(shortLived);
+        AccessTokenManager manager = new AccessTokenManager(facebook, endpoint);
+        Recorder recorder = new Recorder();
+        manager.setListener(recorder);
+        manager.manage(shortLived);
+
+        manager.checkNow();
+        assertThat(facebook.getOAuthAccessToken().getToken(), is("long-1"));
+        assertThat(manager.getAccessToken(shortLived).getToken(), is("long-1"));
+        assertThat(manager.getExpiresAt(shortLived).getTime() > System.currentTimeMillis() + 59 * DAY * 1000, is(true));
+
+        // far from expiry now
+        manager.checkNow();
+        assertThat(endpoint.extensions.get(), is(1));
+        assertThat(endpoint.inspections.get(), is(2));
+        assertThat(recorder.events.toString(), is("[short->long-1]"));
+    }
+
+    @Test
+    public void refreshesPooledToken() throws Exception {
+        facebook.setOAuthAccessToken(new AccessToken("own"));
+        AccessTokenPool pool = new AccessTokenPool(AccessTokenPool.Strategy.ROUND_ROBIN);
+        AccessToken pooled = new AccessToken("pooled", 2 * DAY);
+        pool.add(new AccessToken("other"));
+        pool.add(pooled);
+        facebook.setAccessTokenPool(pool);
+
+        AccessTokenManager manager = new AccessTokenManager(facebook, endpoint);
+        manager.manage(pooled);
+        manager.checkNow();
+        assertThat(facebook.getOAuthAccessToken().getToken(), is("own"));
+        assertThat(pool.getAccessTokens().toString(), containsString("long-1"));
+        assertThat(pool.getAccessTokens().toString(), not(containsString("'pooled'")));
+    }
+
+    @Test
+    public void refreshFailure() throws Exception {
+        AccessToken shortLived = new AccessToken("short", 2 * DAY);
+        facebook.setOAuthAccessToken(shortLived);
+        endpoint.failing = true;
+        AccessTokenManager manager = new AccessTokenManager(facebook, endpoint);
+        Recorder recorder = new Recorder();
+        manager.setListener(recorder);
+        manager.manage(shortLived);
+        manager.checkNow();
+        assertThat(facebook.getOAuthAccessToken().getToken(), is("short"));
+        assertThat(recorder.events.toString(), is("[short failed]"));
+    }
+
+    @Test
+    public void appAccessTokenIsCached() throws Exception {
+        AccessTokenManager manager = new AccessTokenManager(facebook, endpoint);
+        assertThat(manager.getAppAccessToken().getToken(), is("app|1"));
+        assertThat(manager.getAppAccessToken().getToken(), is("app|1"));
+        assertThat(endpoint.appTokens.get(), is(1));
+    }
+
+    @Test
+    public void background() throws Exception {
+        AccessTokenManager manager = new AccessTokenManager(facebook, endpoint);
+        manager.setPrefetchAppAccessToken(true);
+        manager.manage(new AccessToken("long-lived", 60 * DAY));
+        manager.start();
+        try {
+            assertThat(endpoint.inspected.await(5, TimeUnit.SECONDS), is(true));
+        } finally {
+            manager.shutdown();
+        }
+        assertThat(manager.getAppAccessToken().getToken(), is("app|1"));
+        assertThat(endpoint.extensions.get(), is(0));
+    }
+
+    @Test
+    public void runtimeExceptionFailsOnlyItsToken() throws Exception {
+        AccessToken shortLived = new AccessToken("short", 2 * DAY);
+        AccessToken broken = new AccessToken("broken", 2 * DAY);
+        AccessTokenManager manager = new AccessTokenManager(facebook, endpoint);
+        Recorder recorder = new Recorder();
+        manager.setListener(recorder);
+        manager.manage(broken);
+        manager.manage(shortLived);
+        endpoint.broken = "broken";
+
+        manager.checkNow();
+        assertThat(recorder.events.contains("broken failed"), is(true));
+        assertThat(recorder.events.contains("short->long-1"), is(true));
+        assertThat(manager.getAccessToken(shortLived).getToken(), is("long-1"));
+        assertThat(manager.getAccessToken(broken).getToken(), is("broken"));
+    }
+
+    @Test
+    public void unmanageEvicts() throws Exception {
+        facebook.setAppSecretProofEnabled(true);
+        AccessToken token = new AccessToken("long-lived", 60 * DAY);
+        AccessTokenManager manager = new AccessTokenManager(facebook, endpoint);
+        manager.manage(token);
+        assertThat(MacPool.isPooled(OAuthAuthorization.HMAC_SHA_256, "json"), is(true));
+
+        assertThat(manager.unmanage(token), is(true));
+        assertThat(MacPool.isPooled(OAuthAuthorization.HMAC_SHA_256, "json"), is(false));
+        assertThat(manager.unmanage(token), is(false));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void withoutApp() throws Exception {
+        new AccessTokenManager(MockFacebookFactory.create());
+    }
+
+    @Test
+    public void pooledMac() throws Exception {
+        final String expected = "f7bc83f430538424b13298e6aa6fb143ef4d59a14946175997479dbc2d1a3cd8";
+        final byte[] data = "The quick brown fox jumps over the lazy dog".getBytes("UTF-8");
+        final AtomicInteger mismatches = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < 200; j++) {
+                        String mac = OAuthAuthorization.hmacHex(OAuthAuthorization.HMAC_SHA_256, "key", data);
+                        if (!expected.equals(mac)) {
+                            mismatches.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(mismatches.get(), is(0));
+        assertThat(OAuthAuthorization.hmacHex(OAuthAuthorization.HMAC_SHA_256, "key", data), is(expected));
+        assertThat(OAuthAuthorization.hmacHex(OAuthAuthorization.HMAC_SHA_256, "other", data), is(not(expected)));
+    }
+}
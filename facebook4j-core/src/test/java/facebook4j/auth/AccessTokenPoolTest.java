@@ -0,0 +1,155 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.auth;
+
+import facebook4j.Facebook;
+import facebook4j.FacebookException;
+import facebook4j.MockFacebook;
+import facebook4j.MockFacebookFactory;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static facebook4j.junit.URLMatchers.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class AccessTokenPoolTest {
+
+    private static AccessTokenPool pool(AccessTokenPool.Strategy strategy, String... tokens) {
+        AccessTokenPool pool = new AccessTokenPool(strategy);
+        for (String token : tokens) {
+            pool.add(new AccessToken(token));
+        }
+        return pool;
+    }
+
+    @Test
+    public void roundRobin() throws Exception {
+        AccessTokenPool pool = pool(AccessTokenPool.Strategy.ROUND_ROBIN, "a", "b", "c");
+        StringBuilder order = new StringBuilder();
+        for (int i = 0; i < 6; i++) {
+            AccessToken token = pool.acquire(null);
+            order.append(token.getToken());
+            pool.release(token);
+        }
+        assertThat(order.toString(), is("abcabc"));
+    }
+
+    @Test
+    public void leastUsed() throws Exception {
+        AccessTokenPool pool = pool(AccessTokenPool.Strategy.LEAST_USED, "a", "b");
+        AccessToken first = pool.acquire(null);
+        AccessToken second = pool.acquire(null);
+        assertThat(second.getToken(), is(not(first.getToken())));
+        pool.release(second);
+        // first is still in flight
+        assertThat(pool.acquire(null).getToken(), is(second.getToken()));
+        assertThat(pool.getCallCount(second), is(2L));
+    }
+
+    @Test
+    public void usageAware() throws Exception {
+        AccessTokenPool pool = pool(AccessTokenPool.Strategy.USAGE_AWARE, "a", "b");
+        AccessToken a = pool.getAccessTokens().get(0);
+        pool.reportUsage(a, "{\"call_count\":80,\"total_time\":10,\"total_cputime\":5}", null,
+                "{\"1234\":[{\"type\":\"pages\",\"call_count\":3,\"total_time\":95}]}");
+        assertThat(pool.getUsage(a), is(95));
+        for (int i = 0; i < 3; i++) {
+            AccessToken token = pool.acquire(null);
+            assertThat(token.getToken(), is("b"));
+            pool.release(token);
+        }
+    }
+
+    @Test
+    public void sticky() throws Exception {
+        AccessTokenPool pool = pool(AccessTokenPool.Strategy.STICKY, "a", "b", "c", "d");
+        Set<String> used = new HashSet<String>();
+        for (int i = 0; i < 100; i++) {
+            String objectId = String.valueOf(1000 + i);
+            AccessToken token = pool.acquire(objectId);
+            pool.release(token);
+            assertThat(pool.acquire(objectId).getToken(), is(token.getToken()));
+            used.add(token.getToken());
+        }
+        assertThat(used.size(), is(4));
+
+        // removing a token only moves the objects it had
+        AccessToken before = pool.acquire("1000");
+        String other = before.getToken().equals("a") ? "b" : "a";
+        pool.remove(new AccessToken(other));
+        assertThat(pool.acquire("1000").getToken(), is(before.getToken()));
+    }
+
+    @Test
+    public void rateLimitErrors() throws Exception {
+        AccessTokenPool pool = pool(AccessTokenPool.Strategy.USAGE_AWARE, "a", "b");
+        AccessToken a = pool.getAccessTokens().get(0);
+        pool.reportFailure(a, new FacebookException("{\"error\":{\"type\":\"OAuthException\","
+                + "\"message\":\"(#100) Invalid parameter\",\"code\":100}}"));
+        assertThat(pool.getUsage(a), is(0));
+
+        pool.reportFailure(a, new FacebookException("{\"error\":{\"type\":\"OAuthException\","
+                + "\"message\":\"(#4) Application request limit reached\",\"code\":4}}"));
+        assertThat(pool.getUsage(a), is(100));
+        assertThat(pool.acquire(null).getToken(), is("b"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void empty() throws Exception {
+        new AccessTokenPool(AccessTokenPool.Strategy.LEAST_USED).acquire("1");
+    }
+
+    @Test
+    public void withAccessToken() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setOAuthAppId("mock", "json");
+        facebook.setOAuthAccessToken(new AccessToken("own"));
+        facebook.setMockJSON("mock_json/user/me.json");
+
+        Facebook view = facebook.withAccessToken(new AccessToken("tenant"));
+        view.getUser("100001568838021");
+        assertThat(facebook.getEndpointURL(), is(pathOf("/100001568838021")));
+        assertThat(facebook.getEndpointURL(), hasParameter("access_token", "tenant"));
+
+        view.shutdown();
+        facebook.getMe();
+        assertThat(facebook.getEndpointURL(), hasParameter("access_token", "own"));
+    }
+
+    @Test
+    public void pooledCalls() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setOAuthAppId("mock", "json");
+        facebook.setMockJSON("mock_json/user/me.json");
+        AccessTokenPool pool = pool(AccessTokenPool.Strategy.ROUND_ROBIN, "a", "b");
+        facebook.setAccessTokenPool(pool);
+
+        facebook.getUser("1");
+        assertThat(facebook.getEndpointURL(), hasParameter("access_token", "a"));
+        facebook.getUser("2");
+        assertThat(facebook.getEndpointURL(), hasParameter("access_token", "b"));
+        assertThat(pool.getCallCount(new AccessToken("a")), is(1L));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void poolWithoutApp() throws Exception {
+        MockFacebookFactory.create().setAccessTokenPool(pool(AccessTokenPool.Strategy.ROUND_ROBIN, "a"));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+import facebook4j.FacebookException;
+import facebook4j.MockFacebook;
+import facebook4j.MockFacebookFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static facebook4j.junit.URLMatchers.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class CommentThreadFetcherTest {
+    private static final String POST_ID = "216311481960_10201168076257947";
+
+    @Test
+    public void fetch() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/comment/thread.json");
+        CommentThreadFetcher fetcher = new CommentThreadFetcher(facebook);
+        List<ThreadedComment> thread = fetcher.fetch(POST_ID);
+
+        // the extra reply pages answer the same comments again, which are dropped
+        List<String> ids = new ArrayList<String>();
+        for (ThreadedComment comment : thread) {
+            ids.add(comment.getId());
+        }
+        assertThat(ids, is(Arrays.asList("10201168076257947_1001", "10201168076257947_1011", "10201168076257947_1012",
+                "10201168076257947_1002", "10201168076257947_1021", "10201168076257947_1003")));
+        assertThat(thread.get(0).getParentId(), is(POST_ID));
+        assertThat(thread.get(0).getDepth(), is(0));
+        assertThat(thread.get(0).getComment().getMessage(), is("first"));
+        assertThat(thread.get(1).getParentId(), is("10201168076257947_1001"));
+        assertThat(thread.get(1).getDepth(), is(1));
+        assertThat(thread.get(4).getParentId(), is("10201168076257947_1002"));
+    }
+
+    @Test
+    public void maxCalls() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/comment/thread.json");
+        CommentThreadFetcher fetcher = new CommentThreadFetcher(facebook);
+        fetcher.setPageSize(50);
+        fetcher.setFields("id", "message", "comment_count");
+        fetcher.setMaxCalls(1);
+        final List<String> truncated = new ArrayList<String>();
+        int found = fetcher.fetch(POST_ID, new CommentHandler() {
+            public void onComment(ThreadedComment comment) {
+            }
+
+            public void onTruncated(String parentId) {
+                truncated.add(parentId);
+            }
+        });
+
+        assertThat(found, is(6));
+        assertThat(new HashSet<String>(truncated),
+                is(new HashSet<String>(Arrays.asList("10201168076257947_1002", "10201168076257947_1003"))));
+        assertThat(facebook.getEndpointURL(), is(pathOf("/" + POST_ID + "/comments")));
+        assertThat(facebook.getEndpointURL(), hasParameter("limit", "50"));
+        assertThat(facebook.getEndpointURL(),
+                hasParameter("fields", "id,message,comment_count,comments.limit(50){id,message,comment_count}"));
+    }
+
+    @Test
+    public void handlerAborts() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/comment/thread.json");
+        CommentThreadFetcher fetcher = new CommentThreadFetcher(facebook);
+        try {
+            fetcher.fetch(POST_ID, new CommentHandler() {
+                public void onComment(ThreadedComment comment) throws FacebookException {
+                    if (comment.getDepth() > 0) {
+                        throw new FacebookException("stop");
+                    }
+                }
+
+                public void onTruncated(String parentId) {
+                }
+            });
+            fail();
+        } catch (FacebookException fe) {
+            assertThat(fe.getMessage(), is("stop"));
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+import facebook4j.FacebookException;
+import facebook4j.MockFacebook;
+import facebook4j.MockFacebookFactory;
+import facebook4j.Post;
+import facebook4j.Reading;
+import facebook4j.export.CallBudget;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class CrawlEngineTest {
+    private static final String PAGE_ID = "1234567890123456";
+
+    @Test
+    public void crawl() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/post/feed.json");
+        CrawlSpec spec = new CrawlSpec()
+                .root(CrawlEdge.FEED, new Reading().limit(25))
+                .follow(CrawlEdge.FEED, CrawlEdge.LIKES, null)
+                .maxPagesPerEdge(2);
+        CrawlEngine engine = new CrawlEngine(spec);
+        engine.addClient(facebook, null);
+        engine.setParallelism(4);
+        Counter counter = new Counter();
+        CrawlMetrics metrics = engine.crawl(Collections.singletonList(PAGE_ID), counter);
+
+        // every call answers the same 6 items and a next page
+        assertThat(counter.count(CrawlEdge.FEED), is(12));
+        assertThat(counter.count(CrawlEdge.LIKES), is(12 * 12));
+        assertThat(metrics.getNodeCount(), is(12L + 144L));
+        assertThat(metrics.getPageCount(), is(2L + 24L));
+        assertThat(metrics.getCallCount(), is(26L));
+        assertThat(metrics.getErrorCount(), is(0L));
+        assertThat(engine.getMetrics(), is(sameInstance(metrics)));
+    }
+
+    @Test
+    public void maxDepthAndAge() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/post/feed.json");
+        CrawlSpec spec = new CrawlSpec()
+                .root(CrawlEdge.FEED, null)
+                .follow(CrawlEdge.FEED, CrawlEdge.COMMENTS, null)
+                .maxDepth(1)
+                .maxPagesPerEdge(3);
+        CrawlEngine engine = new CrawlEngine(spec);
+        engine.addClient(facebook, null);
+        Counter counter = new Counter();
+        engine.crawl(Collections.singletonList(PAGE_ID), counter);
+        assertThat(counter.count(CrawlEdge.FEED), is(18));
+        assertThat(counter.count(CrawlEdge.COMMENTS), is(0));
+
+        // the posts date from 2013, so the feed stops at its first page
+        engine = new CrawlEngine(new CrawlSpec().root(CrawlEdge.FEED, null).maxAge(1, TimeUnit.DAYS));
+        engine.addClient(facebook, null);
+        counter = new Counter();
+        CrawlMetrics metrics = engine.crawl(Collections.singletonList(PAGE_ID), counter);
+        assertThat(counter.count(CrawlEdge.FEED), is(0));
+        assertThat(metrics.getCallCount(), is(1L));
+    }
+
+    @Test
+    public void checkpoints() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/post/feed.json");
+        MemoryCheckpointStore store = new MemoryCheckpointStore();
+        CrawlEngine engine = new CrawlEngine(new CrawlSpec().root(CrawlEdge.FEED, null).maxPagesPerEdge(1));
+        engine.addClient(facebook, null);
+        engine.setCheckpointStore(store);
+        engine.crawl(Collections.singletonList(PAGE_ID), new Counter());
+
+        CrawlCheckpoint checkpoint = store.get(PAGE_ID, "feed");
+        assertThat(checkpoint.getNext().contains("until=1372690661"), is(true));
+        assertThat(checkpoint.getLastItemId(), is(notNullValue()));
+
+        store.put(new CrawlCheckpoint(PAGE_ID, "feed", null, null, null));
+        CrawlMetrics metrics = engine.resume(Collections.singletonList(PAGE_ID), new Counter());
+        assertThat(metrics.getCallCount(), is(0L));
+
+        // a fresh crawl ignores what an earlier crawl exhausted
+        metrics = engine.crawl(Collections.singletonList(PAGE_ID), new Counter());
+        assertThat(metrics.getCallCount(), is(1L));
+    }
+
+    @Test
+    public void checkpointAfterSubtree() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/post/feed.json");
+        final List<String> puts = Collections.synchronizedList(new ArrayList<String>());
+        MemoryCheckpointStore store = new MemoryCheckpointStore() {
+            @Override
+            public void put(CrawlCheckpoint checkpoint) {
+                puts.add(checkpoint.getEdge());
+                super.put(checkpoint);
+            }
+        };
+        CrawlSpec spec = new CrawlSpec()
+                .root(CrawlEdge.FEED, null)
+                .follow(CrawlEdge.FEED, CrawlEdge.LIKES, null)
+                .maxPagesPerEdge(2);
+        CrawlEngine engine = new CrawlEngine(spec);
+        engine.addClient(facebook, null);
+        engine.setParallelism(4);
+        engine.setCheckpointStore(store);
+        engine.crawl(Collections.singletonList(PAGE_ID), new Counter());
+
+        // the first feed page waits for the two pages of likes of each of its six posts
+        assertThat(puts.indexOf("feed") >= 12, is(true));
+        assertThat(puts.lastIndexOf("feed"), is(puts.size() - 1));
+        assertThat(store.get(PAGE_ID, "feed").getNext().contains("until=1372690661"), is(true));
+    }
+
+    @Test
+    public void budgetsSpreadCallsOverClients() throws Exception {
+        MockFacebook limited = MockFacebookFactory.create();
+        limited.setMockJSON("mock_json/post/feed.json");
+        MockFacebook unlimited = MockFacebookFactory.create();
+        unlimited.setMockJSON("mock_json/post/feed.json");
+        CallBudget budget = new CallBudget(1, 1, TimeUnit.HOURS);
+        CrawlEngine engine = new CrawlEngine(new CrawlSpec().root(CrawlEdge.FEED, null).maxPagesPerEdge(5));
+        engine.addClient(limited, budget);
+        engine.addClient(unlimited, null);
+        CrawlMetrics metrics = engine.crawl(Collections.singletonList(PAGE_ID), new Counter());
+        assertThat(metrics.getCallCount(), is(5L));
+        assertThat(budget.tryAcquire(), is(false));
+        assertThat(unlimited.getEndpointURL(), is(notNullValue()));
+    }
+
+    @Test
+    public void listenerAborts() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/post/feed.json");
+        CrawlEngine engine = new CrawlEngine(new CrawlSpec().root(CrawlEdge.FEED, null));
+        engine.addClient(facebook, null);
+        try {
+            engine.crawl(Collections.singletonList(PAGE_ID), new Counter() {
+                @Override
+                public void onNode(CrawlNode node) throws FacebookException {
+                    assertThat(node.getObject(), is(instanceOf(Post.class)));
+                    throw new FacebookException("stop");
+                }
+            });
+            fail();
+        } catch (FacebookException fe) {
+            assertThat(fe.getMessage(), is("stop"));
+        }
+    }
+
+    @Test
+    public void listenerRuntimeExceptionAborts() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/post/feed.json");
+        CrawlEngine engine = new CrawlEngine(new CrawlSpec().root(CrawlEdge.FEED, null));
+        engine.addClient(facebook, null);
+        final IllegalStateException bug = new IllegalStateException("bug");
+        try {
+            engine.crawl(Collections.singletonList(PAGE_ID), new Counter() {
+                @Override
+                public void onNode(CrawlNode node) {
+                    throw bug;
+                }
+            });
+            fail();
+        } catch (FacebookException fe) {
+            assertThat(fe.getCause(), is((Throwable) bug));
+        }
+        assertThat(engine.getMetrics().getErrorCount(), is(1L));
+    }
+
+    @Test
+    public void scheduler() throws Exception {
+        final WorkStealingScheduler scheduler = new WorkStealingScheduler(4);
+        final AtomicInteger ran = new AtomicInteger();
+        try {
+            // a binary tree of tasks, 2^11 - 1 in all
+            scheduler.submit(new Runnable() {
+                public void run() {
+                    spawn(scheduler, ran, 10);
+                }
+            });
+            scheduler.awaitQuiescence();
+        } finally {
+            scheduler.stop();
+        }
+        assertThat(ran.get(), is(2047));
+    }
+
+    private static void spawn(final WorkStealingScheduler scheduler, final AtomicInteger ran, final int level) {
+        ran.incrementAndGet();
+        if (level == 0) {
+            return;
+        }
+        for (int i = 0; i < 2; i++) {
+            scheduler.submit(new Runnable() {
+                public void run() {
+                    spawn(scheduler, ran, level - 1);
+                }
+            });
+        }
+    }
+
+    private static class Counter implements CrawlListener {
+        private final ConcurrentMap<CrawlEdge, AtomicInteger> counts = new ConcurrentHashMap<CrawlEdge, AtomicInteger>();
+
+        public void onNode(CrawlNode node) throws FacebookException {
+            counts.putIfAbsent(node.getEdge(), new AtomicInteger());
+            counts.get(node.getEdge()).incrementAndGet();
+        }
+
+        public void onError(String objectId, CrawlEdge edge, FacebookException error) {
+        }
+
+        private int count(CrawlEdge edge) {
+            AtomicInteger count = counts.get(edge);
+            return count == null ? 0 : count.get();
+        }
+    }
+}
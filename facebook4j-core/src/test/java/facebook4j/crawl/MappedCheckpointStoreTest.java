@@ -0,0 +1,166 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.crawl;
+
+import facebook4j.FacebookException;
+import facebook4j.Paging;
+import facebook4j.Post;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class MappedCheckpointStoreTest {
+    private static final String NEXT = "https://graph.facebook.com/1/feed?limit=25&until=1372690661";
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("checkpoints", ".log");
+        file.delete();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        file.delete();
+        new File(file.getPath() + ".compact").delete();
+        new File(file.getPath() + ".old").delete();
+    }
+
+    @Test
+    public void putGetRemove() throws Exception {
+        MappedCheckpointStore store = new MappedCheckpointStore(file);
+        assertThat(store.get("1", "feed"), is(nullValue()));
+        CrawlCheckpoint checkpoint = new CrawlCheckpoint("1", "feed", NEXT, "MQ==", "1_2");
+        store.put(checkpoint);
+        store.put(new CrawlCheckpoint("2", "feed", null, null, null));
+        assertThat(store.get("1", "feed"), is(checkpoint));
+        assertThat(store.get("1", "posts"), is(nullValue()));
+        store.remove("2", "feed");
+        assertThat(store.get("2", "feed"), is(nullValue()));
+        assertThat(store.size(), is(1));
+        store.close();
+    }
+
+    @Test
+    public void recover() throws Exception {
+        MappedCheckpointStore store = new MappedCheckpointStore(file);
+        CrawlCheckpoint checkpoint = new CrawlCheckpoint("1", "feed", NEXT, "MQ==", "1_2");
+        store.put(new CrawlCheckpoint("1", "feed", "https://graph.facebook.com/1/feed", null, null));
+        store.put(checkpoint);
+        store.put(new CrawlCheckpoint("2", "feed", NEXT, null, null));
+        store.remove("2", "feed");
+        int end = store.getLogSize();
+        store.close();
+
+        // a torn record after the last complete one
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.seek(end);
+        raf.writeInt(100);
+        raf.writeInt(12345);
+        raf.write(new byte[]{1, 2, 3});
+        raf.close();
+
+        MappedCheckpointStore reopened = new MappedCheckpointStore(file);
+        assertThat(reopened.get("1", "feed"), is(checkpoint));
+        assertThat(reopened.get("2", "feed"), is(nullValue()));
+        assertThat(reopened.getLogSize(), is(end));
+
+        CrawlCheckpoint latest = new CrawlCheckpoint("1", "feed", null, null, "1_9");
+        reopened.put(latest);
+        reopened.close();
+        assertThat(new MappedCheckpointStore(file).get("1", "feed"), is(latest));
+    }
+
+    @Test
+    public void compact() throws Exception {
+        MappedCheckpointStore store = new MappedCheckpointStore(file);
+        store.setCompactionThreshold(4096);
+        for (int i = 0; i < 1000; i++) {
+            store.put(new CrawlCheckpoint(String.valueOf(i % 3), "feed", NEXT + "&i=" + i, null, String.valueOf(i)));
+        }
+        assertThat(store.getLogSize() < 4096 * 2, is(true));
+        assertThat(store.get("0", "feed").getLastItemId(), is("999"));
+        store.close();
+
+        MappedCheckpointStore reopened = new MappedCheckpointStore(file);
+        assertThat(reopened.size(), is(3));
+        assertThat(reopened.get("1", "feed").getLastItemId(), is("997"));
+        assertThat(reopened.get("2", "feed").getLastItemId(), is("998"));
+        reopened.close();
+    }
+
+    @Test
+    public void failedCompactionKeepsLog() throws Exception {
+        File blocker = new File(file.getPath() + ".compact");
+        assertThat(blocker.mkdir(), is(true));
+        MappedCheckpointStore store = new MappedCheckpointStore(file);
+        store.setCompactionThreshold(256);
+        try {
+            for (int i = 0; i < 100; i++) {
+                store.put(new CrawlCheckpoint("1", "feed", NEXT, null, String.valueOf(i)));
+            }
+            fail("compaction expected to fail");
+        } catch (FacebookException expected) {
+        }
+        assertThat(blocker.delete(), is(true));
+        store.put(new CrawlCheckpoint("2", "feed", NEXT, null, "1"));
+        store.close();
+
+        MappedCheckpointStore reopened = new MappedCheckpointStore(file);
+        assertThat(reopened.size(), is(2));
+        assertThat(reopened.get("2", "feed").getLastItemId(), is("1"));
+        reopened.close();
+    }
+
+    @Test
+    public void restoresLogMovedAside() throws Exception {
+        MappedCheckpointStore store = new MappedCheckpointStore(file);
+        CrawlCheckpoint checkpoint = new CrawlCheckpoint("1", "feed", NEXT, null, "1_2");
+        store.put(checkpoint);
+        store.close();
+        // a crash between moving the old log aside and moving the compacted one in
+        assertThat(file.renameTo(new File(file.getPath() + ".old")), is(true));
+
+        MappedCheckpointStore reopened = new MappedCheckpointStore(file);
+        assertThat(reopened.get("1", "feed"), is(checkpoint));
+        assertThat(new File(file.getPath() + ".old").exists(), is(false));
+        reopened.close();
+    }
+
+    @Test
+    public void toPaging() throws Exception {
+        Paging<Post> paging = new CrawlCheckpoint("1", "feed", NEXT, "MQ==", null).toPaging(Post.class);
+        assertThat(paging.getNext().toString(), is(NEXT));
+        assertThat(paging.getCursors().getAfter(), is("MQ=="));
+        assertThat(paging.getJSONObjectType() == Post.class, is(true));
+        assertThat(new CrawlCheckpoint("1", "feed", null, null, null).toPaging(Post.class), is(nullValue()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void closed() throws Exception {
+        MappedCheckpointStore store = new MappedCheckpointStore(file);
+        store.close();
+        store.get("1", "feed");
+    }
+}
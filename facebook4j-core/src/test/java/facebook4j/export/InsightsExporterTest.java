@@ -0,0 +1,103 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.export;
+
+import facebook4j.FacebookException;
+import facebook4j.Insight;
+import facebook4j.MockFacebook;
+import facebook4j.MockFacebookFactory;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static facebook4j.junit.URLMatchers.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class InsightsExporterTest {
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    @Test
+    public void export() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/insight/application_active_users.json");
+        InsightsExporter exporter = new InsightsExporter(facebook);
+        exporter.setMetricsPerCall(2);
+        // in order, so that the last request is the last window
+        exporter.setConcurrency(1);
+
+        StringWriter writer = new StringWriter();
+        CsvInsightsSink sink = new CsvInsightsSink(writer);
+        Date since = new Date(1370000000000L);
+        Date until = new Date(since.getTime() + 200 * DAY);
+        int exported = exporter.export(Arrays.asList("1111", "2222"),
+                Arrays.asList("page_impressions", "page_engaged_users", "page_fans"), "day", since, until, sink);
+
+        // 2 objects x 2 metric groups x 3 windows, the first one of two pages, 3 insights of 3 values each per call
+        assertThat(exported, is(48));
+        assertThat(sink.getErrorCount(), is(0));
+        String[] lines = writer.toString().split("\n");
+        assertThat(lines.length, is(1 + 48 * 3));
+        assertThat(lines[0], is("object_id,metric,period,end_time,key,value"));
+        assertThat(lines[1], containsString(",application_active_users,day,2013-06-05T07:00:00+0000,,2982"));
+        assertThat(facebook.getEndpointURL(), hasParameter("period", "day"));
+        assertThat(facebook.getEndpointURL(), hasParameter("until", String.valueOf(until.getTime() / 1000)));
+    }
+
+    @Test
+    public void interruptedBudgetAborts() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/insight/application_active_users.json");
+        InsightsExporter exporter = new InsightsExporter(facebook);
+        exporter.setConcurrency(1);
+        // the second page of the first window waits for the budget
+        exporter.setBudget(new CallBudget(1, 1, TimeUnit.HOURS));
+
+        Date since = new Date(1370000000000L);
+        try {
+            exporter.export(Arrays.asList("1111"), Arrays.asList("page_impressions"), "day", since,
+                    new Date(since.getTime() + 10 * DAY), new InsightsSink() {
+                        public void onInsight(String objectId, Insight insight) {
+                            Thread.currentThread().interrupt();
+                        }
+
+                        public void onError(String objectId, Date since, Date until, FacebookException error) {
+                        }
+                    });
+            fail("FacebookException expected");
+        } catch (FacebookException expected) {
+            assertThat(expected.getCause(), is(instanceOf(InterruptedException.class)));
+        }
+    }
+
+    @Test
+    public void callBudget() throws Exception {
+        CallBudget budget = new CallBudget(2, 1, TimeUnit.HOURS);
+        assertThat(budget.tryAcquire(), is(true));
+        assertThat(budget.tryAcquire(), is(true));
+        assertThat(budget.tryAcquire(), is(false));
+
+        CallBudget fast = new CallBudget(1, 50, TimeUnit.MILLISECONDS);
+        fast.acquire();
+        long start = System.nanoTime();
+        fast.acquire();
+        assertThat(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(30), is(true));
+    }
+}
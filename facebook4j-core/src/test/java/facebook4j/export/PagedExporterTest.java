@@ -0,0 +1,217 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.export;
+
+import facebook4j.FacebookException;
+import facebook4j.MockFacebook;
+import facebook4j.MockFacebookFactory;
+import facebook4j.Reading;
+import facebook4j.internal.org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static facebook4j.junit.URLMatchers.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class PagedExporterTest {
+
+    @Test
+    public void ndjson() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/post/feed.json");
+        PagedExporter exporter = new PagedExporter(facebook);
+        exporter.setMaxPages(1);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exporter.export("/1234567890123456/feed", new Reading().limit(25),
+                Channels.newChannel(out), ExportFormat.NDJSON);
+        assertThat(written, is(6L));
+        assertThat(facebook.getEndpointURL(), is(pathOf("/1234567890123456/feed")));
+        assertThat(facebook.getEndpointURL(), hasParameter("limit", "25"));
+
+        String[] lines = out.toString("UTF-8").split("\n");
+        assertThat(lines.length, is(6));
+        assertThat(new JSONObject(lines[0]).getString("id"), is("1234567890123456_500000000000001"));
+    }
+
+    @Test
+    public void lengthPrefixedWithGzipAndCheckpoints() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/post/feed.json");
+        PagedExporter exporter = new PagedExporter(facebook);
+        exporter.setMaxPages(3);
+        exporter.setGzip(true);
+        exporter.setCheckpointInterval(4);
+        final List<String> checkpoints = new ArrayList<String>();
+        exporter.setCheckpoint(new ExportCheckpoint() {
+            public void onCheckpoint(URL page, int offset, long written, long position) throws FacebookException {
+                checkpoints.add(offset + "/" + written);
+            }
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exporter.export(new URL("https://graph.facebook.com/1234567890123456/feed?access_token=token"), 0,
+                Channels.newChannel(out), ExportFormat.LENGTH_PREFIXED);
+        assertThat(written, is(18L));
+        assertThat(facebook.getEndpointURL(), hasParameter("until", "1372690661"));
+        assertThat(checkpoints.toString(), is("[4/4, 2/8, 6/12, 4/16, 0/18]"));
+
+        LengthPrefixedReader reader = new LengthPrefixedReader(
+                new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())));
+        int count = 0;
+        String json;
+        while ((json = reader.next()) != null) {
+            assertThat(new JSONObject(json).has("id"), is(true));
+            count++;
+        }
+        assertThat(count, is(18));
+    }
+
+    @Test
+    public void resume() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/post/feed.json");
+        PagedExporter exporter = new PagedExporter(facebook);
+        exporter.setMaxPages(1);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exporter.export(new URL("https://graph.facebook.com/1234567890123456/feed"), 4,
+                Channels.newChannel(out), ExportFormat.NDJSON);
+        assertThat(written, is(2L));
+    }
+
+    @Test
+    public void checkpointPositions() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/post/feed.json");
+        PagedExporter exporter = new PagedExporter(facebook);
+        exporter.setMaxPages(2);
+        exporter.setGzip(true);
+        exporter.setCheckpointInterval(4);
+        final List<Long> positions = new ArrayList<Long>();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.setCheckpoint(new ExportCheckpoint() {
+            public void onCheckpoint(URL page, int offset, long written, long position) throws FacebookException {
+                // everything up to the position is on the channel, ending with a complete member
+                assertThat(position, is((long) out.size()));
+                positions.add(position);
+            }
+        });
+
+        exporter.export(new URL("https://graph.facebook.com/1234567890123456/feed"), 0,
+                Channels.newChannel(out), ExportFormat.NDJSON);
+        assertThat(positions.size(), is(3));
+        assertThat(positions.get(0) > 0, is(true));
+        assertThat(positions.get(2), is((long) out.size()));
+    }
+
+    @Test
+    public void resumeTruncatesToCheckpoint() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/post/feed.json");
+        PagedExporter exporter = new PagedExporter(facebook);
+        exporter.setMaxPages(3);
+        exporter.setGzip(true);
+        exporter.setCheckpointInterval(4);
+        final List<Object[]> checkpoints = new ArrayList<Object[]>();
+        exporter.setCheckpoint(new ExportCheckpoint() {
+            public void onCheckpoint(URL page, int offset, long written, long position) throws FacebookException {
+                checkpoints.add(new Object[]{page, offset, written, position});
+            }
+        });
+
+        File file = File.createTempFile("export", ".gz");
+        try {
+            FileOutputStream os = new FileOutputStream(file);
+            try {
+                exporter.export(new URL("https://graph.facebook.com/1234567890123456/feed"), 0,
+                        os.getChannel(), ExportFormat.LENGTH_PREFIXED);
+            } finally {
+                os.close();
+            }
+            // the export died after its second checkpoint, leaving more behind
+            Object[] last = checkpoints.get(1);
+            assertThat((Long) last[2], is(8L));
+            RandomAccessFile partial = new RandomAccessFile(file, "rw");
+            try {
+                partial.seek(partial.length());
+                partial.write(new byte[]{0x1f, (byte) 0x8b, 8, 0});
+            } finally {
+                partial.close();
+            }
+
+            exporter.setMaxPages(2);
+            exporter.setCheckpoint(null);
+            RandomAccessFile reopened = new RandomAccessFile(file, "rw");
+            try {
+                long written = exporter.resume((URL) last[0], (Integer) last[1], (Long) last[2], (Long) last[3],
+                        reopened.getChannel(), ExportFormat.LENGTH_PREFIXED);
+                assertThat(written, is(18L));
+            } finally {
+                reopened.close();
+            }
+
+            InputStream is = new GZIPInputStream(new FileInputStream(file));
+            try {
+                LengthPrefixedReader reader = new LengthPrefixedReader(is);
+                int count = 0;
+                while (reader.next() != null) {
+                    count++;
+                }
+                assertThat(count, is(18));
+            } finally {
+                is.close();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void resumedCheckpointsAreCumulative() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/post/feed.json");
+        PagedExporter exporter = new PagedExporter(facebook);
+        exporter.setMaxPages(2);
+        exporter.setCheckpointInterval(5);
+        final List<String> checkpoints = new ArrayList<String>();
+        exporter.setCheckpoint(new ExportCheckpoint() {
+            public void onCheckpoint(URL page, int offset, long written, long position) throws FacebookException {
+                checkpoints.add(offset + "/" + written);
+            }
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exporter.export(new URL("https://graph.facebook.com/1234567890123456/feed"), 2, 100,
+                Channels.newChannel(out), ExportFormat.NDJSON);
+        assertThat(written, is(110L));
+        assertThat(checkpoints.toString(), is("[1/105, 6/110]"));
+    }
+}
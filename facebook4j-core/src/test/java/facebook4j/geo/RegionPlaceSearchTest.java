@@ -0,0 +1,137 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.geo;
+
+import facebook4j.FacebookException;
+import facebook4j.GeoLocation;
+import facebook4j.MockFacebook;
+import facebook4j.MockFacebookFactory;
+import facebook4j.Place;
+import facebook4j.internal.http.RequestMethod;
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static facebook4j.junit.URLMatchers.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class RegionPlaceSearchTest {
+    private static final BoundingBox SAN_FRANCISCO = new BoundingBox(37.70, -122.52, 37.81, -122.35);
+
+    @Test
+    public void sparse() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/search/places_geo_5.json");
+        RegionPlaceSearch search = new RegionPlaceSearch(facebook);
+        Collector collector = new Collector();
+        int found = search.search("coffee", SAN_FRANCISCO, collector);
+
+        assertThat(found, is(5));
+        assertThat(collector.ids.size(), is(5));
+        assertThat(facebook.getHttpMethod(), is(RequestMethod.GET));
+        assertThat(facebook.getEndpointURL(), is(pathOf("/search")));
+        assertThat(facebook.getEndpointURL(), hasParameter("type", "place"));
+        assertThat(facebook.getEndpointURL(), hasParameter("center", "37.755,-122.435"));
+        assertThat(facebook.getEndpointURL(), hasParameter("distance", "9659"));
+    }
+
+    @Test
+    public void denseCellsAreSplitAndDeduplicated() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/search/places_geo.json");
+        RegionPlaceSearch search = new RegionPlaceSearch(facebook);
+        search.setLimit(25);
+        search.setMinDistance(3000);
+        search.setMaxPagesPerCell(2);
+        Collector collector = new Collector();
+        int found = search.search("coffee", SAN_FRANCISCO, collector);
+
+        // every call answers the same 25 places
+        assertThat(found, is(25));
+        assertThat(new HashSet<String>(collector.ids).size(), is(25));
+        URL last = facebook.getEndpointURL();
+        assertThat(last.getQuery().contains("distance=9659"), is(false));
+    }
+
+    @Test
+    public void placesOutsideTheRegionAreSkipped() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/search/places_geo.json");
+        RegionPlaceSearch search = new RegionPlaceSearch(facebook);
+        int found = search.search("coffee", new BoundingBox(37.75, -122.44, 37.77, -122.43), new Collector());
+        assertThat(found, is(11));
+    }
+
+    @Test
+    public void handlerAborts() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/search/places_geo.json");
+        RegionPlaceSearch search = new RegionPlaceSearch(facebook);
+        try {
+            search.search("coffee", SAN_FRANCISCO, new PlaceHandler() {
+                public void onPlace(Place place) throws FacebookException {
+                    throw new FacebookException("stop");
+                }
+            });
+            fail();
+        } catch (FacebookException fe) {
+            assertThat(fe.getMessage(), is("stop"));
+        }
+    }
+
+    @Test
+    public void tile() throws Exception {
+        BoundingBox large = new BoundingBox(35.0, -124.0, 38.0, -120.0);
+        List<BoundingBox> cells = RegionPlaceSearch.tile(large, 50000);
+        assertThat(cells.size(), is(5 * 6));
+        for (BoundingBox cell : cells) {
+            assertThat(cell.getRadiusMeters() <= 50000, is(true));
+        }
+
+        GeoPolygon triangle = new GeoPolygon(Arrays.asList(
+                new GeoLocation(35.0, -124.0), new GeoLocation(35.0, -120.0), new GeoLocation(38.0, -124.0)));
+        List<BoundingBox> triangleCells = RegionPlaceSearch.tile(triangle, 50000);
+        assertThat(triangleCells.size() < cells.size(), is(true));
+        assertThat(triangleCells.size() > cells.size() / 2, is(true));
+    }
+
+    @Test
+    public void polygon() throws Exception {
+        GeoPolygon triangle = new GeoPolygon(Arrays.asList(
+                new GeoLocation(0, 0), new GeoLocation(0, 10), new GeoLocation(10, 0)));
+        assertThat(triangle.contains(1, 1), is(true));
+        assertThat(triangle.contains(6, 6), is(false));
+        assertThat(triangle.getBounds(), is(new BoundingBox(0, 0, 10, 10)));
+        assertThat(triangle.intersects(new BoundingBox(8, 8, 9, 9)), is(false));
+        assertThat(triangle.intersects(new BoundingBox(4, 4, 9, 9)), is(true));
+        // box straddling an edge without containing a vertex or having a corner inside
+        assertThat(triangle.intersects(new BoundingBox(-1, 4, 11, 5)), is(true));
+    }
+
+    private static class Collector implements PlaceHandler {
+        private final List<String> ids = new ArrayList<String>();
+
+        public void onPlace(Place place) {
+            ids.add(place.getId());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.internal.http;
+
+import facebook4j.conf.Configuration;
+import facebook4j.conf.ConfigurationBuilder;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class HttpClientRegistryTest {
+
+    @Test
+    public void sharedAndReferenceCounted() throws Exception {
+        HttpClientRegistry registry = new HttpClientRegistry(0);
+        Configuration conf = new ConfigurationBuilder().setHttpReadTimeout(1234).build();
+
+        HttpClient client1 = registry.acquire(conf);
+        HttpClient client2 = registry.acquire(conf);
+        assertThat(client1, is(sameInstance(client2)));
+        assertThat(registry.getReferenceCount(conf), is(2));
+
+        registry.release(conf);
+        assertThat(registry.getReferenceCount(conf), is(1));
+        assertThat(((HttpClientBase) client1).isShutdown(), is(false));
+
+        registry.release(conf);
+        assertThat(registry.getReferenceCount(conf), is(0));
+        assertThat(registry.size(), is(0));
+        assertThat(((HttpClientBase) client1).isShutdown(), is(true));
+
+        HttpClient client3 = registry.acquire(conf);
+        assertThat(client3, is(not(sameInstance(client1))));
+        assertThat(((HttpClientBase) client3).isShutdown(), is(false));
+    }
+
+    @Test
+    public void idleClientIsKeptUntilTimeout() throws Exception {
+        HttpClientRegistry registry = new HttpClientRegistry(60 * 1000);
+        Configuration conf = new ConfigurationBuilder().setHttpReadTimeout(2345).build();
+
+        HttpClient client1 = registry.acquire(conf);
+        registry.release(conf);
+        assertThat(registry.size(), is(1));
+        assertThat(registry.acquire(conf), is(sameInstance(client1)));
+
+        registry.release(conf);
+        registry.setIdleTimeout(0);
+        registry.reclaimIdle();
+        assertThat(registry.size(), is(0));
+        assertThat(((HttpClientBase) client1).isShutdown(), is(true));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void requestAfterShutdown() throws Exception {
+        HttpClientImpl client = new HttpClientImpl(new ConfigurationBuilder().build());
+        client.shutdown();
+        client.get("http://localhost/");
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.internal.http;
+
+import facebook4j.conf.ConfigurationBuilder;
+import org.junit.Test;
+
+import java.net.Authenticator;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.PasswordAuthentication;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class ProxyPoolTest {
+
+    private static HttpRequest request(String accessToken) {
+        return new HttpRequest(RequestMethod.GET, "https://graph.facebook.com/me?access_token=" + accessToken, null, null, null);
+    }
+
+    @Test
+    public void parse() throws Exception {
+        List<ProxyPool.Entry> entries = ProxyPool.parse("proxy1:8080, user:p@ss@proxy2:3128");
+        assertThat(entries.size(), is(2));
+        assertThat(entries.get(0).getAddress(), is("proxy1:8080"));
+        assertThat(entries.get(0).getProxyAuthorization(), is(nullValue()));
+        assertThat(entries.get(1).getAddress(), is("proxy2:3128"));
+        assertThat(entries.get(1).getProxyAuthorization(), is("Basic " + BASE64Encoder.encode("user:p@ss".getBytes("UTF-8"))));
+    }
+
+    @Test
+    public void getInstance() throws Exception {
+        assertThat(ProxyPool.getInstance(new ConfigurationBuilder().build()), is(nullValue()));
+
+        ProxyPool single = ProxyPool.getInstance(new ConfigurationBuilder()
+                .setHttpProxyHost("proxy").setHttpProxyPort(8080).build());
+        assertThat(single.getEntries().size(), is(1));
+        assertThat(single.getSelection(), is(ProxySelection.ROUND_ROBIN));
+
+        ProxyPool pool = ProxyPool.getInstance(new ConfigurationBuilder()
+                .setHttpProxies("proxy1:8080,proxy2:8080").setHttpProxySelection("sticky_by_token").build());
+        assertThat(pool.getEntries().size(), is(2));
+        assertThat(pool.getSelection(), is(ProxySelection.STICKY_BY_TOKEN));
+    }
+
+    @Test
+    public void roundRobinSkipsUnhealthy() throws Exception {
+        ProxyPool pool = new ProxyPool(ProxyPool.parse("p1:1,p2:2,p3:3"), ProxySelection.ROUND_ROBIN, 2, 60 * 1000);
+        assertThat(pool.select(null).getAddress(), is("p1:1"));
+        assertThat(pool.select(null).getAddress(), is("p2:2"));
+        assertThat(pool.select(null).getAddress(), is("p3:3"));
+
+        ProxyPool.Entry p2 = pool.getEntries().get(1);
+        pool.reportFailure(p2);
+        assertThat(p2.isHealthy(), is(true));
+        pool.reportFailure(p2);
+        assertThat(p2.isHealthy(), is(false));
+        for (int i = 0; i < 10; i++) {
+            assertThat(pool.select(null), is(not(sameInstance(p2))));
+        }
+
+        pool.reportSuccess(p2, 10);
+        assertThat(p2.isHealthy(), is(true));
+    }
+
+    @Test
+    public void leastLatency() throws Exception {
+        ProxyPool pool = new ProxyPool(ProxyPool.parse("p1:1,p2:2"), ProxySelection.LEAST_LATENCY);
+        pool.reportSuccess(pool.getEntries().get(0), 200);
+        pool.reportSuccess(pool.getEntries().get(1), 50);
+        assertThat(pool.select(null).getAddress(), is("p2:2"));
+        for (int i = 0; i < 10; i++) {
+            pool.reportSuccess(pool.getEntries().get(1), 1000);
+        }
+        assertThat(pool.select(null).getAddress(), is("p1:1"));
+    }
+
+    @Test
+    public void stickyByToken() throws Exception {
+        ProxyPool pool = new ProxyPool(ProxyPool.parse("p1:1,p2:2,p3:3,p4:4"), ProxySelection.STICKY_BY_TOKEN, 1, 60 * 1000);
+        ProxyPool.Entry first = pool.select(request("token-a"));
+        for (int i = 0; i < 10; i++) {
+            assertThat(pool.select(request("token-a")), is(sameInstance(first)));
+        }
+
+        pool.reportFailure(first);
+        ProxyPool.Entry second = pool.select(request("token-a"));
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(pool.select(request("token-a")), is(sameInstance(second)));
+    }
+
+    @Test
+    public void allUnhealthyFallsBackToEveryProxy() throws Exception {
+        ProxyPool pool = new ProxyPool(ProxyPool.parse("p1:1"), ProxySelection.ROUND_ROBIN, 1, 60 * 1000);
+        pool.reportFailure(pool.getEntries().get(0));
+        assertThat(pool.select(null).getAddress(), is("p1:1"));
+    }
+
+    @Test
+    public void proxyCredentials() throws Exception {
+        HttpClientImpl client = new HttpClientImpl(new ConfigurationBuilder().build());
+        ProxyPool.Entry proxy = ProxyPool.parse("user:secret@proxy.example.com:3128").get(0);
+
+        RecordingConnection http = new RecordingConnection("http://example.com/");
+        client.authorizeProxy(http, proxy);
+        assertThat(http.headers.get("Proxy-Authorization"), is(proxy.getProxyAuthorization()));
+
+        // never sent through the tunnel to the endpoint
+        RecordingConnection https = new RecordingConnection("https://graph.facebook.com/me");
+        client.authorizeProxy(https, proxy);
+        assertThat(https.headers.containsKey("Proxy-Authorization"), is(false));
+        // the default Authenticator is left alone unless enabled
+        assertThat(Authenticator.requestPasswordAuthentication("proxy.example.com", null, 3128,
+                "http", "", "basic", null, Authenticator.RequestorType.PROXY), is(nullValue()));
+
+        client = new HttpClientImpl(new ConfigurationBuilder().setHttpProxyAuthenticatorEnabled(true).build());
+        client.authorizeProxy(https, proxy);
+        assertThat(https.headers.containsKey("Proxy-Authorization"), is(false));
+
+        PasswordAuthentication answered = Authenticator.requestPasswordAuthentication("proxy.example.com", null, 3128,
+                "http", "", "basic", new URL("https://graph.facebook.com/me"), Authenticator.RequestorType.PROXY);
+        assertThat(answered.getUserName(), is("user"));
+        assertThat(new String(answered.getPassword()), is("secret"));
+        assertThat(Authenticator.requestPasswordAuthentication("other.example.com", null, 3128,
+                "http", "", "basic", null, Authenticator.RequestorType.PROXY), is(nullValue()));
+        assertThat(Authenticator.requestPasswordAuthentication("proxy.example.com", null, 3128,
+                "http", "", "basic", null, Authenticator.RequestorType.SERVER), is(nullValue()));
+    }
+
+    @Test
+    public void healthChecksFollowClientLifecycle() throws Exception {
+        HttpClientImpl client = new HttpClientImpl(new ConfigurationBuilder()
+                .setHttpProxies("127.0.0.1:1").setHttpProxyHealthCheckIntervalSeconds(60).build());
+        ProxyPool pool = client.getProxyPool();
+        assertThat(pool.isHealthChecking(), is(true));
+        client.shutdown();
+        assertThat(pool.isHealthChecking(), is(false));
+
+        client = new HttpClientImpl(new ConfigurationBuilder().setHttpProxies("127.0.0.1:1").build());
+        assertThat(client.getProxyPool().isHealthChecking(), is(false));
+    }
+
+    private static final class RecordingConnection extends HttpURLConnection {
+        private final Map<String, String> headers = new HashMap<String, String>();
+
+        private RecordingConnection(String url) throws MalformedURLException {
+            super(new URL(url));
+        }
+
+        @Override
+        public void setRequestProperty(String key, String value) {
+            headers.put(key, value);
+        }
+
+        @Override
+        public void connect() {
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.internal.http;
+
+import facebook4j.FacebookException;
+import facebook4j.management.SingleFlightStatistics;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class SingleFlightGroupTest {
+
+    private static class BlockingHttpClient implements HttpClient {
+        final AtomicInteger requestCount = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        public HttpResponse request(HttpRequest req) throws FacebookException {
+            requestCount.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new FacebookException(e);
+            }
+            return new HttpResponseImpl("{\"id\":\"1\"}");
+        }
+
+        public void shutdown() {
+        }
+    }
+
+    @Test
+    public void concurrentIdenticalGets() throws Exception {
+        final SingleFlightGroup group = new SingleFlightGroup(new SingleFlightStatistics(10));
+        final BlockingHttpClient client = new BlockingHttpClient();
+        final HttpRequest req = new HttpRequest(RequestMethod.GET, "https://graph.facebook.com/1?access_token=secret", null, null, null);
+
+        final List<HttpResponse> responses = new ArrayList<HttpResponse>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 5; i++) {
+            Thread thread = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        HttpResponse res = group.request(req, client);
+                        synchronized (responses) {
+                            responses.add(res);
+                        }
+                    } catch (FacebookException e) {
+                        throw new AssertionError(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        client.entered.await(5, TimeUnit.SECONDS);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (group.getStatistics().getSharedCount() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        client.release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(client.requestCount.get(), is(1));
+        assertThat(responses.size(), is(5));
+        for (HttpResponse res : responses) {
+            assertThat(res, is(sameInstance(responses.get(0))));
+            assertThat(res.asJSONObject().getString("id"), is("1"));
+        }
+        SingleFlightStatistics statistics = group.getStatistics();
+        assertThat(statistics.getExecutedCount(), is(1L));
+        assertThat(statistics.getSharedCount(), is(4L));
+        assertThat(statistics.getInFlightCount(), is(0));
+        assertThat(statistics.getWaiterCounts().get("GET https://graph.facebook.com/1?access_token=***"), is(4L));
+    }
+
+    @Test
+    public void sequentialGetsAreNotShared() throws Exception {
+        SingleFlightGroup group = new SingleFlightGroup(new SingleFlightStatistics(10));
+        BlockingHttpClient client = new BlockingHttpClient();
+        client.release.countDown();
+        HttpRequest req = new HttpRequest(RequestMethod.GET, "https://graph.facebook.com/1", null, null, null);
+
+        HttpResponse first = group.request(req, client);
+        HttpResponse second = group.request(req, client);
+        assertThat(client.requestCount.get(), is(2));
+        assertThat(first, is(not(sameInstance(second))));
+        assertThat(group.getStatistics().getSharedCount(), is(0L));
+    }
+
+    @Test
+    public void postIsNeverShared() throws Exception {
+        SingleFlightGroup group = new SingleFlightGroup(new SingleFlightStatistics(10));
+        BlockingHttpClient client = new BlockingHttpClient();
+        client.release.countDown();
+        HttpRequest req = new HttpRequest(RequestMethod.POST, "https://graph.facebook.com/1/feed", null, null, null);
+
+        group.request(req, client);
+        assertThat(client.requestCount.get(), is(1));
+        assertThat(group.getStatistics().getExecutedCount(), is(0L));
+    }
+
+    @Test
+    public void maskKey() throws Exception {
+        String key = SingleFlightGroup.keyOf(new HttpRequest(RequestMethod.GET,
+                "https://graph.facebook.com/me?access_token=token&appsecret_proof=proof&fields=id", null, null, null));
+        assertThat(SingleFlightGroup.maskKey(key),
+                is("GET https://graph.facebook.com/me?access_token=***&appsecret_proof=***&fields=id"));
+    }
+}
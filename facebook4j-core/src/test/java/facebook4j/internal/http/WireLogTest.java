@@ -0,0 +1,188 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.internal.http;
+
+import facebook4j.conf.ConfigurationBuilder;
+import facebook4j.internal.logging.Logger;
+import facebook4j.internal.logging.MessageSupplier;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class WireLogTest {
+
+    private static class RecordingLogger extends Logger {
+        private final boolean debugEnabled;
+        private final List<String> lines = new ArrayList<String>();
+
+        private RecordingLogger(boolean debugEnabled) {
+            this.debugEnabled = debugEnabled;
+        }
+
+        @Override
+        public boolean isDebugEnabled() {
+            return debugEnabled;
+        }
+
+        @Override
+        public boolean isInfoEnabled() {
+            return true;
+        }
+
+        @Override
+        public boolean isWarnEnabled() {
+            return true;
+        }
+
+        @Override
+        public boolean isErrorEnabled() {
+            return true;
+        }
+
+        @Override
+        public void debug(String message) {
+            lines.add("DEBUG " + message);
+        }
+
+        @Override
+        public void debug(String message, String message2) {
+            debug(message + message2);
+        }
+
+        @Override
+        public void info(String message) {
+            lines.add("INFO " + message);
+        }
+
+        @Override
+        public void info(String message, String message2) {
+            info(message + message2);
+        }
+
+        @Override
+        public void warn(String message) {
+            lines.add("WARN " + message);
+        }
+
+        @Override
+        public void warn(String message, String message2) {
+            warn(message + message2);
+        }
+
+        @Override
+        public void error(String message) {
+            lines.add("ERROR " + message);
+        }
+
+        @Override
+        public void error(String message, Throwable th) {
+            error(message);
+        }
+    }
+
+    private static HttpRequest get(String url) {
+        return new HttpRequest(RequestMethod.GET, url, null, null, null);
+    }
+
+    @Test
+    public void sampling() throws Exception {
+        RecordingLogger logger = new RecordingLogger(false);
+        WireLog wireLog = new WireLog(logger, new ConfigurationBuilder()
+                .setHttpWireLogSampling(2).setHttpWireLogFilter("/1234/feed, /5678").build());
+
+        assertThat(wireLog.start(get("https://graph.facebook.com/1234/feed")), is(notNullValue()));
+        assertThat(wireLog.start(get("https://graph.facebook.com/1234/feed")), is(nullValue()));
+        assertThat(wireLog.start(get("https://graph.facebook.com/9999/feed")), is(nullValue()));
+        assertThat(wireLog.start(get("https://graph.facebook.com/5678")), is(notNullValue()));
+    }
+
+    @Test
+    public void debugWithoutSampling() throws Exception {
+        WireLog off = new WireLog(new RecordingLogger(false), new ConfigurationBuilder().build());
+        assertThat(off.start(get("https://graph.facebook.com/me")), is(nullValue()));
+
+        RecordingLogger logger = new RecordingLogger(true);
+        WireLog debug = new WireLog(logger, new ConfigurationBuilder().build());
+        WireLog.Trace trace = debug.start(get("https://graph.facebook.com/me?access_token=secret-token"));
+        trace.log("GET ", "https://graph.facebook.com/me?access_token=secret-token");
+        trace.body("0123456789abcdef");
+        assertThat(logger.lines.get(0), is("DEBUG GET https://graph.facebook.com/me?access_token=secret-token"));
+        assertThat(logger.lines.get(1), is("DEBUG 0123456789abcdef"));
+    }
+
+    @Test
+    public void sampledTrace() throws Exception {
+        RecordingLogger logger = new RecordingLogger(true);
+        WireLog wireLog = new WireLog(logger, new ConfigurationBuilder()
+                .setHttpWireLogSampling(1).setHttpWireLogMaxBodyLength(10).build());
+        WireLog.Trace trace = wireLog.start(get("https://graph.facebook.com/me"));
+        trace.log("GET ", "https://graph.facebook.com/me?fields=id&access_token=EAABsecret123&appsecret_proof=abcdef0123");
+        trace.body("0123456789abcdef");
+        assertThat(logger.lines.get(0), is("INFO GET https://graph.facebook.com/me?fields=id&access_token=EAABse...&appsecret_proof=abcdef..."));
+        assertThat(logger.lines.get(1), is("INFO 0123456789...(16 chars)"));
+    }
+
+    @Test
+    public void sampledMultipartParams() throws Exception {
+        RecordingLogger logger = new RecordingLogger(false);
+        WireLog wireLog = new WireLog(logger, new ConfigurationBuilder().setHttpWireLogSampling(1).build());
+        WireLog.Trace trace = wireLog.start(get("https://graph.facebook.com/me/photos"));
+        trace.param("message", "hello");
+        trace.param("access_token", "EAABsecret123");
+        trace.param("appsecret_proof", "abc");
+        assertThat(logger.lines.toString(), is("[INFO hello, INFO EAABse..., INFO abc...]"));
+    }
+
+    @Test
+    public void sampledJSONBody() throws Exception {
+        RecordingLogger logger = new RecordingLogger(false);
+        WireLog wireLog = new WireLog(logger, new ConfigurationBuilder()
+                .setHttpWireLogSampling(1).setHttpWireLogMaxBodyLength(30).build());
+        WireLog.Trace trace = wireLog.start(get("https://graph.facebook.com/oauth/access_token"));
+        trace.body("{\"access_token\": \"EAABsecret123\",\"token_type\":\"bearer\"}");
+        trace.body("{\"access_token\":\"EAABsecret123456789\"}");
+        assertThat(logger.lines.get(0), is("INFO {\"access_token\": \"EAABse...\",\"...(55 chars)"));
+        assertThat(logger.lines.get(1), is("INFO {\"access_token\":\"EAABse...\"}"));
+    }
+
+    @Test
+    public void lazyMessages() throws Exception {
+        final int[] built = new int[1];
+        MessageSupplier supplier = new MessageSupplier() {
+            public String get() {
+                built[0]++;
+                return "built";
+            }
+        };
+        RecordingLogger off = new RecordingLogger(false);
+        off.debug(supplier);
+        off.debugEvent("event", "key", supplier);
+        assertThat(built[0], is(0));
+        assertThat(off.lines.size(), is(0));
+
+        RecordingLogger on = new RecordingLogger(true);
+        on.debug(supplier);
+        on.debugEvent("fetched", "object", "1234/feed", "posts", 25, "query", "a b=\"c\"", "lazy", supplier);
+        assertThat(built[0], is(2));
+        assertThat(on.lines.get(0), is("DEBUG built"));
+        assertThat(on.lines.get(1), is("DEBUG fetched object=1234/feed posts=25 query=\"a b=\\\"c\\\"\" lazy=built"));
+    }
+}
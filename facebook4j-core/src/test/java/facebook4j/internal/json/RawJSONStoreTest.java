@@ -0,0 +1,58 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.internal.json;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class RawJSONStoreTest {
+
+    @Test
+    public void identity() throws Exception {
+        RawJSONStore store = new RawJSONStore(10);
+        String a = new String("entity");
+        String b = new String("entity");
+        store.put(a, "{\"a\":1}");
+        assertThat(store.get(a), is((Object) "{\"a\":1}"));
+        assertThat(store.get(b), is(nullValue()));
+    }
+
+    @Test
+    public void self() throws Exception {
+        RawJSONStore store = new RawJSONStore(10);
+        Object json = new Object();
+        store.put(json, json);
+        assertThat(store.get(json), is(sameInstance(json)));
+    }
+
+    @Test
+    public void evictsOldest() throws Exception {
+        RawJSONStore store = new RawJSONStore(2);
+        Object first = new Object();
+        Object second = new Object();
+        Object third = new Object();
+        store.put(first, "1");
+        store.put(second, "2");
+        store.put(third, "3");
+        assertThat(store.size(), is(2));
+        assertThat(store.get(first), is(nullValue()));
+        assertThat(store.get(second), is((Object) "2"));
+        assertThat(store.get(third), is((Object) "3"));
+    }
+}
@@ -18,6 +18,9 @@ package facebook4j.internal.util;
 
 import org.junit.Test;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
@@ -69,4 +72,38 @@ public class z_F4JLRUCacheTest {
         assertThat(cache.get("key4"), is(nullValue()));
         assertThat(cache.get("key5"), is(notNullValue()));    //alive
     }
+
+    @Test
+    public void concurrentAccess() throws Exception {
+        final z_F4JLRUCache<String, String> cache = new z_F4JLRUCache<String, String>(10);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger errors = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            final int n = i;
+            threads[i] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < 10000; j++) {
+                            String key = "key" + ((n + j) % 20);
+                            cache.put(key, key);
+                            String value = cache.get(key);
+                            if (value != null && !value.equals(key)) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(errors.get(), is(0));
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.internal.util;
+
+import facebook4j.FacebookException;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class z_F4JTaskGroupTest {
+
+    @Test
+    public void nestedTasks() throws Exception {
+        final z_F4JTaskGroup group = new z_F4JTaskGroup(3, new z_F4JDaemonThreadFactory("test"));
+        final AtomicInteger ran = new AtomicInteger();
+        try {
+            for (int i = 0; i < 4; i++) {
+                group.submit(new z_F4JTaskGroup.Task() {
+                    public void run() {
+                        ran.incrementAndGet();
+                        for (int j = 0; j < 4; j++) {
+                            group.submit(new z_F4JTaskGroup.Task() {
+                                public void run() {
+                                    ran.incrementAndGet();
+                                }
+                            });
+                        }
+                    }
+                });
+            }
+            group.await();
+        } finally {
+            group.shutdown();
+        }
+        group.throwFailure();
+        assertThat(ran.get(), is(20));
+    }
+
+    @Test
+    public void firstFailureWins() throws Exception {
+        final z_F4JTaskGroup group = new z_F4JTaskGroup(1, new z_F4JDaemonThreadFactory("test"));
+        final FacebookException first = new FacebookException("first");
+        try {
+            group.submit(new z_F4JTaskGroup.Task() {
+                public void run() throws FacebookException {
+                    throw first;
+                }
+            });
+            group.submit(new z_F4JTaskGroup.Task() {
+                public void run() throws FacebookException {
+                    throw new FacebookException("second");
+                }
+            });
+            group.await();
+        } finally {
+            group.shutdown();
+        }
+        assertThat(group.isFailed(), is(true));
+        try {
+            group.throwFailure();
+            fail();
+        } catch (FacebookException fe) {
+            assertThat(fe, is(sameInstance(first)));
+        }
+    }
+
+    @Test
+    public void runtimeExceptionFailsTheGroup() throws Exception {
+        final z_F4JTaskGroup group = new z_F4JTaskGroup(1, new z_F4JDaemonThreadFactory("test"));
+        final IllegalStateException bug = new IllegalStateException("bug");
+        try {
+            group.submit(new z_F4JTaskGroup.Task() {
+                public void run() {
+                    throw bug;
+                }
+            });
+            group.await();
+        } finally {
+            group.shutdown();
+        }
+        try {
+            group.throwFailure();
+            fail();
+        } catch (FacebookException fe) {
+            assertThat(fe.getCause(), is((Throwable) bug));
+        }
+    }
+
+    @Test
+    public void submitAfterShutdownIsIgnored() throws Exception {
+        z_F4JTaskGroup group = new z_F4JTaskGroup(1, new z_F4JDaemonThreadFactory("test"));
+        group.shutdown();
+        final AtomicInteger ran = new AtomicInteger();
+        group.submit(new z_F4JTaskGroup.Task() {
+            public void run() {
+                ran.incrementAndGet();
+            }
+        });
+        group.await();
+        assertThat(ran.get(), is(0));
+        assertThat(group.isFailed(), is(false));
+    }
+
+    @Test
+    public void daemonThreads() throws Exception {
+        z_F4JDaemonThreadFactory factory = new z_F4JDaemonThreadFactory("facebook4j-test");
+        Thread thread = factory.newThread(new Runnable() {
+            public void run() {
+            }
+        });
+        assertThat(thread.isDaemon(), is(true));
+        assertThat(thread.getName(), is("facebook4j-test-1"));
+        assertThat(factory.newThread(thread).getName(), is("facebook4j-test-2"));
+    }
+}
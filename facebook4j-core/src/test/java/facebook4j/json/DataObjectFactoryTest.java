@@ -48,6 +48,25 @@ public class DataObjectFactoryTest {
         assertThat(rawJSON, is(notNullValue()));
     }
 
+    @Test
+    public void getRawJSONFromAnotherThread() throws Exception {
+        facebook.setMockJSON("mock_json/page/f4j.json");
+        final Page page = facebook.getPage();
+        facebook.setMockJSON("mock_json/user/me.json");
+        facebook.getMe();
+
+        final String[] rawJSON = new String[1];
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                rawJSON[0] = DataObjectFactory.getRawJSON(page);
+            }
+        });
+        thread.start();
+        thread.join();
+        assertThat(rawJSON[0], is(notNullValue()));
+        assertThat(DataObjectFactory.createPage(rawJSON[0]), is(page));
+    }
+
     @Test
     public void createPage() throws Exception {
         facebook.setMockJSON("mock_json/page/f4j.json");
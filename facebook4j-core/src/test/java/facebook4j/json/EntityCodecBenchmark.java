@@ -0,0 +1,118 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.json;
+
+import facebook4j.Post;
+import facebook4j.ResponseList;
+import facebook4j.internal.json.DataObjectFactoryUtil;
+import facebook4j.internal.org.json.JSONArray;
+import facebook4j.internal.org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares {@link EntityEncoder}/{@link EntityDecoder} with Java serialization and with re-parsing the raw JSON,
+ * on the posts of mock_json/post/feed.json.
+ * <pre>
+ * mvn test-compile && java -cp target/classes:target/test-classes facebook4j.json.EntityCodecBenchmark
+ * </pre>
+ */
+public class EntityCodecBenchmark {
+    private static final int WARMUP = 2000;
+    private static final int ITERATIONS = 10000;
+
+    public static void main(String[] args) throws Exception {
+        InputStream in = EntityCodecBenchmark.class.getResourceAsStream("/mock_json/post/feed.json");
+        ByteArrayOutputStream resource = new ByteArrayOutputStream();
+        byte[] chunk = new byte[4096];
+        for (int n; (n = in.read(chunk)) != -1; ) {
+            resource.write(chunk, 0, n);
+        }
+        in.close();
+        JSONArray data = new JSONObject(resource.toString("UTF-8")).getJSONArray("data");
+        final List<Post> posts = new ArrayList<Post>();
+        final List<String> rawJSONs = new ArrayList<String>();
+        for (int i = 0; i < data.length(); i++) {
+            JSONObject json = data.getJSONObject(i);
+            Post post = DataObjectFactoryUtil.createPost(json);
+            DataObjectFactoryUtil.retainJSON(post, json);
+            posts.add(post);
+            rawJSONs.add(json.toString());
+        }
+
+        run("Java serialization", new Task() {
+            public int run() throws Exception {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                ObjectOutputStream out = new ObjectOutputStream(bytes);
+                out.writeObject(new ArrayList<Post>(posts));
+                out.close();
+                ObjectInputStream oin = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+                oin.readObject();
+                return bytes.size();
+            }
+        });
+        run("raw JSON", new Task() {
+            public int run() throws Exception {
+                int size = 0;
+                for (String rawJSON : rawJSONs) {
+                    size += rawJSON.getBytes("UTF-8").length;
+                    DataObjectFactory.createPost(rawJSON);
+                }
+                return size;
+            }
+        });
+        run("EntityEncoder", new Task() {
+            public int run() throws Exception {
+                EntityEncoder encoder = new EntityEncoder();
+                for (Post post : posts) {
+                    encoder.write(post);
+                }
+                EntityDecoder decoder = new EntityDecoder(ByteBuffer.wrap(encoder.toByteArray()));
+                while (decoder.hasNext()) {
+                    decoder.next();
+                }
+                return encoder.size();
+            }
+        });
+    }
+
+    private interface Task {
+        /** @return encoded size in bytes */
+        int run() throws Exception;
+    }
+
+    private static void run(String name, Task task) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            task.run();
+        }
+        int size = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            size = task.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println(String.format("%-20s %8d bytes %10.1f us/round trip", name, size,
+                elapsed / 1000.0 / ITERATIONS));
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.json;
+
+import facebook4j.FacebookException;
+import facebook4j.MockFacebook;
+import facebook4j.MockFacebookFactory;
+import facebook4j.Post;
+import facebook4j.ResponseList;
+import facebook4j.User;
+import facebook4j.auth.AccessToken;
+import facebook4j.conf.ConfigurationBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static facebook4j.json.EntityCodec.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class EntityCodecTest {
+
+    private MockFacebook facebook;
+
+    @Before
+    public void setUp() throws Exception {
+        facebook = MockFacebookFactory.create(new ConfigurationBuilder().setEntityCodecEnabled(true).build());
+        facebook.setOAuthAppId("mock", "json");
+        facebook.setOAuthAccessToken(new AccessToken("required"));
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+        facebook.setMockJSON("mock_json/post/feed.json");
+        ResponseList<Post> feed = facebook.getFeed();
+        facebook.setMockJSON("mock_json/user/me.json");
+        User me = facebook.getMe();
+
+        EntityEncoder encoder = new EntityEncoder();
+        for (Post post : feed) {
+            encoder.write(post);
+        }
+        encoder.write(me);
+        assertThat(encoder.getCount(), is(feed.size() + 1));
+
+        EntityDecoder decoder = new EntityDecoder(encoder.toByteBuffer());
+        for (Post post : feed) {
+            Post actual = decoder.next(Post.class);
+            assertThat(actual, is(post));
+            assertThat(actual.toString(), is(post.toString()));
+        }
+        User actual = decoder.next(User.class);
+        assertThat(actual.toString(), is(me.toString()));
+        assertThat(decoder.hasNext(), is(false));
+    }
+
+    @Test
+    public void sharedStrings() throws Exception {
+        facebook.setMockJSON("mock_json/post/feed.json");
+        Post post = facebook.getFeed().get(0);
+
+        EntityEncoder encoder = new EntityEncoder();
+        encoder.write(post);
+        int first = encoder.size();
+        encoder.write(post);
+        assertThat(encoder.size() - first < first / 2, is(true));
+    }
+
+    @Test
+    public void retainJSON() throws Exception {
+        facebook.setMockJSON("mock_json/post/feed.json");
+        Post post = facebook.getFeed().get(0);
+        byte[] bytes = new EntityEncoder().write(post).toByteArray();
+
+        EntityDecoder decoder = new EntityDecoder(ByteBuffer.wrap(bytes));
+        Post decoded = decoder.next(Post.class);
+        try {
+            new EntityEncoder().write(decoded);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+
+        decoder = new EntityDecoder(ByteBuffer.wrap(bytes));
+        decoder.setRetainJSON(true);
+        decoded = decoder.next(Post.class);
+        assertThat(new EntityEncoder().write(decoded).toByteArray(), is(bytes));
+    }
+
+    @Test
+    public void independentOfJSONStore() throws Exception {
+        facebook.setMockJSON("mock_json/post/feed.json");
+        Post post = facebook.getFeed().get(0);
+        assertThat(new EntityEncoder().write(post).getCount(), is(1));
+
+        MockFacebook storeOnly = MockFacebookFactory.create(new ConfigurationBuilder().setJSONStoreEnabled(true).build());
+        storeOnly.setMockJSON("mock_json/post/feed.json");
+        try {
+            new EntityEncoder().write(storeOnly.getFeed().get(0));
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void nestedObjectsAreWrittenWithTheirParent() throws Exception {
+        facebook.setMockJSON("mock_json/post/feed.json");
+        Post post = null;
+        for (Post candidate : facebook.getFeed()) {
+            if (candidate.getComments() != null && candidate.getComments().size() > 0) {
+                post = candidate;
+                break;
+            }
+        }
+        assertThat(post, is(notNullValue()));
+        try {
+            new EntityEncoder().write(post.getComments().get(0));
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+
+        Post decoded = new EntityDecoder(new EntityEncoder().write(post).toByteBuffer()).next(Post.class);
+        assertThat(decoded.getComments().get(0), is(post.getComments().get(0)));
+    }
+
+    @Test
+    public void malformedLengths() throws Exception {
+        // an object claiming 2^32 - 1 fields, which would read as -1
+        assertMalformed(new byte[]{1, OBJECT, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F});
+        // an object whose first key is a string longer than the stream
+        assertMalformed(new byte[]{1, OBJECT, 1, 0, 0x7F});
+        // an object whose first key is a shared string never defined
+        assertMalformed(new byte[]{1, OBJECT, 1, 3});
+        // an array claiming more elements than bytes left
+        assertMalformed(new byte[]{1, OBJECT, 1, 0, 1, 'a', ARRAY, 5, NULL});
+    }
+
+    private static void assertMalformed(byte[] body) {
+        byte[] stream = new byte[MAGIC.length + 1 + body.length];
+        System.arraycopy(MAGIC, 0, stream, 0, MAGIC.length);
+        stream[MAGIC.length] = VERSION;
+        System.arraycopy(body, 0, stream, MAGIC.length + 1, body.length);
+        try {
+            new EntityDecoder(ByteBuffer.wrap(stream)).next();
+            fail("FacebookException expected");
+        } catch (FacebookException expected) {
+            assertThat(expected.getMessage(), is("Malformed entity stream"));
+        }
+    }
+
+    @Test(expected = FacebookException.class)
+    public void unsupportedVersion() throws Exception {
+        new EntityDecoder(ByteBuffer.wrap(new byte[]{'F', '4', 'J', 'B', 2}));
+    }
+
+    @Test(expected = FacebookException.class)
+    public void truncated() throws Exception {
+        facebook.setMockJSON("mock_json/post/feed.json");
+        byte[] bytes = new EntityEncoder().write(facebook.getFeed().get(0)).toByteArray();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, bytes.length - 3);
+        new EntityDecoder(buffer.slice()).next();
+    }
+}
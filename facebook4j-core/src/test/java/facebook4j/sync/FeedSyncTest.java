@@ -0,0 +1,199 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.sync;
+
+import facebook4j.FacebookException;
+import facebook4j.MockFacebook;
+import facebook4j.MockFacebookFactory;
+import facebook4j.Post;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static facebook4j.junit.URLMatchers.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class FeedSyncTest {
+    // 2013-08-06T10:36:10+0000, the newest updated_time in feed.json
+    private static final long NEWEST = 1375785370L;
+    // 2013-07-13T14:55:31+0000, the oldest one
+    private static final long OLDEST = 1373727331L;
+
+    private static class CollectingListener implements FeedSyncListener {
+        final List<Post> posts = new ArrayList<Post>();
+
+        public void onPost(String objectId, FeedEdge edge, Post post) {
+            posts.add(post);
+        }
+    }
+
+    @Test
+    public void incremental() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/post/feed_tail.json");
+        MemoryWatermarkStore store = new MemoryWatermarkStore();
+        FeedSync sync = new FeedSync(facebook, store);
+
+        CollectingListener listener = new CollectingListener();
+        assertThat(sync.sync("1234567890123456", FeedEdge.FEED, listener), is(2));
+        assertThat(listener.posts.size(), is(2));
+        assertThat(facebook.getEndpointURL(), is(pathOf("/1234567890123456/feed")));
+        assertThat(facebook.getEndpointURL(), hasParameter("limit", "25"));
+        assertThat(sync.getWatermark("1234567890123456", FeedEdge.FEED), is(OLDEST));
+
+        // the same window again: only the boundary post passes the watermark, and the seen filter drops it
+        assertThat(sync.sync("1234567890123456", FeedEdge.FEED, listener), is(0));
+        assertThat(facebook.getEndpointURL(), hasParameter("since", String.valueOf(OLDEST)));
+
+        // the seen filter is stored with the watermark, so it survives a restart
+        FeedSync restarted = new FeedSync(facebook, store);
+        assertThat(restarted.sync("1234567890123456", FeedEdge.FEED, listener), is(0));
+    }
+
+    @Test
+    public void truncatedRunKeepsWatermark() throws Exception {
+        MockFacebook facebook = MockFacebookFactory.create();
+        facebook.setMockJSON("mock_json/post/feed.json");
+        MemoryWatermarkStore store = new MemoryWatermarkStore();
+        FeedSync sync = new FeedSync(facebook, store);
+        sync.setMaxPages(1);
+
+        CollectingListener listener = new CollectingListener();
+        assertThat(sync.sync("1234567890123456", FeedEdge.FEED, listener), is(6));
+        SyncState state = store.getState("1234567890123456", "feed");
+        assertThat(state.getWatermark(), is(-1L));
+        assertThat(state.getPendingWatermark(), is(NEWEST));
+        assertThat(state.getCursor(), is(OLDEST));
+
+        // reads on below the cursor; the boundary post was delivered already
+        facebook.setMockJSON("mock_json/post/feed_tail.json");
+        assertThat(sync.sync("1234567890123456", FeedEdge.FEED, listener), is(1));
+        assertThat(facebook.getEndpointURL(), hasParameter("until", String.valueOf(OLDEST)));
+        assertThat(listener.posts.get(6).getId(), is("1234567890123456_500000000000007"));
+        state = store.getState("1234567890123456", "feed");
+        assertThat(state.getWatermark(), is(NEWEST));
+        assertThat(state.isResuming(), is(false));
+
+        assertThat(sync.sync("1234567890123456", FeedEdge.FEED, listener), is(0));
+        assertThat(facebook.getEndpointURL(), hasParameter("since", String.valueOf(NEWEST)));
+    }
+
+    @Test
+    public void fileWatermarkStore() throws Exception {
+        File file = File.createTempFile("watermarks", ".properties");
+        file.delete();
+        try {
+            FileWatermarkStore store = new FileWatermarkStore(file);
+            assertThat(store.getState("1", "feed"), is(nullValue()));
+            SeenFilter seen = FeedSync.newSeenFilter();
+            seen.put("1_1@1234");
+            store.setState("1", "feed", new SyncState(1234L, -1, -1, seen));
+            store.setState("1", "posts", new SyncState(-1, 5678L, 4321L, FeedSync.newSeenFilter()));
+
+            FileWatermarkStore reloaded = new FileWatermarkStore(file);
+            SyncState feed = reloaded.getState("1", "feed");
+            assertThat(feed.getWatermark(), is(1234L));
+            assertThat(feed.isResuming(), is(false));
+            assertThat(feed.getSeenFilter().mightContain("1_1@1234"), is(true));
+            assertThat(feed.getSeenFilter().mightContain("1_2@1234"), is(false));
+            SyncState posts = reloaded.getState("1", "posts");
+            assertThat(posts.getWatermark(), is(-1L));
+            assertThat(posts.getPendingWatermark(), is(5678L));
+            assertThat(posts.getCursor(), is(4321L));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void failedWatermarkUpdateKeepsFile() throws Exception {
+        File file = File.createTempFile("watermarks", ".properties");
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            FileWatermarkStore store = new FileWatermarkStore(file);
+            store.setState("1", "feed", new SyncState(1234L, -1, -1, FeedSync.newSeenFilter()));
+            // a directory in the way of the temporary file
+            assertThat(tmp.mkdir(), is(true));
+            try {
+                store.setState("1", "feed", new SyncState(5678L, -1, -1, FeedSync.newSeenFilter()));
+                fail("FacebookException expected");
+            } catch (FacebookException expected) {
+            }
+            assertThat(new FileWatermarkStore(file).getState("1", "feed").getWatermark(), is(1234L));
+        } finally {
+            tmp.delete();
+            file.delete();
+        }
+    }
+
+    @Test
+    public void restoresWatermarksMovedAside() throws Exception {
+        File file = File.createTempFile("watermarks", ".properties");
+        File old = new File(file.getPath() + ".old");
+        try {
+            new FileWatermarkStore(file).setState("1", "feed", new SyncState(1234L, -1, -1, FeedSync.newSeenFilter()));
+            // interrupted between moving the file aside and moving the new one in
+            assertThat(file.renameTo(old), is(true));
+
+            assertThat(new FileWatermarkStore(file).getState("1", "feed").getWatermark(), is(1234L));
+            assertThat(file.exists(), is(true));
+            assertThat(old.exists(), is(false));
+        } finally {
+            old.delete();
+            file.delete();
+        }
+    }
+
+    @Test
+    public void seenFilter() throws Exception {
+        SeenFilter filter = new SeenFilter(1000, 0.01);
+        int collisions = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (!filter.put("post" + i)) {
+                collisions++;
+            }
+        }
+        assertThat(collisions < 30, is(true));
+        for (int i = 0; i < 1000; i++) {
+            assertThat(filter.mightContain("post" + i), is(true));
+            assertThat(filter.put("post" + i), is(false));
+        }
+        int falsePositives = 0;
+        for (int i = 1000; i < 11000; i++) {
+            if (filter.mightContain("post" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives < 300, is(true));
+    }
+
+    @Test
+    public void encodeSeenFilter() throws Exception {
+        SeenFilter filter = new SeenFilter(100, 0.01);
+        for (int i = 0; i < 150; i++) {
+            filter.put("post" + i);
+        }
+        SeenFilter decoded = SeenFilter.decode(filter.encode());
+        for (int i = 0; i < 150; i++) {
+            assertThat(decoded.mightContain("post" + i), is(true));
+        }
+        assertThat(decoded.encode(), is(filter.encode()));
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2012 Ryuji Yamashita
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package facebook4j.webhook;
+
+import facebook4j.auth.OAuthAuthorization;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+public class WebhookServerTest {
+    private static final String APP_SECRET = "app-secret";
+
+    private static final String NOTIFICATION = "{\"object\":\"page\",\"entry\":[{\"id\":\"1234\",\"time\":1400000000,\"changes\":["
+            + "{\"field\":\"feed\",\"value\":{\"item\":\"status\",\"verb\":\"add\",\"post_id\":\"1234_1\",\"sender_id\":5678,\"message\":\"hello\"}},"
+            + "{\"field\":\"feed\",\"value\":{\"item\":\"comment\",\"verb\":\"add\",\"post_id\":\"1234_1\",\"comment_id\":\"1_2\",\"parent_id\":\"1234_1\",\"message\":\"nice\"}},"
+            + "{\"field\":\"name\",\"value\":{\"page\":1234,\"old\":\"before\",\"new\":\"after\"}}"
+            + "]}]}";
+
+    private final List<WebhookEvent> events = Collections.synchronizedList(new ArrayList<WebhookEvent>());
+    private final CountDownLatch received = new CountDownLatch(3);
+    private Webhook webhook;
+    private WebhookServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        webhook = new Webhook(APP_SECRET, "verify-me", new WebhookAdapter() {
+            @Override
+            public void onFeed(FeedEvent event) {
+                events.add(event);
+                received.countDown();
+            }
+
+            @Override
+            public void onComment(CommentEvent event) {
+                events.add(event);
+                received.countDown();
+            }
+
+            @Override
+            public void onChange(WebhookEvent event) {
+                events.add(event);
+                received.countDown();
+            }
+        }, 2);
+        server = new WebhookServer(0, "/webhook", webhook);
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.stop();
+        webhook.shutdown();
+    }
+
+    @Test
+    public void verification() throws Exception {
+        HttpURLConnection con = open("/webhook?hub.mode=subscribe&hub.verify_token=verify-me&hub.challenge=12345");
+        assertThat(con.getResponseCode(), is(200));
+        assertThat(read(con), is("12345"));
+
+        con = open("/webhook?hub.mode=subscribe&hub.verify_token=wrong&hub.challenge=12345");
+        assertThat(con.getResponseCode(), is(403));
+    }
+
+    @Test
+    public void notification() throws Exception {
+        byte[] body = NOTIFICATION.getBytes("UTF-8");
+        String signature = "sha256=" + OAuthAuthorization.hmacHex(OAuthAuthorization.HMAC_SHA_256, APP_SECRET, body);
+        assertThat(post(body, "X-Hub-Signature-256", signature), is(200));
+        assertThat(received.await(5, TimeUnit.SECONDS), is(true));
+
+        assertThat(events.size(), is(3));
+        FeedEvent feed = null;
+        CommentEvent comment = null;
+        WebhookEvent change = null;
+        for (WebhookEvent event : events) {
+            if (event instanceof FeedEvent) {
+                feed = (FeedEvent) event;
+            } else if (event instanceof CommentEvent) {
+                comment = (CommentEvent) event;
+            } else {
+                change = event;
+            }
+        }
+        assertThat(feed.getId(), is("1234"));
+        assertThat(feed.getItem(), is("status"));
+        assertThat(feed.getPostId(), is("1234_1"));
+        assertThat(feed.getSenderId(), is("5678"));
+        assertThat(feed.getTime().getTime(), is(1400000000000L));
+        assertThat(comment.getCommentId(), is("1_2"));
+        assertThat(comment.getMessage(), is("nice"));
+        assertThat(change.getField(), is("name"));
+    }
+
+    @Test
+    public void sha1Signature() throws Exception {
+        byte[] body = NOTIFICATION.getBytes("UTF-8");
+        String signature = "sha1=" + OAuthAuthorization.hmacHex(OAuthAuthorization.HMAC_SHA_1, APP_SECRET, body);
+        assertThat(post(body, "X-Hub-Signature", signature), is(200));
+    }
+
+    @Test
+    public void invalidSignature() throws Exception {
+        byte[] body = NOTIFICATION.getBytes("UTF-8");
+        String signature = "sha256=" + OAuthAuthorization.hmacHex(OAuthAuthorization.HMAC_SHA_256, "other-secret", body);
+        assertThat(post(body, "X-Hub-Signature-256", signature), is(403));
+        assertThat(post(body, "X-Hub-Signature-256", null), is(403));
+        assertThat(events.size(), is(0));
+    }
+
+    @Test
+    public void malformedRequest() throws Exception {
+        assertThat(raw("POST /webhook HTTP/1.1\r\nContent-Length: ten\r\n\r\n"), is("HTTP/1.1 400 Bad Request"));
+        assertThat(raw("GET /webhook?hub.mode=%zz HTTP/1.1\r\n\r\n"), is("HTTP/1.1 400 Bad Request"));
+    }
+
+    @Test
+    public void tooManyHeaders() throws Exception {
+        StringBuilder request = new StringBuilder("GET /webhook HTTP/1.1\r\n");
+        for (int i = 0; i <= 100; i++) {
+            request.append("X-Header-").append(i).append(": ").append(i).append("\r\n");
+        }
+        request.append("\r\n");
+        assertThat(raw(request.toString()), is("HTTP/1.1 431 Request Header Fields Too Large"));
+    }
+
+    @Test
+    public void stopAndRestart() throws Exception {
+        int port = server.getPort();
+        server.stop();
+        server.stop();
+        server = new WebhookServer(port, "/webhook", webhook);
+        server.start();
+        HttpURLConnection con = open("/webhook?hub.mode=subscribe&hub.verify_token=verify-me&hub.challenge=1");
+        assertThat(con.getResponseCode(), is(200));
+    }
+
+    private String raw(String request) throws Exception {
+        Socket socket = new Socket("localhost", server.getPort());
+        try {
+            socket.getOutputStream().write(request.getBytes("ISO-8859-1"));
+            socket.getOutputStream().flush();
+            return new BufferedReader(new InputStreamReader(socket.getInputStream(), "ISO-8859-1")).readLine();
+        } finally {
+            socket.close();
+        }
+    }
+
+    private HttpURLConnection open(String path) throws Exception {
+        return (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+    }
+
+    private int post(byte[] body, String header, String signature) throws Exception {
+        HttpURLConnection con = open("/webhook");
+        con.setRequestMethod("POST");
+        con.setDoOutput(true);
+        con.setRequestProperty("Content-Type", "application/json");
+        if (signature != null) {
+            con.setRequestProperty(header, signature);
+        }
+        OutputStream os = con.getOutputStream();
+        os.write(body);
+        os.close();
+        return con.getResponseCode();
+    }
+
+    private static String read(HttpURLConnection con) throws Exception {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(con.getInputStream(), "UTF-8"));
+        try {
+            return reader.readLine();
+        } finally {
+            reader.close();
+        }
+    }
+}